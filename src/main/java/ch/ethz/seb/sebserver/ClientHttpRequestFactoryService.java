@@ -66,6 +66,7 @@ public class ClientHttpRequestFactoryService {
     private final int connectTimeout;
     private final int connectionRequestTimeout;
     private final int readTimeout;
+    private final int maxConnectionsPerRoute;
 
     private final Environment environment;
     private final ClientCredentialService clientCredentialService;
@@ -75,13 +76,15 @@ public class ClientHttpRequestFactoryService {
             final ClientCredentialService clientCredentialService,
             @Value("${sebserver.http.client.connect-timeout:15000}") final int connectTimeout,
             @Value("${sebserver.http.client.connection-request-timeout:20000}") final int connectionRequestTimeout,
-            @Value("${sebserver.http.client.read-timeout:10000}") final int readTimeout) {
+            @Value("${sebserver.http.client.read-timeout:10000}") final int readTimeout,
+            @Value("${sebserver.http.client.max-connections-per-route:10}") final int maxConnectionsPerRoute) {
 
         this.environment = environment;
         this.clientCredentialService = clientCredentialService;
         this.connectTimeout = connectTimeout;
         this.connectionRequestTimeout = connectionRequestTimeout;
         this.readTimeout = readTimeout;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
     }
 
     public Result<ClientHttpRequestFactory> getClientHttpRequestFactory() {
@@ -212,6 +215,7 @@ public class ClientHttpRequestFactoryService {
 
             final HttpClient client = HttpClients.custom()
                     .setSSLContext(sslContext)
+                    .setMaxConnPerRoute(this.maxConnectionsPerRoute)
                     .build();
             final HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(client);
             factory.setConnectionRequestTimeout(this.connectionRequestTimeout);
@@ -231,6 +235,7 @@ public class ClientHttpRequestFactoryService {
                 .custom()
                 .useSystemProperties()
                 .setProxy(httpHost)
+                .setMaxConnPerRoute(this.maxConnectionsPerRoute)
 
                 .setDefaultRequestConfig(RequestConfig
                         .custom()
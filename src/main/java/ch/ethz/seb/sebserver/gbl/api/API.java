@@ -93,6 +93,10 @@ public final class API {
 
     public static final String EXAM_API_EVENT_ENDPOINT = "/seblog";
 
+    public static final String EXAM_API_EVENT_BATCH_ENDPOINT = EXAM_API_EVENT_ENDPOINT + "/batch";
+
+    public static final String EXAM_API_EVENT_BATCH_NDJSON_VALUE = "application/x-ndjson";
+
     // *************************
     // ** Domain Object API
     // *************************
@@ -160,6 +164,8 @@ public final class API {
     public static final String EXAM_MONITORING_SEB_CONNECTION_TOKEN_PATH_SEGMENT =
             "/{" + EXAM_API_SEB_CONNECTION_TOKEN + "}";
     public static final String EXAM_MONITORING_STATE_FILTER = "hidden-states";
+    public static final String EXAM_MONITORING_CHANGES_ENDPOINT = "/changes";
+    public static final String EXAM_MONITORING_SINCE_VERSION = "since-version";
 
     public static final String SEB_CLIENT_CONNECTION_ENDPOINT = "/seb-client-connection";
 
@@ -70,6 +70,38 @@ public class AsyncService {
             final boolean momoized,
             final long maxMemoizingTime) {
 
+        return createMemoizingCircuitBreaker(
+                blockingSupplier,
+                maxFailingAttempts,
+                maxBlockingTime,
+                timeToRecover,
+                momoized,
+                maxMemoizingTime,
+                0);
+    }
+
+    /** Create a MemoizingCircuitBreaker of specified type that memoize a successful result and serves the memoized
+     * result as long as maxMemoizingTime is not exceeded. A memoized result that is older then maxFreshnessTime
+     * is refreshed asynchronously in the background while it is still served.
+     *
+     * @param blockingSupplier the blocking result supplier that the MemoizingCircuitBreaker must call
+     * @param maxFailingAttempts maximal number of attempts the CircuitBreaker allows before going onto open state.
+     * @param maxBlockingTime maximal time since call CircuitBreaker waits for a response before going onto open state.
+     * @param timeToRecover the time the CircuitBreaker takes to recover form open state.
+     * @param momoized whether the memoizing functionality is on or off
+     * @param maxMemoizingTime the maximal time memorized data is valid
+     * @param maxFreshnessTime the time memorized data is served without refresh
+     * @param <T> the type of the CircuitBreaker
+     * @return  a CircuitBreaker of specified type */
+    public <T> MemoizingCircuitBreaker<T> createMemoizingCircuitBreaker(
+            final Supplier<T> blockingSupplier,
+            final int maxFailingAttempts,
+            final long maxBlockingTime,
+            final long timeToRecover,
+            final boolean momoized,
+            final long maxMemoizingTime,
+            final long maxFreshnessTime) {
+
         return new MemoizingCircuitBreaker<>(
                 this.asyncRunner,
                 blockingSupplier,
@@ -77,7 +109,16 @@ public class AsyncService {
                 maxBlockingTime,
                 timeToRecover,
                 momoized,
-                maxMemoizingTime);
+                maxMemoizingTime,
+                maxFreshnessTime);
+    }
+
+    /** Runs the given block asynchronously on the asynchronous executor of the service.
+     *
+     * @param block the block to run asynchronously
+     * @throws org.springframework.core.task.TaskRejectedException if the executor has no capacity left */
+    public void runAsync(final Runnable block) {
+        this.asyncRunner.runAsync(block);
     }
 
 }
@@ -51,6 +51,23 @@ public class AsyncServiceSpringConfig implements AsyncConfigurer {
         return executor;
     }
 
+    public static final String LMS_QUIZ_REQUEST_EXECUTOR_BEAN_NAME = "LmsQuizRequestExecutorBean";
+
+    /** Executor for the concurrent quiz requests on all LMS setups of an institution. This is separated
+     * from the AsyncServiceExecutorBean that runs the tasks of the LMS API templates so that the quiz
+     * requests cannot block the tasks they are waiting for. */
+    @Bean(name = LMS_QUIZ_REQUEST_EXECUTOR_BEAN_NAME)
+    public Executor lmsQuizRequestThreadPoolTaskExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(10);
+        executor.setMaxPoolSize(100);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("lmsQuizRequest-");
+        executor.initialize();
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
     @Override
     public Executor getAsyncExecutor() {
         return threadPoolTaskExecutor();
@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.gbl.async;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -41,22 +42,38 @@ import ch.ethz.seb.sebserver.gbl.util.Result;
  * <p>
  * This circuit breaker implementation comes with a memoizing functionality where on successful calls the result get
  * cached and the circuit breaker respond on error cases with the cached result if available.
- *
+ * <p>
+ * If a freshness time is given, the memoized result is served without calling the supplier as long as it is not
+ * older than the maximal memoizing time. If the memoized result is older than the freshness time, a single
+ * asynchronous refresh is triggered in the background while the memoized result is still served. Calls that come in
+ * while a refresh is running do not trigger another one.
  *
  * @param <T> The of the result of the supplying function */
 public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
 
-    // TODO considering invalidation time for memoizing
-
     private static final Logger log = LoggerFactory.getLogger(MemoizingCircuitBreaker.class);
 
+    /** The state of the memoized result */
+    public enum CacheState {
+        /** There is no memoized result yet */
+        EMPTY,
+        /** The memoized result is not older than the freshness time */
+        FRESH,
+        /** The memoized result is older than the freshness time but still valid */
+        STALE,
+        /** The memoized result is older than the maximal memoizing time */
+        EXPIRED
+    }
+
+    private final AsyncRunner asyncRunner;
     private final CircuitBreaker<T> delegate;
     private final Supplier<T> supplier;
 
     private final boolean memoizing;
     private final long maxMemoizingTime;
-    private long lastMemoizingTime = 0;
-    private Result<T> cached = null;
+    private final long maxFreshnessTime;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private volatile Memoized<T> memoized = null;
 
     /** Create new CircuitBreakerSupplier.
      *
@@ -70,10 +87,12 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
             final boolean memoizing,
             final long maxMemoizingTime) {
 
+        this.asyncRunner = asyncRunner;
         this.delegate = new CircuitBreaker<>(asyncRunner);
         this.supplier = supplier;
         this.memoizing = memoizing;
         this.maxMemoizingTime = maxMemoizingTime;
+        this.maxFreshnessTime = 0;
     }
 
     public CircuitBreaker<T> getDelegate() {
@@ -88,8 +107,44 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
         return this.maxMemoizingTime;
     }
 
+    public long getMaxFreshnessTime() {
+        return this.maxFreshnessTime;
+    }
+
     public long getLastMemoizingTime() {
-        return this.lastMemoizingTime;
+        final Memoized<T> memoized = this.memoized;
+        return (memoized != null) ? memoized.time : 0;
+    }
+
+    /** Get the age of the memoized result.
+     *
+     * @return the time in milliseconds since the result was memoized or -1 if there is no memoized result */
+    public long getCacheAge() {
+        final Memoized<T> memoized = this.memoized;
+        return (memoized != null) ? System.currentTimeMillis() - memoized.time : -1;
+    }
+
+    /** Get the state of the memoized result.
+     *
+     * @return the CacheState of the memoized result */
+    public CacheState getCacheState() {
+        final long age = getCacheAge();
+        if (age < 0) {
+            return CacheState.EMPTY;
+        } else if (age > this.maxMemoizingTime) {
+            return CacheState.EXPIRED;
+        } else if (this.maxFreshnessTime > 0 && age > this.maxFreshnessTime) {
+            return CacheState.STALE;
+        } else {
+            return CacheState.FRESH;
+        }
+    }
+
+    /** Indicates whether an asynchronous refresh of a stale memoized result is running
+     *
+     * @return true if an asynchronous refresh of a stale memoized result is running */
+    public boolean isRefreshing() {
+        return this.refreshing.get();
     }
 
     /** Create new CircuitBreakerSupplier.
@@ -101,7 +156,9 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
      * @param timeToRecover the time the circuit breaker needs to cool-down on OPEN-STATE before going back to HALF_OPEN
      *            state
      * @param memoizing whether the memoizing functionality is on or off
-     * @param maxMemoizingTime the maximal time memorized data is valid */
+     * @param maxMemoizingTime the maximal time memorized data is valid
+     * @param maxFreshnessTime the time memorized data is served without refresh. If this is zero or less the
+     *            supplier is called on every call and memorized data is only served on error */
     MemoizingCircuitBreaker(
             final AsyncRunner asyncRunner,
             final Supplier<T> supplier,
@@ -109,8 +166,10 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
             final long maxBlockingTime,
             final long timeToRecover,
             final boolean memoizing,
-            final long maxMemoizingTime) {
+            final long maxMemoizingTime,
+            final long maxFreshnessTime) {
 
+        this.asyncRunner = asyncRunner;
         this.delegate = new CircuitBreaker<>(
                 asyncRunner,
                 maxFailingAttempts,
@@ -119,15 +178,68 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
         this.supplier = supplier;
         this.memoizing = memoizing;
         this.maxMemoizingTime = maxMemoizingTime;
+        this.maxFreshnessTime = maxFreshnessTime;
     }
 
     @Override
     public Result<T> get() {
+        final Memoized<T> memoized = this.memoized;
+        if (this.memoizing && this.maxFreshnessTime > 0 && memoized != null) {
+            final long age = System.currentTimeMillis() - memoized.time;
+            if (age <= this.maxMemoizingTime) {
+                if (age > this.maxFreshnessTime) {
+                    refreshAsync();
+                }
+                return memoized.result;
+            }
+        }
+
+        return load();
+    }
+
+    public State getState() {
+        return this.delegate.getState();
+    }
+
+    public T getCached() {
+        final Memoized<T> memoized = this.memoized;
+        if (memoized == null) {
+            return null;
+        }
+
+        return memoized.result.get();
+    }
+
+    private void refreshAsync() {
+        if (!this.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Refresh stale memoized result at: {}", System.currentTimeMillis());
+        }
+
+        try {
+            this.asyncRunner.runAsync(() -> {
+                try {
+                    load();
+                } finally {
+                    this.refreshing.set(false);
+                }
+            });
+        } catch (final Exception e) {
+            log.warn("Failed to refresh stale memoized result: {}", e.getMessage());
+            this.refreshing.set(false);
+        }
+    }
+
+    private Result<T> load() {
         final Result<T> result = this.delegate.protectedRun(this.supplier);
         if (result.hasError()) {
-            if (this.memoizing && this.cached != null) {
+            final Memoized<T> memoized = this.memoized;
+            if (this.memoizing && memoized != null) {
                 final long currentTimeMillis = System.currentTimeMillis();
-                if (currentTimeMillis - this.lastMemoizingTime > this.maxMemoizingTime) {
+                if (currentTimeMillis - memoized.time > this.maxMemoizingTime) {
                     if (log.isDebugEnabled()) {
                         log.warn("Max memoizing time reached. Return cached. Error: {}",
                                 result.getError().getMessage());
@@ -138,7 +250,7 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
                 log.warn("Return cached at: {} error: {}",
                         System.currentTimeMillis(),
                         result.getError().getMessage());
-                return this.cached;
+                return memoized.result;
             }
 
         } else {
@@ -147,23 +259,22 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
                     log.debug("Memoizing result at: {}", System.currentTimeMillis());
                 }
 
-                this.cached = result;
-                this.lastMemoizingTime = System.currentTimeMillis();
+                this.memoized = new Memoized<>(result, System.currentTimeMillis());
             }
         }
         return result;
     }
 
-    public State getState() {
-        return this.delegate.getState();
-    }
+    /** A memoized result together with the time it was memoized */
+    private static final class Memoized<T> {
 
-    public T getCached() {
-        if (this.cached == null) {
-            return null;
-        }
+        final Result<T> result;
+        final long time;
 
-        return this.cached.get();
+        Memoized(final Result<T> result, final long time) {
+            this.result = result;
+            this.time = time;
+        }
     }
 
 }
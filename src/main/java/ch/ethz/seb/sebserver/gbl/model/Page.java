@@ -18,6 +18,12 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 
 /** Data class that defines a Page that corresponds with the SEB Server API page JSON object
+ * <p>
+ * For large tables some endpoints also support cursor based paging. A page request with a cursor
+ * parameter gets the page after the position given by the cursor. The cursor of the response refers to
+ * the next page or is null if there is no next page. A cursor that is not the cursor of a former page,
+ * like FIRST_PAGE_CURSOR, requests the first page. On cursor based paging the number of pages is
+ * an approximation that is calculated on the first page only or null if the count was not requested.
  *
  * @param <T> The type of a page entry entity */
 public final class Page<T> {
@@ -28,6 +34,10 @@ public final class Page<T> {
     public static final String ATTR_PAGE_SIZE = "page_size";
     public static final String ATTR_SORT = "sort";
     public static final String ATTR_CONTENT = "content";
+    public static final String ATTR_CURSOR = "cursor";
+    public static final String ATTR_COUNT = "count";
+
+    public static final String FIRST_PAGE_CURSOR = "first";
 
     @JsonProperty(ATTR_NUMBER_OF_PAGES)
     public final Integer numberOfPages;
@@ -40,19 +50,32 @@ public final class Page<T> {
 
     @JsonProperty(ATTR_CONTENT)
     public final List<T> content;
+    @JsonProperty(ATTR_CURSOR)
+    public final String cursor;
+
+    public Page(
+            final Integer numberOfPages,
+            final Integer pageNumber,
+            final String sort,
+            final Collection<T> content) {
+
+        this(numberOfPages, pageNumber, sort, content, null);
+    }
 
     @JsonCreator
     public Page(
             @JsonProperty(ATTR_NUMBER_OF_PAGES) final Integer numberOfPages,
             @JsonProperty(ATTR_PAGE_NUMBER) final Integer pageNumber,
             @JsonProperty(ATTR_SORT) final String sort,
-            @JsonProperty(ATTR_CONTENT) final Collection<T> content) {
+            @JsonProperty(ATTR_CONTENT) final Collection<T> content,
+            @JsonProperty(ATTR_CURSOR) final String cursor) {
 
         this.numberOfPages = numberOfPages;
         this.pageNumber = pageNumber;
         this.content = Utils.immutableListOf(content);
         this.pageSize = content.size();
         this.sort = sort;
+        this.cursor = cursor;
     }
 
     public int getNumberOfPages() {
@@ -71,6 +94,15 @@ public final class Page<T> {
         return this.content;
     }
 
+    public String getCursor() {
+        return this.cursor;
+    }
+
+    @JsonIgnore
+    public boolean hasNumberOfPages() {
+        return this.numberOfPages != null;
+    }
+
     @JsonIgnore
     public boolean isEmpty() {
         return this.content == null || this.content.isEmpty();
@@ -87,6 +119,8 @@ public final class Page<T> {
         builder.append(this.pageSize);
         builder.append(", sort=");
         builder.append(this.sort);
+        builder.append(", cursor=");
+        builder.append(this.cursor);
         builder.append(", content=");
         builder.append(this.content);
         builder.append("]");
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.gbl.model.session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+
+/** The changes of the connection data of the client connections of a running exam since a given version.
+ * <p>
+ * If full is true, the changed list contains the connection data of all client connections and the receiver
+ * shall replace its data with it. Otherwise the changed list contains only the connection data of the client
+ * connections that has changed since the requested version and removed contains the identifiers of the client
+ * connections that has been removed or are hidden by the requested filter since then.
+ * <p>
+ * The ping indicator value changes continuously but a client connection is only reported as changed
+ * on a threshold level change of the ping indicator. Therefore pingValues contains the current ping indicator
+ * value of all other client connections of the response that has a ping indicator, mapped by connection
+ * identifier. This keeps the ping values up to date without sending the whole connection data.
+ * <p>
+ * The version is an opaque cursor that shall be send back on the next request to get the next changes. */
+public final class ClientConnectionDataChanges {
+
+    public static final String ATTR_VERSION = "version";
+    public static final String ATTR_FULL = "full";
+    public static final String ATTR_CHANGED = "changed";
+    public static final String ATTR_REMOVED = "removed";
+    public static final String ATTR_PING_VALUES = "pingValues";
+
+    @JsonProperty(ATTR_VERSION)
+    public final String version;
+    @JsonProperty(ATTR_FULL)
+    public final boolean full;
+    @JsonProperty(ATTR_CHANGED)
+    public final List<ClientConnectionData> changed;
+    @JsonProperty(ATTR_REMOVED)
+    public final List<Long> removed;
+    @JsonProperty(ATTR_PING_VALUES)
+    public final Map<Long, Double> pingValues;
+
+    @JsonCreator
+    public ClientConnectionDataChanges(
+            @JsonProperty(ATTR_VERSION) final String version,
+            @JsonProperty(ATTR_FULL) final boolean full,
+            @JsonProperty(ATTR_CHANGED) final Collection<ClientConnectionData> changed,
+            @JsonProperty(ATTR_REMOVED) final Collection<Long> removed,
+            @JsonProperty(ATTR_PING_VALUES) final Map<Long, Double> pingValues) {
+
+        this.version = version;
+        this.full = full;
+        this.changed = Utils.immutableListOf(changed);
+        this.removed = Utils.immutableListOf(removed);
+        this.pingValues = Utils.immutableMapOf(pingValues);
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public boolean isFull() {
+        return this.full;
+    }
+
+    public List<ClientConnectionData> getChanged() {
+        return this.changed;
+    }
+
+    public List<Long> getRemoved() {
+        return this.removed;
+    }
+
+    public Map<Long, Double> getPingValues() {
+        return this.pingValues;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("ClientConnectionDataChanges [version=");
+        builder.append(this.version);
+        builder.append(", full=");
+        builder.append(this.full);
+        builder.append(", changed=");
+        builder.append(this.changed.size());
+        builder.append(", removed=");
+        builder.append(this.removed);
+        builder.append(", pingValues=");
+        builder.append(this.pingValues.size());
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
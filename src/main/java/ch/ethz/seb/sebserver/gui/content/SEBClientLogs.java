@@ -118,6 +118,7 @@ public class SEBClientLogs implements TemplateComposer {
                 this.restService.getRestCall(GetExtendedClientEventPage.class))
                 .withEmptyMessage(EMPTY_TEXT_KEY)
                 .withPaging(this.pageSize)
+                .withCursorPaging(Domain.CLIENT_EVENT.ATTR_SERVER_TIME)
 
                 .withColumn(new ColumnDefinition<>(
                         Domain.CLIENT_CONNECTION.ATTR_EXAM_ID,
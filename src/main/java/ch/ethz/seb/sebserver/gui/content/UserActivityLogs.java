@@ -157,6 +157,7 @@ public class UserActivityLogs implements TemplateComposer {
                 restService.getRestCall(GetUserLogPage.class))
                 .withEmptyMessage(EMPTY_TEXT_KEY)
                 .withPaging(this.pageSize)
+                .withCursorPaging(Domain.USER_ACTIVITY_LOG.ATTR_TIMESTAMP)
 
                 .withColumnIf(
                         isSEBAdmin,
@@ -52,6 +52,7 @@ import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataChanges;
 import ch.ethz.seb.sebserver.gbl.model.session.IndicatorValue;
 import ch.ethz.seb.sebserver.gbl.util.Tuple;
 import ch.ethz.seb.sebserver.gui.service.ResourceService;
@@ -88,7 +89,7 @@ public final class ClientConnectionTable {
     private final WidgetFactory widgetFactory;
     private final ResourceService resourceService;
     private final Exam exam;
-    private final RestCall<Collection<ClientConnectionData>>.RestCallBuilder restCallBuilder;
+    private final RestCall<ClientConnectionDataChanges>.RestCallBuilder restCallBuilder;
     private final EnumMap<IndicatorType, IndicatorData> indicatorMapping;
     private final Table table;
     private final ColorData colorData;
@@ -107,13 +108,15 @@ public final class ClientConnectionTable {
     private final Color lightFontColor;
 
     private boolean forceUpdateAll = false;
+    /** The version cursor of the last connection data update or null if a full update is needed */
+    private String version = null;
 
     public ClientConnectionTable(
             final PageService pageService,
             final Composite tableRoot,
             final Exam exam,
             final Collection<Indicator> indicators,
-            final RestCall<Collection<ClientConnectionData>>.RestCallBuilder restCallBuilder) {
+            final RestCall<ClientConnectionDataChanges>.RestCallBuilder restCallBuilder) {
 
         this.widgetFactory = pageService.getWidgetFactory();
         this.resourceService = pageService.getResourceService();
@@ -296,38 +299,63 @@ public final class ClientConnectionTable {
     }
 
     public void updateValues() {
-        if (this.statusFilterChanged) {
-            this.toDelete.clear();
-            this.toDelete.addAll(this.tableMapping.keySet());
-        }
-        this.restCallBuilder
+        final boolean fullUpdate = this.statusFilterChanged || this.forceUpdateAll || this.version == null;
+        final ClientConnectionDataChanges changes = this.restCallBuilder
                 .withHeader(API.EXAM_MONITORING_STATE_FILTER, (this.forceUpdateAll) ? "" : this.statusFilterParam)
+                .withHeader(API.EXAM_MONITORING_SINCE_VERSION, (fullUpdate) ? "" : this.version)
                 .call()
                 .get(error -> {
                     log.error("Error poll connection data: ", error);
-                    return Collections.emptyList();
-                })
-                .forEach(data -> {
-                    final UpdatableTableItem tableItem = this.tableMapping.computeIfAbsent(
-                            data.getConnectionId(),
-                            UpdatableTableItem::new);
-                    tableItem.push(data);
-                    if (this.statusFilterChanged) {
-                        this.toDelete.remove(data.getConnectionId());
-                    }
+                    return null;
                 });
 
-        if (this.statusFilterChanged && !this.toDelete.isEmpty()) {
+        if (changes == null) {
+            // request a full update on next poll
+            this.version = null;
+            this.forceUpdateAll = false;
+            return;
+        }
+
+        if (changes.full) {
+            this.toDelete.clear();
+            this.toDelete.addAll(this.tableMapping.keySet());
+        }
+
+        changes.changed.forEach(data -> {
+            final UpdatableTableItem tableItem = this.tableMapping.computeIfAbsent(
+                    data.getConnectionId(),
+                    UpdatableTableItem::new);
+            tableItem.push(data);
+            this.toDelete.remove(data.getConnectionId());
+        });
+
+        if (!changes.full) {
+            this.toDelete.addAll(changes.removed);
+        }
+
+        changes.pingValues.forEach((connectionId, pingValue) -> {
+            final UpdatableTableItem tableItem = this.tableMapping.get(connectionId);
+            if (tableItem != null) {
+                tableItem.pushPingValue(pingValue);
+            }
+        });
+
+        if (!this.toDelete.isEmpty()) {
             this.toDelete.forEach(id -> {
                 final UpdatableTableItem item = this.tableMapping.remove(id);
-                final List<Long> list = this.sessionIds.get(item.connectionData.clientConnection.userSessionId);
-                if (list != null) {
-                    list.remove(id);
+                if (item != null) {
+                    final List<Long> list = this.sessionIds.get(item.connectionData.clientConnection.userSessionId);
+                    if (list != null) {
+                        list.remove(id);
+                    }
                 }
             });
-            this.statusFilterChanged = false;
+            this.toDelete.clear();
+            this.needsSort = true;
         }
 
+        this.version = changes.version;
+        this.statusFilterChanged = false;
         this.forceUpdateAll = false;
     }
 
@@ -436,7 +464,10 @@ public final class ClientConnectionTable {
 
         final Long connectionId;
         private boolean changed = false;
+        private boolean pingChanged = false;
         private ClientConnectionData connectionData;
+        /** The current ping value if it was received after the connection data */
+        private Double pingValue = null;
         private int thresholdsWeight;
         private int[] indicatorWeights = null;
         private boolean duplicateChecked = false;
@@ -448,8 +479,11 @@ public final class ClientConnectionTable {
         void update(final TableItem tableItem, final boolean force) {
             if (force || this.changed) {
                 update(tableItem);
+            } else if (this.pingChanged) {
+                updatePingValue(tableItem);
             }
             this.changed = false;
+            this.pingChanged = false;
         }
 
         void update(final TableItem tableItem) {
@@ -501,6 +535,18 @@ public final class ClientConnectionTable {
             }
         }
 
+        void updatePingValue(final TableItem tableItem) {
+            if (this.connectionData == null || !this.connectionData.clientConnection.status.establishedStatus) {
+                return;
+            }
+
+            final IndicatorData indicatorData =
+                    ClientConnectionTable.this.indicatorMapping.get(IndicatorType.LAST_PING);
+            if (indicatorData != null) {
+                tableItem.setText(indicatorData.tableIndex, getPingDisplayValue());
+            }
+        }
+
         void updateIndicatorValues(final TableItem tableItem) {
             if (this.connectionData == null || this.indicatorWeights == null) {
                 return;
@@ -522,7 +568,10 @@ public final class ClientConnectionTable {
                     tableItem.setBackground(indicatorData.tableIndex, indicatorData.defaultColor);
                     tableItem.setForeground(indicatorData.tableIndex, indicatorData.defaultTextColor);
                 } else {
-                    tableItem.setText(indicatorData.tableIndex, IndicatorValue.getDisplayValue(indicatorValue));
+                    final String value = (this.pingValue != null && indicatorValue.getType() == IndicatorType.LAST_PING)
+                            ? getPingDisplayValue()
+                            : IndicatorValue.getDisplayValue(indicatorValue);
+                    tableItem.setText(indicatorData.tableIndex, value);
                     final int weight = this.indicatorWeights[indicatorData.index];
                     if (weight >= 0 && weight < indicatorData.thresholdColor.length) {
                         final ThresholdColor thresholdColor = indicatorData.thresholdColor[weight];
@@ -536,6 +585,10 @@ public final class ClientConnectionTable {
             }
         }
 
+        private String getPingDisplayValue() {
+            return String.valueOf(this.pingValue.longValue());
+        }
+
         @Override
         public int compareTo(final UpdatableTableItem other) {
             return Comparator.comparingInt(UpdatableTableItem::statusWeight)
@@ -595,6 +648,11 @@ public final class ClientConnectionTable {
             return "--";
         }
 
+        void pushPingValue(final Double pingValue) {
+            this.pingChanged |= !pingValue.equals(this.pingValue);
+            this.pingValue = pingValue;
+        }
+
         void push(final ClientConnectionData connectionData) {
             this.changed = this.connectionData == null ||
                     !this.connectionData.dataEquals(connectionData);
@@ -628,6 +686,7 @@ public final class ClientConnectionTable {
             }
 
             this.connectionData = connectionData;
+            this.pingValue = null;
 
             if (!this.duplicateChecked &&
                     this.connectionData.clientConnection.status != ConnectionStatus.DISABLED &&
@@ -10,6 +10,7 @@ package ch.ethz.seb.sebserver.gui.table;
 
 import static ch.ethz.seb.sebserver.gui.service.i18n.PolyglotPageService.POLYGLOT_WIDGET_FUNCTION_KEY;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -95,6 +96,9 @@ public class EntityTable<ROW extends Entity> {
     private final MultiValueMap<String, String> staticQueryParams;
     private final BiConsumer<TableItem, ROW> rowDecorator;
     private final Consumer<Set<ROW>> selectionListener;
+    private final String cursorPagingColumn;
+    // the continuation tokens of the already known pages of a cursor based paging
+    private final List<String> pageCursors = new ArrayList<>();
 
     int pageNumber;
     int pageSize;
@@ -118,7 +122,8 @@ public class EntityTable<ROW extends Entity> {
             final boolean hideNavigation,
             final MultiValueMap<String, String> staticQueryParams,
             final BiConsumer<TableItem, ROW> rowDecorator,
-            final Consumer<Set<ROW>> selectionListener) {
+            final Consumer<Set<ROW>> selectionListener,
+            final String cursorPagingColumn) {
 
         this.name = name;
         this.filterAttrName = name + "_filter";
@@ -149,6 +154,7 @@ public class EntityTable<ROW extends Entity> {
         this.staticQueryParams = staticQueryParams;
         this.rowDecorator = rowDecorator;
         this.selectionListener = selectionListener;
+        this.cursorPagingColumn = cursorPagingColumn;
         this.pageSize = pageSize;
         this.filter = columns
                 .stream()
@@ -254,6 +260,7 @@ public class EntityTable<ROW extends Entity> {
 
     public void setPageSize(final int pageSize) {
         this.pageSize = pageSize;
+        this.pageCursors.clear();
         updateTableRows(
                 this.pageNumber,
                 this.pageSize,
@@ -299,6 +306,7 @@ public class EntityTable<ROW extends Entity> {
         try {
             this.sortColumn = columnName;
             this.sortOrder = PageSortOrder.ASCENDING;
+            this.pageCursors.clear();
 
             if (columnName != null) {
                 updateTableRows(
@@ -320,6 +328,7 @@ public class EntityTable<ROW extends Entity> {
             this.sortOrder = (this.sortOrder == PageSortOrder.ASCENDING)
                     ? PageSortOrder.DESCENDING
                     : PageSortOrder.ASCENDING;
+            this.pageCursors.clear();
 
             updateTableRows(
                     this.pageNumber,
@@ -471,13 +480,20 @@ public class EntityTable<ROW extends Entity> {
         this.table.removeAll();
 
         // get page data and create rows
-        this.restCall.newBuilder()
+        final RestCall<Page<ROW>>.RestCallBuilder restCallBuilder = this.restCall.newBuilder()
                 .withPaging(pageNumber, pageSize)
                 .withSorting(sortColumn, sortOrder)
                 .withQueryParams((this.filter != null) ? this.filter.getFilterParameter() : null)
-                .withQueryParams(this.staticQueryParams)
+                .withQueryParams(this.staticQueryParams);
+
+        if (isCursorPaging()) {
+            restCallBuilder.withQueryParam(Page.ATTR_CURSOR, getPageCursor(pageNumber));
+        }
+
+        restCallBuilder
                 .apply(this.restCallAdapter)
                 .call()
+                .map(this::updatePageCursors)
                 .map(this::createTableRowsFromPage)
                 .map(this.navigator::update)
                 .onError(this.pageContext::notifyUnexpectedError);
@@ -487,6 +503,44 @@ public class EntityTable<ROW extends Entity> {
         this.notifySelectionChange();
     }
 
+    boolean isCursorPaging() {
+        return this.cursorPagingColumn != null &&
+                (this.sortColumn == null || this.cursorPagingColumn.equals(this.sortColumn));
+    }
+
+    private String getPageCursor(final int pageNumber) {
+        // a page can only be requested by cursor if the former page is already known.
+        // Otherwise the paging starts again on the first page
+        if (pageNumber <= 1 || pageNumber > this.pageCursors.size()) {
+            this.pageCursors.clear();
+            this.pageNumber = 1;
+            return Page.FIRST_PAGE_CURSOR;
+        }
+
+        return this.pageCursors.get(pageNumber - 1);
+    }
+
+    private Page<ROW> updatePageCursors(final Page<ROW> page) {
+        if (!isCursorPaging()) {
+            return page;
+        }
+
+        // the cursor of the first page is not a continuation token
+        if (this.pageCursors.isEmpty()) {
+            this.pageCursors.add(Page.FIRST_PAGE_CURSOR);
+        }
+
+        // keep the cursors up to the current page and add the cursor of the next page if there is one
+        while (this.pageCursors.size() > page.getPageNumber()) {
+            this.pageCursors.remove(this.pageCursors.size() - 1);
+        }
+        if (page.cursor != null) {
+            this.pageCursors.add(page.cursor);
+        }
+
+        return page;
+    }
+
     private Page<ROW> createTableRowsFromPage(final Page<ROW> page) {
         if (page.isEmpty()) {
             final GridData gridData = (GridData) this.table.getLayoutData();
@@ -46,6 +46,7 @@ public class TableBuilder<ROW extends Entity> {
     private BiConsumer<TableItem, ROW> rowDecorator;
     private Consumer<Set<ROW>> selectionListener;
     private boolean markupEnabled = false;
+    private String cursorPagingColumn = null;
 
     public TableBuilder(
             final String name,
@@ -73,6 +74,17 @@ public class TableBuilder<ROW extends Entity> {
         return this;
     }
 
+    /** Use cursor based paging for this table if the table is not sorted or sorted by the given column.
+     * The table then only supports stepping forward and back through the pages instead of jumping to
+     * an arbitrary page.
+     *
+     * @param seekColumnName the name of the column the cursor based paging seeks on
+     * @return this TableBuilder */
+    public TableBuilder<ROW> withCursorPaging(final String seekColumnName) {
+        this.cursorPagingColumn = seekColumnName;
+        return this;
+    }
+
     public TableBuilder<ROW> withColumn(final ColumnDefinition<ROW> columnDefinition) {
         this.columns.add(columnDefinition);
         return this;
@@ -168,7 +180,8 @@ public class TableBuilder<ROW extends Entity> {
                 this.hideNavigation,
                 this.staticQueryParams,
                 this.rowDecorator,
-                this.selectionListener);
+                this.selectionListener,
+                this.cursorPagingColumn);
     }
 
 }
@@ -55,6 +55,10 @@ public class TableNavigator {
             return pageData;
         }
 
+        if (this.entityTable.isCursorPaging()) {
+            return updateCursorPaging(pageData);
+        }
+
         final int pageNumber = pageData.getPageNumber();
         final int numberOfPages = pageData.getNumberOfPages();
 
@@ -90,14 +94,58 @@ public class TableNavigator {
         return pageData;
     }
 
+    /* With cursor based paging only the pages up to the next page are known and can be selected.
+     * The number of pages is approximated from the count on the first page and may change while paging */
+    private Page<?> updateCursorPaging(final Page<?> pageData) {
+        final int pageNumber = pageData.getPageNumber();
+        final boolean hasNextPage = pageData.cursor != null;
+
+        createPagingHeader((pageData.hasNumberOfPages())
+                ? "Page " + pageNumber + " / ~" + pageData.getNumberOfPages()
+                : "Page " + pageNumber);
+
+        final Composite numNav = new Composite(this.composite, SWT.NONE);
+        final GridData gridData = new GridData(SWT.CENTER, SWT.TOP, true, false);
+        numNav.setLayoutData(gridData);
+        final GridLayout rowLayout = new GridLayout(PAGE_NAV_SIZE + 5, true);
+        numNav.setLayout(rowLayout);
+
+        if (pageNumber > 1 || hasNextPage) {
+            createBackwardLabel(pageNumber > 1, pageNumber, numNav);
+            final int end = (hasNextPage) ? pageNumber + 1 : pageNumber;
+            final int start = Math.max(1, end - PAGE_NAV_SIZE + 1);
+            for (int i = start; i <= end; i++) {
+                createPageNumberLabel(i, i != pageNumber, numNav);
+            }
+
+            final GridData rowData = new GridData(22, 16);
+            final Label forward = new Label(numNav, SWT.NONE);
+            forward.setText(">");
+            forward.setData(RWT.CUSTOM_VARIANT, CustomVariant.LIST_NAVIGATION.key);
+            forward.setLayoutData(rowData);
+            forward.setAlignment(SWT.CENTER);
+            if (hasNextPage) {
+                forward.addListener(SWT.MouseDown, event -> this.entityTable.selectPage(pageNumber + 1));
+            } else {
+                forward.setVisible(false);
+            }
+        }
+
+        return pageData;
+    }
+
     private void createPagingHeader(final int page, final int of) {
+        createPagingHeader("Page " + page + " / " + of);
+    }
+
+    private void createPagingHeader(final String text) {
         final Label pageHeader = new Label(this.composite, SWT.NONE);
         final GridData gridData = new GridData(SWT.CENTER, SWT.CENTER, true, false);
         gridData.widthHint = 100;
         gridData.minimumWidth = 100;
         gridData.heightHint = 16;
         pageHeader.setLayoutData(gridData);
-        pageHeader.setText("Page " + page + " / " + of);
+        pageHeader.setText(text);
     }
 
     private void createPageNumberLabel(
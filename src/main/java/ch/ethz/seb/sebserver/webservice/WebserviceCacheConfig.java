@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ClientConfigService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
+import ch.ethz.seb.sebserver.webservice.weblayer.oauth.CachableJdbcTokenStore;
+
+/** Defines the CacheManager of the webservice.
+ * <p>
+ * All caches are bounded Caffeine caches that are configured per cache name with a Caffeine specification
+ * (https://github.com/ben-manes/caffeine/wiki/Specification) within the property:
+ * sebserver.webservice.cache.spec.[CACHE_NAME]
+ * <p>
+ * If there is no specific configuration for a cache, the default specification from property
+ * sebserver.webservice.cache.spec.default is used. Statistics are always recorded and the caches known on startup
+ * are exposed by the actuator metrics endpoint as cache.gets, cache.puts, cache.evictions and cache.size */
+@Configuration
+@WebServiceProfile
+public class WebserviceCacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(WebserviceCacheConfig.class);
+
+    public static final String CACHE_SPEC_PROPERTY_PREFIX = "sebserver.webservice.cache.spec.";
+    public static final String DEFAULT_CACHE_SPEC_PROPERTY = CACHE_SPEC_PROPERTY_PREFIX + "default";
+    public static final String DEFAULT_CACHE_SPEC = "maximumSize=10000,expireAfterAccess=1h";
+
+    /** All caches that are known and created on startup */
+    public static final Collection<String> KNOWN_CACHES = Collections.unmodifiableList(Arrays.asList(
+            ExamSessionCacheService.CACHE_NAME_RUNNING_EXAM,
+            ExamSessionCacheService.CACHE_NAME_ACTIVE_CLIENT_CONNECTION,
+            ExamSessionCacheService.CACHE_NAME_SEB_CONFIG_EXAM,
+            ExamSessionCacheService.CACHE_NAME_PING_RECORD,
+            ClientConfigService.EXAM_CLIENT_DETAILS_CACHE,
+            CachableJdbcTokenStore.CACHE_NAME));
+
+    @Bean
+    public CacheManager cacheManager(final Environment environment) {
+        final ConfigurableCaffeineCacheManager cacheManager = new ConfigurableCaffeineCacheManager(environment);
+        // create all known caches on startup to get them registered for metrics
+        KNOWN_CACHES.forEach(cacheManager::getCache);
+        return cacheManager;
+    }
+
+    /** CaffeineCacheManager that creates caches with a specific specification per cache name */
+    private static final class ConfigurableCaffeineCacheManager extends CaffeineCacheManager {
+
+        private static final String RECORD_STATS = "recordStats";
+
+        private final Environment environment;
+        private final String defaultSpec;
+
+        ConfigurableCaffeineCacheManager(final Environment environment) {
+            this.environment = environment;
+            this.defaultSpec = environment.getProperty(DEFAULT_CACHE_SPEC_PROPERTY, DEFAULT_CACHE_SPEC);
+        }
+
+        @Override
+        protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(
+                final String name) {
+
+            final String spec = this.environment.getProperty(CACHE_SPEC_PROPERTY_PREFIX + name, this.defaultSpec);
+            try {
+                log.info("Create cache: {} with specification: {}", name, spec);
+                return createCache(spec);
+            } catch (final Exception e) {
+                log.error("Invalid cache specification: {} for cache: {}. Use default: {}",
+                        spec,
+                        name,
+                        this.defaultSpec,
+                        e);
+                return createCache(this.defaultSpec);
+            }
+        }
+
+        private com.github.benmanes.caffeine.cache.Cache<Object, Object> createCache(final String spec) {
+            if (StringUtils.isBlank(spec)) {
+                return Caffeine.newBuilder()
+                        .recordStats()
+                        .build();
+            }
+
+            final Caffeine<Object, Object> builder = Caffeine.from(CaffeineSpec.parse(spec));
+            if (!spec.contains(RECORD_STATS)) {
+                builder.recordStats();
+            }
+            return builder.build();
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import ch.ethz.seb.sebserver.SEBServerInit;
+import ch.ethz.seb.sebserver.SEBServerInitEvent;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.WebserviceInfoDAO;
+
+/** Lease based leader election between the webservice instances of a distributed setup.
+ * <p>
+ * Every instance registers itself within the webservice_server_info table and updates its heartbeat on a fixed
+ * delay. The instance that holds the master lease renews it with each heartbeat. If the master instance stops
+ * renewing, another instance acquires the lease on its next heartbeat after the lease has expired.
+ * The heartbeat runs on its own scheduler thread so that long running scheduled tasks cannot delay it.
+ * <p>
+ * Background tasks that must only run once within the cluster shall check isLeader before processing and
+ * before each further step of a long running task. This instance considers its lease valid only until the lease
+ * time minus the heartbeat interval has passed since the last successful renewal. This margin makes it unlikely
+ * that two instances process at the same time but it does not guard the writes of the background tasks. An
+ * instance that is paused while processing may still write after another instance has acquired the lease.
+ * <p>
+ * In a non-distributed setup, this instance is always the leader. */
+@Service
+@WebServiceProfile
+public class WebserviceLeaderElection implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WebserviceLeaderElection.class);
+
+    private final WebserviceInfoDAO webserviceInfoDAO;
+    private final WebserviceInfo webserviceInfo;
+    private final String uuid = UUID.randomUUID().toString();
+    private final long leaseTime;
+    private final long heartbeatInterval;
+
+    private volatile boolean heartbeatActive = false;
+    private volatile boolean leader = false;
+    private volatile long leaseValidUntil = 0;
+    private ThreadPoolTaskScheduler heartbeatScheduler = null;
+
+    protected WebserviceLeaderElection(
+            final WebserviceInfoDAO webserviceInfoDAO,
+            final WebserviceInfo webserviceInfo,
+            @Value("${sebserver.webservice.distributed.lease-time:30000}") final long leaseTime,
+            @Value("${sebserver.webservice.distributed.heartbeat:10000}") final long heartbeatInterval) {
+
+        this.webserviceInfoDAO = webserviceInfoDAO;
+        this.webserviceInfo = webserviceInfo;
+        this.leaseTime = leaseTime;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    @EventListener(SEBServerInitEvent.class)
+    public void init() {
+        if (!this.webserviceInfo.isDistributed()) {
+            return;
+        }
+
+        SEBServerInit.INIT_LOGGER.info("------>");
+        SEBServerInit.INIT_LOGGER.info(
+                "------> Activate webservice leader election with instance id: {}",
+                this.uuid);
+        SEBServerInit.INIT_LOGGER.info(
+                "--------> Heartbeat on a fix delay of {} milliseconds with a leader lease time of {} milliseconds",
+                this.heartbeatInterval,
+                this.leaseTime);
+
+        this.heartbeatActive = true;
+        heartbeat();
+
+        this.heartbeatScheduler = new ThreadPoolTaskScheduler();
+        this.heartbeatScheduler.setPoolSize(1);
+        this.heartbeatScheduler.setThreadNamePrefix("leaderElection-");
+        this.heartbeatScheduler.initialize();
+        this.heartbeatScheduler.scheduleWithFixedDelay(
+                this::heartbeat,
+                new Date(Utils.getMillisecondsNow() + this.heartbeatInterval),
+                this.heartbeatInterval);
+    }
+
+    /** Indicates whether this webservice instance is the leader of the cluster and shall process the
+     * background tasks that must only run once within the cluster.
+     *
+     * @return true if this webservice instance currently holds a valid leader lease */
+    public boolean isLeader() {
+        return !this.webserviceInfo.isDistributed()
+                || Utils.getMillisecondsNow() < this.leaseValidUntil;
+    }
+
+    /** Get the unique identifier of this webservice instance within the cluster
+     *
+     * @return the unique identifier of this webservice instance */
+    public String getInstanceId() {
+        return this.uuid;
+    }
+
+    private void heartbeat() {
+        if (!this.heartbeatActive) {
+            return;
+        }
+
+        final long now = Utils.getMillisecondsNow();
+        final boolean leader = this.webserviceInfoDAO
+                .updateMaster(this.uuid, getServiceAddress(), now, this.leaseTime)
+                .onError(error -> log.error("Failed to update leader lease of webservice instance: ", error))
+                .getOr(false);
+
+        // the lease is valid only for the lease time since the heartbeat was taken,
+        // minus a heartbeat interval as margin for clock deviations between the instances
+        this.leaseValidUntil = (leader) ? now + this.leaseTime - this.heartbeatInterval : 0;
+
+        if (leader && !this.leader) {
+            log.info("Webservice instance {} has become the leader", this.uuid);
+        } else if (!leader && this.leader) {
+            log.warn("Webservice instance {} has lost the leadership", this.uuid);
+        }
+        this.leader = leader;
+    }
+
+    @Override
+    public void destroy() {
+        if (!this.heartbeatActive) {
+            return;
+        }
+
+        this.heartbeatActive = false;
+        this.heartbeatScheduler.shutdown();
+        this.leader = false;
+        this.leaseValidUntil = 0;
+        this.webserviceInfoDAO
+                .unregister(this.uuid)
+                .onError(error -> log.error("Failed to unregister webservice instance: ", error));
+    }
+
+    private String getServiceAddress() {
+        return this.webserviceInfo.getLocalHostAddress() + ":" + this.webserviceInfo.getServerPort();
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.type.JdbcType;
+
+/** Mapper for the cache_invalidation table that holds the change log of cache invalidations
+ * of the webservice instances of a distributed setup. */
+@Mapper
+public interface CacheInvalidationMapper {
+
+    /** Appends a cache invalidation to the change log.
+     *
+     * @param type the type of the invalidation
+     * @param entityKey the key of the invalidated entity. May be null
+     * @param origin the identifier of the webservice instance the invalidation originates from
+     * @param eventTime the time in milliseconds the invalidation was published
+     * @return the number of inserted rows */
+    @Insert({
+            "INSERT INTO cache_invalidation (type, entity_key, origin, event_time) ",
+            "VALUES (#{type,jdbcType=VARCHAR}, #{entityKey,jdbcType=VARCHAR}, ",
+            "#{origin,jdbcType=VARCHAR}, #{eventTime,jdbcType=BIGINT})"
+    })
+    int insert(
+            @Param("type") String type,
+            @Param("entityKey") String entityKey,
+            @Param("origin") String origin,
+            @Param("eventTime") Long eventTime);
+
+    /** Selects the identifier of the latest cache invalidation within the change log.
+     *
+     * @return the identifier of the latest cache invalidation or 0 if the change log is empty */
+    @Select("SELECT COALESCE(MAX(id), 0) FROM cache_invalidation")
+    Long selectLatestId();
+
+    /** Selects all cache invalidations after the given identifier in ascending order.
+     *
+     * @param id the identifier to select the cache invalidations after
+     * @return all cache invalidations after the given identifier */
+    @Select({
+            "SELECT id, type, entity_key, origin, event_time FROM cache_invalidation ",
+            "WHERE id > #{id,jdbcType=BIGINT} ORDER BY id"
+    })
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, jdbcType = JdbcType.BIGINT, id = true),
+            @Arg(column = "type", javaType = String.class, jdbcType = JdbcType.VARCHAR),
+            @Arg(column = "entity_key", javaType = String.class, jdbcType = JdbcType.VARCHAR),
+            @Arg(column = "origin", javaType = String.class, jdbcType = JdbcType.VARCHAR),
+            @Arg(column = "event_time", javaType = Long.class, jdbcType = JdbcType.BIGINT)
+    })
+    List<CacheInvalidationRecord> selectAfter(@Param("id") Long id);
+
+    /** Deletes all cache invalidations that were published before the given time.
+     *
+     * @param time the time in milliseconds
+     * @return the number of deleted rows */
+    @Delete("DELETE FROM cache_invalidation WHERE event_time < #{time,jdbcType=BIGINT}")
+    int deleteBefore(@Param("time") Long time);
+
+    final class CacheInvalidationRecord {
+
+        public final Long id;
+        public final String type;
+        public final String entityKey;
+        public final String origin;
+        public final Long eventTime;
+
+        public CacheInvalidationRecord(
+                final Long id,
+                final String type,
+                final String entityKey,
+                final String origin,
+                final Long eventTime) {
+
+            this.id = id;
+            this.type = type;
+            this.entityKey = entityKey;
+            this.origin = origin;
+            this.eventTime = eventTime;
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.mybatis.dynamic.sql.SqlTable;
+
+/** Mapper for the client_event_archive table that holds the client events of finished exams.
+ * The archived client events keep the identifier they had within the client_event table. */
+@Mapper
+public interface ClientEventArchiveMapper {
+
+    /** The client event archive table as source of a select on the client event columns */
+    SqlTable CLIENT_EVENT_ARCHIVE = new ClientEventSource("client_event_archive");
+
+    /** The union of the client event table and the client event archive table as source of a select
+     * on the client event columns. This is a derived table that cannot make use of the table indexes and
+     * is therefore only used if the client events of archived exams are requested together with the client
+     * events of the client event table. */
+    SqlTable CLIENT_EVENT_WITH_ARCHIVE = new ClientEventSource(
+            "(SELECT id, client_connection_id, type, client_time, server_time, numeric_value, text " +
+                    "FROM client_event UNION ALL " +
+                    "SELECT id, client_connection_id, type, client_time, server_time, numeric_value, text " +
+                    "FROM client_event_archive)");
+
+    /** Selects the identifiers of the next client events of the given exam to archive.
+     *
+     * @param examId the exam identifier
+     * @param limit the maximal number of identifiers to select
+     * @return the identifiers of the next client events of the given exam in ascending order */
+    @Select({
+            "SELECT client_event.id FROM client_event ",
+            "JOIN client_connection ON client_event.client_connection_id = client_connection.id ",
+            "WHERE client_connection.exam_id = #{examId,jdbcType=BIGINT} ",
+            "ORDER BY client_event.id ",
+            "LIMIT #{limit,jdbcType=INTEGER}"
+    })
+    List<Long> selectEventIdsOfExam(
+            @Param("examId") Long examId,
+            @Param("limit") int limit);
+
+    /** Copies the given client events to the archive table.
+     * Client events that are already archived are ignored.
+     *
+     * @param ids the client event identifiers. Must not be empty
+     * @return the number of archived client events */
+    @Insert({
+            "<script>",
+            "INSERT IGNORE INTO client_event_archive ",
+            "(id, client_connection_id, type, client_time, server_time, numeric_value, text) ",
+            "SELECT id, client_connection_id, type, client_time, server_time, numeric_value, text ",
+            "FROM client_event WHERE id IN ",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+            "#{id,jdbcType=BIGINT}",
+            "</foreach>",
+            "</script>"
+    })
+    int archiveEvents(@Param("ids") Collection<Long> ids);
+
+    /** Deletes the given client events from the client event table.
+     *
+     * @param ids the client event identifiers. Must not be empty
+     * @return the number of deleted client events */
+    @Delete({
+            "<script>",
+            "DELETE FROM client_event WHERE id IN ",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+            "#{id,jdbcType=BIGINT}",
+            "</foreach>",
+            "</script>"
+    })
+    int deleteEvents(@Param("ids") Collection<Long> ids);
+
+    /** Deletes the archived client events of the given client connections.
+     *
+     * @param connectionIds the client connection identifiers. Must not be empty
+     * @return the number of deleted archived client events */
+    @Delete({
+            "<script>",
+            "DELETE FROM client_event_archive WHERE client_connection_id IN ",
+            "<foreach collection='connectionIds' item='connectionId' open='(' separator=',' close=')'>",
+            "#{connectionId,jdbcType=BIGINT}",
+            "</foreach>",
+            "</script>"
+    })
+    int deleteForConnections(@Param("connectionIds") Collection<Long> connectionIds);
+
+    /** A source table of a select on the client event columns */
+    final class ClientEventSource extends SqlTable {
+
+        private ClientEventSource(final String name) {
+            super(name);
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.Collection;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.type.JdbcType;
+
+/** Mapper for the client_event_count table that holds the shared aggregate of the number of
+ * client events per client connection and event type. */
+@Mapper
+public interface ClientEventCountMapper {
+
+    /** Adds the given delta to the event count of the given client connection and event type.
+     * Creates the count entry if it not already exists.
+     *
+     * @param connectionId the client connection identifier
+     * @param type the event type identifier
+     * @param delta the number of new events to add to the count
+     * @return the number of affected rows */
+    @Insert({
+            "INSERT INTO client_event_count (client_connection_id, type, event_count) ",
+            "VALUES (#{connectionId,jdbcType=BIGINT}, #{type,jdbcType=INTEGER}, #{delta,jdbcType=BIGINT}) ",
+            "ON DUPLICATE KEY UPDATE event_count = event_count + #{delta,jdbcType=BIGINT}"
+    })
+    int addCount(
+            @Param("connectionId") Long connectionId,
+            @Param("type") Integer type,
+            @Param("delta") Long delta);
+
+    /** Selects the event counts of all client connections of a given exam together with the server time
+     * of the last ping (LAST_PING event type) of each client connection within one query.
+     *
+     * @param examId the exam identifier
+     * @param lastPingType the event type identifier of the LAST_PING event
+     * @return Collection of ConnectionValueRecord with the event counts and the last ping times of the exam */
+    @Select({
+            "SELECT cec.client_connection_id, cec.type, cec.event_count AS count_value ",
+            "FROM client_event_count cec ",
+            "INNER JOIN client_connection cc ON cc.id = cec.client_connection_id ",
+            "WHERE cc.exam_id = #{examId,jdbcType=BIGINT} ",
+            "UNION ALL ",
+            "SELECT ce.client_connection_id, ce.type, ce.server_time AS count_value ",
+            "FROM client_event ce ",
+            "INNER JOIN client_connection cc ON cc.id = ce.client_connection_id ",
+            "WHERE cc.exam_id = #{examId,jdbcType=BIGINT} AND ce.type = #{lastPingType,jdbcType=INTEGER}"
+    })
+    @ConstructorArgs({
+            @Arg(column = "client_connection_id", javaType = Long.class, jdbcType = JdbcType.BIGINT),
+            @Arg(column = "type", javaType = Integer.class, jdbcType = JdbcType.INTEGER),
+            @Arg(column = "count_value", javaType = Long.class, jdbcType = JdbcType.BIGINT)
+    })
+    Collection<ConnectionValueRecord> selectForExam(
+            @Param("examId") Long examId,
+            @Param("lastPingType") Integer lastPingType);
+
+    /** Deletes all event counts of the given client connections.
+     *
+     * @param connectionIds the client connection identifiers. Must not be empty
+     * @return the number of deleted rows */
+    @Delete({
+            "<script>",
+            "DELETE FROM client_event_count WHERE client_connection_id IN ",
+            "<foreach collection='connectionIds' item='connectionId' open='(' separator=',' close=')'>",
+            "#{connectionId,jdbcType=BIGINT}",
+            "</foreach>",
+            "</script>"
+    })
+    int deleteForConnections(@Param("connectionIds") Collection<Long> connectionIds);
+
+    final class ConnectionValueRecord {
+
+        public final Long connectionId;
+        public final Integer type;
+        public final Long value;
+
+        protected ConnectionValueRecord(
+                final Long connectionId,
+                final Integer type,
+                final Long value) {
+
+            this.connectionId = connectionId;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+}
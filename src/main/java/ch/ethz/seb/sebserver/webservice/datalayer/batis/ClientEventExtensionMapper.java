@@ -14,12 +14,15 @@ import java.util.Collection;
 
 import org.apache.ibatis.annotations.Arg;
 import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.SelectProvider;
 import org.apache.ibatis.type.JdbcType;
 import org.mybatis.dynamic.sql.BasicColumn;
 import org.mybatis.dynamic.sql.SqlBuilder;
+import org.mybatis.dynamic.sql.SqlTable;
 import org.mybatis.dynamic.sql.select.MyBatis3SelectModelAdapter;
 import org.mybatis.dynamic.sql.select.QueryExpressionDSL;
 import org.mybatis.dynamic.sql.select.SelectDSL;
@@ -28,6 +31,7 @@ import org.mybatis.dynamic.sql.util.SqlProviderAdapter;
 
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 
 @Mapper
 public interface ClientEventExtensionMapper {
@@ -45,6 +49,26 @@ public interface ClientEventExtensionMapper {
                 .from(ClientEventRecordDynamicSqlSupport.clientEventRecord);
     }
 
+    /** Inserts all given client event records within one multi-row INSERT statement.
+     * NOTE: The generated identifiers are not set to the records.
+     *
+     * @param records the client event records to insert. Must not be empty
+     * @return the number of inserted rows */
+    @Insert({
+            "<script>",
+            "INSERT INTO client_event (client_connection_id, type, client_time, server_time, numeric_value, text) VALUES ",
+            "<foreach collection='records' item='record' separator=','>",
+            "(#{record.clientConnectionId,jdbcType=BIGINT}, ",
+            "#{record.type,jdbcType=INTEGER}, ",
+            "#{record.clientTime,jdbcType=BIGINT}, ",
+            "#{record.serverTime,jdbcType=BIGINT}, ",
+            "#{record.numericValue,jdbcType=DECIMAL}, ",
+            "#{record.text,jdbcType=VARCHAR})",
+            "</foreach>",
+            "</script>"
+    })
+    int insertMultiple(@Param("records") Collection<ClientEventRecord> records);
+
     @SelectProvider(type = SqlProviderAdapter.class, method = "select")
     @ResultType(ClientEventExtensionMapper.ConnectionEventJoinRecord.class)
     @ConstructorArgs({
@@ -63,23 +87,40 @@ public interface ClientEventExtensionMapper {
     Collection<ConnectionEventJoinRecord> selectMany(SelectStatementProvider select);
 
     default QueryExpressionDSL<MyBatis3SelectModelAdapter<Collection<ConnectionEventJoinRecord>>>.JoinSpecificationFinisher selectByExample() {
-        return SelectDSL.selectWithMapper(
-                this::selectMany,
-
-                ClientEventRecordDynamicSqlSupport.id,
-                ClientEventRecordDynamicSqlSupport.clientConnectionId.as("connection_id"),
-                ClientEventRecordDynamicSqlSupport.type,
-                ClientEventRecordDynamicSqlSupport.clientTime.as("client_time"),
-                ClientEventRecordDynamicSqlSupport.serverTime.as("server_time"),
-                ClientEventRecordDynamicSqlSupport.numericValue.as("numeric_value"),
-                ClientEventRecordDynamicSqlSupport.text,
-
-                ClientConnectionRecordDynamicSqlSupport.institutionId.as("institution_id"),
-                ClientConnectionRecordDynamicSqlSupport.examId.as("exam_id"),
-                ClientConnectionRecordDynamicSqlSupport.examUserSessionId.as("exam_user_session_identifier"))
-
-                .from(ClientEventRecordDynamicSqlSupport.clientEventRecord)
+        return selectByExample(ClientEventRecordDynamicSqlSupport.clientEventRecord);
+    }
 
+    /** Selects the client events joined with their client connection from the given source table.
+     * A source table other than the client event table is aliased with the name of the client event table
+     * so that all client event columns refer to the given source table.
+     *
+     * @param source the source table of the client events. See ClientEventArchiveMapper for available sources
+     * @return the join specification of the select */
+    default QueryExpressionDSL<MyBatis3SelectModelAdapter<Collection<ConnectionEventJoinRecord>>>.JoinSpecificationFinisher selectByExample(
+            final SqlTable source) {
+
+        final QueryExpressionDSL.FromGatherer<MyBatis3SelectModelAdapter<Collection<ConnectionEventJoinRecord>>> fromGatherer =
+                SelectDSL.selectWithMapper(
+                        this::selectMany,
+
+                        ClientEventRecordDynamicSqlSupport.id,
+                        ClientEventRecordDynamicSqlSupport.clientConnectionId.as("connection_id"),
+                        ClientEventRecordDynamicSqlSupport.type,
+                        ClientEventRecordDynamicSqlSupport.clientTime.as("client_time"),
+                        ClientEventRecordDynamicSqlSupport.serverTime.as("server_time"),
+                        ClientEventRecordDynamicSqlSupport.numericValue.as("numeric_value"),
+                        ClientEventRecordDynamicSqlSupport.text,
+
+                        ClientConnectionRecordDynamicSqlSupport.institutionId.as("institution_id"),
+                        ClientConnectionRecordDynamicSqlSupport.examId.as("exam_id"),
+                        ClientConnectionRecordDynamicSqlSupport.examUserSessionId.as("exam_user_session_identifier"));
+
+        final QueryExpressionDSL<MyBatis3SelectModelAdapter<Collection<ConnectionEventJoinRecord>>> from =
+                (source == ClientEventRecordDynamicSqlSupport.clientEventRecord)
+                        ? fromGatherer.from(source)
+                        : fromGatherer.from(source, ClientEventRecordDynamicSqlSupport.clientEventRecord.name());
+
+        return from
                 .leftJoin(ClientConnectionRecordDynamicSqlSupport.clientConnectionRecord)
                 .on(
                         ClientEventRecordDynamicSqlSupport.clientEventRecord.clientConnectionId,
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.Collection;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientInstructionRecord;
+
+@Mapper
+public interface ClientInstructionExtensionMapper {
+
+    /** Inserts all given client instruction records within one multi-row INSERT statement.
+     * NOTE: The generated identifiers are not set to the records.
+     *
+     * @param records the client instruction records to insert. Must not be empty
+     * @return the number of inserted rows */
+    @Insert({
+            "<script>",
+            "INSERT INTO client_instruction (exam_id, connection_token, type, attributes) VALUES ",
+            "<foreach collection='records' item='record' separator=','>",
+            "(#{record.examId,jdbcType=BIGINT}, ",
+            "#{record.connectionToken,jdbcType=VARCHAR}, ",
+            "#{record.type,jdbcType=VARCHAR}, ",
+            "#{record.attributes,jdbcType=VARCHAR})",
+            "</foreach>",
+            "</script>"
+    })
+    int insertMultiple(@Param("records") Collection<ClientInstructionRecord> records);
+
+    /** Selects the identifier of the latest client instruction.
+     *
+     * @return the identifier of the latest client instruction or 0 if there is none */
+    @Select("SELECT COALESCE(MAX(id), 0) FROM client_instruction")
+    Long selectLatestId();
+
+}
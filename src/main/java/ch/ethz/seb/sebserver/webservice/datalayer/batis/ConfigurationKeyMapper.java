@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.Collection;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/** Mapper for the configuration_key table that holds the persisted Config-Key of
+ * a stable configuration version.
+ * <p>
+ * A row without Config-Key holds the reservation of a running Config-Key computation. */
+@Mapper
+public interface ConfigurationKeyMapper {
+
+    /** Selects the persisted Config-Key of the given configuration.
+     *
+     * @param configurationId the configuration identifier
+     * @return the Config-Key or null if there is none persisted for the configuration */
+    @Select({
+            "SELECT config_key FROM configuration_key ",
+            "WHERE configuration_id = #{configurationId,jdbcType=BIGINT}"
+    })
+    String selectConfigKey(@Param("configurationId") Long configurationId);
+
+    /** Reserves the Config-Key computation of the given configuration.
+     * Overrides the reservation of a former computation of the configuration.
+     *
+     * @param configurationId the configuration identifier
+     * @param reservation the unique reservation of the computation
+     * @return the number of affected rows */
+    @Insert({
+            "INSERT INTO configuration_key (configuration_id, reservation) ",
+            "VALUES (#{configurationId,jdbcType=BIGINT}, #{reservation,jdbcType=VARCHAR}) ",
+            "ON DUPLICATE KEY UPDATE reservation = #{reservation,jdbcType=VARCHAR}"
+    })
+    int insertReservation(
+            @Param("configurationId") Long configurationId,
+            @Param("reservation") String reservation);
+
+    /** Persists the Config-Key of the given configuration if the given reservation is still valid.
+     * The reservation is not valid anymore if the configuration values have been changed since.
+     *
+     * @param configurationId the configuration identifier
+     * @param configKey the Config-Key
+     * @param reservation the reservation of the computation of the Config-Key
+     * @return the number of affected rows */
+    @Update({
+            "UPDATE configuration_key SET config_key = #{configKey,jdbcType=VARCHAR}, reservation = NULL ",
+            "WHERE configuration_id = #{configurationId,jdbcType=BIGINT} ",
+            "AND reservation = #{reservation,jdbcType=VARCHAR}"
+    })
+    int updateConfigKey(
+            @Param("configurationId") Long configurationId,
+            @Param("configKey") String configKey,
+            @Param("reservation") String reservation);
+
+    /** Deletes the persisted Config-Keys of the given configurations.
+     *
+     * @param configurationIds the configuration identifiers. Must not be empty
+     * @return the number of deleted rows */
+    @Delete({
+            "<script>",
+            "DELETE FROM configuration_key WHERE configuration_id IN ",
+            "<foreach collection='configurationIds' item='configurationId' open='(' separator=',' close=')'>",
+            "#{configurationId,jdbcType=BIGINT}",
+            "</foreach>",
+            "</script>"
+    })
+    int deleteForConfigurations(@Param("configurationIds") Collection<Long> configurationIds);
+
+}
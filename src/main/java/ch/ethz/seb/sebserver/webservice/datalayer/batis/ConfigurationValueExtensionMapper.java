@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.Collection;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ConfigurationValueRecord;
+
+@Mapper
+public interface ConfigurationValueExtensionMapper {
+
+    /** Inserts or updates all given configuration value records within one multi-row INSERT statement.
+     * Records with an identifier update the value of the existing row with the same identifier,
+     * records without an identifier are inserted as new rows.
+     * NOTE: The generated identifiers are not set to the records.
+     *
+     * @param records the configuration value records to insert or update. Must not be empty
+     * @return the number of affected rows */
+    @Insert({
+            "<script>",
+            "INSERT INTO configuration_value ",
+            "(id, institution_id, configuration_id, configuration_attribute_id, list_index, value) VALUES ",
+            "<foreach collection='records' item='record' separator=','>",
+            "(#{record.id,jdbcType=BIGINT}, ",
+            "#{record.institutionId,jdbcType=BIGINT}, ",
+            "#{record.configurationId,jdbcType=BIGINT}, ",
+            "#{record.configurationAttributeId,jdbcType=BIGINT}, ",
+            "#{record.listIndex,jdbcType=INTEGER}, ",
+            "#{record.value,jdbcType=VARCHAR})",
+            "</foreach>",
+            " ON DUPLICATE KEY UPDATE value = VALUES(value)",
+            "</script>"
+    })
+    int upsertMultiple(@Param("records") Collection<ConfigurationValueRecord> records);
+
+}
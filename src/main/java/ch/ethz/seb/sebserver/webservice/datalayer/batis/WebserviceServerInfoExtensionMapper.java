@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.type.JdbcType;
+
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.WebserviceServerInfoRecord;
+
+@Mapper
+public interface WebserviceServerInfoExtensionMapper {
+
+    /** Selects all registered webservice instances and locks the selected rows until the end of the
+     * current transaction. This serializes the leader election of concurrent webservice instances.
+     *
+     * @return all registered webservice instances */
+    @Select("SELECT id, uuid, service_address, master, update_time FROM webservice_server_info FOR UPDATE")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, jdbcType = JdbcType.BIGINT, id = true),
+            @Arg(column = "uuid", javaType = String.class, jdbcType = JdbcType.VARCHAR),
+            @Arg(column = "service_address", javaType = String.class, jdbcType = JdbcType.VARCHAR),
+            @Arg(column = "master", javaType = Integer.class, jdbcType = JdbcType.INTEGER),
+            @Arg(column = "update_time", javaType = Long.class, jdbcType = JdbcType.BIGINT)
+    })
+    List<WebserviceServerInfoRecord> selectAllForUpdate();
+
+}
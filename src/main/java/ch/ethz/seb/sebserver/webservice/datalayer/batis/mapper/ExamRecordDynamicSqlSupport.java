@@ -2,6 +2,7 @@ package ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper;
 
 import java.sql.JDBCType;
 import javax.annotation.Generated;
+import org.joda.time.DateTime;
 import org.mybatis.dynamic.sql.SqlColumn;
 import org.mybatis.dynamic.sql.SqlTable;
 
@@ -51,6 +52,21 @@ public final class ExamRecordDynamicSqlSupport {
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.998+01:00", comments="Source field: exam.active")
     public static final SqlColumn<Integer> active = examRecord.active;
 
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_name")
+    public static final SqlColumn<String> quizName = examRecord.quizName;
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_description")
+    public static final SqlColumn<String> quizDescription = examRecord.quizDescription;
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_start_time")
+    public static final SqlColumn<DateTime> quizStartTime = examRecord.quizStartTime;
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_end_time")
+    public static final SqlColumn<DateTime> quizEndTime = examRecord.quizEndTime;
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_start_url")
+    public static final SqlColumn<String> quizStartUrl = examRecord.quizStartUrl;
+
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source Table: exam")
     public static final class ExamRecord extends SqlTable {
         public final SqlColumn<Long> id = column("id", JDBCType.BIGINT);
@@ -81,6 +97,16 @@ public final class ExamRecordDynamicSqlSupport {
 
         public final SqlColumn<Integer> active = column("active", JDBCType.INTEGER);
 
+        public final SqlColumn<String> quizName = column("quiz_name", JDBCType.VARCHAR);
+
+        public final SqlColumn<String> quizDescription = column("quiz_description", JDBCType.LONGVARCHAR);
+
+        public final SqlColumn<DateTime> quizStartTime = column("quiz_start_time", JDBCType.TIMESTAMP, "ch.ethz.seb.sebserver.webservice.datalayer.batis.JodaTimeTypeResolver");
+
+        public final SqlColumn<DateTime> quizEndTime = column("quiz_end_time", JDBCType.TIMESTAMP, "ch.ethz.seb.sebserver.webservice.datalayer.batis.JodaTimeTypeResolver");
+
+        public final SqlColumn<String> quizStartUrl = column("quiz_start_url", JDBCType.VARCHAR);
+
         public ExamRecord() {
             super("exam");
         }
@@ -3,6 +3,7 @@ package ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper;
 import static ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ExamRecordDynamicSqlSupport.*;
 import static org.mybatis.dynamic.sql.SqlBuilder.*;
 
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.JodaTimeTypeResolver;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ExamRecord;
 import java.util.List;
 import javax.annotation.Generated;
@@ -15,6 +16,7 @@ import org.apache.ibatis.annotations.SelectKey;
 import org.apache.ibatis.annotations.SelectProvider;
 import org.apache.ibatis.annotations.UpdateProvider;
 import org.apache.ibatis.type.JdbcType;
+import org.joda.time.DateTime;
 import org.mybatis.dynamic.sql.SqlBuilder;
 import org.mybatis.dynamic.sql.delete.DeleteDSL;
 import org.mybatis.dynamic.sql.delete.MyBatis3DeleteModelAdapter;
@@ -61,7 +63,12 @@ public interface ExamRecordMapper {
         @Arg(column="lms_seb_restriction", javaType=Integer.class, jdbcType=JdbcType.INTEGER),
         @Arg(column="updating", javaType=Integer.class, jdbcType=JdbcType.INTEGER),
         @Arg(column="lastupdate", javaType=String.class, jdbcType=JdbcType.VARCHAR),
-        @Arg(column="active", javaType=Integer.class, jdbcType=JdbcType.INTEGER)
+        @Arg(column="active", javaType=Integer.class, jdbcType=JdbcType.INTEGER),
+        @Arg(column="quiz_name", javaType=String.class, jdbcType=JdbcType.VARCHAR),
+        @Arg(column="quiz_description", javaType=String.class, jdbcType=JdbcType.LONGVARCHAR),
+        @Arg(column="quiz_start_time", javaType=DateTime.class, typeHandler=JodaTimeTypeResolver.class, jdbcType=JdbcType.TIMESTAMP),
+        @Arg(column="quiz_end_time", javaType=DateTime.class, typeHandler=JodaTimeTypeResolver.class, jdbcType=JdbcType.TIMESTAMP),
+        @Arg(column="quiz_start_url", javaType=String.class, jdbcType=JdbcType.VARCHAR)
     })
     ExamRecord selectOne(SelectStatementProvider selectStatement);
 
@@ -81,7 +88,12 @@ public interface ExamRecordMapper {
         @Arg(column="lms_seb_restriction", javaType=Integer.class, jdbcType=JdbcType.INTEGER),
         @Arg(column="updating", javaType=Integer.class, jdbcType=JdbcType.INTEGER),
         @Arg(column="lastupdate", javaType=String.class, jdbcType=JdbcType.VARCHAR),
-        @Arg(column="active", javaType=Integer.class, jdbcType=JdbcType.INTEGER)
+        @Arg(column="active", javaType=Integer.class, jdbcType=JdbcType.INTEGER),
+        @Arg(column="quiz_name", javaType=String.class, jdbcType=JdbcType.VARCHAR),
+        @Arg(column="quiz_description", javaType=String.class, jdbcType=JdbcType.LONGVARCHAR),
+        @Arg(column="quiz_start_time", javaType=DateTime.class, typeHandler=JodaTimeTypeResolver.class, jdbcType=JdbcType.TIMESTAMP),
+        @Arg(column="quiz_end_time", javaType=DateTime.class, typeHandler=JodaTimeTypeResolver.class, jdbcType=JdbcType.TIMESTAMP),
+        @Arg(column="quiz_start_url", javaType=String.class, jdbcType=JdbcType.VARCHAR)
     })
     List<ExamRecord> selectMany(SelectStatementProvider selectStatement);
 
@@ -125,6 +137,11 @@ public interface ExamRecordMapper {
                 .map(updating).toProperty("updating")
                 .map(lastupdate).toProperty("lastupdate")
                 .map(active).toProperty("active")
+                .map(quizName).toProperty("quizName")
+                .map(quizDescription).toProperty("quizDescription")
+                .map(quizStartTime).toProperty("quizStartTime")
+                .map(quizEndTime).toProperty("quizEndTime")
+                .map(quizStartUrl).toProperty("quizStartUrl")
                 .build()
                 .render(RenderingStrategy.MYBATIS3));
     }
@@ -146,25 +163,30 @@ public interface ExamRecordMapper {
                 .map(updating).toPropertyWhenPresent("updating", record::getUpdating)
                 .map(lastupdate).toPropertyWhenPresent("lastupdate", record::getLastupdate)
                 .map(active).toPropertyWhenPresent("active", record::getActive)
+                .map(quizName).toPropertyWhenPresent("quizName", record::getQuizName)
+                .map(quizDescription).toPropertyWhenPresent("quizDescription", record::getQuizDescription)
+                .map(quizStartTime).toPropertyWhenPresent("quizStartTime", record::getQuizStartTime)
+                .map(quizEndTime).toPropertyWhenPresent("quizEndTime", record::getQuizEndTime)
+                .map(quizStartUrl).toPropertyWhenPresent("quizStartUrl", record::getQuizStartUrl)
                 .build()
                 .render(RenderingStrategy.MYBATIS3));
     }
 
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.998+01:00", comments="Source Table: exam")
     default QueryExpressionDSL<MyBatis3SelectModelAdapter<List<ExamRecord>>> selectByExample() {
-        return SelectDSL.selectWithMapper(this::selectMany, id, institutionId, lmsSetupId, externalId, owner, supporter, type, quitPassword, browserKeys, status, lmsSebRestriction, updating, lastupdate, active)
+        return SelectDSL.selectWithMapper(this::selectMany, id, institutionId, lmsSetupId, externalId, owner, supporter, type, quitPassword, browserKeys, status, lmsSebRestriction, updating, lastupdate, active, quizName, quizDescription, quizStartTime, quizEndTime, quizStartUrl)
                 .from(examRecord);
     }
 
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.998+01:00", comments="Source Table: exam")
     default QueryExpressionDSL<MyBatis3SelectModelAdapter<List<ExamRecord>>> selectDistinctByExample() {
-        return SelectDSL.selectDistinctWithMapper(this::selectMany, id, institutionId, lmsSetupId, externalId, owner, supporter, type, quitPassword, browserKeys, status, lmsSebRestriction, updating, lastupdate, active)
+        return SelectDSL.selectDistinctWithMapper(this::selectMany, id, institutionId, lmsSetupId, externalId, owner, supporter, type, quitPassword, browserKeys, status, lmsSebRestriction, updating, lastupdate, active, quizName, quizDescription, quizStartTime, quizEndTime, quizStartUrl)
                 .from(examRecord);
     }
 
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.999+01:00", comments="Source Table: exam")
     default ExamRecord selectByPrimaryKey(Long id_) {
-        return SelectDSL.selectWithMapper(this::selectOne, id, institutionId, lmsSetupId, externalId, owner, supporter, type, quitPassword, browserKeys, status, lmsSebRestriction, updating, lastupdate, active)
+        return SelectDSL.selectWithMapper(this::selectOne, id, institutionId, lmsSetupId, externalId, owner, supporter, type, quitPassword, browserKeys, status, lmsSebRestriction, updating, lastupdate, active, quizName, quizDescription, quizStartTime, quizEndTime, quizStartUrl)
                 .from(examRecord)
                 .where(id, isEqualTo(id_))
                 .build()
@@ -186,7 +208,12 @@ public interface ExamRecordMapper {
                 .set(lmsSebRestriction).equalTo(record::getLmsSebRestriction)
                 .set(updating).equalTo(record::getUpdating)
                 .set(lastupdate).equalTo(record::getLastupdate)
-                .set(active).equalTo(record::getActive);
+                .set(active).equalTo(record::getActive)
+                .set(quizName).equalTo(record::getQuizName)
+                .set(quizDescription).equalTo(record::getQuizDescription)
+                .set(quizStartTime).equalTo(record::getQuizStartTime)
+                .set(quizEndTime).equalTo(record::getQuizEndTime)
+                .set(quizStartUrl).equalTo(record::getQuizStartUrl);
     }
 
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.999+01:00", comments="Source Table: exam")
@@ -204,7 +231,12 @@ public interface ExamRecordMapper {
                 .set(lmsSebRestriction).equalToWhenPresent(record::getLmsSebRestriction)
                 .set(updating).equalToWhenPresent(record::getUpdating)
                 .set(lastupdate).equalToWhenPresent(record::getLastupdate)
-                .set(active).equalToWhenPresent(record::getActive);
+                .set(active).equalToWhenPresent(record::getActive)
+                .set(quizName).equalToWhenPresent(record::getQuizName)
+                .set(quizDescription).equalToWhenPresent(record::getQuizDescription)
+                .set(quizStartTime).equalToWhenPresent(record::getQuizStartTime)
+                .set(quizEndTime).equalToWhenPresent(record::getQuizEndTime)
+                .set(quizStartUrl).equalToWhenPresent(record::getQuizStartUrl);
     }
 
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.999+01:00", comments="Source Table: exam")
@@ -223,6 +255,11 @@ public interface ExamRecordMapper {
                 .set(updating).equalTo(record::getUpdating)
                 .set(lastupdate).equalTo(record::getLastupdate)
                 .set(active).equalTo(record::getActive)
+                .set(quizName).equalTo(record::getQuizName)
+                .set(quizDescription).equalTo(record::getQuizDescription)
+                .set(quizStartTime).equalTo(record::getQuizStartTime)
+                .set(quizEndTime).equalTo(record::getQuizEndTime)
+                .set(quizStartUrl).equalTo(record::getQuizStartUrl)
                 .where(id, isEqualTo(record::getId))
                 .build()
                 .execute();
@@ -244,6 +281,11 @@ public interface ExamRecordMapper {
                 .set(updating).equalToWhenPresent(record::getUpdating)
                 .set(lastupdate).equalToWhenPresent(record::getLastupdate)
                 .set(active).equalToWhenPresent(record::getActive)
+                .set(quizName).equalToWhenPresent(record::getQuizName)
+                .set(quizDescription).equalToWhenPresent(record::getQuizDescription)
+                .set(quizStartTime).equalToWhenPresent(record::getQuizStartTime)
+                .set(quizEndTime).equalToWhenPresent(record::getQuizEndTime)
+                .set(quizStartUrl).equalToWhenPresent(record::getQuizStartUrl)
                 .where(id, isEqualTo(record::getId))
                 .build()
                 .execute();
@@ -1,6 +1,7 @@
 package ch.ethz.seb.sebserver.webservice.datalayer.batis.model;
 
 import javax.annotation.Generated;
+import org.joda.time.DateTime;
 
 public class ExamRecord {
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.995+01:00", comments="Source field: exam.id")
@@ -45,8 +46,23 @@ public class ExamRecord {
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.active")
     private Integer active;
 
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_name")
+    private String quizName;
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_description")
+    private String quizDescription;
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_start_time")
+    private DateTime quizStartTime;
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_end_time")
+    private DateTime quizEndTime;
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_start_url")
+    private String quizStartUrl;
+
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.995+01:00", comments="Source Table: exam")
-    public ExamRecord(Long id, Long institutionId, Long lmsSetupId, String externalId, String owner, String supporter, String type, String quitPassword, String browserKeys, String status, Integer lmsSebRestriction, Integer updating, String lastupdate, Integer active) {
+    public ExamRecord(Long id, Long institutionId, Long lmsSetupId, String externalId, String owner, String supporter, String type, String quitPassword, String browserKeys, String status, Integer lmsSebRestriction, Integer updating, String lastupdate, Integer active, String quizName, String quizDescription, DateTime quizStartTime, DateTime quizEndTime, String quizStartUrl) {
         this.id = id;
         this.institutionId = institutionId;
         this.lmsSetupId = lmsSetupId;
@@ -61,6 +77,11 @@ public class ExamRecord {
         this.updating = updating;
         this.lastupdate = lastupdate;
         this.active = active;
+        this.quizName = quizName;
+        this.quizDescription = quizDescription;
+        this.quizStartTime = quizStartTime;
+        this.quizEndTime = quizEndTime;
+        this.quizStartUrl = quizStartUrl;
     }
 
     @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.995+01:00", comments="Source field: exam.id")
@@ -133,6 +154,31 @@ public class ExamRecord {
         return active;
     }
 
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_name")
+    public String getQuizName() {
+        return quizName;
+    }
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_description")
+    public String getQuizDescription() {
+        return quizDescription;
+    }
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_start_time")
+    public DateTime getQuizStartTime() {
+        return quizStartTime;
+    }
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_end_time")
+    public DateTime getQuizEndTime() {
+        return quizEndTime;
+    }
+
+    @Generated(value="org.mybatis.generator.api.MyBatisGenerator", date="2020-02-05T10:36:21.996+01:00", comments="Source field: exam.quiz_start_url")
+    public String getQuizStartUrl() {
+        return quizStartUrl;
+    }
+
     /**
      * This method was generated by MyBatis Generator.
      * This method corresponds to the database table exam
@@ -159,6 +205,11 @@ public class ExamRecord {
         sb.append(", updating=").append(updating);
         sb.append(", lastupdate=").append(lastupdate);
         sb.append(", active=").append(active);
+        sb.append(", quizName=").append(quizName);
+        sb.append(", quizDescription=").append(quizDescription);
+        sb.append(", quizStartTime=").append(quizStartTime);
+        sb.append(", quizEndTime=").append(quizEndTime);
+        sb.append(", quizStartUrl=").append(quizStartUrl);
         sb.append("]");
         return sb.toString();
     }
@@ -194,7 +245,12 @@ public class ExamRecord {
             && (this.getLmsSebRestriction() == null ? other.getLmsSebRestriction() == null : this.getLmsSebRestriction().equals(other.getLmsSebRestriction()))
             && (this.getUpdating() == null ? other.getUpdating() == null : this.getUpdating().equals(other.getUpdating()))
             && (this.getLastupdate() == null ? other.getLastupdate() == null : this.getLastupdate().equals(other.getLastupdate()))
-            && (this.getActive() == null ? other.getActive() == null : this.getActive().equals(other.getActive()));
+            && (this.getActive() == null ? other.getActive() == null : this.getActive().equals(other.getActive()))
+            && (this.getQuizName() == null ? other.getQuizName() == null : this.getQuizName().equals(other.getQuizName()))
+            && (this.getQuizDescription() == null ? other.getQuizDescription() == null : this.getQuizDescription().equals(other.getQuizDescription()))
+            && (this.getQuizStartTime() == null ? other.getQuizStartTime() == null : this.getQuizStartTime().equals(other.getQuizStartTime()))
+            && (this.getQuizEndTime() == null ? other.getQuizEndTime() == null : this.getQuizEndTime().equals(other.getQuizEndTime()))
+            && (this.getQuizStartUrl() == null ? other.getQuizStartUrl() == null : this.getQuizStartUrl().equals(other.getQuizStartUrl()));
     }
 
     /**
@@ -221,6 +277,11 @@ public class ExamRecord {
         result = prime * result + ((getUpdating() == null) ? 0 : getUpdating().hashCode());
         result = prime * result + ((getLastupdate() == null) ? 0 : getLastupdate().hashCode());
         result = prime * result + ((getActive() == null) ? 0 : getActive().hashCode());
+        result = prime * result + ((getQuizName() == null) ? 0 : getQuizName().hashCode());
+        result = prime * result + ((getQuizDescription() == null) ? 0 : getQuizDescription().hashCode());
+        result = prime * result + ((getQuizStartTime() == null) ? 0 : getQuizStartTime().hashCode());
+        result = prime * result + ((getQuizEndTime() == null) ? 0 : getQuizEndTime().hashCode());
+        result = prime * result + ((getQuizStartUrl() == null) ? 0 : getQuizStartUrl().hashCode());
         return result;
     }
 }
\ No newline at end of file
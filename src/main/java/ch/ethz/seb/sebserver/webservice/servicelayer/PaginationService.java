@@ -9,6 +9,8 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer;
 
 import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.mybatis.dynamic.sql.SqlTable;
@@ -16,6 +18,7 @@ import org.mybatis.dynamic.sql.SqlTable;
 import ch.ethz.seb.sebserver.gbl.model.Entity;
 import ch.ethz.seb.sebserver.gbl.model.Page;
 import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.PageCursor;
 
 /** A service to apply pagination functionality within collection results form data access layer.
  * The default implementation uses Mybatis-PageHelper to apply the pagination on SQL level where possible:
@@ -75,4 +78,42 @@ public interface PaginationService {
             final String tableName,
             final Supplier<Result<Collection<T>>> delegate);
 
+    /** Use this to verify whether cursor based paging is supported for a given table and sort or not.
+     * Cursor based paging is supported for tables with a defined seek column if the result is either
+     * not sorted or sorted by the seek column.
+     *
+     * @param tableName the name of the SQL table on which the pagination is applying to
+     * @param sort the name of the sort column with a leading '-' for descending sort order
+     * @return true if cursor based paging is supported for the given table and sort */
+    boolean isCursorPagingSupported(final String tableName, final String sort);
+
+    /** Get a Page of specified domain models with cursor based (keyset) paging.
+     *
+     * Instead of skipping the entries of all former pages, the delegate gets the PageCursor of the requested
+     * page and selects only the entries after the cursor position, ordered by the seek column and the identifier.
+     * So the costs of a page request do not grow with the page number. If requested, the entries are counted on
+     * the first page only and this approximate number of pages is then passed along with the cursor.
+     *
+     * The delegate must not filter the selected entries by itself. The next page and its cursor position are
+     * detected on the selected entries and only then the entries of the page are filtered with the given predicate.
+     *
+     * @param cursor the continuation token of the requested page or any other value for the first page
+     * @param pageSize the (full) size of the page
+     * @param sort the name of the sort column with a leading '-' for descending sort order
+     * @param count indicates if the number of pages shall be counted on the first page
+     * @param tableName the name of the SQL table on which the pagination is applying to
+     * @param delegate a collection supplier the does the underling SQL query for the given PageCursor
+     * @param predicate the predicate to filter the entries of the page, for example on read access
+     * @param seekValue function to get the seek column value of an entry
+     * @return Result refers to a Page of specified type of model models or to an exception on error case */
+    <T extends Entity> Result<Page<T>> getCursorPage(
+            final String cursor,
+            final Integer pageSize,
+            final String sort,
+            final boolean count,
+            final String tableName,
+            final Function<PageCursor, Result<Collection<T>>> delegate,
+            final Predicate<T> predicate,
+            final Function<T, Long> seekValue);
+
 }
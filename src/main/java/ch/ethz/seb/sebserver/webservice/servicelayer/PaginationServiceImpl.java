@@ -8,10 +8,15 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.mybatis.dynamic.sql.SqlTable;
@@ -35,6 +40,7 @@ import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.LmsSetupRecordDyn
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.SebClientConfigRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.UserActivityLogRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.UserRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.PageCursor;
 
 @Lazy
 @Service
@@ -46,6 +52,7 @@ public class PaginationServiceImpl implements PaginationService {
 
     private final Map<String, Map<String, String>> sortColumnMapping;
     private final Map<String, String> defaultSortColumn;
+    private final Map<String, String> seekSortAttribute;
 
     public PaginationServiceImpl(
             @Value("${sebserver.webservice.api.pagination.defaultPageSize:10}") final int defaultPageSize,
@@ -55,6 +62,7 @@ public class PaginationServiceImpl implements PaginationService {
         this.maxPageSize = maxPageSize;
         this.sortColumnMapping = new HashMap<>();
         this.defaultSortColumn = new HashMap<>();
+        this.seekSortAttribute = new HashMap<>();
         initSortColumnMapping();
     }
 
@@ -145,6 +153,74 @@ public class PaginationServiceImpl implements PaginationService {
         });
     }
 
+    @Override
+    public boolean isCursorPagingSupported(final String tableName, final String sort) {
+        final String seekAttribute = this.seekSortAttribute.get(tableName);
+        if (seekAttribute == null) {
+            return false;
+        }
+
+        return StringUtils.isBlank(sort) || seekAttribute.equals(PageSortOrder.decode(sort));
+    }
+
+    @Override
+    public <T extends Entity> Result<Page<T>> getCursorPage(
+            final String cursor,
+            final Integer pageSize,
+            final String sort,
+            final boolean count,
+            final String tableName,
+            final Function<PageCursor, Result<Collection<T>>> delegate,
+            final Predicate<T> predicate,
+            final Function<T, Long> seekValue) {
+
+        return Result.tryCatch(() -> {
+            if (!isCursorPagingSupported(tableName, sort)) {
+                throw new IllegalArgumentException(
+                        "Cursor based paging is not supported for table: " + tableName + " sort: " + sort);
+            }
+
+            final PageCursor pageCursor = PageCursor.decode(cursor, sort);
+            final int size = getPageSize(pageSize);
+            final boolean countPages = count && pageCursor.isFirstPage();
+
+            // select one more entry than the page size to know if there is a next page
+            final com.github.pagehelper.Page<Object> page = PageHelper.startPage(1, size + 1, countPages);
+            final String order = (pageCursor.isDescending()) ? " DESC" : "";
+            final String seekColumn = this.sortColumnMapping
+                    .get(tableName)
+                    .get(this.seekSortAttribute.get(tableName));
+            PageHelper.orderBy(
+                    tableName + "." + seekColumn + order + ", " +
+                            tableName + "." + this.defaultSortColumn.get(tableName) + order);
+
+            final List<T> list = new ArrayList<>(delegate.apply(pageCursor).getOrThrow());
+
+            final Integer numberOfPages = (countPages)
+                    ? Integer.valueOf((int) ((page.getTotal() + size - 1) / size))
+                    : pageCursor.numberOfPages;
+
+            // the next page and its position are taken from the selected entries before they are filtered
+            final List<T> content = list
+                    .subList(0, Math.min(size, list.size()))
+                    .stream()
+                    .filter(predicate)
+                    .collect(Collectors.toList());
+
+            if (list.size() <= size) {
+                return new Page<>(numberOfPages, pageCursor.pageNumber, sort, content, null);
+            }
+
+            final T last = list.get(size - 1);
+            final PageCursor next = pageCursor.next(
+                    seekValue.apply(last),
+                    Long.valueOf(last.getModelId()),
+                    numberOfPages);
+
+            return new Page<>(numberOfPages, pageCursor.pageNumber, sort, content, next.encode());
+        });
+    }
+
     private String verifySortColumnName(final String sort, final String columnName) {
 
         if (StringUtils.isBlank(sort)) {
@@ -302,6 +378,9 @@ public class PaginationServiceImpl implements PaginationService {
         this.defaultSortColumn.put(
                 ClientEventRecordDynamicSqlSupport.clientEventRecord.name(),
                 Domain.CLIENT_EVENT.ATTR_ID);
+        this.seekSortAttribute.put(
+                ClientEventRecordDynamicSqlSupport.clientEventRecord.name(),
+                Domain.CLIENT_EVENT.ATTR_SERVER_TIME);
 
         // User Activity Log Table
         final Map<String, String> userActivityLogTableMap = new HashMap<>();
@@ -326,6 +405,9 @@ public class PaginationServiceImpl implements PaginationService {
         this.defaultSortColumn.put(
                 UserActivityLogRecordDynamicSqlSupport.userActivityLogRecord.name(),
                 Domain.USER_ACTIVITY_LOG.ATTR_ID);
+        this.seekSortAttribute.put(
+                UserActivityLogRecordDynamicSqlSupport.userActivityLogRecord.name(),
+                Domain.USER_ACTIVITY_LOG.ATTR_TIMESTAMP);
 
     }
 
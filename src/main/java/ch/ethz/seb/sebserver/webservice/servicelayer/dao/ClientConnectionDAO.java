@@ -11,59 +11,51 @@ package ch.ethz.seb.sebserver.webservice.servicelayer.dao;
 import java.util.Collection;
 import java.util.Set;
 
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-
 import ch.ethz.seb.sebserver.gbl.model.EntityKey;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 
 public interface ClientConnectionDAO extends EntityDAO<ClientConnection, ClientConnection> {
 
-    String CONNECTION_TOKENS_CACHE = "CONNECTION_TOKENS_CACHE";
-
     /** Get a list of all connection tokens of all connections (no matter what state)
      * of an exam.
      *
-     * Caches the resulting collection of tokens with the given examId as key
-     * unless the result has no error.
+     * The connection tokens are held in an in-memory registry per exam that is loaded once from
+     * persistent storage and then updated on creation, update and deletion of client connections.
+     * In a distributed setup the registry of an exam is reloaded after the configured refresh interval
+     * (sebserver.webservice.api.exam.connection-tokens.refresh-interval) to get also the client connections
+     * that are created on other webservice instances.
      *
      * @param examId The exam identifier
      * @return list of all connection tokens of all connections (no matter what state)
      *         of an exam */
-    @Cacheable(
-            cacheNames = CONNECTION_TOKENS_CACHE,
-            key = "#examId",
-            unless = "#result.hasError()")
     Result<Collection<String>> getConnectionTokens(Long examId);
 
     /** Creates new ClientConnection from the given ClientConnection data.
      *
-     * This evicts all entries from the CONNECTION_TOKENS_CACHE.
-     *
-     * TODO improvement: Use the examId to evict only the relevant cache entry
+     * This registers the connection token of the new ClientConnection for its exam.
      *
      * @param data ClientConnection instance
      * @return Result refer to the newly created ClientConnection data or to an error if happened */
     @Override
-    @CacheEvict(cacheNames = CONNECTION_TOKENS_CACHE, allEntries = true)
     Result<ClientConnection> createNew(ClientConnection data);
 
+    /** Saves the given ClientConnection data.
+     *
+     * This registers the connection token of the ClientConnection for its exam.
+     *
+     * @param data ClientConnection instance
+     * @return Result refer to the saved ClientConnection data or to an error if happened */
     @Override
-    // TODO check if this is needed
-    @CacheEvict(cacheNames = CONNECTION_TOKENS_CACHE, allEntries = true)
     Result<ClientConnection> save(ClientConnection data);
 
     /** Deletes the given ClientConnection data.
      *
-     * This evicts all entries from the CONNECTION_TOKENS_CACHE.
-     *
-     * TODO improvement: Use the examId to evict only the relevant cache entry
+     * This removes the connection tokens of the deleted ClientConnection from the registry of their exam.
      *
      * @param all Set of EntityKey for entities to delete
      * @return Result refer to a collection of deleted entities or to an error if happened */
     @Override
-    @CacheEvict(cacheNames = CONNECTION_TOKENS_CACHE, allEntries = true)
     Result<Collection<EntityKey>> delete(Set<EntityKey> all);
 
     /** Get a ClientConnection by connection token.
@@ -17,7 +17,22 @@ import ch.ethz.seb.sebserver.gbl.util.Result;
 
 public interface ClientEventDAO extends EntityDAO<ClientEvent, ClientEvent> {
 
+    /** The name of the additional attribute of an exam that marks the client events of the exam as archived.
+     * The value is the time in milliseconds the client events has been archived. */
+    String ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVED = "clientEventsArchived";
+
+    /** The name of the additional attribute of an exam that marks the client events of the exam as being archived.
+     * This is set before the first client event of the exam is moved to the archive table. The value is the time
+     * in milliseconds the archiving has been started. */
+    String ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING = "clientEventsArchiving";
+
     /** Use this to get all matching ExtendedClientEvent from persistent storage.
+     * <p>
+     * The client events of an exam or a client connection are read from the client event table, from the
+     * archive table if the exam is archived (see ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVED) or from both tables while
+     * the exam is being archived (see ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING). Without exam or client connection
+     * criteria, the client events are read from both tables if there are archived exams within the requested
+     * institution and otherwise from the client event table only.
      *
      * @param filterMap the FilterMap containing all the filter criteria
      * @param predicate an additional predicate to filter the list
@@ -26,4 +41,17 @@ public interface ClientEventDAO extends EntityDAO<ClientEvent, ClientEvent> {
             FilterMap filterMap,
             Predicate<ExtendedClientEvent> predicate);
 
+    /** Use this to move the next chunk of client events of the given exam from the client event table
+     * to the client event archive table. Each chunk is moved within its own transaction so that the client
+     * event table is only locked for the few rows of one chunk at a time.
+     * <p>
+     * The exam has to be marked as being archived (see ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING) before the first
+     * chunk is moved, so that the client events of the exam are read from both tables until the exam is marked as
+     * archived (see ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVED). Afterwards they are read from the archive table only.
+     *
+     * @param examId the exam identifier
+     * @param chunkSize the maximal number of client events to move
+     * @return Result refer to the number of moved client events or to an error if happened */
+    Result<Integer> archiveEvents(Long examId, int chunkSize);
+
 }
@@ -22,8 +22,34 @@ public interface ClientInstructionDAO {
             String attributes,
             String connectionTokens);
 
+    /** Inserts the same instruction for all given connection tokens with multi-row INSERT statements
+     * within one transaction.
+     *
+     * @param examId the exam identifier
+     * @param type the InstructionType
+     * @param attributes the instruction's attributes as JSON string
+     * @param connectionTokens the connection tokens to insert the instruction for
+     * @return Result refer to the inserted ClientInstructionRecords or to an error if happened */
+    Result<Collection<ClientInstructionRecord>> insert(
+            Long examId,
+            InstructionType type,
+            String attributes,
+            Collection<String> connectionTokens);
+
     Result<Collection<ClientInstructionRecord>> getAllActive();
 
+    /** Get all active instructions with an identifier greater than the given one in the order of the identifiers.
+     *
+     * @param afterId the identifier watermark
+     * @return Result refer to the active instructions after the given identifier or to an error if happened */
+    Result<Collection<ClientInstructionRecord>> getAllActive(Long afterId);
+
     Result<Void> delete(Long id);
 
+    /** Deletes all instructions with the given identifiers within one statement.
+     *
+     * @param ids the identifiers of the instructions to delete
+     * @return Result refer to the number of deleted instructions or to an error if happened */
+    Result<Integer> delete(Collection<Long> ids);
+
 }
@@ -105,4 +105,30 @@ public interface ConfigurationDAO extends EntityDAO<Configuration, Configuration
      * @return the last version of configuration */
     Result<Configuration> getConfigurationLastStableVersion(Long configNodeId);
 
+    /** Use this to get the persisted Config-Key of a stable configuration version.
+     *
+     * @param configurationId the identifier of the stable configuration version
+     * @return Result refer to the persisted Config-Key or to a ResourceNotFoundException if there is none */
+    Result<String> getConfigKey(Long configurationId);
+
+    /** Use this to reserve the computation of the Config-Key of a stable configuration version before
+     * the configuration values are read for the computation.
+     * The reservation is deleted whenever values of the configuration are saved or imported.
+     *
+     * @param configurationId the identifier of the stable configuration version
+     * @return Result refer to the reservation or to an error if happened */
+    Result<String> reserveConfigKey(Long configurationId);
+
+    /** Use this to persist the Config-Key of a stable configuration version.
+     * The Config-Key is only persisted if the given reservation is still valid, which means that the values
+     * of the configuration have not been changed since the reservation. Otherwise the Config-Key is computed
+     * again on next request.
+     * The persisted Config-Key is deleted whenever values of the configuration are saved or imported.
+     *
+     * @param configurationId the identifier of the stable configuration version
+     * @param configKey the Config-Key of the configuration version
+     * @param reservation the reservation that was made before the Config-Key was computed
+     * @return Result refer to the given Config-Key or to an error if happened */
+    Result<String> saveConfigKey(Long configurationId, String configKey, String reservation);
+
 }
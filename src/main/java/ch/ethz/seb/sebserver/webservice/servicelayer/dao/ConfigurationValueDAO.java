@@ -59,6 +59,19 @@ public interface ConfigurationValueDAO extends EntityDAO<ConfigurationValue, Con
      * @return the saved table values of the attribute and configuration */
     Result<ConfigurationTableValues> saveTableValues(ConfigurationTableValues value);
 
+    /** Use this to save a large amount of values of a configuration at once, for example on a configuration import.
+     * The values are saved with batched multi-row statements within one transaction. A value that already exists
+     * for the same attribute and list index is updated, otherwise the value is created.
+     *
+     * @param institutionId the institution identifier of the configuration
+     * @param configurationId the configuration identifier
+     * @param values all values to save
+     * @return Result refer to the number of saved values or to an error if happened */
+    Result<Integer> saveAll(
+            Long institutionId,
+            Long configurationId,
+            Collection<ConfigurationValue> values);
+
     /** Use this to (re)set the default value(s) for a configuration attributes of a given configuration entry.
      * This uses also the ExamConfigInitService to initialize table values
      *
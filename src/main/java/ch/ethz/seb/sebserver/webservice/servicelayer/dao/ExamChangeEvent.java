@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.context.ApplicationEvent;
+
+/** Event that is published by the ExamDAO whenever the persistent data of one or more exams has been changed.
+ * This is a created, modified, activated, deactivated or deleted exam, a change of the exam status or
+ * an update of the quiz data of an exam from the LMS. */
+public class ExamChangeEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 3426370812356730163L;
+
+    public ExamChangeEvent(final Collection<Long> examIds) {
+        super(Collections.unmodifiableCollection(new ArrayList<>(examIds)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Collection<Long> getExamIds() {
+        return (Collection<Long>) this.source;
+    }
+
+}
@@ -14,6 +14,7 @@ import org.springframework.cache.annotation.CacheEvict;
 
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.BulkActionSupportDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
@@ -73,6 +74,34 @@ public interface ExamDAO extends ActivatableEntityDAO<Exam, Exam>, BulkActionSup
      * @return Result refer to a collection of exams or to an error if happened */
     Result<Collection<Exam>> allForEndCheck();
 
+    /** This is used to get all Exams that need a synchronization of the local quiz data snapshot with the LMS.
+     * Gets all active exams that are not finished yet or that has no quiz data snapshot at all.
+     * <p>
+     * The quiz data of the Exams are mapped solely from the local snapshot and are null if there is no
+     * snapshot for an Exam yet.
+     *
+     * @return Result refer to a collection of exams or to an error if happened */
+    Result<Collection<Exam>> allForQuizDataSync();
+
+    /** This is used to get all active Exams in the finished status.
+     * <p>
+     * The quiz data of the Exams are mapped solely from the local snapshot and are null if there is no
+     * snapshot for an Exam.
+     *
+     * @return Result refer to a collection of exams or to an error if happened */
+    Result<Collection<Exam>> allFinished();
+
+    /** Updates the local quiz data snapshot (name, description, start-, end-time and start URL) of the
+     * specified exam with the given QuizData from the LMS.
+     *
+     * @param examId the exam identifier
+     * @param quizData the QuizData from the LMS to update the snapshot with
+     * @return Result refer to updated Exam or to an error if happened */
+    @CacheEvict(
+            cacheNames = ExamSessionCacheService.CACHE_NAME_RUNNING_EXAM,
+            key = "#examId")
+    Result<Exam> updateQuizData(Long examId, QuizData quizData);
+
     /** Get a collection of all currently running exam identifiers
      *
      * @return collection of all currently running exam identifiers */
@@ -45,6 +45,8 @@ import ch.ethz.seb.sebserver.gbl.util.Utils;
  * All text based filter criteria are used as SQL wildcard's */
 public class FilterMap extends POSTMapper {
 
+    private PageCursor pageCursor = null;
+
     public FilterMap() {
         super(new LinkedMultiValueMap<>(), null);
     }
@@ -53,6 +55,21 @@ public class FilterMap extends POSTMapper {
         super(params, uriQueryString);
     }
 
+    /** Use this to apply the position of a cursor based paging to the filter criteria.
+     * Data access objects that supports cursor based paging only select the entries after
+     * the given cursor position.
+     *
+     * @param pageCursor the cursor of the requested page
+     * @return this FilterMap instance */
+    public FilterMap withPageCursor(final PageCursor pageCursor) {
+        this.pageCursor = pageCursor;
+        return this;
+    }
+
+    public PageCursor getPageCursor() {
+        return this.pageCursor;
+    }
+
     public Integer getActiveAsInt() {
         return getBooleanAsInteger(UserInfo.FILTER_ATTR_ACTIVE);
     }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+import org.mybatis.dynamic.sql.BindableColumn;
+import org.mybatis.dynamic.sql.SqlBuilder;
+import org.mybatis.dynamic.sql.where.AbstractWhereDSL;
+
+import ch.ethz.seb.sebserver.gbl.model.PageSortOrder;
+
+/** The position of a cursor based (keyset) paging within a result that is ordered by a seek column and the
+ * identifier of the entries.
+ * <p>
+ * Instead of skipping all entries of the former pages on SQL level, a data access object that supports
+ * cursor based paging only selects the entries that are after the seek value and identifier of the last entry
+ * of the former page. The cursor is encoded as an opaque continuation token that also carries the page number
+ * and the approximate number of pages that has been counted on the first page. */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "";
+
+    /** The requested sort with a leading '-' for descending sort order */
+    public final String sort;
+    /** The seek value of the last entry of the former page or null for the first page */
+    public final Long value;
+    /** The identifier of the last entry of the former page or null for the first page */
+    public final Long id;
+    /** The number of the page this cursor refers to */
+    public final int pageNumber;
+    /** The approximate number of pages or null if not counted */
+    public final Integer numberOfPages;
+
+    private PageCursor(
+            final String sort,
+            final Long value,
+            final Long id,
+            final int pageNumber,
+            final Integer numberOfPages) {
+
+        this.sort = sort;
+        this.value = value;
+        this.id = id;
+        this.pageNumber = pageNumber;
+        this.numberOfPages = numberOfPages;
+    }
+
+    public boolean isFirstPage() {
+        return this.value == null || this.id == null;
+    }
+
+    public boolean isDescending() {
+        return PageSortOrder.getSortOrder(this.sort) == PageSortOrder.DESCENDING;
+    }
+
+    /** Creates the cursor of the next page.
+     *
+     * @param value the seek value of the last entry of this page
+     * @param id the identifier of the last entry of this page
+     * @param numberOfPages the approximate number of pages or null if not counted
+     * @return the cursor of the next page */
+    public PageCursor next(final Long value, final Long id, final Integer numberOfPages) {
+        return new PageCursor(this.sort, value, id, this.pageNumber + 1, numberOfPages);
+    }
+
+    /** Applies the seek criteria of this cursor to the given where clause.
+     * This selects only the entries after the last entry of the former page within the order of the given
+     * seek column and identifier column. Nothing is applied for the first page.
+     *
+     * @param where the where clause to apply the seek criteria to
+     * @param seekColumn the seek column
+     * @param idColumn the identifier column
+     * @return the given where clause */
+    public <W extends AbstractWhereDSL<W>> W applySeekCriteria(
+            final W where,
+            final BindableColumn<Long> seekColumn,
+            final BindableColumn<Long> idColumn) {
+
+        if (isFirstPage()) {
+            return where;
+        }
+
+        if (isDescending()) {
+            return where.and(
+                    seekColumn,
+                    SqlBuilder.isLessThan(this.value),
+                    SqlBuilder.or(
+                            seekColumn,
+                            SqlBuilder.isEqualTo(this.value),
+                            SqlBuilder.and(idColumn, SqlBuilder.isLessThan(this.id))));
+        } else {
+            return where.and(
+                    seekColumn,
+                    SqlBuilder.isGreaterThan(this.value),
+                    SqlBuilder.or(
+                            seekColumn,
+                            SqlBuilder.isEqualTo(this.value),
+                            SqlBuilder.and(idColumn, SqlBuilder.isGreaterThan(this.id))));
+        }
+    }
+
+    /** Encodes this cursor to an opaque continuation token.
+     *
+     * @return the continuation token of this cursor */
+    public String encode() {
+        final String plain = StringUtils.join(new Object[] {
+                StringUtils.defaultString(this.sort),
+                toString(this.value),
+                toString(this.id),
+                this.pageNumber,
+                toString(this.numberOfPages)
+        }, SEPARATOR);
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("PageCursor [sort=");
+        builder.append(this.sort);
+        builder.append(", value=");
+        builder.append(this.value);
+        builder.append(", id=");
+        builder.append(this.id);
+        builder.append(", pageNumber=");
+        builder.append(this.pageNumber);
+        builder.append(", numberOfPages=");
+        builder.append(this.numberOfPages);
+        builder.append("]");
+        return builder.toString();
+    }
+
+    /** Creates a cursor of the first page with the given sort.
+     *
+     * @param sort the requested sort with a leading '-' for descending sort order
+     * @return a cursor of the first page */
+    public static PageCursor firstPage(final String sort) {
+        return new PageCursor(sort, null, null, 1, null);
+    }
+
+    /** Decodes the given continuation token.
+     * If the token is not a valid continuation token or was created for another sort, this returns the
+     * cursor of the first page for the given sort.
+     *
+     * @param token the continuation token
+     * @param sort the requested sort with a leading '-' for descending sort order
+     * @return the decoded cursor or the cursor of the first page */
+    public static PageCursor decode(final String token, final String sort) {
+        if (StringUtils.isBlank(token)) {
+            return firstPage(sort);
+        }
+
+        try {
+            final String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final String[] split = StringUtils.splitPreserveAllTokens(plain, SEPARATOR);
+            if (split.length != 5 || !Objects.equals(split[0], StringUtils.defaultString(sort))) {
+                return firstPage(sort);
+            }
+
+            return new PageCursor(
+                    sort,
+                    toLong(split[1]),
+                    toLong(split[2]),
+                    Integer.parseInt(split[3]),
+                    (split[4].equals(NULL_VALUE)) ? null : Integer.parseInt(split[4]));
+
+        } catch (final Exception e) {
+            return firstPage(sort);
+        }
+    }
+
+    private static String toString(final Number value) {
+        return (value != null) ? String.valueOf(value) : NULL_VALUE;
+    }
+
+    private static Long toLong(final String value) {
+        return (value.equals(NULL_VALUE)) ? null : Long.parseLong(value);
+    }
+
+}
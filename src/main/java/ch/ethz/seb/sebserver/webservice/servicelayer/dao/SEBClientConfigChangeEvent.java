@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.context.ApplicationEvent;
+
+/** Event that is published by the SEBClientConfigDAO whenever the persistent data of one or more SEB client
+ * configurations has been changed. This is a modified, activated, deactivated or deleted SEB client
+ * configuration. */
+public class SEBClientConfigChangeEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -6214507311383695632L;
+
+    public SEBClientConfigChangeEvent(final Collection<Long> configIds) {
+        super(Collections.unmodifiableCollection(new ArrayList<>(configIds)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Collection<Long> getConfigIds() {
+        return (Collection<Long>) this.source;
+    }
+
+}
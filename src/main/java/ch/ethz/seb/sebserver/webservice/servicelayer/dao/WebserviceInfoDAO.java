@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.dao;
+
+import ch.ethz.seb.sebserver.gbl.util.Result;
+
+/** Data access for the registry of the webservice instances of a distributed setup and the
+ * lease based leader (master) election between them. */
+public interface WebserviceInfoDAO {
+
+    /** Updates the heartbeat of the webservice instance with the given uuid and renews or acquires the
+     * master lease for this instance if possible.
+     * <p>
+     * The master lease is held by the instance that has the master flag and has updated its heartbeat within
+     * the given lease time. If there is no such instance, the master lease is acquired by the calling instance.
+     * Instances that have not updated its heartbeat for a long time are removed from the registry.
+     *
+     * @param uuid the unique identifier of the webservice instance
+     * @param serviceAddress the address of the webservice instance
+     * @param now the current time in milliseconds the heartbeat is taken on
+     * @param leaseTime the time in milliseconds a master lease is valid after the last heartbeat
+     * @return Result refer to true if the webservice instance holds the master lease or to an error if happened */
+    Result<Boolean> updateMaster(String uuid, String serviceAddress, long now, long leaseTime);
+
+    /** Removes the webservice instance with the given uuid from the registry.
+     * If the instance holds the master lease, the lease is released and can be acquired by another instance
+     * on the next heartbeat.
+     *
+     * @param uuid the unique identifier of the webservice instance
+     * @return Result refer to true if the instance was registered or to an error if happened */
+    Result<Boolean> unregister(String uuid);
+
+}
@@ -13,15 +13,24 @@ import static org.mybatis.dynamic.sql.SqlBuilder.isIn;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.mybatis.dynamic.sql.SqlBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import ch.ethz.seb.sebserver.gbl.api.EntityType;
 import ch.ethz.seb.sebserver.gbl.model.EntityKey;
@@ -30,6 +39,8 @@ import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventArchiveMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventCountMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
@@ -49,13 +60,33 @@ public class ClientConnectionDAOImpl implements ClientConnectionDAO {
 
     private final ClientConnectionRecordMapper clientConnectionRecordMapper;
     private final ClientEventRecordMapper clientEventRecordMapper;
+    private final ClientEventCountMapper clientEventCountMapper;
+    private final ClientEventArchiveMapper clientEventArchiveMapper;
+    private final boolean distributed;
+    private final long tokensRefreshInterval;
+
+    /** In-memory registry of the connection tokens of all client connections per exam.
+     * The registry is changed only after the changing transaction has been committed and a reload only adds
+     * tokens. The tokens of client connections that has been deleted on another webservice instance are
+     * dropped when the entry expires and the tokens of the exam are loaded again. */
+    private final Cache<Long, ExamConnectionTokens> connectionTokens = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
 
     protected ClientConnectionDAOImpl(
             final ClientConnectionRecordMapper clientConnectionRecordMapper,
-            final ClientEventRecordMapper clientEventRecordMapper) {
+            final ClientEventRecordMapper clientEventRecordMapper,
+            final ClientEventCountMapper clientEventCountMapper,
+            final ClientEventArchiveMapper clientEventArchiveMapper,
+            @Value("${sebserver.webservice.distributed:false}") final boolean distributed,
+            @Value("${sebserver.webservice.api.exam.connection-tokens.refresh-interval:5000}") final long tokensRefreshInterval) {
 
         this.clientConnectionRecordMapper = clientConnectionRecordMapper;
         this.clientEventRecordMapper = clientEventRecordMapper;
+        this.clientEventCountMapper = clientEventCountMapper;
+        this.clientEventArchiveMapper = clientEventArchiveMapper;
+        this.distributed = distributed;
+        this.tokensRefreshInterval = tokensRefreshInterval;
     }
 
     @Override
@@ -110,19 +141,19 @@ public class ClientConnectionDAOImpl implements ClientConnectionDAO {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Result<Collection<String>> getConnectionTokens(final Long examId) {
-        return Result.tryCatch(() -> this.clientConnectionRecordMapper
-                .selectByExample()
-                .where(
-                        ClientConnectionRecordDynamicSqlSupport.examId,
-                        SqlBuilder.isEqualTo(examId))
-                .build()
-                .execute()
-                .stream()
-                .map(ClientConnectionRecord::getConnectionToken)
-                .filter(StringUtils::isNotBlank)
-                .collect(Collectors.toList()));
+        return Result.tryCatch(() -> {
+            final ExamConnectionTokens examConnectionTokens = this.connectionTokens.get(
+                    examId,
+                    id -> new ExamConnectionTokens());
+
+            final long now = Utils.getMillisecondsNow();
+            if (examConnectionTokens.needsLoad(now)) {
+                loadConnectionTokens(examId, examConnectionTokens, now);
+            }
+
+            return Collections.unmodifiableSet(examConnectionTokens.tokens);
+        });
     }
 
     @Override
@@ -142,6 +173,7 @@ public class ClientConnectionDAOImpl implements ClientConnectionDAO {
                     Utils.getMillisecondsNow());
 
             this.clientConnectionRecordMapper.insert(newRecord);
+            afterCommit(() -> registerConnectionToken(newRecord));
             return newRecord;
         })
                 .flatMap(ClientConnectionDAOImpl::toDomainModel)
@@ -165,7 +197,9 @@ public class ClientConnectionDAOImpl implements ClientConnectionDAO {
                     null);
 
             this.clientConnectionRecordMapper.updateByPrimaryKeySelective(updateRecord);
-            return this.clientConnectionRecordMapper.selectByPrimaryKey(data.id);
+            final ClientConnectionRecord record = this.clientConnectionRecordMapper.selectByPrimaryKey(data.id);
+            afterCommit(() -> registerConnectionToken(record));
+            return record;
         })
                 .flatMap(ClientConnectionDAOImpl::toDomainModel)
                 .onError(TransactionHandler::rollback);
@@ -178,6 +212,17 @@ public class ClientConnectionDAOImpl implements ClientConnectionDAO {
 
             final List<Long> ids = extractListOfPKs(all);
 
+            // remove the connection tokens from the in-memory registry
+            if (!ids.isEmpty()) {
+                final List<ClientConnectionRecord> records = this.clientConnectionRecordMapper.selectByExample()
+                        .where(
+                                ClientConnectionRecordDynamicSqlSupport.id,
+                                SqlBuilder.isIn(ids))
+                        .build()
+                        .execute();
+                afterCommit(() -> records.forEach(this::unregisterConnectionToken));
+            }
+
             // first delete all related client events
             this.clientEventRecordMapper.deleteByExample()
                     .where(
@@ -186,6 +231,12 @@ public class ClientConnectionDAOImpl implements ClientConnectionDAO {
                     .build()
                     .execute();
 
+            // and the related client event counts and archived client events
+            if (!ids.isEmpty()) {
+                this.clientEventCountMapper.deleteForConnections(ids);
+                this.clientEventArchiveMapper.deleteForConnections(ids);
+            }
+
             // then delete all requested client-connections
             this.clientConnectionRecordMapper.deleteByExample()
                     .where(
@@ -225,6 +276,80 @@ public class ClientConnectionDAOImpl implements ClientConnectionDAO {
                 .flatMap(ClientConnectionDAOImpl::toDomainModel);
     }
 
+    private void loadConnectionTokens(
+            final Long examId,
+            final ExamConnectionTokens examConnectionTokens,
+            final long now) {
+
+        synchronized (examConnectionTokens) {
+            if (!examConnectionTokens.needsLoad(now)) {
+                return;
+            }
+
+            final List<String> tokens = this.clientConnectionRecordMapper
+                    .selectByExample()
+                    .where(
+                            ClientConnectionRecordDynamicSqlSupport.examId,
+                            SqlBuilder.isEqualTo(examId))
+                    .build()
+                    .execute()
+                    .stream()
+                    .map(ClientConnectionRecord::getConnectionToken)
+                    .filter(StringUtils::isNotBlank)
+                    .collect(Collectors.toList());
+
+            // only add the tokens to keep the tokens that has been registered meanwhile
+            // by transactions that were not committed when the tokens were loaded
+            examConnectionTokens.tokens.addAll(tokens);
+            examConnectionTokens.loadTime = now;
+        }
+    }
+
+    private void registerConnectionToken(final ClientConnectionRecord record) {
+        if (record == null || record.getExamId() == null || StringUtils.isBlank(record.getConnectionToken())) {
+            return;
+        }
+
+        final Long examId = record.getExamId();
+        final String token = record.getConnectionToken();
+        // the entry is created also if the tokens of the exam are not loaded yet so that a concurrent
+        // load that not sees the not yet committed client connection cannot lose the token
+        this.connectionTokens.get(examId, id -> new ExamConnectionTokens()).tokens.add(token);
+        // a client connection can only belong to one exam
+        this.connectionTokens.asMap().forEach((id, examConnectionTokens) -> {
+            if (!examId.equals(id)) {
+                examConnectionTokens.tokens.remove(token);
+            }
+        });
+    }
+
+    private void unregisterConnectionToken(final ClientConnectionRecord record) {
+        if (record.getExamId() == null || StringUtils.isBlank(record.getConnectionToken())) {
+            return;
+        }
+
+        final ExamConnectionTokens examConnectionTokens = this.connectionTokens.getIfPresent(record.getExamId());
+        if (examConnectionTokens != null) {
+            examConnectionTokens.tokens.remove(record.getConnectionToken());
+        }
+    }
+
+    /** Applies the given change of the in-memory registry after the current transaction has been committed
+     * or immediately if there is no active transaction. */
+    private static void afterCommit(final Runnable registryChange) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registryChange.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                registryChange.run();
+            }
+        });
+    }
+
     private Result<ClientConnectionRecord> recordById(final Long id) {
         return Result.tryCatch(() -> {
 
@@ -259,4 +384,17 @@ public class ClientConnectionDAOImpl implements ClientConnectionDAO {
 
     }
 
+    private final class ExamConnectionTokens {
+
+        final Set<String> tokens = ConcurrentHashMap.newKeySet();
+        /** The time the tokens has been loaded from persistent storage or 0 if not loaded yet */
+        volatile long loadTime = 0;
+
+        boolean needsLoad(final long now) {
+            return this.loadTime == 0 ||
+                    (ClientConnectionDAOImpl.this.distributed &&
+                            now - this.loadTime > ClientConnectionDAOImpl.this.tokensRefreshInterval);
+        }
+    }
+
 }
@@ -14,11 +14,15 @@ import static org.mybatis.dynamic.sql.SqlBuilder.isIn;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.mybatis.dynamic.sql.SqlBuilder;
+import org.mybatis.dynamic.sql.SqlTable;
+import org.mybatis.dynamic.sql.select.MyBatis3SelectModelAdapter;
+import org.mybatis.dynamic.sql.select.QueryExpressionDSL;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,15 +35,22 @@ import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
 import ch.ethz.seb.sebserver.gbl.model.session.ExtendedClientEvent;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventArchiveMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper.ConnectionEventJoinRecord;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.AdditionalAttributeRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.AdditionalAttributeRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.AdditionalAttributeRecord;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientConnectionRecord;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientEventDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.DAOLoggingSupport;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.PageCursor;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ResourceNotFoundException;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
 
@@ -50,13 +61,22 @@ public class ClientEventDAOImpl implements ClientEventDAO {
 
     private final ClientEventRecordMapper clientEventRecordMapper;
     private final ClientEventExtensionMapper clientEventExtensionMapper;
+    private final ClientEventArchiveMapper clientEventArchiveMapper;
+    private final ClientConnectionRecordMapper clientConnectionRecordMapper;
+    private final AdditionalAttributeRecordMapper additionalAttributeRecordMapper;
 
     protected ClientEventDAOImpl(
             final ClientEventRecordMapper clientEventRecordMapper,
-            final ClientEventExtensionMapper clientEventExtensionMapper) {
+            final ClientEventExtensionMapper clientEventExtensionMapper,
+            final ClientEventArchiveMapper clientEventArchiveMapper,
+            final ClientConnectionRecordMapper clientConnectionRecordMapper,
+            final AdditionalAttributeRecordMapper additionalAttributeRecordMapper) {
 
         this.clientEventRecordMapper = clientEventRecordMapper;
         this.clientEventExtensionMapper = clientEventExtensionMapper;
+        this.clientEventArchiveMapper = clientEventArchiveMapper;
+        this.clientConnectionRecordMapper = clientConnectionRecordMapper;
+        this.additionalAttributeRecordMapper = additionalAttributeRecordMapper;
     }
 
     @Override
@@ -117,47 +137,76 @@ public class ClientEventDAOImpl implements ClientEventDAO {
             final FilterMap filterMap,
             final Predicate<ExtendedClientEvent> predicate) {
 
-        return Result.tryCatch(() -> this.clientEventExtensionMapper.selectByExample()
-                .where(
-                        ClientConnectionRecordDynamicSqlSupport.institutionId,
-                        isEqualToWhenPresent(filterMap.getInstitutionId()))
-                .and(
-                        ClientConnectionRecordDynamicSqlSupport.examId,
-                        isEqualToWhenPresent(filterMap.getClientEventExamId()))
-                .and(
-                        ClientConnectionRecordDynamicSqlSupport.examUserSessionId,
-                        SqlBuilder.isLikeWhenPresent(filterMap.getSQLWildcard(ClientConnection.FILTER_ATTR_SESSION_ID)))
-                .and(
-                        ClientEventRecordDynamicSqlSupport.clientConnectionId,
-                        isEqualToWhenPresent(filterMap.getClientEventConnectionId()))
-                .and(
-                        ClientEventRecordDynamicSqlSupport.type,
-                        isEqualToWhenPresent(filterMap.getClientEventTypeId()))
-                .and(
-                        ClientEventRecordDynamicSqlSupport.type,
-                        SqlBuilder.isNotEqualTo(EventType.LAST_PING.id))
-                .and(
-                        ClientEventRecordDynamicSqlSupport.clientTime,
-                        SqlBuilder.isGreaterThanOrEqualToWhenPresent(filterMap.getClientEventClientTimeFrom()))
-                .and(
-                        ClientEventRecordDynamicSqlSupport.clientTime,
-                        SqlBuilder.isLessThanOrEqualToWhenPresent(filterMap.getClientEventClientTimeTo()))
-                .and(
-                        ClientEventRecordDynamicSqlSupport.serverTime,
-                        SqlBuilder.isGreaterThanOrEqualToWhenPresent(filterMap.getClientEventServerTimeFrom()))
-                .and(
+        return Result.tryCatch(() -> {
+            final QueryExpressionDSL<MyBatis3SelectModelAdapter<Collection<ConnectionEventJoinRecord>>>.QueryExpressionWhereBuilder where =
+                    this.clientEventExtensionMapper.selectByExample(getEventSource(filterMap))
+                    .where(
+                            ClientConnectionRecordDynamicSqlSupport.institutionId,
+                            isEqualToWhenPresent(filterMap.getInstitutionId()))
+                    .and(
+                            ClientConnectionRecordDynamicSqlSupport.examId,
+                            isEqualToWhenPresent(filterMap.getClientEventExamId()))
+                    .and(
+                            ClientConnectionRecordDynamicSqlSupport.examUserSessionId,
+                            SqlBuilder.isLikeWhenPresent(filterMap.getSQLWildcard(ClientConnection.FILTER_ATTR_SESSION_ID)))
+                    .and(
+                            ClientEventRecordDynamicSqlSupport.clientConnectionId,
+                            isEqualToWhenPresent(filterMap.getClientEventConnectionId()))
+                    .and(
+                            ClientEventRecordDynamicSqlSupport.type,
+                            isEqualToWhenPresent(filterMap.getClientEventTypeId()))
+                    .and(
+                            ClientEventRecordDynamicSqlSupport.type,
+                            SqlBuilder.isNotEqualTo(EventType.LAST_PING.id))
+                    .and(
+                            ClientEventRecordDynamicSqlSupport.clientTime,
+                            SqlBuilder.isGreaterThanOrEqualToWhenPresent(filterMap.getClientEventClientTimeFrom()))
+                    .and(
+                            ClientEventRecordDynamicSqlSupport.clientTime,
+                            SqlBuilder.isLessThanOrEqualToWhenPresent(filterMap.getClientEventClientTimeTo()))
+                    .and(
+                            ClientEventRecordDynamicSqlSupport.serverTime,
+                            SqlBuilder.isGreaterThanOrEqualToWhenPresent(filterMap.getClientEventServerTimeFrom()))
+                    .and(
+                            ClientEventRecordDynamicSqlSupport.serverTime,
+                            SqlBuilder.isLessThanOrEqualToWhenPresent(filterMap.getClientEventServerTimeTo()))
+                    .and(
+                            ClientEventRecordDynamicSqlSupport.text,
+                            SqlBuilder.isLikeWhenPresent(filterMap.getClientEventText()));
+
+            final PageCursor pageCursor = filterMap.getPageCursor();
+            if (pageCursor != null) {
+                pageCursor.applySeekCriteria(
+                        where,
                         ClientEventRecordDynamicSqlSupport.serverTime,
-                        SqlBuilder.isLessThanOrEqualToWhenPresent(filterMap.getClientEventServerTimeTo()))
-                .and(
-                        ClientEventRecordDynamicSqlSupport.text,
-                        SqlBuilder.isLikeWhenPresent(filterMap.getClientEventText()))
-                .build()
-                .execute()
-                .stream()
-                .map(ClientEventDAOImpl::toDomainModelExtended)
-                .flatMap(DAOLoggingSupport::logAndSkipOnError)
-                .filter(predicate)
-                .collect(Collectors.toList()));
+                        ClientEventRecordDynamicSqlSupport.id);
+            }
+
+            return where
+                    .build()
+                    .execute()
+                    .stream()
+                    .map(ClientEventDAOImpl::toDomainModelExtended)
+                    .flatMap(DAOLoggingSupport::logAndSkipOnError)
+                    .filter(predicate)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Override
+    @Transactional
+    public Result<Integer> archiveEvents(final Long examId, final int chunkSize) {
+        return Result.tryCatch(() -> {
+
+            final List<Long> ids = this.clientEventArchiveMapper.selectEventIdsOfExam(examId, chunkSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            this.clientEventArchiveMapper.archiveEvents(ids);
+            return this.clientEventArchiveMapper.deleteEvents(ids);
+        })
+                .onError(TransactionHandler::rollback);
     }
 
     @Override
@@ -210,6 +259,91 @@ public class ClientEventDAOImpl implements ClientEventDAO {
                         + "Use delete of a client connection to delete also all client events of this connection.");
     }
 
+    /* Gets the source table of the client events for the given filter.
+     * Client events of an archived exam are only read from the archive table and client events of
+     * an exam that is not archived are only read from the client event table. Only while the client events
+     * of an exam are moved to the archive table, they are read from both tables. If no specific exam
+     * is requested, the client events are read from both tables only if there are archived exams within
+     * the requested institution. */
+    private SqlTable getEventSource(final FilterMap filterMap) {
+        Long examId = filterMap.getClientEventExamId();
+        if (examId == null) {
+            final Long connectionId = filterMap.getClientEventConnectionId();
+            if (connectionId == null) {
+                return getEventSourceOfInstitution(filterMap.getInstitutionId());
+            }
+
+            final ClientConnectionRecord connection = this.clientConnectionRecordMapper
+                    .selectByPrimaryKey(connectionId);
+            if (connection == null) {
+                return ClientEventRecordDynamicSqlSupport.clientEventRecord;
+            }
+            examId = connection.getExamId();
+        }
+
+        final Set<String> archiveState = this.additionalAttributeRecordMapper.selectByExample()
+                .where(
+                        AdditionalAttributeRecordDynamicSqlSupport.entityType,
+                        SqlBuilder.isEqualTo(EntityType.EXAM.name()))
+                .and(
+                        AdditionalAttributeRecordDynamicSqlSupport.entityId,
+                        SqlBuilder.isEqualTo(examId))
+                .and(
+                        AdditionalAttributeRecordDynamicSqlSupport.name,
+                        SqlBuilder.isIn(
+                                ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVED,
+                                ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING))
+                .build()
+                .execute()
+                .stream()
+                .map(AdditionalAttributeRecord::getName)
+                .collect(Collectors.toSet());
+
+        if (archiveState.contains(ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVED)) {
+            return ClientEventArchiveMapper.CLIENT_EVENT_ARCHIVE;
+        }
+        if (archiveState.contains(ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING)) {
+            return ClientEventArchiveMapper.CLIENT_EVENT_WITH_ARCHIVE;
+        }
+        return ClientEventRecordDynamicSqlSupport.clientEventRecord;
+    }
+
+    private SqlTable getEventSourceOfInstitution(final Long institutionId) {
+        final List<Long> archivedExamIds = this.additionalAttributeRecordMapper.selectByExample()
+                .where(
+                        AdditionalAttributeRecordDynamicSqlSupport.entityType,
+                        SqlBuilder.isEqualTo(EntityType.EXAM.name()))
+                .and(
+                        AdditionalAttributeRecordDynamicSqlSupport.name,
+                        SqlBuilder.isIn(
+                                ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVED,
+                                ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING))
+                .build()
+                .execute()
+                .stream()
+                .map(AdditionalAttributeRecord::getEntityId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (archivedExamIds.isEmpty()) {
+            return ClientEventRecordDynamicSqlSupport.clientEventRecord;
+        }
+
+        final Long archivedConnections = this.clientConnectionRecordMapper.countByExample()
+                .where(
+                        ClientConnectionRecordDynamicSqlSupport.examId,
+                        SqlBuilder.isIn(archivedExamIds))
+                .and(
+                        ClientConnectionRecordDynamicSqlSupport.institutionId,
+                        isEqualToWhenPresent(institutionId))
+                .build()
+                .execute();
+
+        return (archivedConnections != null && archivedConnections > 0)
+                ? ClientEventArchiveMapper.CLIENT_EVENT_WITH_ARCHIVE
+                : ClientEventRecordDynamicSqlSupport.clientEventRecord;
+    }
+
     private Result<ClientEventRecord> recordById(final Long id) {
         return Result.tryCatch(() -> {
 
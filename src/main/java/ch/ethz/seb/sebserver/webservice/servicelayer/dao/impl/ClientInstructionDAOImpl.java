@@ -8,7 +8,17 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.dao.impl;
 
+import static org.mybatis.dynamic.sql.SqlBuilder.isEqualTo;
+import static org.mybatis.dynamic.sql.SqlBuilder.isGreaterThan;
+import static org.mybatis.dynamic.sql.SqlBuilder.isIn;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
@@ -17,19 +27,30 @@ import org.springframework.transaction.annotation.Transactional;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientInstruction.InstructionType;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientInstructionExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientInstructionRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientInstructionRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientInstructionRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientInstructionDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
 
 @Lazy
 @Component
 @WebServiceProfile
 public class ClientInstructionDAOImpl implements ClientInstructionDAO {
 
+    /** The maximum number of rows within one multi-row INSERT statement of client instructions */
+    public static final int INSERT_CHUNK_SIZE = 1000;
+
     private final ClientInstructionRecordMapper clientInstructionRecordMapper;
+    private final ClientInstructionExtensionMapper clientInstructionExtensionMapper;
+
+    protected ClientInstructionDAOImpl(
+            final ClientInstructionRecordMapper clientInstructionRecordMapper,
+            final ClientInstructionExtensionMapper clientInstructionExtensionMapper) {
 
-    protected ClientInstructionDAOImpl(final ClientInstructionRecordMapper clientInstructionRecordMapper) {
         this.clientInstructionRecordMapper = clientInstructionRecordMapper;
+        this.clientInstructionExtensionMapper = clientInstructionExtensionMapper;
     }
 
     @Override
@@ -41,6 +62,17 @@ public class ClientInstructionDAOImpl implements ClientInstructionDAO {
                 .execute());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Result<Collection<ClientInstructionRecord>> getAllActive(final Long afterId) {
+        return Result.tryCatch(() -> this.clientInstructionRecordMapper
+                .selectByExample()
+                .where(ClientInstructionRecordDynamicSqlSupport.id, isGreaterThan(afterId))
+                .orderBy(ClientInstructionRecordDynamicSqlSupport.id)
+                .build()
+                .execute());
+    }
+
     @Override
     @Transactional
     public Result<Void> delete(final Long id) {
@@ -52,6 +84,23 @@ public class ClientInstructionDAOImpl implements ClientInstructionDAO {
         });
     }
 
+    @Override
+    @Transactional
+    public Result<Integer> delete(final Collection<Long> ids) {
+        return Result.tryCatch(() -> {
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            return this.clientInstructionRecordMapper
+                    .deleteByExample()
+                    .where(ClientInstructionRecordDynamicSqlSupport.id, isIn(new ArrayList<>(ids)))
+                    .build()
+                    .execute();
+        })
+                .onError(TransactionHandler::rollback);
+    }
+
     @Override
     public Result<ClientInstructionRecord> insert(
             final Long examId,
@@ -72,4 +121,49 @@ public class ClientInstructionDAOImpl implements ClientInstructionDAO {
         });
     }
 
+    @Override
+    @Transactional
+    public Result<Collection<ClientInstructionRecord>> insert(
+            final Long examId,
+            final InstructionType type,
+            final String attributes,
+            final Collection<String> connectionTokens) {
+
+        return Result.<Collection<ClientInstructionRecord>> tryCatch(() -> {
+            if (connectionTokens.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            // the multi-row INSERT does not set the generated identifiers, hence read the inserted instructions
+            // back afterwards by the identifiers that are generated after the latest identifier
+            final Long latestId = this.clientInstructionExtensionMapper.selectLatestId();
+
+            final List<ClientInstructionRecord> chunk = new ArrayList<>(INSERT_CHUNK_SIZE);
+            for (final String connectionToken : connectionTokens) {
+                chunk.add(new ClientInstructionRecord(null, examId, connectionToken, type.name(), attributes));
+                if (chunk.size() >= INSERT_CHUNK_SIZE) {
+                    this.clientInstructionExtensionMapper.insertMultiple(chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                this.clientInstructionExtensionMapper.insertMultiple(chunk);
+            }
+
+            // other instructions for the same connections that have been inserted concurrently are active as well
+            final Set<String> tokens = new HashSet<>(connectionTokens);
+            return this.clientInstructionRecordMapper
+                    .selectByExample()
+                    .where(ClientInstructionRecordDynamicSqlSupport.id, isGreaterThan(latestId))
+                    .and(ClientInstructionRecordDynamicSqlSupport.examId, isEqualTo(examId))
+                    .orderBy(ClientInstructionRecordDynamicSqlSupport.id)
+                    .build()
+                    .execute()
+                    .stream()
+                    .filter(record -> tokens.contains(record.getConnectionToken()))
+                    .collect(Collectors.toList());
+        })
+                .onError(TransactionHandler::rollback);
+    }
+
 }
@@ -11,7 +11,10 @@ package ch.ethz.seb.sebserver.webservice.servicelayer.dao.impl;
 import static org.mybatis.dynamic.sql.SqlBuilder.isEqualTo;
 import static org.mybatis.dynamic.sql.SqlBuilder.isNotEqualTo;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -31,6 +34,7 @@ import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage.FieldValidationException;
 import ch.ethz.seb.sebserver.gbl.api.EntityType;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.AttributeType;
@@ -41,10 +45,13 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationNode;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationNode.ConfigurationStatus;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationTableValues;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationTableValues.TableValue;
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.BatisConfig;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ConfigurationKeyMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ConfigurationValueExtensionMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationAttributeRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationAttributeRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationNodeRecordDynamicSqlSupport;
@@ -72,11 +79,15 @@ class ConfigurationDAOBatchService {
     private static final Logger log = LoggerFactory.getLogger(ConfigurationDAOBatchService.class);
 
     public static final String INITIAL_VERSION_NAME = "v0";
+    /** The maximum number of rows within one multi-row statement of a bulk save of configuration values */
+    public static final int VALUES_CHUNK_SIZE = 500;
 
     private final ConfigurationNodeRecordMapper batchConfigurationNodeRecordMapper;
     private final ConfigurationValueRecordMapper batchConfigurationValueRecordMapper;
     private final ConfigurationAttributeRecordMapper batchConfigurationAttributeRecordMapper;
     private final ConfigurationRecordMapper batchConfigurationRecordMapper;
+    private final ConfigurationValueExtensionMapper batchConfigurationValueExtensionMapper;
+    private final ConfigurationKeyMapper batchConfigurationKeyMapper;
     private final ExamConfigInitService examConfigInitService;
 
     private final SqlSessionTemplate batchSqlSessionTemplate;
@@ -108,6 +119,14 @@ class ConfigurationDAOBatchService {
             batisConfig.addMapper(ConfigurationRecordMapper.class);
         }
 
+        if (!batisConfig.hasMapper(ConfigurationValueExtensionMapper.class)) {
+            batisConfig.addMapper(ConfigurationValueExtensionMapper.class);
+        }
+
+        if (!batisConfig.hasMapper(ConfigurationKeyMapper.class)) {
+            batisConfig.addMapper(ConfigurationKeyMapper.class);
+        }
+
         this.batchConfigurationNodeRecordMapper =
                 batchSqlSessionTemplate.getMapper(ConfigurationNodeRecordMapper.class);
         this.batchConfigurationValueRecordMapper =
@@ -116,6 +135,10 @@ class ConfigurationDAOBatchService {
                 batchSqlSessionTemplate.getMapper(ConfigurationAttributeRecordMapper.class);
         this.batchConfigurationRecordMapper =
                 batchSqlSessionTemplate.getMapper(ConfigurationRecordMapper.class);
+        this.batchConfigurationValueExtensionMapper =
+                batchSqlSessionTemplate.getMapper(ConfigurationValueExtensionMapper.class);
+        this.batchConfigurationKeyMapper =
+                batchSqlSessionTemplate.getMapper(ConfigurationKeyMapper.class);
         this.batchSqlSessionTemplate = batchSqlSessionTemplate;
 
     }
@@ -177,10 +200,78 @@ class ConfigurationDAOBatchService {
                         saveAsComposite(value);
                     }
 
+                    // the persisted Config-Key of the configuration is computed again from the changed values
+                    this.batchConfigurationKeyMapper.deleteForConfigurations(
+                            Collections.singletonList(value.configurationId));
                     return value;
                 });
     }
 
+    Result<Integer> saveAllValues(
+            final Long institutionId,
+            final Long configurationId,
+            final Collection<ConfigurationValue> values) {
+
+        return Result.tryCatch(() -> {
+
+            final ConfigurationRecord config = this.batchConfigurationRecordMapper
+                    .selectByPrimaryKey(configurationId);
+            if (config.getInstitutionId().longValue() != institutionId.longValue()) {
+                throw new IllegalArgumentException("Institutional integrity constraint violation");
+            }
+            checkFollowUp(configurationId);
+
+            // map the identifiers of the existing values to attribute and list index
+            final Map<String, Long> existingIds = this.batchConfigurationValueRecordMapper
+                    .selectByExample()
+                    .where(
+                            ConfigurationValueRecordDynamicSqlSupport.configurationId,
+                            isEqualTo(configurationId))
+                    .build()
+                    .execute()
+                    .stream()
+                    .collect(Collectors.toMap(
+                            rec -> valueKey(rec.getConfigurationAttributeId(), rec.getListIndex()),
+                            ConfigurationValueRecord::getId,
+                            (id1, id2) -> id1));
+
+            // the last given value for an attribute and list index wins
+            final Map<String, ConfigurationValueRecord> records = new LinkedHashMap<>();
+            for (final ConfigurationValue value : values) {
+                final Integer listIndex = (value.listIndex != null) ? value.listIndex : 0;
+                final String key = valueKey(value.attributeId, listIndex);
+                records.put(key, new ConfigurationValueRecord(
+                        existingIds.get(key),
+                        institutionId,
+                        configurationId,
+                        value.attributeId,
+                        listIndex,
+                        value.value));
+            }
+
+            final List<ConfigurationValueRecord> chunk = new ArrayList<>(VALUES_CHUNK_SIZE);
+            int saved = 0;
+            for (final ConfigurationValueRecord record : records.values()) {
+                chunk.add(record);
+                if (chunk.size() >= VALUES_CHUNK_SIZE) {
+                    this.batchConfigurationValueExtensionMapper.upsertMultiple(chunk);
+                    saved += chunk.size();
+                    chunk.clear();
+                    log.debug("Saved {} of {} values of configuration: {}", saved, records.size(), configurationId);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                this.batchConfigurationValueExtensionMapper.upsertMultiple(chunk);
+                saved += chunk.size();
+            }
+
+            // the persisted Config-Key of the configuration is computed again from the imported values
+            this.batchConfigurationKeyMapper.deleteForConfigurations(Collections.singletonList(configurationId));
+            this.batchSqlSessionTemplate.flushStatements();
+            return saved;
+        });
+    }
+
     Result<Configuration> saveToHistory(final Long configurationNodeId) {
         return Result.tryCatch(() -> {
 
@@ -799,6 +890,10 @@ class ConfigurationDAOBatchService {
         this.batchSqlSessionTemplate.flushStatements();
     }
 
+    private static String valueKey(final Long attributeId, final Integer listIndex) {
+        return attributeId + Constants.LIST_SEPARATOR + listIndex;
+    }
+
     private static boolean filterChildAttribute(final ConfigurationAttributeRecord rec) {
 
         if (rec.getParentId() == null) {
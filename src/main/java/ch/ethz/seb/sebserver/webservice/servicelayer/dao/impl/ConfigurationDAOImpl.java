@@ -13,6 +13,7 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.Configuration;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ConfigurationKeyMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationNodeRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationRecordMapper;
@@ -24,6 +25,8 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ResourceNotFoundException;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
 import org.apache.commons.lang3.BooleanUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
@@ -33,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -43,18 +47,23 @@ import static org.mybatis.dynamic.sql.SqlBuilder.*;
 @WebServiceProfile
 public class ConfigurationDAOImpl implements ConfigurationDAO {
 
+    private static final Logger log = LoggerFactory.getLogger(ConfigurationDAOImpl.class);
+
     private final ConfigurationRecordMapper configurationRecordMapper;
     private final ConfigurationNodeRecordMapper configurationNodeRecordMapper;
     private final ConfigurationDAOBatchService configurationDAOBatchService;
+    private final ConfigurationKeyMapper configurationKeyMapper;
 
     protected ConfigurationDAOImpl(
             final ConfigurationRecordMapper configurationRecordMapper,
             final ConfigurationNodeRecordMapper configurationNodeRecordMapper,
-            final ConfigurationDAOBatchService configurationDAOBatchService) {
+            final ConfigurationDAOBatchService configurationDAOBatchService,
+            final ConfigurationKeyMapper configurationKeyMapper) {
 
         this.configurationRecordMapper = configurationRecordMapper;
         this.configurationNodeRecordMapper = configurationNodeRecordMapper;
         this.configurationDAOBatchService = configurationDAOBatchService;
+        this.configurationKeyMapper = configurationKeyMapper;
     }
 
     @Override
@@ -146,6 +155,49 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
         }).flatMap(ConfigurationDAOImpl::toDomainModel);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Result<String> getConfigKey(final Long configurationId) {
+        return Result.tryCatch(() -> {
+            final String configKey = this.configurationKeyMapper.selectConfigKey(configurationId);
+            if (configKey == null) {
+                throw new ResourceNotFoundException(
+                        EntityType.CONFIGURATION,
+                        String.valueOf(configurationId));
+            }
+            return configKey;
+        });
+    }
+
+    @Override
+    @Transactional
+    public Result<String> reserveConfigKey(final Long configurationId) {
+        return Result.tryCatch(() -> {
+            final String reservation = UUID.randomUUID().toString();
+            this.configurationKeyMapper.insertReservation(configurationId, reservation);
+            return reservation;
+        })
+                .onError(TransactionHandler::rollback);
+    }
+
+    @Override
+    @Transactional
+    public Result<String> saveConfigKey(
+            final Long configurationId,
+            final String configKey,
+            final String reservation) {
+
+
+        return Result.tryCatch(() -> {
+            if (this.configurationKeyMapper.updateConfigKey(configurationId, configKey, reservation) == 0) {
+                log.debug("Configuration values of configuration: {} changed while computing the Config-Key. "
+                        + "The Config-Key is not persisted", configurationId);
+            }
+            return configKey;
+        })
+                .onError(TransactionHandler::rollback);
+    }
+
     @Override
     @Transactional
     public Result<Configuration> save(final Configuration data) {
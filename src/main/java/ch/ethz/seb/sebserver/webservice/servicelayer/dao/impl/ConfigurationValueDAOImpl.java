@@ -32,6 +32,7 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationTableValues.TableV
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ConfigurationKeyMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationAttributeRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationAttributeRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationRecordMapper;
@@ -59,19 +60,22 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
     private final ConfigurationRecordMapper configurationRecordMapper;
     private final ConfigurationDAOBatchService configurationDAOBatchService;
     private final ExamConfigInitService examConfigInitService;
+    private final ConfigurationKeyMapper configurationKeyMapper;
 
     protected ConfigurationValueDAOImpl(
             final ConfigurationValueRecordMapper configurationValueRecordMapper,
             final ConfigurationAttributeRecordMapper configurationAttributeRecordMapper,
             final ConfigurationRecordMapper configurationRecordMapper,
             final ConfigurationDAOBatchService configurationDAOBatchService,
-            final ExamConfigInitService examConfigInitService) {
+            final ExamConfigInitService examConfigInitService,
+            final ConfigurationKeyMapper configurationKeyMapper) {
 
         this.configurationValueRecordMapper = configurationValueRecordMapper;
         this.configurationAttributeRecordMapper = configurationAttributeRecordMapper;
         this.configurationRecordMapper = configurationRecordMapper;
         this.configurationDAOBatchService = configurationDAOBatchService;
         this.examConfigInitService = examConfigInitService;
+        this.configurationKeyMapper = configurationKeyMapper;
     }
 
     @Override
@@ -175,6 +179,7 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
                             value);
 
                     this.configurationValueRecordMapper.insert(newRecord);
+                    evictConfigKeys(Collections.singleton(data.configurationId));
                     return newRecord;
                 })
                 .flatMap(ConfigurationValueDAOImpl::toDomainModel)
@@ -219,6 +224,7 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
                             data.value);
 
                     this.configurationValueRecordMapper.updateByPrimaryKeySelective(newRecord);
+                    evictConfigKeys(Collections.singleton(data.configurationId));
                     return this.configurationValueRecordMapper.selectByPrimaryKey(id);
                 })
                 .flatMap(ConfigurationValueDAOImpl::toDomainModel)
@@ -228,13 +234,26 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
     @Override
     @Transactional
     public Result<Collection<EntityKey>> delete(final Set<EntityKey> all) {
-        return Result.tryCatch(() -> extractPKsFromKeys(all)
-                .stream()
-                .map(pk -> {
-                    this.configurationValueRecordMapper.deleteByPrimaryKey(pk);
-                    return new EntityKey(pk, EntityType.CONFIGURATION_VALUE);
-                })
-                .collect(Collectors.toList()));
+        return Result.tryCatch(() -> {
+            final List<Long> pks = extractListOfPKs(all);
+            if (!pks.isEmpty()) {
+                evictConfigKeys(this.configurationValueRecordMapper.selectByExample()
+                        .where(ConfigurationValueRecordDynamicSqlSupport.id, isIn(pks))
+                        .build()
+                        .execute()
+                        .stream()
+                        .map(ConfigurationValueRecord::getConfigurationId)
+                        .collect(Collectors.toSet()));
+            }
+
+            return pks
+                    .stream()
+                    .map(pk -> {
+                        this.configurationValueRecordMapper.deleteByPrimaryKey(pk);
+                        return new EntityKey(pk, EntityType.CONFIGURATION_VALUE);
+                    })
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
@@ -349,6 +368,18 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
                 .onError(TransactionHandler::rollback);
     }
 
+    @Override
+    @Transactional
+    public Result<Integer> saveAll(
+            final Long institutionId,
+            final Long configurationId,
+            final Collection<ConfigurationValue> values) {
+
+        return this.configurationDAOBatchService
+                .saveAllValues(institutionId, configurationId, values)
+                .onError(TransactionHandler::rollback);
+    }
+
     @Override
     @Transactional
     public Result<Set<EntityKey>> setDefaultValues(
@@ -360,6 +391,7 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
                 .flatMap(this::getAttributeMapping)
                 .map(attributeMapping -> {
 
+                    evictConfigKeys(Collections.singleton(configurationId));
                     final Set<EntityKey> tableValues = new HashSet<>();
                     if (attributeMapping != null && !attributeMapping.isEmpty()) {
 
@@ -526,6 +558,14 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
                 record.getValue()));
     }
 
+    /** Deletes the persisted Config-Keys of the given configurations whose values are changed.
+     * The Config-Key is computed again from the changed values on the next request. */
+    private void evictConfigKeys(final Collection<Long> configurationIds) {
+        if (!configurationIds.isEmpty()) {
+            this.configurationKeyMapper.deleteForConfigurations(configurationIds);
+        }
+    }
+
     private Result<ConfigurationValue> checkInstitutionalIntegrity(final ConfigurationValue data) {
         return Result.tryCatch(() -> {
             final ConfigurationRecord r = this.configurationRecordMapper.selectByPrimaryKey(data.configurationId);
@@ -25,6 +25,8 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
+import org.mybatis.dynamic.sql.update.UpdateDSL;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
@@ -45,6 +47,7 @@ import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ExamRecordDynamic
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ExamRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ExamRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.impl.BulkAction;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamChangeEvent;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ResourceNotFoundException;
@@ -59,15 +62,18 @@ public class ExamDAOImpl implements ExamDAO {
     private final ExamRecordMapper examRecordMapper;
     private final ClientConnectionRecordMapper clientConnectionRecordMapper;
     private final LmsAPIService lmsAPIService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     public ExamDAOImpl(
             final ExamRecordMapper examRecordMapper,
             final ClientConnectionRecordMapper clientConnectionRecordMapper,
-            final LmsAPIService lmsAPIService) {
+            final LmsAPIService lmsAPIService,
+            final ApplicationEventPublisher applicationEventPublisher) {
 
         this.examRecordMapper = examRecordMapper;
         this.clientConnectionRecordMapper = clientConnectionRecordMapper;
         this.lmsAPIService = lmsAPIService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -195,12 +201,14 @@ public class ExamDAOImpl implements ExamDAO {
                             examRecord.getId(),
                             null, null, null, null, null, null, null, null,
                             status.name(),
-                            null, null, null, null);
+                            null, null, null, null,
+                            null, null, null, null, null);
 
                     this.examRecordMapper.updateByPrimaryKeySelective(newExamRecord);
                     return this.examRecordMapper.selectByPrimaryKey(examId);
                 })
                 .flatMap(this::toDomainModel)
+                .map(this::notifyExamChange)
                 .onError(TransactionHandler::rollback);
     }
 
@@ -232,13 +240,15 @@ public class ExamDAOImpl implements ExamDAO {
                     1, // seb restriction (deprecated)
                     null, // updating
                     null, // lastUpdate
-                    null // active
+                    null, // active
+                    null, null, null, null, null // quiz data snapshot is only updated by LMS synchronization
             );
 
             this.examRecordMapper.updateByPrimaryKeySelective(examRecord);
             return this.examRecordMapper.selectByPrimaryKey(exam.id);
         })
                 .flatMap(this::toDomainModel)
+                .map(this::notifyExamChange)
                 .onError(TransactionHandler::rollback);
     }
 
@@ -251,12 +261,14 @@ public class ExamDAOImpl implements ExamDAO {
                     examId,
                     null, null, null, null, null, null, null, null, null,
                     BooleanUtils.toInteger(sebRestriction),
-                    null, null, null);
+                    null, null, null,
+                    null, null, null, null, null);
 
             this.examRecordMapper.updateByPrimaryKeySelective(examRecord);
             return this.examRecordMapper.selectByPrimaryKey(examId);
         })
                 .flatMap(this::toDomainModel)
+                .map(this::notifyExamChange)
                 .onError(TransactionHandler::rollback);
     }
 
@@ -289,7 +301,12 @@ public class ExamDAOImpl implements ExamDAO {
                             null, // lmsSebRestriction (deprecated)
                             null, // updating
                             null, // lastUpdate
-                            BooleanUtils.toIntegerObject(exam.active));
+                            BooleanUtils.toIntegerObject(exam.active),
+                            exam.name,
+                            exam.description,
+                            exam.startTime,
+                            exam.endTime,
+                            exam.startURL);
 
                     this.examRecordMapper.updateByPrimaryKeySelective(newRecord);
                     return this.examRecordMapper.selectByPrimaryKey(examRecord.getId());
@@ -312,12 +329,18 @@ public class ExamDAOImpl implements ExamDAO {
                     1, // seb restriction (deprecated)
                     BooleanUtils.toInteger(false),
                     null, // lastUpdate
-                    BooleanUtils.toInteger(true));
+                    BooleanUtils.toInteger(true),
+                    exam.name,
+                    exam.description,
+                    exam.startTime,
+                    exam.endTime,
+                    exam.startURL);
 
             this.examRecordMapper.insert(examRecord);
             return examRecord;
         })
                 .flatMap(this::toDomainModel)
+                .map(this::notifyExamChange)
                 .onError(TransactionHandler::rollback);
     }
 
@@ -328,7 +351,8 @@ public class ExamDAOImpl implements ExamDAO {
 
             final List<Long> ids = extractListOfPKs(all);
             final ExamRecord examRecord = new ExamRecord(null, null, null, null, null,
-                    null, null, null, null, null, null, null, null, BooleanUtils.toInteger(active));
+                    null, null, null, null, null, null, null, null, BooleanUtils.toInteger(active),
+                    null, null, null, null, null);
 
             this.examRecordMapper.updateByExampleSelective(examRecord)
                     .where(ExamRecordDynamicSqlSupport.id, isIn(ids))
@@ -339,7 +363,8 @@ public class ExamDAOImpl implements ExamDAO {
                     .map(id -> new EntityKey(id, EntityType.EXAM))
                     .collect(Collectors.toList());
 
-        });
+        })
+                .map(this::notifyExamsChange);
     }
 
     @Override
@@ -440,6 +465,80 @@ public class ExamDAOImpl implements ExamDAO {
         });
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Result<Collection<Exam>> allForQuizDataSync() {
+        return Result.tryCatch(() -> this.examRecordMapper.selectByExample()
+                .where(
+                        ExamRecordDynamicSqlSupport.active,
+                        isEqualTo(BooleanUtils.toInteger(true)))
+                .and(
+                        ExamRecordDynamicSqlSupport.status,
+                        isNotEqualTo(ExamStatus.FINISHED.name()),
+                        or(ExamRecordDynamicSqlSupport.quizName, isNull()))
+                .build()
+                .execute()
+                .stream()
+                .map(record -> toDomainModel(
+                        record,
+                        record.getQuizName(),
+                        record.getQuizDescription(),
+                        record.getQuizStartTime(),
+                        record.getQuizEndTime(),
+                        record.getQuizStartUrl(),
+                        record.getActive())
+                                .getOrThrow())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Result<Collection<Exam>> allFinished() {
+        return Result.tryCatch(() -> this.examRecordMapper.selectByExample()
+                .where(
+                        ExamRecordDynamicSqlSupport.active,
+                        isEqualTo(BooleanUtils.toInteger(true)))
+                .and(
+                        ExamRecordDynamicSqlSupport.status,
+                        isEqualTo(ExamStatus.FINISHED.name()))
+                .build()
+                .execute()
+                .stream()
+                .map(record -> toDomainModel(
+                        record,
+                        record.getQuizName(),
+                        record.getQuizDescription(),
+                        record.getQuizStartTime(),
+                        record.getQuizEndTime(),
+                        record.getQuizStartUrl(),
+                        record.getActive())
+                                .getOrThrow())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional
+    public Result<Exam> updateQuizData(final Long examId, final QuizData quizData) {
+        return Result.tryCatch(() -> {
+
+            // not selective since a quiz data attribute may also have been removed on the LMS
+            UpdateDSL.updateWithMapper(this.examRecordMapper::update, ExamRecordDynamicSqlSupport.examRecord)
+                    .set(ExamRecordDynamicSqlSupport.quizName).equalTo(quizData.name)
+                    .set(ExamRecordDynamicSqlSupport.quizDescription).equalTo(quizData.description)
+                    .set(ExamRecordDynamicSqlSupport.quizStartTime).equalTo(quizData.startTime)
+                    .set(ExamRecordDynamicSqlSupport.quizEndTime).equalTo(quizData.endTime)
+                    .set(ExamRecordDynamicSqlSupport.quizStartUrl).equalTo(quizData.startURL)
+                    .where(ExamRecordDynamicSqlSupport.id, isEqualTo(examId))
+                    .build()
+                    .execute();
+
+            return this.examRecordMapper.selectByPrimaryKey(examId);
+        })
+                .flatMap(this::toDomainModel)
+                .map(this::notifyExamChange)
+                .onError(TransactionHandler::rollback);
+    }
+
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Result<Exam> placeLock(final Long examId, final String updateId) {
@@ -459,7 +558,7 @@ public class ExamDAOImpl implements ExamDAO {
                     null, null, null, null, null, null, null, null, null, null,
                     BooleanUtils.toInteger(true),
                     updateId,
-                    null);
+                    null, null, null, null, null, null);
 
             this.examRecordMapper.updateByPrimaryKeySelective(newRecord);
             return newRecord;
@@ -490,7 +589,7 @@ public class ExamDAOImpl implements ExamDAO {
                     null, null, null, null, null, null, null, null, null, null,
                     BooleanUtils.toInteger(false),
                     updateId,
-                    null);
+                    null, null, null, null, null, null);
 
             this.examRecordMapper.updateByPrimaryKeySelective(newRecord);
             return newRecord;
@@ -513,7 +612,8 @@ public class ExamDAOImpl implements ExamDAO {
                     examId,
                     null, null, null, null, null, null, null, null, null, null,
                     BooleanUtils.toInteger(false),
-                    null, null);
+                    null, null,
+                    null, null, null, null, null);
 
             this.examRecordMapper.updateByPrimaryKeySelective(examRecord);
             return examRecord.getId();
@@ -582,7 +682,8 @@ public class ExamDAOImpl implements ExamDAO {
                     .map(id -> new EntityKey(id, EntityType.EXAM))
                     .collect(Collectors.toList());
 
-        });
+        })
+                .map(this::notifyExamsChange);
     }
 
     @Override
@@ -651,6 +752,20 @@ public class ExamDAOImpl implements ExamDAO {
                 .collect(Collectors.toList()));
     }
 
+    private Exam notifyExamChange(final Exam exam) {
+        this.applicationEventPublisher.publishEvent(new ExamChangeEvent(Arrays.asList(exam.id)));
+        return exam;
+    }
+
+    private Collection<EntityKey> notifyExamsChange(final Collection<EntityKey> examKeys) {
+        this.applicationEventPublisher.publishEvent(new ExamChangeEvent(examKeys
+                .stream()
+                .map(EntityKey::getModelId)
+                .map(Long::valueOf)
+                .collect(Collectors.toList())));
+        return examKeys;
+    }
+
     private Result<ExamRecord> recordById(final Long id) {
         return Result.tryCatch(() -> {
             final ExamRecord record = this.examRecordMapper.selectByPrimaryKey(id);
@@ -664,6 +779,10 @@ public class ExamDAOImpl implements ExamDAO {
     }
 
     private Result<Exam> toDomainModelCached(final ExamRecord record) {
+        if (hasQuizDataSnapshot(record)) {
+            return toDomainModelFromSnapshot(record);
+        }
+
         return Result.tryCatch(() -> this.lmsAPIService
                 .getLmsAPITemplate(record.getLmsSetupId())
                 .getOrThrow())
@@ -718,12 +837,25 @@ public class ExamDAOImpl implements ExamDAO {
 
         return Result.tryCatch(() -> {
 
-            // map records
+            // map records with a local quiz data snapshot directly
+            final List<Exam> result = records
+                    .stream()
+                    .filter(ExamDAOImpl::hasQuizDataSnapshot)
+                    .map(record -> toDomainModelFromSnapshot(record).getOrThrow())
+                    .collect(Collectors.toList());
+
+            // map records without quiz data snapshot
             final Map<String, ExamRecord> recordMapping = records
                     .stream()
+                    .filter(record -> !hasQuizDataSnapshot(record))
                     .collect(Collectors.toMap(ExamRecord::getExternalId, Function.identity()));
 
-            // get and map quizzes
+            if (recordMapping.isEmpty()) {
+                return result;
+            }
+
+            // the quiz data snapshot is not available yet (will be by the next synchronization)
+            // get and map quizzes from the LMS
             final Map<String, QuizData> quizzes = this.lmsAPIService
                     .getLmsAPITemplate(lmsSetupId)
                     .map(template -> (cached)
@@ -735,17 +867,53 @@ public class ExamDAOImpl implements ExamDAO {
                     .collect(Collectors.toMap(q -> q.id, Function.identity()));
 
             // collect Exam's
-            return recordMapping.entrySet()
+            recordMapping.entrySet()
                     .stream()
                     .map(entry -> toDomainModel(entry.getValue(), quizzes.get(entry.getKey())).getOrThrow())
-                    .collect(Collectors.toList());
+                    .forEach(result::add);
+
+            return result;
         });
     }
 
+    private static boolean hasQuizDataSnapshot(final ExamRecord record) {
+        return record.getQuizName() != null;
+    }
+
+    private Result<Exam> toDomainModelFromSnapshot(final ExamRecord record) {
+        return toDomainModel(
+                record,
+                record.getQuizName(),
+                record.getQuizDescription(),
+                record.getQuizStartTime(),
+                record.getQuizEndTime(),
+                record.getQuizStartUrl(),
+                record.getActive());
+    }
+
     private Result<Exam> toDomainModel(
             final ExamRecord record,
             final QuizData quizData) {
 
+        return toDomainModel(
+                record,
+                (quizData != null) ? quizData.name : Constants.EMPTY_NOTE,
+                (quizData != null) ? quizData.description : Constants.EMPTY_NOTE,
+                (quizData != null) ? quizData.startTime : null,
+                (quizData != null) ? quizData.endTime : null,
+                (quizData != null) ? quizData.startURL : Constants.EMPTY_NOTE,
+                (quizData != null) ? record.getActive() : null);
+    }
+
+    private Result<Exam> toDomainModel(
+            final ExamRecord record,
+            final String name,
+            final String description,
+            final DateTime startTime,
+            final DateTime endTime,
+            final String startURL,
+            final Integer active) {
+
         return Result.tryCatch(() -> {
 
             final Collection<String> supporter = (StringUtils.isNotBlank(record.getSupporter()))
@@ -765,17 +933,17 @@ public class ExamDAOImpl implements ExamDAO {
                     record.getInstitutionId(),
                     record.getLmsSetupId(),
                     record.getExternalId(),
-                    (quizData != null) ? quizData.name : Constants.EMPTY_NOTE,
-                    (quizData != null) ? quizData.description : Constants.EMPTY_NOTE,
-                    (quizData != null) ? quizData.startTime : null,
-                    (quizData != null) ? quizData.endTime : null,
-                    (quizData != null) ? quizData.startURL : Constants.EMPTY_NOTE,
+                    name,
+                    description,
+                    startTime,
+                    endTime,
+                    startURL,
                     ExamType.valueOf(record.getType()),
                     record.getOwner(),
                     supporter,
                     status,
                     record.getBrowserKeys(),
-                    BooleanUtils.toBooleanObject((quizData != null) ? record.getActive() : null),
+                    BooleanUtils.toBooleanObject(active),
                     record.getLastupdate());
         });
     }
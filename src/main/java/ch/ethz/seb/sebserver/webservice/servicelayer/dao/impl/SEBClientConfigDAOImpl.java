@@ -24,6 +24,7 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -49,6 +50,7 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.impl.BulkAction;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.DAOLoggingSupport;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ResourceNotFoundException;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.SEBClientConfigChangeEvent;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.SEBClientConfigDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
 
@@ -60,15 +62,18 @@ public class SEBClientConfigDAOImpl implements SEBClientConfigDAO {
     private final SebClientConfigRecordMapper sebClientConfigRecordMapper;
     private final ClientCredentialService clientCredentialService;
     private final AdditionalAttributesDAOImpl additionalAttributesDAO;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     protected SEBClientConfigDAOImpl(
             final SebClientConfigRecordMapper sebClientConfigRecordMapper,
             final ClientCredentialService clientCredentialService,
-            final AdditionalAttributesDAOImpl additionalAttributesDAO) {
+            final AdditionalAttributesDAOImpl additionalAttributesDAO,
+            final ApplicationEventPublisher applicationEventPublisher) {
 
         this.sebClientConfigRecordMapper = sebClientConfigRecordMapper;
         this.clientCredentialService = clientCredentialService;
         this.additionalAttributesDAO = additionalAttributesDAO;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -202,6 +207,7 @@ public class SEBClientConfigDAOImpl implements SEBClientConfigDAO {
                     .build()
                     .execute();
 
+            this.applicationEventPublisher.publishEvent(new SEBClientConfigChangeEvent(ids));
             return ids.stream()
                     .map(id -> new EntityKey(id, EntityType.SEB_CLIENT_CONFIGURATION))
                     .collect(Collectors.toList());
@@ -260,6 +266,8 @@ public class SEBClientConfigDAOImpl implements SEBClientConfigDAO {
 
             saveAdditionalAttributes(sebClientConfig, newRecord.getId());
 
+            this.applicationEventPublisher.publishEvent(
+                    new SEBClientConfigChangeEvent(Collections.singletonList(sebClientConfig.id)));
             return this.sebClientConfigRecordMapper
                     .selectByPrimaryKey(sebClientConfig.id);
         })
@@ -279,6 +287,7 @@ public class SEBClientConfigDAOImpl implements SEBClientConfigDAO {
                     .build()
                     .execute();
 
+            this.applicationEventPublisher.publishEvent(new SEBClientConfigChangeEvent(ids));
             return ids.stream()
                     .map(id -> new EntityKey(id, EntityType.SEB_CLIENT_CONFIGURATION))
                     .collect(Collectors.toList());
@@ -22,6 +22,8 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.mybatis.dynamic.sql.SqlBuilder;
+import org.mybatis.dynamic.sql.select.MyBatis3SelectModelAdapter;
+import org.mybatis.dynamic.sql.select.QueryExpressionDSL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
@@ -50,6 +52,7 @@ import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.UserRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.UserService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.impl.SEBServerUser;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.PageCursor;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.UserActivityLogDAO;
 
@@ -299,6 +302,7 @@ public class UserActivityLogDAOImpl implements UserActivityLogDAO {
                 filterMap.getUserLofTo(),
                 filterMap.getString(UserActivityLog.FILTER_ATTR_ACTIVITY_TYPES),
                 filterMap.getString(UserActivityLog.FILTER_ATTR_ENTITY_TYPES),
+                filterMap.getPageCursor(),
                 predicate);
     }
 
@@ -313,6 +317,19 @@ public class UserActivityLogDAOImpl implements UserActivityLogDAO {
             final String entityTypes,
             final Predicate<UserActivityLog> predicate) {
 
+        return all(institutionId, userName, from, to, activityTypes, entityTypes, null, predicate);
+    }
+
+    private Result<Collection<UserActivityLog>> all(
+            final Long institutionId,
+            final String userName,
+            final Long from,
+            final Long to,
+            final String activityTypes,
+            final String entityTypes,
+            final PageCursor pageCursor,
+            final Predicate<UserActivityLog> predicate) {
+
         return Result.tryCatch(() -> {
             final List<String> _activityTypes = (activityTypes != null)
                     ? Arrays.asList(StringUtils.split(activityTypes, Constants.LIST_SEPARATOR))
@@ -321,7 +338,8 @@ public class UserActivityLogDAOImpl implements UserActivityLogDAO {
                     ? Arrays.asList(StringUtils.split(entityTypes, Constants.LIST_SEPARATOR))
                     : null;
 
-            final List<UserActivityLogRecord> records = this.userLogRecordMapper
+            final QueryExpressionDSL<MyBatis3SelectModelAdapter<List<UserActivityLogRecord>>>.QueryExpressionWhereBuilder where =
+                    this.userLogRecordMapper
                     .selectByExample()
                     .leftJoin(UserRecordDynamicSqlSupport.userRecord)
                     .on(
@@ -344,7 +362,16 @@ public class UserActivityLogDAOImpl implements UserActivityLogDAO {
                             SqlBuilder.isInCaseInsensitiveWhenPresent(_activityTypes))
                     .and(
                             UserActivityLogRecordDynamicSqlSupport.entityType,
-                            SqlBuilder.isInCaseInsensitiveWhenPresent(_entityTypes))
+                            SqlBuilder.isInCaseInsensitiveWhenPresent(_entityTypes));
+
+            if (pageCursor != null) {
+                pageCursor.applySeekCriteria(
+                        where,
+                        UserActivityLogRecordDynamicSqlSupport.timestamp,
+                        UserActivityLogRecordDynamicSqlSupport.id);
+            }
+
+            final List<UserActivityLogRecord> records = where
                     .build()
                     .execute();
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.dao.impl;
+
+import static org.mybatis.dynamic.sql.SqlBuilder.*;
+
+import java.util.List;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.WebserviceServerInfoExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.WebserviceServerInfoRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.WebserviceServerInfoRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.WebserviceServerInfoRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.WebserviceInfoDAO;
+
+@Lazy
+@Component
+@WebServiceProfile
+public class WebserviceInfoDAOImpl implements WebserviceInfoDAO {
+
+    /** The number of lease times after which an instance without heartbeat is removed from the registry */
+    private static final int LEASE_TIMES_TO_REMOVE = 10;
+
+    private final WebserviceServerInfoRecordMapper webserviceServerInfoRecordMapper;
+    private final WebserviceServerInfoExtensionMapper webserviceServerInfoExtensionMapper;
+
+    protected WebserviceInfoDAOImpl(
+            final WebserviceServerInfoRecordMapper webserviceServerInfoRecordMapper,
+            final WebserviceServerInfoExtensionMapper webserviceServerInfoExtensionMapper) {
+
+        this.webserviceServerInfoRecordMapper = webserviceServerInfoRecordMapper;
+        this.webserviceServerInfoExtensionMapper = webserviceServerInfoExtensionMapper;
+    }
+
+    @Override
+    @Transactional
+    public Result<Boolean> updateMaster(
+            final String uuid,
+            final String serviceAddress,
+            final long now,
+            final long leaseTime) {
+
+        return Result.tryCatch(() -> {
+
+            // lock all instances to serialize the election with other instances
+            final List<WebserviceServerInfoRecord> instances = this.webserviceServerInfoExtensionMapper
+                    .selectAllForUpdate();
+
+            final WebserviceServerInfoRecord self = instances
+                    .stream()
+                    .filter(instance -> uuid.equals(instance.getUuid()))
+                    .findFirst()
+                    .orElse(null);
+
+            final boolean otherMaster = instances
+                    .stream()
+                    .anyMatch(instance -> !uuid.equals(instance.getUuid())
+                            && BooleanUtils.toBoolean(instance.getMaster())
+                            && instance.getUpdateTime() + leaseTime > now);
+
+            if (self == null) {
+                this.webserviceServerInfoRecordMapper.insert(new WebserviceServerInfoRecord(
+                        null,
+                        uuid,
+                        serviceAddress,
+                        BooleanUtils.toInteger(!otherMaster),
+                        now));
+            } else {
+                this.webserviceServerInfoRecordMapper.updateByPrimaryKeySelective(new WebserviceServerInfoRecord(
+                        self.getId(),
+                        null,
+                        null,
+                        BooleanUtils.toInteger(!otherMaster),
+                        now));
+            }
+
+            if (otherMaster) {
+                return false;
+            }
+
+            // release the expired master lease of another instance
+            this.webserviceServerInfoRecordMapper
+                    .updateByExampleSelective(new WebserviceServerInfoRecord(
+                            null, null, null, BooleanUtils.toInteger(false), null))
+                    .where(WebserviceServerInfoRecordDynamicSqlSupport.master, isEqualTo(BooleanUtils.toInteger(true)))
+                    .and(WebserviceServerInfoRecordDynamicSqlSupport.uuid, isNotEqualTo(uuid))
+                    .build()
+                    .execute();
+
+            // remove the instances that are gone for a long time
+            this.webserviceServerInfoRecordMapper
+                    .deleteByExample()
+                    .where(
+                            WebserviceServerInfoRecordDynamicSqlSupport.updateTime,
+                            isLessThan(now - LEASE_TIMES_TO_REMOVE * leaseTime))
+                    .build()
+                    .execute();
+
+            return true;
+        })
+                .onError(TransactionHandler::rollback);
+    }
+
+    @Override
+    @Transactional
+    public Result<Boolean> unregister(final String uuid) {
+        return Result.tryCatch(() -> this.webserviceServerInfoRecordMapper
+                .deleteByExample()
+                .where(WebserviceServerInfoRecordDynamicSqlSupport.uuid, isEqualTo(uuid))
+                .build()
+                .execute() > 0)
+                .onError(TransactionHandler::rollback);
+    }
+
+}
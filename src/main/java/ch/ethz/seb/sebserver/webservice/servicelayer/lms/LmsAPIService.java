@@ -8,10 +8,13 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.lms;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -35,6 +38,9 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
  * changes this service will be notifies about the change and release the related LmsAPITemplate from cache. */
 public interface LmsAPIService {
 
+    /** Separates the tokens of a quiz name */
+    Pattern QUIZ_NAME_TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     /** Get the specified LmsSetup model by primary key
      *
      * @param id The identifier (PK) of the LmsSetup model
@@ -94,23 +100,55 @@ public interface LmsAPIService {
         return getLmsAPITemplate(String.valueOf(lmsSetupId));
     }
 
+    /** Splits a quiz name or a quiz name filter into lower case tokens of letters and digits.
+     *
+     * @param name the quiz name or quiz name filter
+     * @return the lower case tokens of the given name */
+    static List<String> quizNameTokens(final String name) {
+        if (StringUtils.isBlank(name)) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(QUIZ_NAME_TOKEN_SEPARATOR.split(name.toLowerCase(Locale.ROOT)))
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toList());
+    }
+
     /** Closure that gives a Predicate to filter a QuizzData on the criteria given by a FilterMap.
-     * Now supports name and startTime filtering
+     * Now supports name and startTime filtering.
+     * A quiz passes the name filter if each token of the name filter is the prefix of a token of the quiz name,
+     * ignoring the case.
      *
      * @param filterMap the FilterMap containing the filter criteria
      * @return true if the given QuizzData passes the filter */
     static Predicate<QuizData> quizFilterPredicate(final FilterMap filterMap) {
-        final String name = filterMap.getQuizName();
+        final List<String> nameFilterTokens = quizNameTokens(filterMap.getQuizName());
         final DateTime from = filterMap.getQuizFromTime();
         return q -> {
-            final boolean nameFilter = StringUtils.isBlank(name) || (q.name != null && q.name.contains(name));
+            final boolean nameFilter = nameFilterTokens.isEmpty() || matchesNameFilter(nameFilterTokens, q.name);
             final boolean startTimeFilter =
                     (from == null) || (q.startTime != null && (q.startTime.isEqual(from) || q.startTime.isAfter(from)));
-            final boolean currentlyRunning = DateTime.now(DateTimeZone.UTC).isBefore(q.endTime);
+            // NOTE: Joda treats a null end time as now, a quiz without end time is not running in this sense
+            final boolean currentlyRunning = q.endTime != null && DateTime.now(DateTimeZone.UTC).isBefore(q.endTime);
             return nameFilter && (startTimeFilter || currentlyRunning);
         };
     }
 
+    /** Checks if each token of the name filter is the prefix of a token of the given quiz name.
+     * The quiz name is split into tokens only once for all tokens of the name filter.
+     *
+     * @param nameFilterTokens the tokens of the name filter
+     * @param name the quiz name
+     * @return true if the given quiz name matches all tokens of the name filter */
+    static boolean matchesNameFilter(final List<String> nameFilterTokens, final String name) {
+        final List<String> nameTokens = quizNameTokens(name);
+        return nameFilterTokens
+                .stream()
+                .allMatch(token -> nameTokens
+                        .stream()
+                        .anyMatch(nameToken -> nameToken.startsWith(token)));
+    }
+
     /** Closure that gives a Function to gets a list of QuizData and used the quizFilterFunction to filter this list
      * on the criteria given by a FilterMap.
      *
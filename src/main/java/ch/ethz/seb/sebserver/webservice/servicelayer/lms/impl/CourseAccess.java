@@ -10,10 +10,8 @@ package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -21,25 +19,46 @@ import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.async.AsyncService;
 import ch.ethz.seb.sebserver.gbl.async.CircuitBreaker;
 import ch.ethz.seb.sebserver.gbl.async.MemoizingCircuitBreaker;
+import ch.ethz.seb.sebserver.gbl.async.MemoizingCircuitBreaker.CacheState;
 import ch.ethz.seb.sebserver.gbl.model.exam.Chapters;
 import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
-import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 
 public abstract class CourseAccess {
 
+    /** Gauge of the age of the cached quizzes in milliseconds per LmsSetup or -1 if there are no cached quizzes */
+    public static final String METRIC_QUIZ_CACHE_AGE = "sebserver.lms.quizzes.cache.age";
+    /** Gauge of the CacheState ordinal of the cached quizzes per LmsSetup */
+    public static final String METRIC_QUIZ_CACHE_STATE = "sebserver.lms.quizzes.cache.state";
+
+    protected final QuizCatalog quizCatalog = new QuizCatalog();
     protected final MemoizingCircuitBreaker<List<QuizData>> allQuizzesRequest;
     protected final CircuitBreaker<Chapters> chaptersRequest;
 
-    protected CourseAccess(final AsyncService asyncService) {
+    /** Create a new CourseAccess
+     *
+     * @param asyncService the AsyncService to create the circuit breakers with
+     * @param quizCacheFreshness the time in milliseconds the cached quizzes are served before they get refreshed
+     *            in the background. If this is zero or less the quizzes are requested from the LMS on every call */
+    protected CourseAccess(final AsyncService asyncService, final long quizCacheFreshness) {
+        final Supplier<List<QuizData>> allQuizzesSupplier = allQuizzesSupplier();
         this.allQuizzesRequest = asyncService.createMemoizingCircuitBreaker(
-                allQuizzesSupplier(),
+                () -> {
+                    final List<QuizData> quizzes = allQuizzesSupplier.get();
+                    this.quizCatalog.update(quizzes);
+                    return quizzes;
+                },
                 3,
                 Constants.MINUTE_IN_MILLIS,
                 Constants.MINUTE_IN_MILLIS,
                 true,
-                Constants.HOUR_IN_MILLIS);
+                Constants.HOUR_IN_MILLIS,
+                quizCacheFreshness);
 
         this.chaptersRequest = asyncService.createCircuitBreaker(
                 3,
@@ -48,44 +67,78 @@ public abstract class CourseAccess {
     }
 
     public Result<QuizData> getQuizFromCache(final String id) {
-        return Result.tryCatch(() -> this.allQuizzesRequest
-                .getCached()
-                .stream()
-                .filter(qd -> id.equals(qd.id))
-                .findFirst()
-                .orElseThrow(() -> new NoSuchElementException("No cached quiz: " + id)));
+        return Result.tryCatch(() -> {
+            final QuizData quiz = this.quizCatalog.getQuiz(id);
+            if (quiz == null) {
+                throw new NoSuchElementException("No cached quiz: " + id);
+            }
+            return quiz;
+        });
     }
 
     public Result<Collection<Result<QuizData>>> getQuizzesFromCache(final Set<String> ids) {
         return Result.tryCatch(() -> {
-            final List<QuizData> cached = this.allQuizzesRequest.getCached();
-            if (cached == null) {
+            if (!this.quizCatalog.isLoaded()) {
                 throw new RuntimeException("No cached quizzes");
             }
 
-            final Map<String, QuizData> cacheMapping = cached
+            final List<QuizData> cached = ids
                     .stream()
-                    .collect(Collectors.toMap(q -> q.id, Function.identity()));
+                    .map(this.quizCatalog::getQuiz)
+                    .collect(Collectors.toList());
 
-            if (!cacheMapping.keySet().containsAll(ids)) {
+            if (cached.contains(null)) {
                 throw new RuntimeException("Not all requested quizzes cached");
             }
 
-            return ids
+            return cached
                     .stream()
-                    .map(id -> {
-                        final QuizData q = cacheMapping.get(id);
-                        return (q == null)
-                                ? Result.<QuizData> ofError(new NoSuchElementException("Quiz with id: " + id))
-                                : Result.of(q);
-                    })
+                    .map(Result::of)
                     .collect(Collectors.toList());
         });
     }
 
     public Result<List<QuizData>> getQuizzes(final FilterMap filterMap) {
         return this.allQuizzesRequest.get()
-                .map(LmsAPIService.quizzesFilterFunction(filterMap));
+                .map(quizzes -> this.quizCatalog.getQuizzes(filterMap));
+    }
+
+    /** Get the age of the cached quizzes.
+     *
+     * @return the time in milliseconds since the quizzes were cached or -1 if there are no cached quizzes */
+    public long getQuizCacheAge() {
+        return this.allQuizzesRequest.getCacheAge();
+    }
+
+    /** Get the state of the cached quizzes.
+     *
+     * @return the CacheState of the cached quizzes */
+    public CacheState getQuizCacheState() {
+        return this.allQuizzesRequest.getCacheState();
+    }
+
+    /** Registers the gauges of the quiz cache for the given LmsSetup.
+     * The gauges of a former CourseAccess of the same LmsSetup are replaced.
+     *
+     * @param meterRegistry the MeterRegistry to register the gauges on
+     * @param lmsSetup the LmsSetup of this CourseAccess */
+    public void registerQuizCacheMetrics(final MeterRegistry meterRegistry, final LmsSetup lmsSetup) {
+        final Tags tags = Tags.of(
+                "lmsSetup", lmsSetup.getModelId(),
+                "lmsType", String.valueOf(lmsSetup.lmsType));
+
+        meterRegistry.find(METRIC_QUIZ_CACHE_AGE).tags(tags).meters().forEach(meterRegistry::remove);
+        meterRegistry.find(METRIC_QUIZ_CACHE_STATE).tags(tags).meters().forEach(meterRegistry::remove);
+
+        Gauge.builder(METRIC_QUIZ_CACHE_AGE, this, CourseAccess::getQuizCacheAge)
+                .description("Age of the cached quizzes per LMS setup")
+                .baseUnit("milliseconds")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_QUIZ_CACHE_STATE, this, courseAccess -> courseAccess.getQuizCacheState().ordinal())
+                .description("State of the cached quizzes per LMS setup: 0=EMPTY, 1=FRESH, 2=STALE, 3=EXPIRED")
+                .tags(tags)
+                .register(meterRegistry);
     }
 
     protected Result<Chapters> getCourseChapters(final String courseId) {
@@ -9,19 +9,30 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import ch.ethz.seb.sebserver.gbl.Constants;
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
 import ch.ethz.seb.sebserver.gbl.client.ClientCredentialService;
 import ch.ethz.seb.sebserver.gbl.client.ClientCredentials;
 import ch.ethz.seb.sebserver.gbl.client.ProxyData;
@@ -31,6 +42,7 @@ import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetupTestResult;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.LmsSetupDAO;
@@ -38,6 +50,8 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPITemplate;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx.OpenEdxLmsAPITemplateFactory;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.moodle.MoodleLmsAPITemplateFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Lazy
 @Service
@@ -46,11 +60,17 @@ public class LmsAPIServiceImpl implements LmsAPIService {
 
     private static final Logger log = LoggerFactory.getLogger(LmsAPIServiceImpl.class);
 
+    /** Timer of the quiz requests per LmsSetup, tagged with the LmsSetup identifier, the LMS type and the outcome */
+    public static final String METRIC_QUIZ_REQUEST = "sebserver.lms.quizzes.request";
+
     private final LmsSetupDAO lmsSetupDAO;
     private final ClientCredentialService clientCredentialService;
     private final WebserviceInfo webserviceInfo;
     private final OpenEdxLmsAPITemplateFactory openEdxLmsAPITemplateFactory;
     private final MoodleLmsAPITemplateFactory moodleLmsAPITemplateFactory;
+    private final Executor quizRequestExecutor;
+    private final MeterRegistry meterRegistry;
+    private final long quizRequestTimeout;
 
     private final Map<CacheKey, LmsAPITemplate> cache = new ConcurrentHashMap<>();
 
@@ -59,13 +79,19 @@ public class LmsAPIServiceImpl implements LmsAPIService {
             final MoodleLmsAPITemplateFactory moodleLmsAPITemplateFactory,
             final LmsSetupDAO lmsSetupDAO,
             final ClientCredentialService clientCredentialService,
-            final WebserviceInfo webserviceInfo) {
+            final WebserviceInfo webserviceInfo,
+            @Qualifier(AsyncServiceSpringConfig.LMS_QUIZ_REQUEST_EXECUTOR_BEAN_NAME) final Executor quizRequestExecutor,
+            final MeterRegistry meterRegistry,
+            @Value("${sebserver.webservice.lms.quiz-request-timeout:10000}") final long quizRequestTimeout) {
 
         this.openEdxLmsAPITemplateFactory = openEdxLmsAPITemplateFactory;
         this.moodleLmsAPITemplateFactory = moodleLmsAPITemplateFactory;
         this.lmsSetupDAO = lmsSetupDAO;
         this.clientCredentialService = clientCredentialService;
         this.webserviceInfo = webserviceInfo;
+        this.quizRequestExecutor = quizRequestExecutor;
+        this.meterRegistry = meterRegistry;
+        this.quizRequestTimeout = quizRequestTimeout;
     }
 
     /** Listen to LmsSetupChangeEvent to release an affected LmsAPITemplate from cache
@@ -142,7 +168,8 @@ public class LmsAPIServiceImpl implements LmsAPIService {
 
     /** Collect all QuizData from all affecting LmsSetup.
      * If filterMap contains a LmsSetup identifier, only the QuizData from that LmsSetup is collected.
-     * Otherwise QuizData from all active LmsSetup of the current institution are collected.
+     * Otherwise QuizData from all active LmsSetup of the current institution are collected concurrently.
+     * LmsSetup that do not respond within the quiz request timeout are logged and skipped.
      *
      * @param filterMap the FilterMap containing either an LmsSetup identifier or an institution identifier
      * @return list of QuizData from all affecting LmsSetup */
@@ -157,14 +184,20 @@ public class LmsAPIServiceImpl implements LmsAPIService {
                         .getOrThrow();
             }
 
-            // case 2. get quizzes from all LmsSetups of specified institution
+            // case 2. get quizzes from all LmsSetups of specified institution concurrently
             final Long institutionId = filterMap.getInstitutionId();
-            return this.lmsSetupDAO.all(institutionId, true)
+            final List<QuizRequest> requests = this.lmsSetupDAO.all(institutionId, true)
                     .getOrThrow()
                     .stream()
                     .map(this::getLmsAPITemplate)
                     .flatMap(Result::onErrorLogAndSkip)
-                    .map(template -> template.getQuizzes(filterMap))
+                    .map(template -> new QuizRequest(template, filterMap))
+                    .collect(Collectors.toList());
+
+            final long deadline = Utils.getMillisecondsNow() + this.quizRequestTimeout;
+            return requests
+                    .stream()
+                    .map(request -> request.get(deadline))
                     .flatMap(Result::onErrorLogAndSkip)
                     .flatMap(List::stream)
                     .distinct()
@@ -172,6 +205,86 @@ public class LmsAPIServiceImpl implements LmsAPIService {
         });
     }
 
+    private void recordQuizRequest(final LmsSetup lmsSetup, final long startTime, final String outcome) {
+        final long duration = Utils.getMillisecondsNow() - startTime;
+
+        if (log.isDebugEnabled()) {
+            log.debug("Quiz request for LmsSetup: {} took {} milliseconds with outcome: {}",
+                    lmsSetup.name,
+                    duration,
+                    outcome);
+        }
+
+        Timer.builder(METRIC_QUIZ_REQUEST)
+                .description("Time of the quiz requests per LMS setup")
+                .tag("lmsSetup", lmsSetup.getModelId())
+                .tag("lmsType", String.valueOf(lmsSetup.lmsType))
+                .tag("outcome", outcome)
+                .register(this.meterRegistry)
+                .record(duration, TimeUnit.MILLISECONDS);
+    }
+
+    /** A quiz request on one LmsSetup that runs asynchronously.
+     * The outcome is recorded only once, either by the request itself or by the waiting caller on timeout */
+    private final class QuizRequest {
+
+        final LmsSetup lmsSetup;
+        final long startTime;
+        final AtomicBoolean recorded = new AtomicBoolean(false);
+        final Future<Result<List<QuizData>>> future;
+
+        QuizRequest(final LmsAPITemplate template, final FilterMap filterMap) {
+            this.lmsSetup = template.lmsSetup();
+            this.startTime = Utils.getMillisecondsNow();
+            this.future = requestAsync(template, filterMap);
+        }
+
+        private Future<Result<List<QuizData>>> requestAsync(
+                final LmsAPITemplate template,
+                final FilterMap filterMap) {
+
+            try {
+                return CompletableFuture.supplyAsync(() -> {
+                    final Result<List<QuizData>> quizzes = template.getQuizzes(filterMap);
+                    record(quizzes.hasError() ? "error" : "success");
+                    return quizzes;
+                }, LmsAPIServiceImpl.this.quizRequestExecutor);
+            } catch (final RejectedExecutionException e) {
+                log.warn("Too many concurrent quiz requests to request the quizzes of LmsSetup: {}. Skip it",
+                        this.lmsSetup.name);
+                record("rejected");
+                return CompletableFuture.completedFuture(Result.of(Collections.emptyList()));
+            }
+        }
+
+        /** Waits for the quizzes until the given deadline.
+         * The request is not cancelled on timeout so that the LmsAPITemplate may still cache the response.
+         *
+         * @param deadline the point in time in milliseconds to wait for the quizzes at the latest
+         * @return Result refer to the quizzes or to an error if happened */
+        Result<List<QuizData>> get(final long deadline) {
+            try {
+                return this.future.get(
+                        Math.max(0, deadline - Utils.getMillisecondsNow()),
+                        TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) {
+                log.warn("LmsSetup: {} did not respond to the quiz request within {} milliseconds. Skip it",
+                        this.lmsSetup.name,
+                        Utils.getMillisecondsNow() - this.startTime);
+                record("timeout");
+                return Result.of(Collections.emptyList());
+            } catch (final Exception e) {
+                return Result.ofError(e);
+            }
+        }
+
+        private void record(final String outcome) {
+            if (this.recorded.compareAndSet(false, true)) {
+                recordQuizRequest(this.lmsSetup, this.startTime, outcome);
+            }
+        }
+    }
+
     private Result<LmsAPITemplate> getLmsAPITemplate(final LmsSetup lmsSetup) {
         return Result.tryCatch(() -> {
             LmsAPITemplate lmsAPITemplate = getFromCache(lmsSetup);
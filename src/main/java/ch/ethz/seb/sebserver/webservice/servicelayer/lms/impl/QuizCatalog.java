@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
+
+/** An indexed in-memory catalog of the quizzes of one LMS setup.
+ * <p>
+ * The quizzes are indexed by identifier, by the tokens of the quiz name and by start and end time.
+ * A quiz request filters with the indexes instead of testing every quiz against the filter. The filter semantic
+ * is the same as of LmsAPIService.quizFilterPredicate.
+ * <p>
+ * On refresh of the quizzes from the LMS, only the quizzes that were added, removed or changed are re-indexed. */
+public final class QuizCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizCatalog.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, QuizData> quizzes = new LinkedHashMap<>();
+    private final TreeMap<String, Set<String>> nameTokenIndex = new TreeMap<>();
+    private final TreeMap<Long, Set<String>> startTimeIndex = new TreeMap<>();
+    private final TreeMap<Long, Set<String>> endTimeIndex = new TreeMap<>();
+
+    private boolean loaded = false;
+
+    /** Indicates whether the catalog was loaded with the quizzes of the LMS setup at least once
+     *
+     * @return true if the catalog was loaded at least once */
+    public boolean isLoaded() {
+        this.lock.readLock().lock();
+        try {
+            return this.loaded;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /** Get the number of quizzes in the catalog
+     *
+     * @return the number of quizzes in the catalog */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.quizzes.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /** Updates the catalog with the current quizzes of the LMS setup.
+     * Quizzes that are not within the given quizzes anymore are removed from the catalog.
+     *
+     * @param quizzes the current quizzes of the LMS setup
+     * @return the number of added, changed and removed quizzes */
+    public int update(final Collection<QuizData> quizzes) {
+        final Map<String, QuizData> current = quizzes
+                .stream()
+                .collect(Collectors.toMap(q -> q.id, Function.identity(), (q1, q2) -> q2, LinkedHashMap::new));
+
+        this.lock.writeLock().lock();
+        try {
+            int changes = 0;
+
+            final List<QuizData> removed = this.quizzes.values()
+                    .stream()
+                    .filter(q -> !current.containsKey(q.id))
+                    .collect(Collectors.toList());
+            for (final QuizData quiz : removed) {
+                this.quizzes.remove(quiz.id);
+                unindex(quiz);
+                changes++;
+            }
+
+            for (final QuizData quiz : current.values()) {
+                final QuizData old = this.quizzes.put(quiz.id, quiz);
+                if (old == null) {
+                    index(quiz);
+                    changes++;
+                } else if (!sameIndexKeys(old, quiz)) {
+                    unindex(old);
+                    index(quiz);
+                    changes++;
+                }
+            }
+
+            this.loaded = true;
+
+            if (log.isDebugEnabled()) {
+                log.debug("Updated quiz catalog with {} changes. Quizzes: {}", changes, this.quizzes.size());
+            }
+
+            return changes;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /** Get the quiz with the given identifier
+     *
+     * @param id the quiz identifier
+     * @return the quiz with the given identifier or null if there is no such quiz in the catalog */
+    public QuizData getQuiz(final String id) {
+        this.lock.readLock().lock();
+        try {
+            return this.quizzes.get(id);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /** Get all quizzes of the catalog that pass the filter criteria of the given FilterMap.
+     *
+     * @param filterMap the FilterMap containing the filter criteria
+     * @return all quizzes of the catalog that pass the filter criteria */
+    public List<QuizData> getQuizzes(final FilterMap filterMap) {
+        final List<String> nameFilterTokens = LmsAPIService.quizNameTokens(filterMap.getQuizName());
+        final DateTime from = filterMap.getQuizFromTime();
+
+        this.lock.readLock().lock();
+        try {
+            if (nameFilterTokens.isEmpty() && from == null) {
+                return new ArrayList<>(this.quizzes.values());
+            }
+
+            final List<Set<String>> candidates = new ArrayList<>();
+            for (final String token : nameFilterTokens) {
+                candidates.add(ids(this.nameTokenIndex.subMap(token, true, token + Character.MAX_VALUE, true)));
+            }
+            if (from != null) {
+                final Set<String> timeCandidates = ids(this.startTimeIndex.tailMap(from.getMillis(), true));
+                timeCandidates.addAll(ids(this.endTimeIndex.tailMap(Utils.getMillisecondsNow(), false)));
+                candidates.add(timeCandidates);
+            }
+
+            // intersect beginning with the smallest set of candidates
+            candidates.sort(Comparator.comparingInt(Set::size));
+            final Set<String> result = candidates.get(0);
+            for (int i = 1; i < candidates.size() && !result.isEmpty(); i++) {
+                result.retainAll(candidates.get(i));
+            }
+
+            return result
+                    .stream()
+                    .map(this.quizzes::get)
+                    .collect(Collectors.toList());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private void index(final QuizData quiz) {
+        for (final String token : LmsAPIService.quizNameTokens(quiz.name)) {
+            add(this.nameTokenIndex, token, quiz.id);
+        }
+        if (quiz.startTime != null) {
+            add(this.startTimeIndex, quiz.startTime.getMillis(), quiz.id);
+        }
+        if (quiz.endTime != null) {
+            add(this.endTimeIndex, quiz.endTime.getMillis(), quiz.id);
+        }
+    }
+
+    private void unindex(final QuizData quiz) {
+        for (final String token : LmsAPIService.quizNameTokens(quiz.name)) {
+            remove(this.nameTokenIndex, token, quiz.id);
+        }
+        if (quiz.startTime != null) {
+            remove(this.startTimeIndex, quiz.startTime.getMillis(), quiz.id);
+        }
+        if (quiz.endTime != null) {
+            remove(this.endTimeIndex, quiz.endTime.getMillis(), quiz.id);
+        }
+    }
+
+    private static boolean sameIndexKeys(final QuizData q1, final QuizData q2) {
+        return Objects.equals(q1.name, q2.name)
+                && Objects.equals(millis(q1.startTime), millis(q2.startTime))
+                && Objects.equals(millis(q1.endTime), millis(q2.endTime));
+    }
+
+    private static Long millis(final DateTime time) {
+        return (time != null) ? time.getMillis() : null;
+    }
+
+    private static <K> void add(final Map<K, Set<String>> index, final K key, final String id) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+    }
+
+    private static <K> void remove(final Map<K, Set<String>> index, final K key, final String id) {
+        final Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static <K> Set<String> ids(final NavigableMap<K, Set<String>> range) {
+        final Set<String> ids = new HashSet<>();
+        range.values().forEach(ids::addAll);
+        return ids;
+    }
+
+}
@@ -9,7 +9,6 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx;
 
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +61,8 @@ final class OpenEdxCourseAccess extends CourseAccess {
     private final LmsSetup lmsSetup;
     private final OpenEdxRestTemplateFactory openEdxRestTemplateFactory;
     private final WebserviceInfo webserviceInfo;
+    private final AsyncService asyncService;
+    private final int pageParallelism;
 
     private OAuth2RestTemplate restTemplate;
 
@@ -69,12 +70,16 @@ final class OpenEdxCourseAccess extends CourseAccess {
             final LmsSetup lmsSetup,
             final OpenEdxRestTemplateFactory openEdxRestTemplateFactory,
             final WebserviceInfo webserviceInfo,
-            final AsyncService asyncService) {
+            final AsyncService asyncService,
+            final int pageParallelism,
+            final long quizCacheFreshness) {
 
-        super(asyncService);
+        super(asyncService, quizCacheFreshness);
         this.lmsSetup = lmsSetup;
         this.openEdxRestTemplateFactory = openEdxRestTemplateFactory;
         this.webserviceInfo = webserviceInfo;
+        this.asyncService = asyncService;
+        this.pageParallelism = pageParallelism;
     }
 
     LmsSetupTestResult initAPIAccess() {
@@ -134,22 +139,19 @@ final class OpenEdxCourseAccess extends CourseAccess {
         };
     }
 
-    private ArrayList<QuizData> collectAllQuizzes(final OAuth2RestTemplate restTemplate) {
+    private List<QuizData> collectAllQuizzes(final OAuth2RestTemplate restTemplate) {
         final String externalStartURI = getExternalLMSServerAddress(this.lmsSetup);
-        return collectAllCourses(
+        final OpenEdxCoursePageCollector<QuizData> collector = new OpenEdxCoursePageCollector<>(
+                this.asyncService,
+                pageURI -> getEdxPage(pageURI, restTemplate).getBody(),
+                courseData -> quizDataOf(this.lmsSetup, courseData, externalStartURI),
+                this.pageParallelism);
+
+        // collect within the time the circuit breaker waits for the quizzes to not request pages needlessly
+        return Result.tryCatch(() -> collector.collect(
                 this.lmsSetup.lmsApiUrl + OPEN_EDX_DEFAULT_COURSE_ENDPOINT,
-                restTemplate)
-                        .stream()
-                        .reduce(
-                                new ArrayList<>(),
-                                (list, courseData) -> {
-                                    list.add(quizDataOf(this.lmsSetup, courseData, externalStartURI));
-                                    return list;
-                                },
-                                (list1, list2) -> {
-                                    list1.addAll(list2);
-                                    return list1;
-                                });
+                this.allQuizzesRequest.getDelegate().getMaxBlockingTime()))
+                .getOrThrow();
     }
 
     private String getExternalLMSServerAddress(final LmsSetup lmsSetup) {
@@ -176,22 +178,6 @@ final class OpenEdxCourseAccess extends CourseAccess {
         return _externalStartURI;
     }
 
-    private List<CourseData> collectAllCourses(final String pageURI, final OAuth2RestTemplate restTemplate) {
-        final List<CourseData> collector = new ArrayList<>();
-        EdXPage page = getEdxPage(pageURI, restTemplate).getBody();
-        if (page != null) {
-            collector.addAll(page.results);
-            while (page != null && StringUtils.isNotBlank(page.next)) {
-                page = getEdxPage(page.next, restTemplate).getBody();
-                if (page != null) {
-                    collector.addAll(page.results);
-                }
-            }
-        }
-
-        return collector;
-    }
-
     private ResponseEntity<EdXPage> getEdxPage(final String pageURI, final OAuth2RestTemplate restTemplate) {
         final HttpHeaders httpHeaders = new HttpHeaders();
         return restTemplate.exchange(
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import ch.ethz.seb.sebserver.gbl.async.AsyncService;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx.OpenEdxCourseAccess.CourseData;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx.OpenEdxCourseAccess.EdXPage;
+
+/** Collects all courses of the paged Open edX course API.
+ * <p>
+ * The first page is requested to get the number of pages. The remaining pages are then requested concurrently
+ * by the calling thread and a bounded number of helper tasks on the AsyncService. Each page is mapped as soon
+ * as it arrives and the mapped pages are joined in page order. If the number of pages is not known, the pages
+ * are requested one after another by following the next page link.
+ *
+ * @param <T> the type the course data is mapped to */
+final class OpenEdxCoursePageCollector<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenEdxCoursePageCollector.class);
+
+    private static final String PAGE_QUERY_PARAM = "page";
+
+    private final AsyncService asyncService;
+    private final Function<String, EdXPage> pageSupplier;
+    private final Function<CourseData, T> mapper;
+    private final int parallelism;
+
+    /** Create a new OpenEdxCoursePageCollector
+     *
+     * @param asyncService the AsyncService to run the helper tasks on
+     * @param pageSupplier requests the course page of a given page URI
+     * @param mapper maps the course data of a page
+     * @param parallelism the maximal number of pages that are requested concurrently */
+    OpenEdxCoursePageCollector(
+            final AsyncService asyncService,
+            final Function<String, EdXPage> pageSupplier,
+            final Function<CourseData, T> mapper,
+            final int parallelism) {
+
+        this.asyncService = asyncService;
+        this.pageSupplier = pageSupplier;
+        this.mapper = mapper;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /** Collect and map the courses of all pages.
+     *
+     * @param pageURI the URI of the first page
+     * @param maxTime the maximal time in milliseconds to collect all pages
+     * @return the mapped courses of all pages in page order
+     * @throws Exception if a page request failed or not all pages were collected within the maximal time */
+    List<T> collect(final String pageURI, final long maxTime) throws Exception {
+        final long deadline = Utils.getMillisecondsNow() + maxTime;
+        final EdXPage firstPage = this.pageSupplier.apply(pageURI);
+        if (firstPage == null) {
+            return Collections.emptyList();
+        }
+
+        final List<T> collector = new ArrayList<>(mapPage(firstPage));
+        if (StringUtils.isBlank(firstPage.next)) {
+            return collector;
+        }
+
+        if (this.parallelism <= 1 || firstPage.num_pages == null) {
+            collectSequentially(firstPage.next, collector, deadline);
+        } else {
+            collectConcurrently(firstPage.next, firstPage.num_pages, collector, deadline);
+        }
+
+        return collector;
+    }
+
+    private void collectSequentially(
+            final String nextPageURI,
+            final List<T> collector,
+            final long deadline) throws TimeoutException {
+
+        String next = nextPageURI;
+        while (StringUtils.isNotBlank(next)) {
+            checkDeadline(deadline);
+            final EdXPage page = this.pageSupplier.apply(next);
+            if (page == null) {
+                return;
+            }
+            collector.addAll(mapPage(page));
+            next = page.next;
+        }
+    }
+
+    private void collectConcurrently(
+            final String nextPageURI,
+            final int numPages,
+            final List<T> collector,
+            final long deadline) throws Exception {
+
+        final PageRequests pageRequests = new PageRequests(nextPageURI, numPages, deadline);
+        final int helpers = Math.min(this.parallelism, numPages - 1) - 1;
+        for (int i = 0; i < helpers; i++) {
+            try {
+                this.asyncService.runAsync(pageRequests::requestPages);
+            } catch (final Exception e) {
+                // no capacity left for more helpers, the pages are requested by the ones that are running
+                log.warn("Failed to start concurrent course page request: {}", e.getMessage());
+                break;
+            }
+        }
+
+        // the calling thread requests pages as well so that all pages are collected without any helper
+        pageRequests.requestPages();
+        pageRequests.await();
+
+        for (final List<T> page : pageRequests.pages) {
+            collector.addAll(page);
+        }
+    }
+
+    private List<T> mapPage(final EdXPage page) {
+        if (page.results == null) {
+            return Collections.emptyList();
+        }
+
+        return page.results
+                .stream()
+                .map(this.mapper)
+                .collect(Collectors.toList());
+    }
+
+    private static void checkDeadline(final long deadline) throws TimeoutException {
+        if (Utils.getMillisecondsNow() > deadline) {
+            throw new TimeoutException("Failed to collect all course pages within the maximal time");
+        }
+    }
+
+    /** The page requests of one collect call that are shared by the calling thread and the helper tasks */
+    private final class PageRequests {
+
+        private final String nextPageURI;
+        private final int firstPageNumber;
+        private final long deadline;
+        private final List<List<T>> pages;
+        private final AtomicInteger nextPage = new AtomicInteger();
+        private final CountDownLatch latch;
+        private final AtomicReference<Exception> error = new AtomicReference<>();
+
+        PageRequests(final String nextPageURI, final int numPages, final long deadline) {
+            this.nextPageURI = nextPageURI;
+            this.firstPageNumber = getPageNumber(nextPageURI);
+            this.deadline = deadline;
+            final int count = Math.max(0, numPages - this.firstPageNumber + 1);
+            this.pages = new ArrayList<>(Collections.nCopies(count, Collections.emptyList()));
+            this.latch = new CountDownLatch(count);
+        }
+
+        void requestPages() {
+            int index;
+            while (this.error.get() == null && (index = this.nextPage.getAndIncrement()) < this.pages.size()) {
+                try {
+                    checkDeadline(this.deadline);
+                    final EdXPage page = OpenEdxCoursePageCollector.this.pageSupplier
+                            .apply(pageURI(this.firstPageNumber + index));
+                    final List<T> mapped = (page != null) ? mapPage(page) : Collections.emptyList();
+                    synchronized (this.pages) {
+                        this.pages.set(index, mapped);
+                    }
+                } catch (final Exception e) {
+                    this.error.compareAndSet(null, e);
+                    // release the waiting caller since not all pages will be collected anymore
+                    while (this.latch.getCount() > 0) {
+                        this.latch.countDown();
+                    }
+                    return;
+                }
+                this.latch.countDown();
+            }
+        }
+
+        void await() throws Exception {
+            final long waitTime = this.deadline - Utils.getMillisecondsNow();
+            final boolean done = waitTime > 0 && this.latch.await(waitTime, TimeUnit.MILLISECONDS);
+            if (this.error.get() != null) {
+                throw this.error.get();
+            }
+            if (!done) {
+                // stop the helpers from requesting further pages
+                this.error.compareAndSet(null, new TimeoutException());
+                throw new TimeoutException("Failed to collect all course pages within the maximal time");
+            }
+        }
+
+        private String pageURI(final int pageNumber) {
+            return UriComponentsBuilder
+                    .fromUriString(this.nextPageURI)
+                    .replaceQueryParam(PAGE_QUERY_PARAM, pageNumber)
+                    .build()
+                    .toUriString();
+        }
+
+        private int getPageNumber(final String pageURI) {
+            final String page = UriComponentsBuilder
+                    .fromUriString(pageURI)
+                    .build()
+                    .getQueryParams()
+                    .getFirst(PAGE_QUERY_PARAM);
+
+            return (StringUtils.isNumeric(page)) ? Integer.parseInt(page) : 2;
+        }
+    }
+
+}
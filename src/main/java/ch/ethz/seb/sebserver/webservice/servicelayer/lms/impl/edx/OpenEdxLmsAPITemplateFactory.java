@@ -24,6 +24,7 @@ import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Lazy
 @Service
@@ -37,6 +38,9 @@ public class OpenEdxLmsAPITemplateFactory {
     private final ClientHttpRequestFactoryService clientHttpRequestFactoryService;
     private final String[] alternativeTokenRequestPaths;
     private final int restrictionAPIPushCount;
+    private final int coursePageParallelism;
+    private final long quizCacheFreshness;
+    private final MeterRegistry meterRegistry;
 
     protected OpenEdxLmsAPITemplateFactory(
             final JSONMapper jsonMapper,
@@ -45,7 +49,10 @@ public class OpenEdxLmsAPITemplateFactory {
             final ClientCredentialService clientCredentialService,
             final ClientHttpRequestFactoryService clientHttpRequestFactoryService,
             @Value("${sebserver.webservice.lms.openedx.api.token.request.paths}") final String alternativeTokenRequestPaths,
-            @Value("${sebserver.webservice.lms.openedx.seb.restriction.push-count:0}") final int restrictionAPIPushCount) {
+            @Value("${sebserver.webservice.lms.openedx.seb.restriction.push-count:0}") final int restrictionAPIPushCount,
+            @Value("${sebserver.webservice.lms.openedx.api.course.page-parallelism:4}") final int coursePageParallelism,
+            @Value("${sebserver.webservice.lms.quiz-cache.freshness:60000}") final long quizCacheFreshness,
+            final MeterRegistry meterRegistry) {
 
         this.jsonMapper = jsonMapper;
         this.webserviceInfo = webserviceInfo;
@@ -56,6 +63,9 @@ public class OpenEdxLmsAPITemplateFactory {
                 ? StringUtils.split(alternativeTokenRequestPaths, Constants.LIST_SEPARATOR)
                 : null;
         this.restrictionAPIPushCount = restrictionAPIPushCount;
+        this.coursePageParallelism = coursePageParallelism;
+        this.quizCacheFreshness = quizCacheFreshness;
+        this.meterRegistry = meterRegistry;
     }
 
     public Result<OpenEdxLmsAPITemplate> create(
@@ -77,7 +87,10 @@ public class OpenEdxLmsAPITemplateFactory {
                     lmsSetup,
                     openEdxRestTemplateFactory,
                     this.webserviceInfo,
-                    this.asyncService);
+                    this.asyncService,
+                    this.coursePageParallelism,
+                    this.quizCacheFreshness);
+            openEdxCourseAccess.registerQuizCacheMetrics(this.meterRegistry, lmsSetup);
 
             final OpenEdxCourseRestriction openEdxCourseRestriction = new OpenEdxCourseRestriction(
                     lmsSetup,
@@ -59,9 +59,10 @@ public class MoodleCourseAccess extends CourseAccess {
             final JSONMapper jsonMapper,
             final LmsSetup lmsSetup,
             final MoodleRestTemplateFactory moodleRestTemplateFactory,
-            final AsyncService asyncService) {
+            final AsyncService asyncService,
+            final long quizCacheFreshness) {
 
-        super(asyncService);
+        super(asyncService, quizCacheFreshness);
         this.jsonMapper = jsonMapper;
         this.lmsSetup = lmsSetup;
         this.moodleRestTemplateFactory = moodleRestTemplateFactory;
@@ -23,6 +23,7 @@ import ch.ethz.seb.sebserver.gbl.client.ProxyData;
 import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Lazy
 @Service
@@ -34,13 +35,17 @@ public class MoodleLmsAPITemplateFactory {
     private final ClientCredentialService clientCredentialService;
     private final ClientHttpRequestFactoryService clientHttpRequestFactoryService;
     private final String[] alternativeTokenRequestPaths;
+    private final long quizCacheFreshness;
+    private final MeterRegistry meterRegistry;
 
     protected MoodleLmsAPITemplateFactory(
             final JSONMapper jsonMapper,
             final AsyncService asyncService,
             final ClientCredentialService clientCredentialService,
             final ClientHttpRequestFactoryService clientHttpRequestFactoryService,
-            @Value("${sebserver.webservice.lms.moodle.api.token.request.paths:}") final String alternativeTokenRequestPaths) {
+            @Value("${sebserver.webservice.lms.moodle.api.token.request.paths:}") final String alternativeTokenRequestPaths,
+            @Value("${sebserver.webservice.lms.quiz-cache.freshness:60000}") final long quizCacheFreshness,
+            final MeterRegistry meterRegistry) {
 
         this.jsonMapper = jsonMapper;
         this.asyncService = asyncService;
@@ -49,6 +54,8 @@ public class MoodleLmsAPITemplateFactory {
         this.alternativeTokenRequestPaths = (alternativeTokenRequestPaths != null)
                 ? StringUtils.split(alternativeTokenRequestPaths, Constants.LIST_SEPARATOR)
                 : null;
+        this.quizCacheFreshness = quizCacheFreshness;
+        this.meterRegistry = meterRegistry;
     }
 
     public Result<MoodleLmsAPITemplate> create(
@@ -71,7 +78,9 @@ public class MoodleLmsAPITemplateFactory {
                     this.jsonMapper,
                     lmsSetup,
                     moodleRestTemplateFactory,
-                    this.asyncService);
+                    this.asyncService,
+                    this.quizCacheFreshness);
+            moodleCourseAccess.registerQuizCacheMetrics(this.meterRegistry, lmsSetup);
 
             return new MoodleLmsAPITemplate(
                     lmsSetup,
@@ -12,7 +12,6 @@ import java.io.OutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.oauth2.provider.ClientDetails;
 
@@ -24,7 +23,8 @@ public interface ClientConfigService {
 
     Logger log = LoggerFactory.getLogger(ClientConfigService.class);
 
-    /** The cache name of ClientDetails */
+    /** The cache name of ClientDetails. The ClientDetails are cached by the WebClientDetailsService and
+     * evicted over the CacheInvalidationBus on any SEBClientConfig change */
     String EXAM_CLIENT_DETAILS_CACHE = "EXAM_CLIENT_DETAILS_CACHE";
 
     /** Indicates if there is any SEBClientConfiguration for a specified institution.
@@ -51,13 +51,11 @@ public interface ClientConfigService {
             final String modelId);
 
     /** Get the ClientDetails for given client name that identifies a SEBClientConfiguration entry.
+     * This decrypts and encodes the client secret on each call and is therefore expensive.
+     * Use the WebClientDetailsService that caches the ClientDetails per client name.
      *
      * @param clientName the client name of a SEBClientConfiguration entry
      * @return Result refer to the ClientDetails for the specified clientName or to an error if happened */
-    @Cacheable(
-            cacheNames = EXAM_CLIENT_DETAILS_CACHE,
-            key = "#clientName",
-            unless = "#result.hasError()")
     Result<ClientDetails> getClientConfigDetails(String clientName);
 
     /** Internally used to check OAuth2 access for a active SEBClientConfig.
@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Set;
@@ -52,4 +53,16 @@ public interface SEBConfigCryptor {
             final InputStream input,
             final SEBConfigEncryptionContext context);
 
+    /** Wraps a given cipher data output stream with an encryption stage that encrypts all plain data
+     * written to it within the calling thread. Closing the returned stream finishes the encryption
+     * and closes the given output stream.
+     *
+     * @param output the output stream to write encrypted data to
+     * @param context the SEBConfigEncryptionContext to access strategy specific data needed for encryption
+     * @return the output stream to write the plain data to
+     * @throws IOException if the encryption stage cannot be initialized */
+    OutputStream encryptionStream(
+            final OutputStream output,
+            final SEBConfigEncryptionContext context) throws IOException;
+
 }
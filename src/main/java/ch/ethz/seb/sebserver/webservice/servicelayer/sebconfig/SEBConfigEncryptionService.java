@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
@@ -74,6 +75,18 @@ public interface SEBConfigEncryptionService {
             final InputStream input,
             SEBConfigEncryptionContext context);
 
+    /** This can be used to build a same-thread streaming pipeline that encrypts all plain text data written
+     * to the returned output stream. The header of the encryption strategy is written to the given output
+     * stream immediately. Closing the returned stream finishes the encryption and closes the given output stream.
+     *
+     * @param output the output data stream to write the cipher text to
+     * @param context the SEBConfigEncryptionContext to access strategy specific data needed for encryption
+     * @return the output stream to write the plain text to
+     * @throws IOException if the header cannot be written or the encryption stage cannot be initialized */
+    OutputStream encryptionStream(
+            final OutputStream output,
+            SEBConfigEncryptionContext context) throws IOException;
+
     /** This can be used to stream incoming cipher data to decrypted plain text data output stream.
      *
      * @param output the output data stream to write encrypted plain text to
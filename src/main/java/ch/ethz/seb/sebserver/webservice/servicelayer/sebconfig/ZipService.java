@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
@@ -36,4 +37,13 @@ public interface ZipService {
     @Async(AsyncServiceSpringConfig.EXECUTOR_BEAN_NAME)
     void read(OutputStream out, InputStream in);
 
+    /** Use this to wrap a given output stream with a gzip compression stage that
+     * compresses all data written to it within the calling thread.
+     * Closing the returned stream finishes the compression and closes the given output stream.
+     *
+     * @param out the OutputStream to write the compressed data to
+     * @return the OutputStream to write the uncompressed data to
+     * @throws IOException if the gzip header cannot be written */
+    OutputStream compressionStream(OutputStream out) throws IOException;
+
 }
@@ -15,6 +15,7 @@ import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.io.SequenceInputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -32,12 +33,10 @@ import org.apache.tomcat.util.http.fileupload.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.xml.sax.SAXException;
 
 import ch.ethz.seb.sebserver.gbl.Constants;
-import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
@@ -58,6 +57,12 @@ public class ExamConfigIO {
 
     private static final Logger log = LoggerFactory.getLogger(ExamConfigIO.class);
 
+    /** The number of parsed values after which the progress of an import is reported */
+    private static final int IMPORT_PROGRESS_INTERVAL = 1000;
+    /** SAX parser feature to prevent the parser from loading the external plist DTD on each import */
+    private static final String FEATURE_LOAD_EXTERNAL_DTD =
+            "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+
     private static final byte[] XML_VERSION_HEADER_UTF_8 = Utils.toByteArray(Constants.XML_VERSION_HEADER);
     private static final byte[] XML_DOCTYPE_HEADER_UTF_8 = Utils.toByteArray(Constants.XML_DOCTYPE_HEADER);
     private static final byte[] XML_PLIST_START_V1_UTF_8 = Utils.toByteArray(Constants.XML_PLIST_START_V1);
@@ -91,89 +96,95 @@ public class ExamConfigIO {
         this.cryptor = cryptor;
     }
 
-    @Async(AsyncServiceSpringConfig.EXECUTOR_BEAN_NAME)
-    void exportPlain(
+    /** Writes the plain SEB Exam Configuration of the given configuration node to the given output stream
+     * within the calling thread. The output stream is neither flushed nor closed. This is used as the
+     * first stage of a same-thread streaming pipeline.
+     *
+     * @param exportFormat the format of the export
+     * @param out the OutputStream to write the plain configuration to
+     * @param institutionId the institution identifier
+     * @param configurationNodeId the configuration node identifier
+     * @throws Exception on any error while loading or writing the configuration */
+    void writePlain(
             final ConfigurationFormat exportFormat,
             final OutputStream out,
             final Long institutionId,
             final Long configurationNodeId) throws Exception {
 
-        if (log.isDebugEnabled()) {
-            log.debug("Start export SEB plain XML configuration asynconously");
-        }
+        // get follow-up configurationId for given configurationNodeId
+        final Long configurationId = this.configurationDAO
+                .getConfigurationLastStableVersion(configurationNodeId)
+                .getOrThrow().id;
 
-        try {
+        writePlainConfiguration(exportFormat, out, institutionId, configurationId);
+    }
 
-            // get all defined root configuration attributes prepared and sorted
-            final List<ConfigurationAttribute> sortedAttributes = this.configurationAttributeDAO.getAllRootAttributes()
-                    .getOrThrow()
-                    .stream()
-                    .flatMap(this::convertAttribute)
-                    .filter(exportFormatBasedAttributeFilter(exportFormat))
-                    .sorted()
-                    .collect(Collectors.toList());
-
-            // get follow-up configurationId for given configurationNodeId
-            final Long configurationId = this.configurationDAO
-                    .getConfigurationLastStableVersion(configurationNodeId)
-                    .getOrThrow().id;
-
-            final Function<ConfigurationAttribute, ConfigurationValue> configurationValueSupplier =
-                    getConfigurationValueSupplier(institutionId, configurationId);
-
-            writeHeader(exportFormat, out);
-
-            // write attributes
-            final Iterator<ConfigurationAttribute> iterator = sortedAttributes.iterator();
-            while (iterator.hasNext()) {
-
-                final ConfigurationAttribute attribute = iterator.next();
-                final AttributeValueConverter attributeValueConverter =
-                        this.attributeValueConverterService.getAttributeValueConverter(attribute);
-
-                switch (exportFormat) {
-                    case XML: {
-                        attributeValueConverter.convertToXML(
-                                out,
-                                attribute,
-                                configurationValueSupplier);
-                        break;
-                    }
-                    case JSON: {
-                        attributeValueConverter.convertToJSON(
-                                out,
-                                attribute,
-                                configurationValueSupplier);
-                        if (iterator.hasNext()) {
-                            out.write(JSON_SEPARATOR);
-                        }
-                        break;
+    /** Writes the plain SEB Exam Configuration of the given configuration version to the given output stream
+     * within the calling thread. The output stream is neither flushed nor closed.
+     *
+     * @param exportFormat the format of the export
+     * @param out the OutputStream to write the plain configuration to
+     * @param institutionId the institution identifier
+     * @param configurationId the identifier of the configuration version to export
+     * @throws Exception on any error while loading or writing the configuration */
+    void writePlainConfiguration(
+            final ConfigurationFormat exportFormat,
+            final OutputStream out,
+            final Long institutionId,
+            final Long configurationId) throws Exception {
+
+        // get all defined root configuration attributes prepared and sorted
+        final List<ConfigurationAttribute> sortedAttributes = this.configurationAttributeDAO.getAllRootAttributes()
+                .getOrThrow()
+                .stream()
+                .flatMap(this::convertAttribute)
+                .filter(exportFormatBasedAttributeFilter(exportFormat))
+                .sorted()
+                .collect(Collectors.toList());
+
+        final Function<ConfigurationAttribute, ConfigurationValue> configurationValueSupplier =
+                getConfigurationValueSupplier(institutionId, configurationId);
+
+        writeHeader(exportFormat, out);
+
+        // write attributes
+        final Iterator<ConfigurationAttribute> iterator = sortedAttributes.iterator();
+        while (iterator.hasNext()) {
+
+            final ConfigurationAttribute attribute = iterator.next();
+            final AttributeValueConverter attributeValueConverter =
+                    this.attributeValueConverterService.getAttributeValueConverter(attribute);
+
+            switch (exportFormat) {
+                case XML: {
+                    attributeValueConverter.convertToXML(
+                            out,
+                            attribute,
+                            configurationValueSupplier);
+                    break;
+                }
+                case JSON: {
+                    attributeValueConverter.convertToJSON(
+                            out,
+                            attribute,
+                            configurationValueSupplier);
+                    if (iterator.hasNext()) {
+                        out.write(JSON_SEPARATOR);
                     }
+                    break;
                 }
             }
-
-            writeFooter(exportFormat, out);
-
-            if (log.isDebugEnabled()) {
-                log.debug("Finished export SEB plain XML configuration asynconously");
-            }
-
-        } catch (final Exception e) {
-            log.error("Unexpected error while trying to write SEB Exam Configuration XML to output stream: ", e);
-            throw e;
-        } finally {
-            try {
-                out.flush();
-            } catch (final IOException e1) {
-                log.error("Unable to flush output stream after error");
-            }
-            IOUtils.closeQuietly(out);
         }
+
+        writeFooter(exportFormat, out);
     }
 
     /** This parses the XML from given InputStream with a SAX parser to avoid keeping the
      * whole XML file in memory and keep up with the streaming approach of SEB Exam Configuration
      * to avoid trouble with big SEB Exam Configuration in the future.
+     * <p>
+     * The parsed values are collected and saved at once after parsing with batched multi-row statements
+     * within one transaction. Either all imported values are applied to the configuration or none.
      *
      * @param in The InputString to constantly read the XML from
      * @param institutionId the institionId of the import
@@ -189,22 +200,40 @@ public class ExamConfigIO {
                             attr -> attr.name,
                             Function.identity()));
 
-            // the SAX handler with a ConfigValue sink that saves the values to DB
+            // the SAX handler with a ConfigValue sink that collects the values
             // and a attribute-name/id mapping function with pre-created mapping
+            final long startTime = System.currentTimeMillis();
+            final List<ConfigurationValue> values = new ArrayList<>();
             final ExamConfigXMLParser examConfigImportHandler = new ExamConfigXMLParser(
                     cryptor,
                     institutionId,
                     configurationId,
-                    value -> this.configurationValueDAO
-                            .save(value)
-                            .getOrThrow(),
+                    value -> {
+                        values.add(value);
+                        if (values.size() % IMPORT_PROGRESS_INTERVAL == 0) {
+                            log.debug("Parsed {} values to import into configuration: {}",
+                                    values.size(),
+                                    configurationId);
+                        }
+                    },
                     attributeMap::get);
 
             // SAX parsing
             final SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
+            saxParserFactory.setFeature(FEATURE_LOAD_EXTERNAL_DTD, false);
             final SAXParser parser = saxParserFactory.newSAXParser();
             parser.parse(in, examConfigImportHandler);
 
+            // save all parsed values at once
+            final Integer saved = this.configurationValueDAO
+                    .saveAll(institutionId, configurationId, values)
+                    .getOrThrow();
+
+            log.info("Imported {} values into configuration: {} in {} ms",
+                    saved,
+                    configurationId,
+                    System.currentTimeMillis() - startTime);
+
         } catch (final ParserConfigurationException | SAXException | IOException e) {
             log.error("Unexpected error while trying to parse imported SEB Config XML: ", e);
             throw new RuntimeException(e);
@@ -8,19 +8,24 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl;
 
-import java.io.IOException;
+import java.io.BufferedOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +43,7 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationAttributeDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamConfigurationMapDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationFormat;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationValueValidator;
@@ -54,6 +60,8 @@ public class ExamConfigServiceImpl implements ExamConfigService {
 
     private static final Logger log = LoggerFactory.getLogger(ExamConfigServiceImpl.class);
 
+    private static final int PIPELINE_BUFFER_SIZE = 8192;
+
     private final ExamConfigIO examConfigIO;
     private final ConfigurationAttributeDAO configurationAttributeDAO;
     private final ExamConfigurationMapDAO examConfigurationMapDAO;
@@ -61,6 +69,7 @@ public class ExamConfigServiceImpl implements ExamConfigService {
     private final ClientCredentialService clientCredentialService;
     private final ZipService zipService;
     private final SEBConfigEncryptionService sebConfigEncryptionService;
+    private final ConfigurationDAO configurationDAO;
 
     protected ExamConfigServiceImpl(
             final ExamConfigIO examConfigIO,
@@ -69,7 +78,8 @@ public class ExamConfigServiceImpl implements ExamConfigService {
             final Collection<ConfigurationValueValidator> validators,
             final ClientCredentialService clientCredentialService,
             final ZipService zipService,
-            final SEBConfigEncryptionService sebConfigEncryptionService) {
+            final SEBConfigEncryptionService sebConfigEncryptionService,
+            final ConfigurationDAO configurationDAO) {
 
         this.examConfigIO = examConfigIO;
         this.configurationAttributeDAO = configurationAttributeDAO;
@@ -78,6 +88,7 @@ public class ExamConfigServiceImpl implements ExamConfigService {
         this.clientCredentialService = clientCredentialService;
         this.zipService = zipService;
         this.sebConfigEncryptionService = sebConfigEncryptionService;
+        this.configurationDAO = configurationDAO;
     }
 
     @Override
@@ -186,55 +197,35 @@ public class ExamConfigServiceImpl implements ExamConfigService {
             final CharSequence encryptionPasswordPlaintext = this.clientCredentialService
                     .decrypt(passwordCipher);
 
-            PipedOutputStream plainOut = null;
-            PipedInputStream zipIn = null;
-
-            PipedOutputStream zipOut = null;
-            PipedInputStream cryptIn = null;
-
-            PipedOutputStream cryptOut = null;
-            PipedInputStream in = null;
-
+            OutputStream pipeline = null;
             try {
 
-                plainOut = new PipedOutputStream();
-                zipIn = new PipedInputStream(plainOut);
-
-                zipOut = new PipedOutputStream();
-                cryptIn = new PipedInputStream(zipOut);
-
-                cryptOut = new PipedOutputStream();
-                in = new PipedInputStream(cryptOut);
+                // streaming within the calling thread...
+                // plain text --> zip --> encrypt --> output
+                // the output stream itself stays open and is closed by the caller
+                final OutputStream cryptOut = this.sebConfigEncryptionService.encryptionStream(
+                        new CloseShieldOutputStream(out),
+                        EncryptionContext.contextOf(
+                                Strategy.PASSWORD_PSWD,
+                                encryptionPasswordPlaintext));
+                final OutputStream zipOut = this.zipService.compressionStream(cryptOut);
+                pipeline = new BufferedOutputStream(zipOut, PIPELINE_BUFFER_SIZE);
 
-                // streaming...
                 // export plain text
-                this.examConfigIO.exportPlain(
+                this.examConfigIO.writePlain(
                         ConfigurationFormat.XML,
-                        plainOut,
+                        pipeline,
                         institutionId,
                         configurationNodeId);
-                // zip the plain text
-                this.zipService.write(zipOut, zipIn);
-                // encrypt the zipped plain text
-                this.sebConfigEncryptionService.streamEncrypted(
-                        cryptOut,
-                        cryptIn,
-                        EncryptionContext.contextOf(
-                                Strategy.PASSWORD_PSWD,
-                                encryptionPasswordPlaintext));
 
-                // copy to output
-                IOUtils.copyLarge(in, out);
+                // finish zip and encryption
+                pipeline.close();
+                out.flush();
 
             } catch (final Exception e) {
                 log.error("Error while zip and encrypt seb exam config stream: ", e);
             } finally {
-                IOUtils.closeQuietly(zipIn);
-                IOUtils.closeQuietly(plainOut);
-                IOUtils.closeQuietly(cryptIn);
-                IOUtils.closeQuietly(zipOut);
-                IOUtils.closeQuietly(in);
-                IOUtils.closeQuietly(cryptOut);
+                IOUtils.closeQuietly(pipeline);
             }
         } else {
             // just export in plain text XML format
@@ -249,69 +240,55 @@ public class ExamConfigServiceImpl implements ExamConfigService {
             final Long institutionId,
             final Long configurationNodeId) {
 
+        return this.configurationDAO
+                .getConfigurationLastStableVersion(configurationNodeId)
+                .map(config -> getOrCreateConfigKey(institutionId, config.id));
+    }
+
+    /** Gets the persisted Config-Key of a given stable configuration version or computes and persists
+     * the Config-Key if there is none persisted yet. A new Config-Key is computed for a new stable version
+     * after saving the configuration to history and for a configuration whose values has been changed, since
+     * the persisted Config-Key is deleted together with any change of the configuration values.
+     * The computation is reserved before the values are read, so that a Config-Key of values that has been
+     * changed while computing is not persisted. */
+    private String getOrCreateConfigKey(final Long institutionId, final Long configurationId) {
+        return this.configurationDAO
+                .getConfigKey(configurationId)
+                .orElse(() -> this.configurationDAO
+                        .reserveConfigKey(configurationId)
+                        .flatMap(reservation -> computeConfigKey(institutionId, configurationId)
+                                .flatMap(configKey -> this.configurationDAO.saveConfigKey(
+                                        configurationId,
+                                        configKey,
+                                        reservation))))
+                .getOrThrow();
+    }
+
+    private Result<String> computeConfigKey(final Long institutionId, final Long configurationId) {
+
         if (log.isDebugEnabled()) {
             log.debug("Start to stream plain JSON SEB Configuration data for Config-Key generation");
         }
 
-        if (true) {
-            PipedOutputStream pout;
-            PipedInputStream pin;
-            try {
-                pout = new PipedOutputStream();
-                pin = new PipedInputStream(pout);
-                this.examConfigIO.exportPlain(
+        return Result.tryCatch(() -> {
+            final MessageDigest digest = DigestUtils.getSha256Digest();
+            try (final DigestOutputStream out = new DigestOutputStream(NullOutputStream.NULL_OUTPUT_STREAM, digest)) {
+                this.examConfigIO.writePlainConfiguration(
                         ConfigurationFormat.JSON,
-                        pout,
+                        out,
                         institutionId,
-                        configurationNodeId);
-
-                final String json = IOUtils.toString(pin, "UTF-8");
-
-                log.trace("SEB Configuration JSON to create Config-Key: {}", json);
-            } catch (final Exception e) {
-                log.error("Failed to trace SEB Configuration JSON: ", e);
-            }
-        }
-
-        PipedOutputStream pout = null;
-        PipedInputStream pin = null;
-        try {
-            pout = new PipedOutputStream();
-            pin = new PipedInputStream(pout);
-
-            this.examConfigIO.exportPlain(
-                    ConfigurationFormat.JSON,
-                    pout,
-                    institutionId,
-                    configurationNodeId);
-
-            final String configKey = DigestUtils.sha256Hex(pin);
-
-            return Result.of(configKey);
-
-        } catch (final Exception e) {
-            log.error("Error while stream plain JSON SEB Configuration data for Config-Key generation: ", e);
-            return Result.ofError(e);
-        } finally {
-            try {
-                if (pin != null) {
-                    pin.close();
-                }
-            } catch (final IOException e1) {
-                log.error("Failed to close PipedInputStream: ", e1);
-            }
-            try {
-                if (pout != null) {
-                    pout.close();
-                }
-            } catch (final IOException e1) {
-                log.error("Failed to close PipedOutputStream: ", e1);
+                        configurationId);
             }
 
             if (log.isDebugEnabled()) {
                 log.debug("Finished to stream plain JSON SEB Configuration data for Config-Key generation");
             }
-        }
+
+            return Hex.encodeHexString(digest.digest());
+        })
+                .onError(error -> log.error(
+                        "Error while stream plain JSON SEB Configuration data for Config-Key generation: ",
+                        error));
     }
 
     @Override
@@ -390,39 +367,19 @@ public class ExamConfigServiceImpl implements ExamConfigService {
             log.debug("Start to stream plain text SEB Configuration data");
         }
 
-        PipedOutputStream pout = null;
-        PipedInputStream pin = null;
         try {
-            pout = new PipedOutputStream();
-            pin = new PipedInputStream(pout);
 
-            this.examConfigIO.exportPlain(
+            this.examConfigIO.writePlain(
                     exportFormat,
-                    pout,
+                    out,
                     institutionId,
                     configurationNodeId);
 
-            IOUtils.copyLarge(pin, out);
+            out.flush();
 
         } catch (final Exception e) {
             log.error("Error while stream plain text SEB Configuration export data: ", e);
         } finally {
-            try {
-                if (pin != null) {
-                    pin.close();
-                }
-            } catch (final IOException e1) {
-                log.error("Failed to close PipedInputStream: ", e1);
-            }
-            try {
-                if (pout != null) {
-                    pout.flush();
-                    pout.close();
-                }
-            } catch (final IOException e1) {
-                log.error("Failed to close PipedOutputStream: ", e1);
-            }
-
             if (log.isDebugEnabled()) {
                 log.debug("Finished to stream plain text SEB Configuration export data");
             }
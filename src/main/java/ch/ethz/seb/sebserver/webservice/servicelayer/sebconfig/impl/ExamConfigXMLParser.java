@@ -399,7 +399,11 @@ public class ExamConfigXMLParser extends DefaultHandler {
         } else if (top.type == Type.VALUE_INTEGER) {
             top.value = value;
         } else if (top.type == Type.KEY) {
-            top.name = value;
+            // NOTE: without the plist DTD, white spaces between the key and the value element are
+            //       also reported as characters and must not override the name of the key
+            if (StringUtils.isNotBlank(value)) {
+                top.name = value;
+            }
         }
     }
 
@@ -105,4 +105,12 @@ public class NoneEncryptor implements SEBConfigCryptor {
 
     }
 
+    @Override
+    public OutputStream encryptionStream(
+            final OutputStream output,
+            final SEBConfigEncryptionContext context) {
+
+        return output;
+    }
+
 }
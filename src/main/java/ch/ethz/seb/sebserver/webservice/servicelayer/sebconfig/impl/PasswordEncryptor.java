@@ -104,6 +104,31 @@ public class PasswordEncryptor implements SEBConfigCryptor {
         }
     }
 
+    @Override
+    public OutputStream encryptionStream(
+            final OutputStream output,
+            final SEBConfigEncryptionContext context) throws IOException {
+
+        try {
+
+            final CharSequence password = context.getPassword();
+            if (password.length() == 0) {
+                return new AES256JNCryptorOutputStreamEmptyPwdSupport(
+                        output,
+                        Utils.toCharArray(password),
+                        Constants.JN_CRYPTOR_ITERATIONS);
+            } else {
+                return new AES256JNCryptorOutputStream(
+                        output,
+                        Utils.toCharArray(password),
+                        Constants.JN_CRYPTOR_ITERATIONS);
+            }
+
+        } catch (final CryptorException e) {
+            throw new IOException("Failed to initialize AES256JNCryptorOutputStream", e);
+        }
+    }
+
     @Override
     public void decrypt(
             final OutputStream output,
@@ -104,6 +104,23 @@ public final class SEBConfigEncryptionServiceImpl implements SEBConfigEncryption
         }
     }
 
+    @Override
+    public OutputStream encryptionStream(
+            final OutputStream output,
+            final SEBConfigEncryptionContext context) throws IOException {
+
+        final Strategy strategy = context.getStrategy();
+        final SEBConfigCryptor encryptor = getEncryptor(strategy)
+                .getOrThrow();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Password encryption stream with strategy: {}", strategy);
+        }
+
+        output.write(strategy.header);
+        return encryptor.encryptionStream(output, context);
+    }
+
     @Override
     public Future<Exception> streamDecrypted(
             final OutputStream output,
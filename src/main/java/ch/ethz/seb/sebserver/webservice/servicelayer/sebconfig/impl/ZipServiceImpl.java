@@ -64,6 +64,11 @@ public class ZipServiceImpl implements ZipService {
         }
     }
 
+    @Override
+    public OutputStream compressionStream(final OutputStream out) throws IOException {
+        return new GZIPOutputStream(out);
+    }
+
     @Override
     public void read(final OutputStream out, final InputStream in) {
         if (log.isDebugEnabled()) {
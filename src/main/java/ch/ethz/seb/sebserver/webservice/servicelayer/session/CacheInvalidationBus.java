@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session;
+
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent.Type;
+
+/** Broadcasts cache invalidations to all webservice instances.
+ * <p>
+ * A published invalidation is applied synchronously on this webservice instance by publishing a
+ * CacheInvalidationEvent to the local listeners. In a distributed setup the invalidation is also applied on all
+ * other webservice instances within a bounded time, so that cached data can be read from memory without
+ * checking for changes on the persistent storage first. */
+public interface CacheInvalidationBus {
+
+    /** Publishes a cache invalidation to all webservice instances.
+     *
+     * @param type the type of the invalidation
+     * @param key the key of the invalidated entity */
+    void publish(Type type, String key);
+
+    /** Publishes the invalidation of a cached running exam to all webservice instances.
+     *
+     * @param examId the exam identifier */
+    default void invalidateExam(final Long examId) {
+        publish(Type.EXAM, String.valueOf(examId));
+    }
+
+    /** Publishes the invalidation of a cached client connection to all webservice instances.
+     *
+     * @param connectionToken the connection token of the client connection */
+    default void invalidateClientConnection(final String connectionToken) {
+        publish(Type.CLIENT_CONNECTION, connectionToken);
+    }
+
+    /** Publishes the invalidation of all cached ClientDetails of SEB client configurations to all
+     * webservice instances. */
+    default void invalidateClientDetails() {
+        publish(Type.CLIENT_DETAILS, null);
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session;
+
+import org.springframework.context.ApplicationEvent;
+
+/** Event that is published locally by the CacheInvalidationBus for each cache invalidation of this or
+ * another webservice instance. Listeners evict the respective entries from their local caches. */
+public class CacheInvalidationEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -2380126574631427349L;
+
+    public enum Type {
+        /** Invalidates the cached running exam with the exam identifier as key, together with the default
+         * SEB exam configuration and the client connections of the exam */
+        EXAM,
+        /** Invalidates the cached client connection with the connection token as key */
+        CLIENT_CONNECTION,
+        /** Invalidates all cached ClientDetails of SEB client configurations. This has no key */
+        CLIENT_DETAILS,
+        /** Invalidates all cached exam session data. This has no key */
+        ALL
+    }
+
+    public final Type type;
+    public final String key;
+
+    public CacheInvalidationEvent(final Object source, final Type type, final String key) {
+        super(source);
+        this.type = type;
+        this.key = key;
+    }
+
+}
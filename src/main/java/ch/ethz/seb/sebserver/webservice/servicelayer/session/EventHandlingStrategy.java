@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session;
 
+import java.util.Collection;
 import java.util.function.Consumer;
 
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
@@ -26,4 +27,13 @@ public interface EventHandlingStrategy extends Consumer<ClientEventRecord> {
      * and will be re-initialized on server restart */
     void enable();
 
+    /** Accepts a batch of ClientEventRecord of one SEB client connection within one call.
+     * The default implementation accepts the records one by one. A concrete EventHandlingStrategy
+     * may override this to handle the whole batch at once.
+     *
+     * @param records the batch of ClientEventRecord to handle */
+    default void acceptAll(final Collection<ClientEventRecord> records) {
+        records.forEach(this::accept);
+    }
+
 }
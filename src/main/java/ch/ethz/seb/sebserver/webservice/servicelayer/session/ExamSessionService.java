@@ -19,12 +19,14 @@ import ch.ethz.seb.sebserver.gbl.api.APIMessage;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataChanges;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.InMemorySEBConfig;
 
 /** A Service to handle running exam sessions */
 public interface ExamSessionService {
@@ -119,6 +121,21 @@ public interface ExamSessionService {
      * @param out The OutputStream to stream the data to */
     void streamDefaultExamConfig(String connectionToken, OutputStream out);
 
+    /** Get the generated default SEB Exam Configuration artifact of a given running exam.
+     * The artifact has the data to send to a SEB client and an entity tag (ETag) that identifies the
+     * artifact and changes whenever the artifact is generated anew.
+     *
+     * @param runningExam The running exam
+     * @return Result refer to the default SEB Exam Configuration artifact or to an error if happened */
+    Result<InMemorySEBConfig> getDefaultExamConfig(Exam runningExam);
+
+    /** Generates the default SEB Exam Configuration of a running exam asynchronously in advance
+     * so that the first SEB clients that download the configuration on exam start don't have to
+     * wait for the generation. Does nothing if the exam is not running.
+     *
+     * @param exam the running exam */
+    void prepareDefaultExamConfig(Exam exam);
+
     /** Get current ClientConnectionData for a specified active SEB client connection.
      *
      * active SEB client connections are connections that were initialized by a SEB client
@@ -143,14 +160,25 @@ public interface ExamSessionService {
             Long examId,
             Predicate<ClientConnectionData> filter);
 
-    /** Use this to check if the current cached running exam is up to date
-     * and if not to flush the cache.
+    /** Get the changes of the ClientConnectionData of all active SEB client connections of a running exam
+     * since a given version.
+     *
+     * If the given version is null or not known (anymore), a full ClientConnectionDataChanges with the
+     * ClientConnectionData of all active SEB client connections that matches the given filter is returned.
+     * Otherwise only the ClientConnectionData that has changed since the given version and matches the filter
+     * is returned together with the identifiers of the client connections that has been removed or doesn't
+     * match the filter anymore.
      *
-     * @param examId the Exam identifier
-     * @return Result with updated Exam instance or refer to an error if happened */
-    Result<Exam> updateExamCache(Long examId);
+     * @param examId The exam identifier
+     * @param sinceVersion the version cursor of the last request or null for a full response
+     * @param filter a filter predicate to apply
+     * @return Result refer to the ClientConnectionDataChanges or to an error if happened */
+    Result<ClientConnectionDataChanges> getConnectionDataChanges(
+            Long examId,
+            String sinceVersion,
+            Predicate<ClientConnectionData> filter);
 
-    /** Flush all the caches for an specified Exam.
+    /** Flush all the caches for an specified Exam on all webservice instances.
      *
      * @param exam The Exam instance
      * @return Result with reference to the given Exam or to an error if happened */
@@ -9,6 +9,7 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.session;
 
 import java.security.Principal;
+import java.util.Collection;
 
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent;
@@ -128,8 +129,8 @@ public interface SEBClientConnectionService {
      * @param connectionToken the connection token
      * @param timestamp the ping time-stamp
      * @param pingNumber the ping number
-     * @return SEB instruction if available */
-    String notifyPing(String connectionToken, long timestamp, int pingNumber);
+     * @return the UTF-8 encoded JSON of the SEB instruction if available */
+    byte[] notifyPing(String connectionToken, long timestamp, int pingNumber);
 
     /** Notify a SEB client event for live indication and storing to database.
      *
@@ -137,4 +138,12 @@ public interface SEBClientConnectionService {
      * @param event The SEB client event data */
     void notifyClientEvent(String connectionToken, final ClientEvent event);
 
+    /** Notify a batch of SEB client events of one connection for live indication and storing to database.
+     * The connection is looked up only once for the whole batch and the batch is handed over to the
+     * EventHandlingStrategy within one call.
+     *
+     * @param connectionToken the connection token
+     * @param events The batch of SEB client event data */
+    void notifyClientEvents(String connectionToken, final Collection<ClientEvent> events);
+
 }
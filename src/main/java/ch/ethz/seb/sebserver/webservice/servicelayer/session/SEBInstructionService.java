@@ -59,14 +59,14 @@ public interface SEBInstructionService {
             Map<String, String> attributes,
             Set<String> connectionTokens);
 
-    /** Get a SEB instruction for the specified SEB Client connection or null of there
-     * is currently no SEB instruction in the queue.
+    /** Get a SEB instruction for the specified SEB Client connection as UTF-8 encoded JSON or null of there
+     * is currently no SEB instruction in the queue. The JSON is encoded once on registration of the instruction.
      *
      * NOTE: If this call returns a SEB instruction instance, this instance is considered
      * as processed for the specified SEB Client afterwards and will be removed from the queue
      *
      * @param connectionToken the SEB Client connection token
-     * @return SEB instruction to sent to the SEB Client or null */
-    String getInstructionJSON(final String connectionToken);
+     * @return the UTF-8 encoded JSON of the SEB instruction to sent to the SEB Client or null */
+    byte[] getInstruction(final String connectionToken);
 
 }
@@ -28,18 +28,32 @@ public abstract class AbstractLogLevelCountIndicator extends AbstractClientIndic
     private final Set<EventType> observed;
     private final List<Integer> eventTypeIds;
     private final ClientEventRecordMapper clientEventRecordMapper;
+    private final ClientIndicatorValueService clientIndicatorValueService;
 
     protected AbstractLogLevelCountIndicator(
             final ClientEventRecordMapper clientEventRecordMapper,
+            final ClientIndicatorValueService clientIndicatorValueService,
             final EventType... eventTypes) {
 
         this.clientEventRecordMapper = clientEventRecordMapper;
+        this.clientIndicatorValueService = clientIndicatorValueService;
         this.observed = Collections.unmodifiableSet(EnumSet.of(eventTypes[0], eventTypes));
         this.eventTypeIds = Utils.immutableListOf(Arrays.stream(eventTypes)
                 .map(et -> et.id)
                 .collect(Collectors.toList()));
     }
 
+    /** Gets the current number of observed events from the in-memory counts of the ClientIndicatorValueService
+     * without querying the client_event table */
+    @Override
+    public double getValue() {
+        long count = 0;
+        for (final EventType eventType : this.observed) {
+            count += this.clientIndicatorValueService.getEventCount(this.examId, this.connectionId, eventType);
+        }
+        return count;
+    }
+
     @Override
     public double computeValueAt(final long timestamp) {
 
@@ -55,7 +69,7 @@ public abstract class AbstractLogLevelCountIndicator extends AbstractClientIndic
 
     @Override
     public void notifyValueChange(final IndicatorValueHolder indicatorValueHolder) {
-        this.currentValue = getValue() + 1d;
+        // the events are counted by the ClientIndicatorValueService
     }
 
     @Override
@@ -30,14 +30,19 @@ public abstract class AbstractPingIndicator extends AbstractClientIndicator {
     private final Set<EventType> EMPTY_SET = Collections.unmodifiableSet(EnumSet.noneOf(EventType.class));
 
     private final ClientEventExtensionMapper clientEventExtensionMapper;
+    private final ClientIndicatorValueService clientIndicatorValueService;
 
     protected long pingLatency;
     protected int pingCount = 0;
     protected int pingNumber = 0;
 
-    protected AbstractPingIndicator(final ClientEventExtensionMapper clientEventExtensionMapper) {
+    protected AbstractPingIndicator(
+            final ClientEventExtensionMapper clientEventExtensionMapper,
+            final ClientIndicatorValueService clientIndicatorValueService) {
+
         super();
         this.clientEventExtensionMapper = clientEventExtensionMapper;
+        this.clientIndicatorValueService = clientIndicatorValueService;
     }
 
     public final void notifyPing(final long timestamp, final int pingNumber) {
@@ -48,6 +53,28 @@ public abstract class AbstractPingIndicator extends AbstractClientIndicator {
         this.pingNumber = pingNumber;
     }
 
+    @Override
+    public double getValue() {
+        return getLastPingTime();
+    }
+
+    /** Get the time of the last ping of the client connection.
+     * Without caching the last ping time is taken from the ClientIndicatorValueService that reconciles
+     * the last pings of all client connections of an exam within one query, so that also the pings
+     * the client has sent to other webservice instances are taken into account. If the last ping that
+     * was notified on this instance is more recent, this one is taken.
+     *
+     * @return the time of the last ping of the client connection */
+    protected long getLastPingTime() {
+        if (this.cachingEnabled) {
+            return (long) super.getValue();
+        }
+
+        return Math.max(
+                this.clientIndicatorValueService.getLastPing(this.examId, this.connectionId),
+                (long) super.currentValue);
+    }
+
     @Override
     public final double computeValueAt(final long timestamp) {
         if (this.cachingEnabled) {
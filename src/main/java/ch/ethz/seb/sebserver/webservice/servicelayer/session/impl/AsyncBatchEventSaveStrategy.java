@@ -10,20 +10,20 @@ package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PreDestroy;
 
-import org.apache.ibatis.session.ExecutorType;
-import org.apache.ibatis.session.SqlSessionFactory;
-import org.mybatis.spring.SqlSessionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
@@ -33,15 +33,27 @@ import ch.ethz.seb.sebserver.SEBServerInit;
 import ch.ethz.seb.sebserver.SEBServerInitEvent;
 import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
-import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.EventHandlingStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /** Approach 2 to handle/save client events internally
  *
- * This Approach uses a queue to collect ClientEvents that are stored later. The queue is shared between some
- * worker-threads that batch gets and stores the events from the queue afterwards. this approach is less blocking from
- * the caller perspective and also faster on store data by using bulk-insert
+ * This Approach uses a bounded queue to collect ClientEvents that are stored later. The queue is shared between some
+ * dedicated worker-threads that block on the queue until events are available, drain up to one batch of events and
+ * store them within one multi-row INSERT statement. This approach is less blocking from the caller perspective and
+ * also faster on store data by using bulk-insert
+ *
+ * If the queue is full, a caller waits at most the configured offer-timeout for free capacity (back-pressure) and the
+ * event is dropped if there is still no capacity after that time. With an offer-timeout of 0 events are dropped
+ * immediately on a full queue. The capacity for a batch of events is reserved at once, so a caller waits at most
+ * one offer-timeout for a whole batch and the batch is either queued or dropped as a whole. The queue depth, the
+ * batch store latency and the number of dropped events are exported as metrics (sebserver.event.batch.*)
  *
  * A disadvantage is an potentially multiple event data loss on total server fail. The data in the queue is state that
  * is not stored somewhere yet and can't be recovered on total server fail.
@@ -57,27 +69,59 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
 
     private static final Logger log = LoggerFactory.getLogger(AsyncBatchEventSaveStrategy.class);
 
-    private static final int NUMBER_OF_WORKER_THREADS = 4;
-    private static final int BATCH_SIZE = 100;
+    public static final String METRIC_QUEUE_SIZE = "sebserver.event.batch.queue.size";
+    public static final String METRIC_BATCH_STORE = "sebserver.event.batch.store";
+    public static final String METRIC_DROPPED = "sebserver.event.batch.dropped";
+
+    private static final long WORKER_POLL_TIMEOUT = Constants.SECOND_IN_MILLIS;
+    private static final long DROP_WARNING_INTERVAL = 10 * Constants.SECOND_IN_MILLIS;
 
-    private final SqlSessionFactory sqlSessionFactory;
-    private final Executor executor;
+    private final ClientEventExtensionMapper clientEventExtensionMapper;
     private final TransactionTemplate transactionTemplate;
+    private final int numberOfWorkers;
+    private final int batchSize;
+    private final long offerTimeout;
+
+    private final BlockingQueue<ClientEventRecord> eventQueue;
+    /** The free capacity of the event queue. Acquired before events are queued and released when they are taken */
+    private final Semaphore freeCapacity;
+    private final Timer batchStoreTimer;
+    private final Counter droppedCounter;
+    private final AtomicLong lastDropWarning = new AtomicLong(0);
+    private final List<Thread> workers = new ArrayList<>();
 
-    private final BlockingDeque<ClientEventRecord> eventQueue = new LinkedBlockingDeque<>();
-    private boolean workersRunning = false;
+    private volatile boolean workersRunning = false;
     private boolean enabled = false;
 
     public AsyncBatchEventSaveStrategy(
-            final SqlSessionFactory sqlSessionFactory,
-            final AsyncConfigurer asyncConfigurer,
-            final PlatformTransactionManager transactionManager) {
+            final ClientEventExtensionMapper clientEventExtensionMapper,
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry,
+            @Value("${sebserver.webservice.api.exam.event.batch.workers:4}") final int numberOfWorkers,
+            @Value("${sebserver.webservice.api.exam.event.batch.size:100}") final int batchSize,
+            @Value("${sebserver.webservice.api.exam.event.batch.queue-capacity:10000}") final int queueCapacity,
+            @Value("${sebserver.webservice.api.exam.event.batch.offer-timeout:100}") final long offerTimeout) {
 
-        this.sqlSessionFactory = sqlSessionFactory;
-        this.executor = asyncConfigurer.getAsyncExecutor();
+        this.clientEventExtensionMapper = clientEventExtensionMapper;
+        this.numberOfWorkers = Math.max(1, numberOfWorkers);
+        this.batchSize = Math.max(1, batchSize);
+        this.offerTimeout = Math.max(0, offerTimeout);
+        final int capacity = Math.max(this.batchSize, queueCapacity);
+        this.eventQueue = new ArrayBlockingQueue<>(capacity);
+        this.freeCapacity = new Semaphore(capacity);
 
         this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder(METRIC_QUEUE_SIZE, this.eventQueue, Collection::size)
+                .description("Number of client events that are waiting to get stored")
+                .register(meterRegistry);
+        this.batchStoreTimer = Timer.builder(METRIC_BATCH_STORE)
+                .description("Latency of storing one batch of client events")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder(METRIC_DROPPED)
+                .description("Number of client events that has been dropped because of a full queue")
+                .register(meterRegistry);
     }
 
     @Override
@@ -89,23 +133,37 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
     protected void recover() {
         if (this.enabled) {
             SEBServerInit.INIT_LOGGER.info("------>");
-            SEBServerInit.INIT_LOGGER.info("------> Start {} Event-Batch-Store Worker-Threads",
-                    NUMBER_OF_WORKER_THREADS);
+            SEBServerInit.INIT_LOGGER.info(
+                    "------> Start {} Event-Batch-Store Worker-Threads with batch size: {} and queue capacity: {}",
+                    this.numberOfWorkers,
+                    this.batchSize,
+                    this.eventQueue.remainingCapacity());
 
             runWorkers();
-
-            try {
-                Thread.sleep(Constants.SECOND_IN_MILLIS / 2);
-            } catch (final Exception e) {
-                log.error("Failed to wait");
-            }
         }
     }
 
     @PreDestroy
     protected void shutdown() {
-        log.info("Reset workersRunning flag to stop worker after event queue is empty");
+        log.info("Stop event batch store worker and store remaining events of the queue");
         this.workersRunning = false;
+        // the workers stop at the latest after the next poll timeout
+        for (final Thread worker : this.workers) {
+            try {
+                worker.join(2 * WORKER_POLL_TIMEOUT);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.workers.clear();
+
+        // store the events that are still in the queue
+        final List<ClientEventRecord> events = new ArrayList<>(this.batchSize);
+        while (this.eventQueue.drainTo(events, this.batchSize) > 0) {
+            this.freeCapacity.release(events.size());
+            storeBatch(events);
+            events.clear();
+        }
     }
 
     @Override
@@ -114,7 +172,48 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
             return;
         }
 
-        this.eventQueue.add(record);
+        if (reserveCapacity(1)) {
+            this.eventQueue.add(record);
+        } else {
+            dropped(1);
+        }
+    }
+
+    @Override
+    public void acceptAll(final Collection<ClientEventRecord> records) {
+        if (records == null || records.isEmpty() || !this.workersRunning) {
+            return;
+        }
+
+        if (reserveCapacity(records.size())) {
+            // the reserved capacity guarantees that all events fit into the queue
+            this.eventQueue.addAll(records);
+        } else {
+            dropped(records.size());
+        }
+    }
+
+    private boolean reserveCapacity(final int numberOfEvents) {
+        try {
+            return (this.offerTimeout > 0)
+                    ? this.freeCapacity.tryAcquire(numberOfEvents, this.offerTimeout, TimeUnit.MILLISECONDS)
+                    : this.freeCapacity.tryAcquire(numberOfEvents);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void dropped(final int numberOfEvents) {
+        this.droppedCounter.increment(numberOfEvents);
+
+        // log a warning at most once within a DROP_WARNING_INTERVAL
+        final long now = Utils.getMillisecondsNow();
+        final long lastWarning = this.lastDropWarning.get();
+        if (now - lastWarning > DROP_WARNING_INTERVAL && this.lastDropWarning.compareAndSet(lastWarning, now)) {
+            log.warn("Client event queue is full. Dropped client events so far: {}",
+                    (long) this.droppedCounter.count());
+        }
     }
 
     private void runWorkers() {
@@ -124,8 +223,11 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
         }
 
         this.workersRunning = true;
-        for (int i = 0; i < NUMBER_OF_WORKER_THREADS; i++) {
-            this.executor.execute(batchSave());
+        for (int i = 0; i < this.numberOfWorkers; i++) {
+            final Thread worker = new Thread(batchSave(), "event-batch-store-" + i);
+            worker.setDaemon(true);
+            this.workers.add(worker);
+            worker.start();
         }
     }
 
@@ -134,48 +236,51 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
 
             SEBServerInit.INIT_LOGGER.info("> Worker Thread {} running", Thread.currentThread());
 
-            final Collection<ClientEventRecord> events = new ArrayList<>();
-            final SqlSessionTemplate sqlSessionTemplate = new SqlSessionTemplate(
-                    this.sqlSessionFactory,
-                    ExecutorType.BATCH);
-            final ClientEventRecordMapper clientEventMapper = sqlSessionTemplate.getMapper(
-                    ClientEventRecordMapper.class);
-
-            long sleepTime = 100;
+            final List<ClientEventRecord> events = new ArrayList<>(this.batchSize);
 
             try {
                 while (this.workersRunning) {
                     events.clear();
-                    this.eventQueue.drainTo(events, BATCH_SIZE);
 
                     try {
-                        if (!events.isEmpty()) {
-                            sleepTime = 100;
-                            this.transactionTemplate
-                                    .execute(status -> {
-                                        events.forEach(clientEventMapper::insert);
-                                        return null;
-                                    });
-
-                            sqlSessionTemplate.flushStatements();
-                        } else {
-                            sleepTime += 100;
+                        // blocks until at least one event is available or the poll timeout is reached
+                        final ClientEventRecord first = this.eventQueue.poll(
+                                WORKER_POLL_TIMEOUT,
+                                TimeUnit.MILLISECONDS);
+
+                        if (first == null) {
+                            continue;
                         }
-                    } catch (final Exception e) {
-                        log.error("unexpected Error while trying to batch store client-events: ", e);
-                    }
 
-                    try {
-                        Thread.sleep(sleepTime);
+                        events.add(first);
+                        this.eventQueue.drainTo(events, this.batchSize - 1);
+                        this.freeCapacity.release(events.size());
                     } catch (final InterruptedException e) {
-                        e.printStackTrace();
+                        if (!this.workersRunning) {
+                            break;
+                        }
+                        continue;
                     }
+
+                    storeBatch(events);
                 }
             } finally {
-                sqlSessionTemplate.close();
                 log.debug("Worker Thread {} stopped", Thread.currentThread());
             }
         };
     }
 
+    private void storeBatch(final List<ClientEventRecord> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.batchStoreTimer.record(() -> this.transactionTemplate
+                    .execute(status -> this.clientEventExtensionMapper.insertMultiple(events)));
+        } catch (final Exception e) {
+            log.error("unexpected Error while trying to batch store {} client-events: ", events.size(), e);
+        }
+    }
+
 }
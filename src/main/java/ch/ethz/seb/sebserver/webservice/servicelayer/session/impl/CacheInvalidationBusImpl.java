@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ch.ethz.seb.sebserver.SEBServerInit;
+import ch.ethz.seb.sebserver.SEBServerInitEvent;
+import ch.ethz.seb.sebserver.gbl.Constants;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import ch.ethz.seb.sebserver.webservice.WebserviceLeaderElection;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.CacheInvalidationMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.CacheInvalidationMapper.CacheInvalidationRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamChangeEvent;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.SEBClientConfigChangeEvent;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationBus;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent.Type;
+
+/** CacheInvalidationBus that uses the cache_invalidation change log table to broadcast the cache invalidations
+ * to the other webservice instances of a distributed setup.
+ * <p>
+ * Each instance appends its invalidations to the change log and polls the change log for the invalidations of
+ * the other instances on a fixed delay. Hence a change is applied on all instances within the poll interval.
+ * Since concurrently appended invalidations may become visible out of the order of their identifiers, the poll
+ * position only moves over invalidations that are older than a settle time and newer invalidations are
+ * remembered to be applied only once. If the change log was not polled for longer than it is retained,
+ * all cached exam session data is invalidated.
+ * <p>
+ * In a non-distributed setup this only publishes the invalidations to the local listeners. */
+@Service
+@WebServiceProfile
+public class CacheInvalidationBusImpl implements CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBusImpl.class);
+
+    /** Time in milliseconds after which an appended invalidation is expected to be visible for all instances */
+    private static final long SETTLE_TIME = 30 * Constants.SECOND_IN_MILLIS;
+    /** Time in milliseconds the invalidations are retained within the change log */
+    private static final long RETENTION_TIME = Constants.HOUR_IN_MILLIS;
+
+    private final CacheInvalidationMapper cacheInvalidationMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final WebserviceInfo webserviceInfo;
+    private final WebserviceLeaderElection webserviceLeaderElection;
+    private final long pollInterval;
+
+    private final Set<Long> applied = new HashSet<>();
+    private boolean pollActive = false;
+    private long position = 0;
+    private long lastPoll = 0;
+    private long lastCleanup = 0;
+
+    protected CacheInvalidationBusImpl(
+            final CacheInvalidationMapper cacheInvalidationMapper,
+            final ApplicationEventPublisher applicationEventPublisher,
+            final WebserviceInfo webserviceInfo,
+            final WebserviceLeaderElection webserviceLeaderElection,
+            @Value("${sebserver.webservice.distributed.invalidation.poll-interval:1000}") final long pollInterval) {
+
+        this.cacheInvalidationMapper = cacheInvalidationMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.webserviceInfo = webserviceInfo;
+        this.webserviceLeaderElection = webserviceLeaderElection;
+        this.pollInterval = pollInterval;
+    }
+
+    @EventListener(SEBServerInitEvent.class)
+    public void init() {
+        if (!this.webserviceInfo.isDistributed()) {
+            return;
+        }
+
+        SEBServerInit.INIT_LOGGER.info("------>");
+        SEBServerInit.INIT_LOGGER.info(
+                "------> Activate distributed cache invalidation on a poll interval of: {} milliseconds",
+                this.pollInterval);
+
+        // invalidations that happened before are not relevant for the yet empty caches of this instance
+        this.position = this.cacheInvalidationMapper.selectLatestId();
+        this.lastPoll = Utils.getMillisecondsNow();
+        this.pollActive = true;
+    }
+
+    @Override
+    public void publish(final Type type, final String key) {
+        this.applicationEventPublisher.publishEvent(new CacheInvalidationEvent(this, type, key));
+
+        if (!this.webserviceInfo.isDistributed()) {
+            return;
+        }
+
+        try {
+            this.cacheInvalidationMapper.insert(
+                    type.name(),
+                    key,
+                    this.webserviceLeaderElection.getInstanceId(),
+                    Utils.getMillisecondsNow());
+        } catch (final Exception e) {
+            log.error("Failed to publish cache invalidation: {} {} to other webservice instances", type, key, e);
+        }
+    }
+
+    /** Listen to ExamChangeEvent to invalidate the cached running exams on any change of the exam data
+     * after the change has been committed.
+     *
+     * @param event the event holding the identifiers of the changed exams */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void notifyExamChange(final ExamChangeEvent event) {
+        event.getExamIds().forEach(this::invalidateExam);
+    }
+
+    /** Listen to SEBClientConfigChangeEvent to invalidate the cached ClientDetails of the SEB clients after
+     * the change has been committed.
+     *
+     * @param event the event holding the identifiers of the changed SEB client configurations */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void notifyClientConfigChange(final SEBClientConfigChangeEvent event) {
+        invalidateClientDetails();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${sebserver.webservice.distributed.invalidation.poll-interval:1000}",
+            initialDelayString = "${sebserver.webservice.distributed.invalidation.poll-interval:1000}")
+    public void poll() {
+        if (!this.pollActive) {
+            return;
+        }
+
+        final long now = Utils.getMillisecondsNow();
+
+        try {
+
+            final List<CacheInvalidationRecord> records = this.cacheInvalidationMapper.selectAfter(this.position);
+
+            if (now - this.lastPoll > RETENTION_TIME - SETTLE_TIME) {
+                log.warn("Cache invalidations were not polled since {} milliseconds. Invalidate all cached data",
+                        now - this.lastPoll);
+                this.applicationEventPublisher.publishEvent(new CacheInvalidationEvent(this, Type.ALL, null));
+            }
+
+            long position = this.position;
+            for (final CacheInvalidationRecord record : records) {
+                if (this.applied.add(record.id)) {
+                    apply(record);
+                }
+                // move the poll position only if there can not be any invalidation before that is not visible yet
+                if (record.id == position + 1 || record.eventTime < now - SETTLE_TIME) {
+                    position = record.id;
+                }
+            }
+
+            final long newPosition = position;
+            this.applied.removeIf(id -> id <= newPosition);
+            this.position = newPosition;
+            this.lastPoll = now;
+
+        } catch (final Exception e) {
+            log.error("Failed to poll cache invalidations of other webservice instances: ", e);
+        }
+
+        if (now - this.lastCleanup > SETTLE_TIME && this.webserviceLeaderElection.isLeader()) {
+            try {
+                this.cacheInvalidationMapper.deleteBefore(now - RETENTION_TIME);
+                this.lastCleanup = now;
+            } catch (final Exception e) {
+                log.error("Failed to delete outdated cache invalidations: ", e);
+            }
+        }
+    }
+
+    private void apply(final CacheInvalidationRecord record) {
+        if (this.webserviceLeaderElection.getInstanceId().equals(record.origin)) {
+            return;
+        }
+
+        try {
+            this.applicationEventPublisher.publishEvent(new CacheInvalidationEvent(
+                    this,
+                    Type.valueOf(record.type),
+                    record.entityKey));
+        } catch (final Exception e) {
+            log.error("Failed to apply cache invalidation: {} {}", record.type, record.entityKey, e);
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+
+import ch.ethz.seb.sebserver.gbl.Constants;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataChanges;
+import ch.ethz.seb.sebserver.gbl.model.session.IndicatorValue;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+
+/** Tracks the changes of the connection data of the client connections of one running exam.
+ * <p>
+ * Each time the changes are requested, the current connection data is compared with the snapshot of
+ * the last request and the exam version is increased if something has changed. Each connection
+ * remembers the version of its last change so that the changes since any former version can be
+ * collected without serializing unchanged connections.
+ * <p>
+ * Indicator values are compared by their display value except for the ping indicator that continuously
+ * changes its value with time. The ping indicator is compared by its threshold level only and the current
+ * ping values of the other connections are sent separately as a compact connection id to value mapping.
+ * <p>
+ * The version cursor contains an instance identifier. A cursor from another tracker instance, another
+ * webservice or a former server run leads to a full response. A cursor that is older than the maximal
+ * cursor age also leads to a full response, so that the removed connections have to be remembered
+ * only for this time. */
+final class ClientConnectionChangeTracker {
+
+    private static final String VERSION_SEPARATOR = ":";
+    private static final long DEFAULT_MAX_CURSOR_AGE = 10 * Constants.MINUTE_IN_MILLIS;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long maxCursorAge;
+    private final Map<Long, ConnectionSnapshot> snapshots = new HashMap<>();
+    private final Map<Long, Long> removed = new HashMap<>();
+    private final Map<IndicatorType, double[]> thresholds = new EnumMap<>(IndicatorType.class);
+    /** The versions that are not older than the maximal cursor age with their creation time */
+    private final Deque<long[]> versionTimes = new ArrayDeque<>();
+    private long version = 0;
+    /** The oldest version a client can still ask for */
+    private long minVersion = 0;
+    private boolean indicatorsInitialized = false;
+
+    ClientConnectionChangeTracker() {
+        this(DEFAULT_MAX_CURSOR_AGE);
+    }
+
+    ClientConnectionChangeTracker(final long maxCursorAge) {
+        this.maxCursorAge = maxCursorAge;
+    }
+
+    synchronized boolean hasIndicators() {
+        return this.indicatorsInitialized;
+    }
+
+    /** Updates the thresholds of the indicators of the exam that are used to compare time based indicators
+     *
+     * @param indicators the indicator definitions of the exam */
+    synchronized void updateIndicators(final Collection<Indicator> indicators) {
+        this.thresholds.clear();
+        for (final Indicator indicator : indicators) {
+            this.thresholds.put(indicator.type, indicator.thresholds
+                    .stream()
+                    .mapToDouble(t -> t.value)
+                    .sorted()
+                    .toArray());
+        }
+        this.indicatorsInitialized = true;
+    }
+
+    /** Applies the current connection data of all client connections of the exam and collects the
+     * changes since the given version.
+     *
+     * @param current the current connection data of all client connections of the exam
+     * @param sinceVersion the version cursor of the last request or null for a full response
+     * @param filter the filter to apply on the connection data of the response
+     * @return the changes since the given version */
+    synchronized ClientConnectionDataChanges apply(
+            final Collection<ClientConnectionData> current,
+            final String sinceVersion,
+            final Predicate<ClientConnectionData> filter) {
+
+        // update the snapshots
+        final long nextVersion = this.version + 1;
+        boolean changed = false;
+        final Set<Long> currentIds = new HashSet<>();
+        for (final ClientConnectionData data : current) {
+            final Long connectionId = data.getConnectionId();
+            currentIds.add(connectionId);
+            final long[] values = compareValues(data);
+            final ConnectionSnapshot snapshot = this.snapshots.get(connectionId);
+            if (snapshot == null || !snapshot.dataEquals(data.clientConnection, values)) {
+                this.snapshots.put(connectionId, new ConnectionSnapshot(nextVersion, data.clientConnection, values));
+                this.removed.remove(connectionId);
+                changed = true;
+            }
+        }
+
+        final Iterator<Long> iterator = this.snapshots.keySet().iterator();
+        while (iterator.hasNext()) {
+            final Long connectionId = iterator.next();
+            if (!currentIds.contains(connectionId)) {
+                iterator.remove();
+                this.removed.put(connectionId, nextVersion);
+                changed = true;
+            }
+        }
+
+        final long now = Utils.getMillisecondsNow();
+        if (changed) {
+            this.version = nextVersion;
+            this.versionTimes.addLast(new long[] { nextVersion, now });
+        }
+        pruneVersions(now);
+
+        final String versionCursor = this.instanceId + VERSION_SEPARATOR + this.version;
+        final long since = parseVersion(sinceVersion);
+
+        // full response
+        if (since < 0) {
+            final List<ClientConnectionData> result = new ArrayList<>();
+            for (final ClientConnectionData data : current) {
+                if (filter.test(data)) {
+                    result.add(data);
+                }
+            }
+            return new ClientConnectionDataChanges(versionCursor, true, result, null, null);
+        }
+
+        // changes since the given version
+        final List<ClientConnectionData> changedData = new ArrayList<>();
+        final List<Long> removedIds = new ArrayList<>();
+        final Map<Long, Double> pingValues = new HashMap<>();
+        for (final ClientConnectionData data : current) {
+            final ConnectionSnapshot snapshot = this.snapshots.get(data.getConnectionId());
+            if (snapshot.version > since) {
+                if (filter.test(data)) {
+                    changedData.add(data);
+                } else {
+                    removedIds.add(data.getConnectionId());
+                }
+            } else if (filter.test(data)) {
+                addPingValue(data, pingValues);
+            }
+        }
+        this.removed.forEach((connectionId, removedVersion) -> {
+            if (removedVersion > since) {
+                removedIds.add(connectionId);
+            }
+        });
+
+        return new ClientConnectionDataChanges(versionCursor, false, changedData, removedIds, pingValues);
+    }
+
+    private static void addPingValue(final ClientConnectionData data, final Map<Long, Double> pingValues) {
+        for (final IndicatorValue indicatorValue : data.indicatorValues) {
+            if (indicatorValue.getType() == IndicatorType.LAST_PING) {
+                pingValues.put(data.getConnectionId(), indicatorValue.getValue());
+                return;
+            }
+        }
+    }
+
+    /* A cursor of a version that was replaced by a version that is older than the maximal cursor age
+     * was received before that time. So the oldest version a client can still ask for is the newest
+     * version that is older than the maximal cursor age, and the removed connections up to this version
+     * are not needed anymore. */
+    private void pruneVersions(final long now) {
+        while (!this.versionTimes.isEmpty() && now - this.versionTimes.peekFirst()[1] > this.maxCursorAge) {
+            this.minVersion = this.versionTimes.pollFirst()[0];
+        }
+        this.removed.values().removeIf(removedVersion -> removedVersion <= this.minVersion);
+    }
+
+    /** Parses the given version cursor.
+     *
+     * @param sinceVersion the version cursor
+     * @return the version or -1 if the cursor is not valid for this tracker instance or too old */
+    private long parseVersion(final String sinceVersion) {
+        if (StringUtils.isBlank(sinceVersion)) {
+            return -1;
+        }
+
+        final String[] split = StringUtils.split(sinceVersion, VERSION_SEPARATOR);
+        if (split.length != 2 || !this.instanceId.equals(split[0])) {
+            return -1;
+        }
+
+        try {
+            final long since = Long.parseLong(split[1]);
+            return (since >= this.minVersion && since <= this.version) ? since : -1;
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private long[] compareValues(final ClientConnectionData data) {
+        final long[] values = new long[data.indicatorValues.size()];
+        for (int i = 0; i < values.length; i++) {
+            final IndicatorValue indicatorValue = data.indicatorValues.get(i);
+            final double[] levels = this.thresholds.get(indicatorValue.getType());
+            if (indicatorValue.getType() == IndicatorType.LAST_PING) {
+                values[i] = (levels != null) ? thresholdLevel(levels, indicatorValue.getValue()) : 0;
+            } else {
+                values[i] = Math.round(indicatorValue.getValue() * 10);
+            }
+        }
+        return values;
+    }
+
+    private static long thresholdLevel(final double[] levels, final double value) {
+        int level = 0;
+        while (level < levels.length && value >= levels[level]) {
+            level++;
+        }
+        return level;
+    }
+
+    private static final class ConnectionSnapshot {
+
+        final long version;
+        final ClientConnection clientConnection;
+        final long[] values;
+
+        ConnectionSnapshot(final long version, final ClientConnection clientConnection, final long[] values) {
+            this.version = version;
+            this.clientConnection = clientConnection;
+            this.values = values;
+        }
+
+        boolean dataEquals(final ClientConnection clientConnection, final long[] values) {
+            return this.clientConnection.dataEquals(clientConnection) && Arrays.equals(this.values, values);
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ch.ethz.seb.sebserver.SEBServerInit;
+import ch.ethz.seb.sebserver.SEBServerInitEvent;
+import ch.ethz.seb.sebserver.gbl.api.EntityType;
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.webservice.WebserviceLeaderElection;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.AdditionalAttributeRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.AdditionalAttributesDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientEventDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
+
+/** Background task that moves the client events of finished exams to the client event archive table
+ * after the retention period of the exam.
+ * <p>
+ * The retention period is the number of days after the end of an exam the client events are kept within
+ * the client event table. It is defined by the additional attribute ADDITIONAL_ATTR_CLIENT_EVENT_RETENTION_DAYS
+ * of the exam, if not available of the institution of the exam, or otherwise by the default retention period
+ * of the configuration. A negative retention period disables the archiving.
+ * <p>
+ * The archiving runs on the async executor and not on the scheduler thread since it may take a while.
+ * It stops as soon as this webservice instance is not the leader anymore and is continued by the next run. */
+@Service
+@WebServiceProfile
+public class ClientEventArchiveTask {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientEventArchiveTask.class);
+
+    /** The name of the additional attribute of an exam or an institution that defines the retention period
+     * of the client events in days after the end of an exam. */
+    public static final String ADDITIONAL_ATTR_CLIENT_EVENT_RETENTION_DAYS = "clientEventRetentionDays";
+
+    private final ExamDAO examDAO;
+    private final ClientEventDAO clientEventDAO;
+    private final AdditionalAttributesDAO additionalAttributesDAO;
+    private final WebserviceLeaderElection webserviceLeaderElection;
+    private final Executor executor;
+    private final int retentionDays;
+    private final int chunkSize;
+    private final long chunkPause;
+    private final String archiveTaskCron;
+
+    private final AtomicBoolean archiveRunning = new AtomicBoolean(false);
+    private boolean archiveActive = false;
+
+    protected ClientEventArchiveTask(
+            final ExamDAO examDAO,
+            final ClientEventDAO clientEventDAO,
+            final AdditionalAttributesDAO additionalAttributesDAO,
+            final WebserviceLeaderElection webserviceLeaderElection,
+            @Qualifier(AsyncServiceSpringConfig.EXECUTOR_BEAN_NAME) final Executor executor,
+            @Value("${sebserver.webservice.api.exam.event.archive.retention-days:30}") final int retentionDays,
+            @Value("${sebserver.webservice.api.exam.event.archive.chunk-size:1000}") final int chunkSize,
+            @Value("${sebserver.webservice.api.exam.event.archive.chunk-pause:100}") final long chunkPause,
+            @Value("${sebserver.webservice.api.exam.event.archive.cron:0 30 2 * * *}") final String archiveTaskCron) {
+
+        this.examDAO = examDAO;
+        this.clientEventDAO = clientEventDAO;
+        this.additionalAttributesDAO = additionalAttributesDAO;
+        this.webserviceLeaderElection = webserviceLeaderElection;
+        this.executor = executor;
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.archiveTaskCron = archiveTaskCron;
+    }
+
+    @EventListener(SEBServerInitEvent.class)
+    public void init() {
+        SEBServerInit.INIT_LOGGER.info("------>");
+        SEBServerInit.INIT_LOGGER.info("------> Activate client event archive background task");
+        SEBServerInit.INIT_LOGGER.info("--------> Task runs on an cron-job interval of {}", this.archiveTaskCron);
+        SEBServerInit.INIT_LOGGER.info(
+                "--------> Client events are archived by default {} days after the end of an exam in chunks of {}",
+                this.retentionDays,
+                this.chunkSize);
+
+        this.archiveActive = true;
+    }
+
+    @Scheduled(cron = "${sebserver.webservice.api.exam.event.archive.cron:0 30 2 * * *}")
+    public void archiveTask() {
+
+        if (!this.archiveActive || !this.webserviceLeaderElection.isLeader()) {
+            return;
+        }
+
+        if (!this.archiveRunning.compareAndSet(false, true)) {
+            log.warn("Client event archiving of the former run is still in progress. Skip this run");
+            return;
+        }
+
+        try {
+            this.executor.execute(() -> {
+                try {
+                    archiveClientEvents();
+                } finally {
+                    this.archiveRunning.set(false);
+                }
+            });
+        } catch (final Exception e) {
+            this.archiveRunning.set(false);
+            log.error("Failed to start the client event archiving: ", e);
+        }
+    }
+
+    /** Archives the client events of all finished exams that have passed their retention period
+     * and are not archived yet. */
+    public void archiveClientEvents() {
+        if (log.isDebugEnabled()) {
+            log.debug("Run client event archive task");
+        }
+
+        try {
+
+            final DateTime now = DateTime.now(DateTimeZone.UTC);
+            final Map<Long, Integer> institutionRetentionDays = new HashMap<>();
+
+            this.examDAO.allFinished()
+                    .getOrThrow()
+                    .stream()
+                    .filter(exam -> exam.endTime != null)
+                    .filter(exam -> isLeader())
+                    .forEach(exam -> archiveClientEvents(exam, now, institutionRetentionDays));
+
+        } catch (final Exception e) {
+            log.error("Unexpected error while trying to archive client events: ", e);
+        }
+    }
+
+    private void archiveClientEvents(
+            final Exam exam,
+            final DateTime now,
+            final Map<Long, Integer> institutionRetentionDays) {
+
+        try {
+
+            final Map<String, String> examAttributes = getAdditionalAttributes(EntityType.EXAM, exam.id);
+            if (examAttributes.containsKey(ClientEventDAO.ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVED)) {
+                return;
+            }
+
+            final int retentionDays = (examAttributes.containsKey(ADDITIONAL_ATTR_CLIENT_EVENT_RETENTION_DAYS))
+                    ? toRetentionDays(examAttributes.get(ADDITIONAL_ATTR_CLIENT_EVENT_RETENTION_DAYS))
+                    : institutionRetentionDays.computeIfAbsent(
+                            exam.institutionId,
+                            this::getInstitutionRetentionDays);
+
+            if (retentionDays < 0 || exam.endTime.plusDays(retentionDays).isAfter(now)) {
+                return;
+            }
+
+            // mark the exam first so that the already moved client events are read from the archive table too
+            if (!examAttributes.containsKey(ClientEventDAO.ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING)) {
+                this.additionalAttributesDAO.saveAdditionalAttribute(
+                        EntityType.EXAM,
+                        exam.id,
+                        ClientEventDAO.ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING,
+                        String.valueOf(now.getMillis()))
+                        .getOrThrow();
+            }
+
+            final long start = System.currentTimeMillis();
+            int archived = 0;
+            int moved;
+            do {
+                if (!isLeader()) {
+                    log.info("Stop archiving client events of exam: {} after {} client events. Not leader anymore",
+                            exam.getName(),
+                            archived);
+                    return;
+                }
+
+                moved = this.clientEventDAO
+                        .archiveEvents(exam.id, this.chunkSize)
+                        .getOrThrow();
+                archived += moved;
+
+                // give way to the other client event table accesses between the chunks
+                if (moved >= this.chunkSize && this.chunkPause > 0) {
+                    Thread.sleep(this.chunkPause);
+                }
+            } while (moved >= this.chunkSize);
+
+            this.additionalAttributesDAO.saveAdditionalAttribute(
+                    EntityType.EXAM,
+                    exam.id,
+                    ClientEventDAO.ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVED,
+                    String.valueOf(now.getMillis()))
+                    .getOrThrow();
+
+            log.info("Archived {} client events of exam: {} in {} ms",
+                    archived,
+                    exam.getName(),
+                    System.currentTimeMillis() - start);
+
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while archiving client events of exam: {}", exam.id);
+        } catch (final Exception e) {
+            log.error("Failed to archive client events of exam: {}", exam.id, e);
+        }
+    }
+
+    private boolean isLeader() {
+        return this.webserviceLeaderElection.isLeader();
+    }
+
+    private Integer getInstitutionRetentionDays(final Long institutionId) {
+        final String retentionDays = getAdditionalAttributes(EntityType.INSTITUTION, institutionId)
+                .get(ADDITIONAL_ATTR_CLIENT_EVENT_RETENTION_DAYS);
+
+        return (retentionDays != null) ? toRetentionDays(retentionDays) : this.retentionDays;
+    }
+
+    private Map<String, String> getAdditionalAttributes(final EntityType entityType, final Long entityId) {
+        return this.additionalAttributesDAO
+                .getAdditionalAttributes(entityType, entityId)
+                .getOrThrow()
+                .stream()
+                .filter(attr -> attr.getValue() != null)
+                .collect(Collectors.toMap(
+                        AdditionalAttributeRecord::getName,
+                        AdditionalAttributeRecord::getValue,
+                        (v1, v2) -> v2));
+    }
+
+    private int toRetentionDays(final String value) {
+        try {
+            return Integer.parseInt(StringUtils.trim(value));
+        } catch (final NumberFormatException e) {
+            log.warn("Invalid client event retention days: {}. Use default: {}", value, this.retentionDays);
+            return this.retentionDays;
+        }
+    }
+
+}
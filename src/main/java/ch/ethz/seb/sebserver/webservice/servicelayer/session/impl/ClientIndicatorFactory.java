@@ -13,22 +13,34 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import ch.ethz.seb.sebserver.gbl.model.exam.Indicator;
 import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.IndicatorDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.ClientIndicator;
 
+/** Creates the ClientIndicator instances of a client connection.
+ * <p>
+ * The indicator definitions of an exam are loaded once and compiled into an ExamIndicatorTemplate that is cached
+ * per exam. The template creates the ClientIndicator instances of a client connection without any access to the
+ * persistent storage or the bean factory. A cached template is invalidated with the exam on a CacheInvalidationEvent
+ * that is published on every change of the indicators of an exam. */
 @Lazy
 @Component
 @WebServiceProfile
@@ -36,86 +48,177 @@ public class ClientIndicatorFactory {
 
     private static final Logger log = LoggerFactory.getLogger(ClientIndicatorFactory.class);
 
-    private final ApplicationContext applicationContext;
     private final IndicatorDAO indicatorDAO;
+    private final ClientEventRecordMapper clientEventRecordMapper;
+    private final ClientEventExtensionMapper clientEventExtensionMapper;
+    private final ClientIndicatorValueService clientIndicatorValueService;
     private final boolean enableCaching;
 
+    private final Map<Long, ExamIndicatorTemplate> templates = new ConcurrentHashMap<>();
+
     @Autowired
     public ClientIndicatorFactory(
-            final ApplicationContext applicationContext,
             final IndicatorDAO indicatorDAO,
+            final ClientEventRecordMapper clientEventRecordMapper,
+            final ClientEventExtensionMapper clientEventExtensionMapper,
+            final ClientIndicatorValueService clientIndicatorValueService,
             @Value("${sebserver.webservice.api.exam.enable-indicator-cache:true}") final boolean enableCaching) {
 
-        this.applicationContext = applicationContext;
         this.indicatorDAO = indicatorDAO;
+        this.clientEventRecordMapper = clientEventRecordMapper;
+        this.clientEventExtensionMapper = clientEventExtensionMapper;
+        this.clientIndicatorValueService = clientIndicatorValueService;
         this.enableCaching = enableCaching;
     }
 
-    public List<ClientIndicator> createFor(final ClientConnection clientConnection) {
-        final List<ClientIndicator> result = new ArrayList<>();
+    /** Listen to CacheInvalidationEvent to release the cached indicator template of an invalidated exam
+     *
+     * @param event the CacheInvalidationEvent */
+    @EventListener
+    public void notifyCacheInvalidation(final CacheInvalidationEvent event) {
+        switch (event.type) {
+            case EXAM: {
+                try {
+                    this.templates.remove(Long.parseLong(event.key));
+                } catch (final NumberFormatException e) {
+                    log.warn("Invalid exam identifier for cache invalidation: {}", event.key);
+                }
+                break;
+            }
+            case ALL: {
+                this.templates.clear();
+                break;
+            }
+            default:
+        }
+    }
 
+    public List<ClientIndicator> createFor(final ClientConnection clientConnection) {
         if (clientConnection.examId == null) {
-            return result;
+            return Collections.emptyList();
         }
 
         try {
 
-            final Collection<Indicator> examIndicators = this.indicatorDAO
-                    .allForExam(clientConnection.examId)
-                    .getOrThrow();
-
-            boolean pingIndicatorAvailable = false;
-
-            for (final Indicator indicatorDef : examIndicators) {
-                try {
+            return this.templates
+                    .computeIfAbsent(clientConnection.examId, this::createTemplate)
+                    .createFor(clientConnection.id);
 
-                    final ClientIndicator indicator = this.applicationContext
-                            .getBean(indicatorDef.type.name(), ClientIndicator.class);
+        } catch (final RuntimeException e) {
+            log.error("Failed to create ClientIndicator for ClientConnection: {}", clientConnection);
+            throw e;
+        }
+    }
 
-                    if (!pingIndicatorAvailable) {
-                        pingIndicatorAvailable = indicatorDef.type == IndicatorType.LAST_PING;
-                    }
+    private ExamIndicatorTemplate createTemplate(final Long examId) {
+        final Collection<Indicator> examIndicators = this.indicatorDAO
+                .allForExam(examId)
+                .getOrThrow();
 
-                    indicator.init(
-                            indicatorDef,
-                            clientConnection.id,
-                            this.enableCaching);
+        final List<IndicatorPrototype> prototypes = new ArrayList<>();
+        boolean pingIndicatorAvailable = false;
 
-                    result.add(indicator);
-                } catch (final Exception e) {
-                    log.warn("No Indicator with type: {} found as registered bean. Ignore this one.", indicatorDef.type,
-                            e);
-                }
+        for (final Indicator indicatorDef : examIndicators) {
+            final Supplier<AbstractClientIndicator> constructor = getConstructor(indicatorDef.type);
+            if (constructor == null) {
+                log.warn("No Indicator with type: {} found. Ignore this one.", indicatorDef.type);
+                continue;
             }
 
-            // If there is no ping interval indicator set from the exam, we add a hidden one
-            // to at least create missing ping events and track missing state
             if (!pingIndicatorAvailable) {
-                final PingIntervalClientIndicator pingIndicator = this.applicationContext
-                        .getBean(PingIntervalClientIndicator.class);
-                pingIndicator.hidden = true;
-                final Indicator indicator = new Indicator(
-                        null,
-                        clientConnection.examId,
-                        "hidden_ping_indicator",
-                        IndicatorType.LAST_PING,
-                        "",
-                        Arrays.asList(new Indicator.Threshold(5000d, "")));
-                pingIndicator.init(
-                        indicator,
-                        clientConnection.id,
-                        this.enableCaching);
-                result.add(pingIndicator);
+                pingIndicatorAvailable = indicatorDef.type == IndicatorType.LAST_PING;
             }
 
-        } catch (final RuntimeException e) {
-            log.error("Failed to create ClientIndicator for ClientConnection: {}", clientConnection);
-            throw e;
-        } catch (final Exception e) {
-            log.error("Failed to create ClientIndicator for ClientConnection: {}", clientConnection);
+            prototypes.add(new IndicatorPrototype(indicatorDef, constructor, false));
+        }
+
+        // If there is no ping interval indicator set from the exam, we add a hidden one
+        // to at least create missing ping events and track missing state
+        if (!pingIndicatorAvailable) {
+            final Indicator indicator = new Indicator(
+                    null,
+                    examId,
+                    "hidden_ping_indicator",
+                    IndicatorType.LAST_PING,
+                    "",
+                    Arrays.asList(new Indicator.Threshold(5000d, "")));
+            prototypes.add(new IndicatorPrototype(indicator, getConstructor(IndicatorType.LAST_PING), true));
         }
 
-        return Collections.unmodifiableList(result);
+        return new ExamIndicatorTemplate(prototypes);
+    }
+
+    private Supplier<AbstractClientIndicator> getConstructor(final IndicatorType type) {
+        if (type == null) {
+            return null;
+        }
+
+        switch (type) {
+            case LAST_PING:
+                return () -> new PingIntervalClientIndicator(
+                        this.clientEventExtensionMapper,
+                        this.clientIndicatorValueService);
+            case ERROR_COUNT:
+                return () -> new ErrorCountClientIndicator(
+                        this.clientEventRecordMapper,
+                        this.clientIndicatorValueService);
+            case WARN_COUNT:
+                return () -> new WarnCountClientIndicator(
+                        this.clientEventRecordMapper,
+                        this.clientIndicatorValueService);
+            default:
+                return null;
+        }
+    }
+
+    /** The compiled indicator definitions of an exam */
+    private final class ExamIndicatorTemplate {
+
+        private final List<IndicatorPrototype> prototypes;
+
+        ExamIndicatorTemplate(final List<IndicatorPrototype> prototypes) {
+            this.prototypes = Collections.unmodifiableList(prototypes);
+        }
+
+        List<ClientIndicator> createFor(final Long connectionId) {
+            final List<ClientIndicator> result = new ArrayList<>(this.prototypes.size());
+            for (final IndicatorPrototype prototype : this.prototypes) {
+                result.add(prototype.createFor(connectionId));
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+
+    /** An indicator definition together with the constructor of the ClientIndicator of its type */
+    private final class IndicatorPrototype {
+
+        private final Indicator indicatorDef;
+        private final Supplier<AbstractClientIndicator> constructor;
+        private final boolean hidden;
+
+        IndicatorPrototype(
+                final Indicator indicatorDef,
+                final Supplier<AbstractClientIndicator> constructor,
+                final boolean hidden) {
+
+            this.indicatorDef = indicatorDef;
+            this.constructor = constructor;
+            this.hidden = hidden;
+        }
+
+        ClientIndicator createFor(final Long connectionId) {
+            final AbstractClientIndicator indicator = this.constructor.get();
+            if (this.hidden) {
+                ((PingIntervalClientIndicator) indicator).hidden = true;
+            }
+
+            indicator.init(
+                    this.indicatorDef,
+                    connectionId,
+                    ClientIndicatorFactory.this.enableCaching);
+
+            return indicator;
+        }
     }
 
 }
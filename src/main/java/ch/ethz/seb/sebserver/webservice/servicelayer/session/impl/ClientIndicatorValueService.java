@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.PreDestroy;
+
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.ethz.seb.sebserver.gbl.Constants;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.BatisConfig;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventCountMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventCountMapper.ConnectionValueRecord;
+
+/** Incremental in-memory engine for the values of the client indicators of running exams.
+ * <p>
+ * Holds the number of client events per client connection and event type as well as the last ping time
+ * of each client connection in memory. The values of an exam are loaded with one query per exam from the
+ * shared aggregate table client_event_count and new events are counted incrementally in memory. Counts
+ * that are not stored yet are added to the shared aggregate table in batches on a fixed interval.
+ * <p>
+ * With enabled indicator caching (single server setup) the values of an exam are loaded only once
+ * since all events are counted on this server. Without indicator caching (distributed setup) the values
+ * of an exam are reconciled with the shared aggregate table at most once within the refresh interval
+ * (sebserver.webservice.api.exam.indicator.refresh-interval) on read to get the counts of the events that
+ * are notified on other webservice instances. In both cases no indicator value read scans the client_event
+ * table.
+ * <p>
+ * Storing counts to the shared aggregate table together with adding them to the in-memory stored counts and
+ * loading the stored counts from the shared aggregate table together with setting them in memory are mutual
+ * exclusive. Otherwise a count that is stored and committed just before a reload would be added twice. */
+@Lazy
+@Component
+@WebServiceProfile
+@DependsOn("batisConfig")
+public class ClientIndicatorValueService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientIndicatorValueService.class);
+
+    private static final int NUMBER_OF_TYPES = EventType.values().length;
+    private static final long EXAM_IDLE_EVICTION_TIME = Constants.HOUR_IN_MILLIS;
+
+    private final ClientEventCountMapper clientEventCountMapper;
+    private final ClientEventCountMapper batchClientEventCountMapper;
+    private final SqlSessionTemplate batchSqlSessionTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean distributed;
+    private final long refreshInterval;
+
+    private final Map<Long, ExamValues> exams = new ConcurrentHashMap<>();
+    /** Guards the stored counts: store and commit plus add in memory as well as load plus set in memory */
+    private final Object storedCountsLock = new Object();
+
+    protected ClientIndicatorValueService(
+            final ClientEventCountMapper clientEventCountMapper,
+            @Qualifier(BatisConfig.SQL_BATCH_SESSION_TEMPLATE) final SqlSessionTemplate batchSqlSessionTemplate,
+            final PlatformTransactionManager transactionManager,
+            @Value("${sebserver.webservice.api.exam.enable-indicator-cache:true}") final boolean enableCaching,
+            @Value("${sebserver.webservice.api.exam.indicator.refresh-interval:1000}") final long refreshInterval) {
+
+        this.clientEventCountMapper = clientEventCountMapper;
+
+        final org.apache.ibatis.session.Configuration batisConfig = batchSqlSessionTemplate.getConfiguration();
+        if (!batisConfig.hasMapper(ClientEventCountMapper.class)) {
+            batisConfig.addMapper(ClientEventCountMapper.class);
+        }
+        this.batchClientEventCountMapper = batchSqlSessionTemplate.getMapper(ClientEventCountMapper.class);
+        this.batchSqlSessionTemplate = batchSqlSessionTemplate;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.distributed = !enableCaching;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /** Get the number of client events of a given type for a specified client connection.
+     *
+     * @param examId the exam identifier of the client connection
+     * @param connectionId the client connection identifier
+     * @param eventType the event type
+     * @return the number of client events of the given type for the specified client connection */
+    public long getEventCount(final Long examId, final Long connectionId, final EventType eventType) {
+        if (examId == null || connectionId == null) {
+            return 0;
+        }
+
+        final ConnectionValues connectionValues = getExamValues(examId).connections.get(connectionId);
+        if (connectionValues == null) {
+            return 0;
+        }
+
+        return connectionValues.getCount(eventType);
+    }
+
+    /** Get the server time of the last stored ping of a specified client connection.
+     *
+     * @param examId the exam identifier of the client connection
+     * @param connectionId the client connection identifier
+     * @return the server time of the last stored ping or 0 if there is none */
+    public long getLastPing(final Long examId, final Long connectionId) {
+        if (examId == null || connectionId == null) {
+            return 0;
+        }
+
+        final ConnectionValues connectionValues = getExamValues(examId).connections.get(connectionId);
+        if (connectionValues == null) {
+            return 0;
+        }
+
+        return connectionValues.lastPing;
+    }
+
+    /** Notifies a new client event of a given type for a specified client connection
+     *
+     * @param examId the exam identifier of the client connection
+     * @param connectionId the client connection identifier
+     * @param eventTypeId the event type identifier */
+    public void notifyEvent(final Long examId, final Long connectionId, final Integer eventTypeId) {
+        if (examId == null || connectionId == null || eventTypeId == null) {
+            return;
+        }
+
+        final EventType eventType = EventType.byId(eventTypeId);
+        if (eventType == EventType.LAST_PING) {
+            return;
+        }
+
+        getExamValues(examId).connections
+                .computeIfAbsent(connectionId, id -> new ConnectionValues())
+                .pending
+                .incrementAndGet(eventType.ordinal());
+    }
+
+    /** Stores all pending event counts within one batch to the shared aggregate table.
+     * Also evicts the values of exams that has not been accessed for a longer time */
+    @Scheduled(fixedDelayString = "${sebserver.webservice.api.exam.indicator.store-interval:1000}")
+    public void storePendingCounts() {
+        if (this.exams.isEmpty()) {
+            return;
+        }
+
+        final List<PendingCount> pendingCounts = new ArrayList<>();
+        for (final ExamValues examValues : this.exams.values()) {
+            examValues.connections.forEach((connectionId, values) -> {
+                for (int i = 0; i < NUMBER_OF_TYPES; i++) {
+                    final long delta = values.pending.getAndSet(i, 0);
+                    if (delta > 0) {
+                        pendingCounts.add(new PendingCount(connectionId, values, i, delta));
+                    }
+                }
+            });
+        }
+
+        if (!pendingCounts.isEmpty()) {
+            try {
+
+                synchronized (this.storedCountsLock) {
+                    this.transactionTemplate.execute(status -> {
+                        pendingCounts.forEach(pending -> this.batchClientEventCountMapper.addCount(
+                                pending.connectionId,
+                                EventType.values()[pending.typeIndex].id,
+                                pending.delta));
+                        this.batchSqlSessionTemplate.flushStatements();
+                        return null;
+                    });
+
+                    pendingCounts.forEach(
+                            pending -> pending.values.stored.addAndGet(pending.typeIndex, pending.delta));
+                }
+
+                if (log.isTraceEnabled()) {
+                    log.trace("Stored {} event counts within one batch", pendingCounts.size());
+                }
+
+            } catch (final Exception e) {
+                log.error("Unexpected error while trying to batch store event counts. Retry on next store: ", e);
+                // put back to pending to try again on next store
+                pendingCounts.forEach(pending -> pending.values.pending.addAndGet(pending.typeIndex, pending.delta));
+            }
+        }
+
+        final long now = Utils.getMillisecondsNow();
+        this.exams.values().removeIf(examValues -> now - examValues.lastAccess > EXAM_IDLE_EVICTION_TIME &&
+                !examValues.hasPending());
+    }
+
+    /** Stores the pending event counts and removes the in-memory values of a given exam.
+     * The values are loaded again from the shared aggregate table on next access.
+     *
+     * @param examId the exam identifier */
+    public void evictExam(final Long examId) {
+        if (examId == null || !this.exams.containsKey(examId)) {
+            return;
+        }
+
+        storePendingCounts();
+        this.exams.remove(examId);
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        log.info("Store pending event counts before shutdown");
+        storePendingCounts();
+    }
+
+    private ExamValues getExamValues(final Long examId) {
+        final ExamValues examValues = this.exams.computeIfAbsent(examId, ExamValues::new);
+        final long now = Utils.getMillisecondsNow();
+        examValues.lastAccess = now;
+        if (examValues.needsRefresh(now)) {
+            refresh(examValues);
+        }
+        return examValues;
+    }
+
+    private void refresh(final ExamValues examValues) {
+        synchronized (examValues) {
+            final long now = Utils.getMillisecondsNow();
+            if (!examValues.needsRefresh(now)) {
+                return;
+            }
+
+            try {
+
+                // no store can happen between the load and the set of the stored counts
+                synchronized (this.storedCountsLock) {
+                    final Collection<ConnectionValueRecord> records = this.clientEventCountMapper
+                            .selectForExam(examValues.examId, EventType.LAST_PING.id);
+
+                    for (final ConnectionValueRecord record : records) {
+                        if (record.connectionId == null || record.type == null || record.value == null) {
+                            continue;
+                        }
+
+                        final ConnectionValues values = examValues.connections
+                                .computeIfAbsent(record.connectionId, id -> new ConnectionValues());
+                        final EventType eventType = EventType.byId(record.type);
+                        if (eventType == EventType.LAST_PING) {
+                            values.lastPing = record.value;
+                        } else {
+                            values.stored.set(eventType.ordinal(), record.value);
+                        }
+                    }
+                }
+
+            } catch (final Exception e) {
+                log.error("Failed to load indicator values for exam: {}", examValues.examId, e);
+            }
+
+            examValues.lastRefresh = now;
+        }
+    }
+
+    private final class ExamValues {
+
+        final Long examId;
+        final Map<Long, ConnectionValues> connections = new ConcurrentHashMap<>();
+        volatile long lastRefresh = 0;
+        volatile long lastAccess = 0;
+
+        ExamValues(final Long examId) {
+            this.examId = examId;
+        }
+
+        boolean needsRefresh(final long now) {
+            return this.lastRefresh == 0 ||
+                    (ClientIndicatorValueService.this.distributed &&
+                            now - this.lastRefresh > ClientIndicatorValueService.this.refreshInterval);
+        }
+
+        boolean hasPending() {
+            return this.connections.values()
+                    .stream()
+                    .anyMatch(ConnectionValues::hasPending);
+        }
+    }
+
+    private static final class ConnectionValues {
+
+        /** The event counts per event type (ordinal) that are stored within the shared aggregate table */
+        final AtomicLongArray stored = new AtomicLongArray(NUMBER_OF_TYPES);
+        /** The event counts per event type (ordinal) that are not stored yet */
+        final AtomicLongArray pending = new AtomicLongArray(NUMBER_OF_TYPES);
+        volatile long lastPing = 0;
+
+        long getCount(final EventType eventType) {
+            return this.stored.get(eventType.ordinal()) + this.pending.get(eventType.ordinal());
+        }
+
+        boolean hasPending() {
+            for (int i = 0; i < NUMBER_OF_TYPES; i++) {
+                if (this.pending.get(i) > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class PendingCount {
+
+        final Long connectionId;
+        final ConnectionValues values;
+        final int typeIndex;
+        final long delta;
+
+        PendingCount(final Long connectionId, final ConnectionValues values, final int typeIndex, final long delta) {
+            this.connectionId = connectionId;
+            this.values = values;
+            this.typeIndex = typeIndex;
+            this.delta = delta;
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.mybatis.dynamic.sql.SqlBuilder.isEqualTo;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.BatisConfig;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.PingHandlingStrategy;
+
+/** Ping handling strategy for distributed SEB Server setups that keeps the last ping of each
+ * SEB client connection in memory and stores the LAST_PING event records of all connections
+ * that has been pinged since the last store within one batch on a fixed interval.
+ * <p>
+ * A ping itself never touches the persistent storage. Several pings of the same connection that
+ * are notified within one store interval are coalesced to one update of the last one.
+ * <p>
+ * If a batch store fails, the pings of the batch are put back and stored within the next batch unless
+ * a newer ping of the same connection came in meanwhile.
+ * <p>
+ * On total server fail the last pings that has not been stored yet are lost. This is bound to the
+ * store interval (sebserver.webservice.api.exam.ping.batch-store-interval) what is uncritical since
+ * the last ping is only used to evaluate missing pings on other webservice instances that have itself
+ * a much higher tolerance then the store interval. */
+@Lazy
+@Component
+@WebServiceProfile
+@DependsOn("batisConfig")
+public class DistributedServerBatchPingHandler implements PingHandlingStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(DistributedServerBatchPingHandler.class);
+
+    private final ExamSessionCacheService examSessionCacheService;
+    private final ClientEventRecordMapper clientEventRecordMapper;
+    private final ClientEventRecordMapper batchClientEventRecordMapper;
+    private final SqlSessionTemplate batchSqlSessionTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /** The last ping per connection identifier that has not been stored yet */
+    private final Map<Long, LastPing> pendingPings = new ConcurrentHashMap<>();
+
+    protected DistributedServerBatchPingHandler(
+            final ExamSessionCacheService examSessionCacheService,
+            final ClientEventRecordMapper clientEventRecordMapper,
+            @Qualifier(BatisConfig.SQL_BATCH_SESSION_TEMPLATE) final SqlSessionTemplate batchSqlSessionTemplate,
+            final PlatformTransactionManager transactionManager) {
+
+        this.examSessionCacheService = examSessionCacheService;
+        this.clientEventRecordMapper = clientEventRecordMapper;
+
+        final org.apache.ibatis.session.Configuration batisConfig = batchSqlSessionTemplate.getConfiguration();
+        if (!batisConfig.hasMapper(ClientEventRecordMapper.class)) {
+            batisConfig.addMapper(ClientEventRecordMapper.class);
+        }
+        this.batchClientEventRecordMapper = batchSqlSessionTemplate.getMapper(ClientEventRecordMapper.class);
+        this.batchSqlSessionTemplate = batchSqlSessionTemplate;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void notifyPing(final String connectionToken, final long timestamp, final int pingNumber) {
+
+        // update ping indicators
+        final ClientConnectionDataInternal activeClientConnection =
+                this.examSessionCacheService.getActiveClientConnection(connectionToken);
+
+        if (activeClientConnection != null) {
+            activeClientConnection.notifyPing(timestamp, pingNumber);
+
+            // mark last ping for the next batch store. This overrides a former ping that was not stored yet
+            this.pendingPings.put(
+                    activeClientConnection.getConnectionId(),
+                    new LastPing(timestamp, Utils.getMillisecondsNow(), pingNumber));
+        }
+    }
+
+    @Override
+    public void initForConnection(final Long connectionId, final String connectionToken) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Initialize distributed batch ping handler for connection: {}", connectionId);
+        }
+
+        final ClientEventRecord clientEventRecord = new ClientEventRecord();
+        clientEventRecord.setClientConnectionId(connectionId);
+        clientEventRecord.setType(EventType.LAST_PING.id);
+        clientEventRecord.setClientTime(Utils.getMillisecondsNow());
+        clientEventRecord.setServerTime(Utils.getMillisecondsNow());
+        this.clientEventRecordMapper.insertSelective(clientEventRecord);
+    }
+
+    /** Stores all pending last pings within one batch update. This is a no-op if there are no pending pings
+     * what is always the case if this strategy is not the active ping handling strategy. */
+    @Scheduled(fixedDelayString = "${sebserver.webservice.api.exam.ping.batch-store-interval:1000}")
+    public void storePendingPings() {
+        if (this.pendingPings.isEmpty()) {
+            return;
+        }
+
+        // remove the pings to store. A ping that comes in meanwhile is put again and stored within the next batch
+        final Map<Long, LastPing> batch = new HashMap<>(this.pendingPings.size());
+        for (final Long connectionId : this.pendingPings.keySet()) {
+            final LastPing lastPing = this.pendingPings.remove(connectionId);
+            if (lastPing != null) {
+                batch.put(connectionId, lastPing);
+            }
+        }
+
+        try {
+
+            this.transactionTemplate.execute(status -> {
+                batch.forEach((connectionId, lastPing) -> updateLastPing(connectionId, lastPing.toRecord()));
+                this.batchSqlSessionTemplate.flushStatements();
+                return null;
+            });
+
+            if (log.isTraceEnabled()) {
+                log.trace("Stored {} last pings within one batch", batch.size());
+            }
+
+        } catch (final Exception e) {
+            log.error("Unexpected error while trying to batch store last pings. Retry with the next batch: ", e);
+            // a newer ping that came in meanwhile wins over the failed one
+            batch.forEach(this.pendingPings::putIfAbsent);
+        }
+    }
+
+    /** Get the number of last pings that are pending to be stored with the next batch
+     *
+     * @return the number of pending last pings */
+    int getPendingPingCount() {
+        return this.pendingPings.size();
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        log.info("Store pending last pings before shutdown");
+        storePendingPings();
+    }
+
+    private void updateLastPing(final Long connectionId, final ClientEventRecord record) {
+        this.batchClientEventRecordMapper.updateByExampleSelective(record)
+                .where(
+                        ClientEventRecordDynamicSqlSupport.clientConnectionId,
+                        isEqualTo(connectionId))
+                .and(
+                        ClientEventRecordDynamicSqlSupport.type,
+                        isEqualTo(EventType.LAST_PING.id))
+                .build()
+                .execute();
+    }
+
+    private static final class LastPing {
+
+        final long clientTime;
+        final long serverTime;
+        final int pingNumber;
+
+        LastPing(final long clientTime, final long serverTime, final int pingNumber) {
+            this.clientTime = clientTime;
+            this.serverTime = serverTime;
+            this.pingNumber = pingNumber;
+        }
+
+        /** Creates a selective update record that holds only the values of a last ping update */
+        ClientEventRecord toRecord() {
+            final ClientEventRecord record = new ClientEventRecord();
+            record.setClientTime(this.clientTime);
+            record.setServerTime(this.serverTime);
+            record.setNumericValue(new BigDecimal(this.pingNumber));
+            return record;
+        }
+    }
+
+}
@@ -8,11 +8,17 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import org.joda.time.DateTime;
-import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -24,9 +30,16 @@ import org.springframework.stereotype.Service;
 import ch.ethz.seb.sebserver.SEBServerInit;
 import ch.ethz.seb.sebserver.SEBServerInitEvent;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.WebserviceLeaderElection;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamChangeEvent;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamSessionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.SEBClientConnectionService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamStatusSchedule.Entry;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamStatusSchedule.Transition;
 
 @Service
 @WebServiceProfile
@@ -36,42 +49,49 @@ class ExamSessionControlTask implements DisposableBean {
 
     private final ExamDAO examDAO;
     private final SEBClientConnectionService sebClientConnectionService;
+    private final ExamSessionService examSessionService;
     private final ExamUpdateHandler examUpdateHandler;
+    private final WebserviceLeaderElection webserviceLeaderElection;
     private final Long examTimePrefix;
     private final Long examTimeSuffix;
     private final String examTaskCron;
+    private final long examScheduleResyncRate;
     private final long pingUpdateRate;
+    private final long quizDataSyncRate;
+    private final ExamStatusSchedule examStatusSchedule;
+    private final Set<Long> changedExams = ConcurrentHashMap.newKeySet();
+
+    private long lastExamScheduleResync = 0;
 
     private boolean examRunUpdateActive = false;
     private boolean lostPingUpdateActive = false;
-
-    // TODO for distributed systems we need a data-base based priority and flag that the individual
-    //      tasks can check and set so that only one task is actually processing and the other just checks
-    //      if a task is still processing and backup of not.
-    //      Possibly this can be done with a overall master service setting on the DB in table webservice_server_info
-
-    // TODO considering to have some caching of running exams end dates here to improve performance
-    //      the end check task has than only to first update missing running exams and then
-    //      check the exam ending within the cached end date of the exam. if an exam has ended by
-    //      applying the check to the cached value, the process can double-check if the end date has
-    //      no change and update if needed or end the exam and remove from cache.
+    private boolean quizDataSyncActive = false;
 
     protected ExamSessionControlTask(
             final ExamDAO examDAO,
             final SEBClientConnectionService sebClientConnectionService,
+            final ExamSessionService examSessionService,
             final ExamUpdateHandler examUpdateHandler,
+            final WebserviceLeaderElection webserviceLeaderElection,
             @Value("${sebserver.webservice.api.exam.time-prefix:3600000}") final Long examTimePrefix,
             @Value("${sebserver.webservice.api.exam.time-suffix:3600000}") final Long examTimeSuffix,
             @Value("${sebserver.webservice.api.exam.update-interval:1 * * * * *}") final String examTaskCron,
-            @Value("${sebserver.webservice.api.seb.lostping.update:15000}") final Long pingUpdateRate) {
+            @Value("${sebserver.webservice.api.exam.update-resync:600000}") final Long examScheduleResyncRate,
+            @Value("${sebserver.webservice.api.seb.lostping.update:15000}") final Long pingUpdateRate,
+            @Value("${sebserver.webservice.api.exam.quiz-data-sync:300000}") final Long quizDataSyncRate) {
 
         this.examDAO = examDAO;
         this.sebClientConnectionService = sebClientConnectionService;
+        this.examSessionService = examSessionService;
         this.examUpdateHandler = examUpdateHandler;
+        this.webserviceLeaderElection = webserviceLeaderElection;
         this.examTimePrefix = examTimePrefix;
         this.examTimeSuffix = examTimeSuffix;
         this.examTaskCron = examTaskCron;
+        this.examScheduleResyncRate = examScheduleResyncRate;
+        this.examStatusSchedule = new ExamStatusSchedule(examTimePrefix, examTimeSuffix);
         this.pingUpdateRate = pingUpdateRate;
+        this.quizDataSyncRate = quizDataSyncRate;
     }
 
     @EventListener(SEBServerInitEvent.class)
@@ -83,6 +103,9 @@ class ExamSessionControlTask implements DisposableBean {
                 "--------> Real exam running time span is expanded on {} before start and {} milliseconds after ending",
                 this.examTimePrefix,
                 this.examTimeSuffix);
+        SEBServerInit.INIT_LOGGER.info(
+                "--------> Exam start and end times are fully reloaded on an interval of {} milliseconds",
+                this.examScheduleResyncRate);
 
         this.examRunUpdateActive = true;
 
@@ -93,6 +116,12 @@ class ExamSessionControlTask implements DisposableBean {
 
         this.lostPingUpdateActive = true;
 
+        SEBServerInit.INIT_LOGGER.info("------>");
+        SEBServerInit.INIT_LOGGER.info(
+                "------> Activate exam quiz data synchronization background task on a fix delay of: {} milliseconds",
+                this.quizDataSyncRate);
+
+        this.quizDataSyncActive = true;
     }
 
     @Scheduled(cron = "${sebserver.webservice.api.exam.update-interval:1 * * * * *}")
@@ -102,14 +131,32 @@ class ExamSessionControlTask implements DisposableBean {
             return;
         }
 
+        // exam status transitions are only processed by the leader instance in a distributed setup.
+        // The schedule is fully reloaded when this instance becomes the leader
+        if (!this.webserviceLeaderElection.isLeader()) {
+            this.lastExamScheduleResync = 0;
+            this.changedExams.clear();
+            return;
+        }
+
         final String updateId = this.examUpdateHandler.createUpdateId();
 
         if (log.isDebugEnabled()) {
             log.debug("Run exam runtime update task with Id: {}", updateId);
         }
 
-        controlExamStart(updateId);
-        controlExamEnd(updateId);
+        final long now = Utils.getMillisecondsNow();
+        updateExamSchedule(now);
+        controlExamStatus(updateId, now);
+    }
+
+    /** Listen to ExamChangeEvent to reschedule the status transitions of the changed exams
+     * on the next exam runtime update
+     *
+     * @param event the event holding the identifiers of the changed exams */
+    @EventListener
+    public void notifyExamChange(final ExamChangeEvent event) {
+        this.changedExams.addAll(event.getExamIds());
     }
 
     @Scheduled(fixedRateString = "${sebserver.webservice.api.seb.lostping.update:5000}")
@@ -122,59 +169,139 @@ class ExamSessionControlTask implements DisposableBean {
         this.sebClientConnectionService.updatePingEvents();
     }
 
-    private void controlExamStart(final String updateId) {
+    @Scheduled(fixedDelayString = "${sebserver.webservice.api.exam.quiz-data-sync:300000}")
+    public void quizDataSyncTask() {
+
+        if (!this.quizDataSyncActive || !this.webserviceLeaderElection.isLeader()) {
+            return;
+        }
+
         if (log.isDebugEnabled()) {
-            log.debug("Check starting exams: {}", updateId);
+            log.debug("Run exam quiz data synchronization task");
         }
 
         try {
+            this.examUpdateHandler.updateQuizData();
+        } catch (final Exception e) {
+            log.error("Unexpected error while trying to synchronize exam quiz data: ", e);
+        }
+    }
 
-            final DateTime now = DateTime.now(DateTimeZone.UTC);
-            final Map<Long, String> updated = this.examDAO.allForRunCheck()
-                    .getOrThrow()
-                    .stream()
-                    .filter(exam -> exam.startTime.minus(this.examTimePrefix).isBefore(now))
-                    .map(exam -> this.examUpdateHandler.setRunning(exam, updateId))
-                    .collect(Collectors.toMap(Exam::getId, Exam::getName));
+    private void updateExamSchedule(final long now) {
+        try {
+
+            // reload the whole schedule periodically to also cover exam changes done by other webservice instances
+            if (now - this.lastExamScheduleResync >= this.examScheduleResyncRate) {
+                this.changedExams.clear();
+
+                final List<Exam> exams = new ArrayList<>(this.examDAO.allForRunCheck().getOrThrow());
+                exams.addAll(this.examDAO.allForEndCheck().getOrThrow());
+                this.examStatusSchedule.reset(exams);
+                this.lastExamScheduleResync = now;
+
+                if (log.isDebugEnabled()) {
+                    log.debug("Reloaded exam status schedule with {} exams", this.examStatusSchedule.size());
+                }
+                return;
+            }
 
-            if (!updated.isEmpty()) {
-                log.info("Updated exams to running state: {}", updated);
+            if (this.changedExams.isEmpty()) {
+                return;
             }
 
+            final Set<Long> examIds = new HashSet<>(this.changedExams);
+            this.changedExams.removeAll(examIds);
+
+            final Collection<Exam> exams = this.examDAO.allOf(examIds)
+                    .onError(error -> this.changedExams.addAll(examIds))
+                    .getOrThrow();
+
+            // exams that are not available anymore have been deleted
+            examIds.forEach(this.examStatusSchedule::remove);
+            exams.forEach(this.examStatusSchedule::update);
+
         } catch (final Exception e) {
-            log.error("Unexpected error while trying to update exams: ", e);
+            log.error("Unexpected error while trying to update exam status schedule: ", e);
         }
     }
 
-    private void controlExamEnd(final String updateId) {
+    private void controlExamStatus(final String updateId, final long now) {
+        final List<Entry> due = this.examStatusSchedule.pollDue(now);
+        if (due.isEmpty()) {
+            return;
+        }
+
         if (log.isDebugEnabled()) {
-            log.debug("Check ending exams: {}", updateId);
+            log.debug("Check starting and ending exams: {}", updateId);
         }
 
         try {
 
-            final DateTime now = DateTime.now(DateTimeZone.UTC);
-
-            final Map<Long, String> updated = this.examDAO.allForEndCheck()
+            // double-check the due exams with the persistent data since they may have been changed
+            // by another webservice instance in the meanwhile
+            final Map<Long, Exam> exams = this.examDAO
+                    .allOf(due.stream().map(entry -> entry.examId).collect(Collectors.toSet()))
                     .getOrThrow()
                     .stream()
-                    .filter(exam -> exam.endTime != null && exam.endTime.plus(this.examTimeSuffix).isBefore(now))
-                    .map(exam -> this.examUpdateHandler.setFinished(exam, updateId))
-                    .collect(Collectors.toMap(Exam::getId, Exam::getName));
+                    .collect(Collectors.toMap(Exam::getId, Function.identity()));
+
+            final Map<Long, String> running = new HashMap<>();
+            final Map<Long, String> finished = new HashMap<>();
+            for (final Entry entry : due) {
+                final Exam exam = exams.get(entry.examId);
+                if (exam == null) {
+                    continue;
+                }
+
+                try {
+                    if (entry.transition == Transition.RUN && isDueToRun(exam, now)) {
+                        final Exam runningExam = this.examUpdateHandler.setRunning(exam, updateId);
+                        // generate the SEB exam configuration in advance before the SEB clients are connecting
+                        this.examSessionService.prepareDefaultExamConfig(runningExam);
+                        running.put(runningExam.id, runningExam.name);
+                    } else if (entry.transition == Transition.FINISH && isDueToFinish(exam, now)) {
+                        final Exam finishedExam = this.examUpdateHandler.setFinished(exam, updateId);
+                        finished.put(finishedExam.id, finishedExam.name);
+                    } else {
+                        this.examStatusSchedule.update(exam);
+                    }
+                } catch (final Exception e) {
+                    log.error("Failed to update status of exam: {}", exam.id, e);
+                    // retry on next exam runtime update
+                    this.changedExams.add(exam.id);
+                }
+            }
 
-            if (!updated.isEmpty()) {
-                log.info("Updated exams to finished state: {}", updated);
+            if (!running.isEmpty()) {
+                log.info("Updated exams to running state: {}", running);
+            }
+            if (!finished.isEmpty()) {
+                log.info("Updated exams to finished state: {}", finished);
             }
 
         } catch (final Exception e) {
             log.error("Unexpected error while trying to update exams: ", e);
+            due.forEach(entry -> this.changedExams.add(entry.examId));
         }
     }
 
+    private boolean isDueToRun(final Exam exam, final long now) {
+        return exam.status == ExamStatus.UP_COMING
+                && exam.startTime != null
+                && exam.startTime.getMillis() - this.examTimePrefix <= now;
+    }
+
+    private boolean isDueToFinish(final Exam exam, final long now) {
+        return exam.status == ExamStatus.RUNNING
+                && exam.endTime != null
+                && exam.endTime.getMillis() + this.examTimeSuffix <= now;
+    }
+
     @Override
     public void destroy() {
         this.examRunUpdateActive = false;
         this.lostPingUpdateActive = false;
+        this.quizDataSyncActive = false;
     }
 
 }
@@ -15,27 +15,36 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage.ErrorMessage;
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
 import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.Features;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataChanges;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
@@ -45,6 +54,8 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.IndicatorDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.NoSEBRestrictionException;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationBus;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamSessionService;
 
 @Lazy
@@ -61,6 +72,12 @@ public class ExamSessionServiceImpl implements ExamSessionService {
     private final ExamConfigurationMapDAO examConfigurationMapDAO;
     private final CacheManager cacheManager;
     private final LmsAPIService lmsAPIService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Executor executor;
+    private final com.github.benmanes.caffeine.cache.Cache<Long, ClientConnectionChangeTracker> changeTrackers =
+            Caffeine.newBuilder()
+                    .expireAfterAccess(1, TimeUnit.HOURS)
+                    .build();
 
     protected ExamSessionServiceImpl(
             final ExamSessionCacheService examSessionCacheService,
@@ -69,7 +86,9 @@ public class ExamSessionServiceImpl implements ExamSessionService {
             final ClientConnectionDAO clientConnectionDAO,
             final IndicatorDAO indicatorDAO,
             final CacheManager cacheManager,
-            final LmsAPIService lmsAPIService) {
+            final LmsAPIService lmsAPIService,
+            final CacheInvalidationBus cacheInvalidationBus,
+            @Qualifier(AsyncServiceSpringConfig.EXECUTOR_BEAN_NAME) final Executor executor) {
 
         this.examSessionCacheService = examSessionCacheService;
         this.examDAO = examDAO;
@@ -78,6 +97,8 @@ public class ExamSessionServiceImpl implements ExamSessionService {
         this.cacheManager = cacheManager;
         this.indicatorDAO = indicatorDAO;
         this.lmsAPIService = lmsAPIService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.executor = executor;
     }
 
     @Override
@@ -199,7 +220,6 @@ public class ExamSessionServiceImpl implements ExamSessionService {
             log.trace("Running exam request for exam {}", examId);
         }
 
-        updateExamCache(examId);
         final Exam exam = this.examSessionCacheService.getRunningExam(examId);
 
         if (this.examSessionCacheService.isRunning(exam)) {
@@ -251,38 +271,8 @@ public class ExamSessionServiceImpl implements ExamSessionService {
             final String connectionToken,
             final OutputStream out) {
 
-        if (log.isDebugEnabled()) {
-            log.debug("SEB exam configuration download request, connectionToken: {}", connectionToken);
-        }
-
-        final ClientConnection connection = this.clientConnectionDAO
-                .byConnectionToken(connectionToken)
-                .getOrThrow();
-
-        if (connection == null) {
-            log.warn("SEB exam configuration download request, no active ClientConnection found for token: {}",
-                    connectionToken);
-            throw new AccessDeniedException("Illegal connection token. No active ClientConnection found for token");
-        }
-
-        // exam integrity check
-        if (connection.examId == null || !isExamRunning(connection.examId)) {
-            log.error("Missing exam identifier or requested exam is not running for connection: {}", connection);
-            throw new IllegalStateException("Missing exam identifier or requested exam is not running");
-        }
-
-        if (log.isDebugEnabled()) {
-            log.debug("Trying to get exam from InMemorySEBConfig");
-        }
-
-        final Exam exam = this.getRunningExam(connection.examId)
-                .getOrThrow();
-
-        final InMemorySEBConfig sebConfigForExam = this.examSessionCacheService
-                .getDefaultSEBConfigForExam(exam);
-
+        final InMemorySEBConfig sebConfigForExam = getDefaultSEBConfig(connectionToken);
         if (sebConfigForExam == null) {
-            log.error("Failed to get and cache InMemorySEBConfig for connection: {}", connection);
             return;
         }
 
@@ -303,6 +293,53 @@ public class ExamSessionServiceImpl implements ExamSessionService {
         }
     }
 
+    @Override
+    public Result<InMemorySEBConfig> getDefaultExamConfig(final Exam runningExam) {
+        return Result.tryCatch(() -> {
+            final InMemorySEBConfig sebConfigForExam = this.examSessionCacheService
+                    .getDefaultSEBConfigForExam(runningExam);
+            if (sebConfigForExam == null) {
+                throw new IllegalStateException("No default SEB exam configuration available");
+            }
+            return sebConfigForExam;
+        });
+    }
+
+    @Override
+    public void prepareDefaultExamConfig(final Exam exam) {
+        if (exam == null || exam.status != ExamStatus.RUNNING) {
+            return;
+        }
+
+        try {
+            this.executor.execute(() -> {
+                try {
+
+                    // the given exam may be outdated, get the current running exam
+                    final Exam runningExam = this.examSessionCacheService.getRunningExam(exam.id);
+                    if (runningExam == null || !hasDefaultConfigurationAttached(exam.id)) {
+                        return;
+                    }
+
+                    if (log.isDebugEnabled()) {
+                        log.debug("Prepare default SEB exam configuration for exam: {}", exam.id);
+                    }
+
+                    this.examSessionCacheService.getDefaultSEBConfigForExam(runningExam);
+
+                } catch (final Exception e) {
+                    log.warn("Failed to prepare default SEB exam configuration for exam: {} cause: {}",
+                            exam.id,
+                            e.getMessage());
+                }
+            });
+        } catch (final Exception e) {
+            log.warn("Failed to schedule preparation of default SEB exam configuration for exam: {} cause: {}",
+                    exam.id,
+                    e.getMessage());
+        }
+    }
+
     @Override
     public Result<ClientConnectionData> getConnectionData(final String connectionToken) {
         return Result.tryCatch(() -> {
@@ -326,40 +363,135 @@ public class ExamSessionServiceImpl implements ExamSessionService {
     }
 
     @Override
-    public Result<Exam> updateExamCache(final Long examId) {
-        final Exam exam = this.examSessionCacheService.getRunningExam(examId);
-        if (exam == null) {
-            return Result.ofEmpty();
-        }
+    public Result<ClientConnectionDataChanges> getConnectionDataChanges(
+            final Long examId,
+            final String sinceVersion,
+            final Predicate<ClientConnectionData> filter) {
 
-        final Boolean isUpToDate = this.examDAO.upToDate(examId, exam.lastUpdate)
-                .onError(t -> log.error("Failed to verify if cached exam is up to date: {}", exam, t))
-                .getOr(false);
+        return Result.tryCatch(() -> {
+            final ClientConnectionChangeTracker tracker = this.changeTrackers.get(
+                    examId,
+                    id -> new ClientConnectionChangeTracker());
+
+            if (StringUtils.isBlank(sinceVersion) || !tracker.hasIndicators()) {
+                // full request; refresh the indicator thresholds that may have changed
+                tracker.updateIndicators(this.indicatorDAO
+                        .allForExam(examId)
+                        .getOrThrow());
+            }
 
-        if (!BooleanUtils.toBoolean(isUpToDate)) {
-            return flushCache(exam);
-        } else {
-            return Result.of(exam);
-        }
+            final Collection<ClientConnectionData> current = this.getConnectionData(examId, data -> true)
+                    .getOrThrow();
+
+            return tracker.apply(current, sinceVersion, filter);
+        });
     }
 
     @Override
     public Result<Exam> flushCache(final Exam exam) {
         return Result.tryCatch(() -> {
-            this.examSessionCacheService.evict(exam);
-            this.examSessionCacheService.evictDefaultSEBConfig(exam);
-            this.clientConnectionDAO
-                    .getConnectionTokens(exam.id)
-                    .getOrElse(Collections::emptyList)
-                    .forEach(token -> {
-                        // evict client connection
-                        this.examSessionCacheService.evictClientConnection(token);
-                        // evict also cached ping record
-                        this.examSessionCacheService.evictPingRecord(token);
-                    });
-
+            this.cacheInvalidationBus.invalidateExam(exam.id);
             return exam;
         });
     }
 
+    /** Listen to CacheInvalidationEvent of this and other webservice instances to evict the
+     * respective entries from the local caches.
+     * If the invalidation is published within a transaction, the entries are evicted and the default SEB exam
+     * configuration is generated in advance after the transaction has been committed, so that the generation
+     * does not read the uncommitted or former data.
+     *
+     * @param event the CacheInvalidationEvent */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void notifyCacheInvalidation(final CacheInvalidationEvent event) {
+        if (log.isDebugEnabled()) {
+            log.debug("Cache invalidation: {} {}", event.type, event.key);
+        }
+
+        try {
+            switch (event.type) {
+                case EXAM: {
+                    flushExamCache(Long.parseLong(event.key));
+                    break;
+                }
+                case CLIENT_CONNECTION: {
+                    this.examSessionCacheService.evictClientConnection(event.key);
+                    this.examSessionCacheService.evictPingRecord(event.key);
+                    break;
+                }
+                case ALL: {
+                    this.cacheManager.getCache(ExamSessionCacheService.CACHE_NAME_RUNNING_EXAM).clear();
+                    this.cacheManager.getCache(ExamSessionCacheService.CACHE_NAME_SEB_CONFIG_EXAM).clear();
+                    this.cacheManager.getCache(ExamSessionCacheService.CACHE_NAME_ACTIVE_CLIENT_CONNECTION).clear();
+                    this.cacheManager.getCache(ExamSessionCacheService.CACHE_NAME_PING_RECORD).clear();
+                    break;
+                }
+                default:
+                    log.warn("Unknown cache invalidation type: {}", event.type);
+            }
+        } catch (final Exception e) {
+            log.error("Failed to apply cache invalidation: {} {}", event.type, event.key, e);
+        }
+    }
+
+    private void flushExamCache(final Long examId) {
+        final Cache runningExams = this.cacheManager.getCache(ExamSessionCacheService.CACHE_NAME_RUNNING_EXAM);
+        final Exam exam = runningExams.get(examId, Exam.class);
+
+        runningExams.evict(examId);
+        this.cacheManager.getCache(ExamSessionCacheService.CACHE_NAME_SEB_CONFIG_EXAM).evict(examId);
+        // generate the possibly changed default SEB exam configuration in advance
+        if (exam != null) {
+            prepareDefaultExamConfig(exam);
+        }
+
+        this.clientConnectionDAO
+                .getConnectionTokens(examId)
+                .getOrElse(Collections::emptyList)
+                .forEach(token -> {
+                    // evict client connection
+                    this.examSessionCacheService.evictClientConnection(token);
+                    // evict also cached ping record
+                    this.examSessionCacheService.evictPingRecord(token);
+                });
+    }
+
+    private InMemorySEBConfig getDefaultSEBConfig(final String connectionToken) {
+        if (log.isDebugEnabled()) {
+            log.debug("SEB exam configuration download request, connectionToken: {}", connectionToken);
+        }
+
+        final ClientConnection connection = this.clientConnectionDAO
+                .byConnectionToken(connectionToken)
+                .getOrThrow();
+
+        if (connection == null) {
+            log.warn("SEB exam configuration download request, no active ClientConnection found for token: {}",
+                    connectionToken);
+            throw new AccessDeniedException("Illegal connection token. No active ClientConnection found for token");
+        }
+
+        // exam integrity check
+        if (connection.examId == null || !isExamRunning(connection.examId)) {
+            log.error("Missing exam identifier or requested exam is not running for connection: {}", connection);
+            throw new IllegalStateException("Missing exam identifier or requested exam is not running");
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Trying to get exam from InMemorySEBConfig");
+        }
+
+        final Exam exam = this.getRunningExam(connection.examId)
+                .getOrThrow();
+
+        final InMemorySEBConfig sebConfigForExam = this.examSessionCacheService
+                .getDefaultSEBConfigForExam(exam);
+
+        if (sebConfigForExam == null) {
+            log.error("Failed to get and cache InMemorySEBConfig for connection: {}", connection);
+        }
+
+        return sebConfigForExam;
+    }
+
 }
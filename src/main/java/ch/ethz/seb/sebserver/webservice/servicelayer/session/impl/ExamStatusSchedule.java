@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.apache.commons.lang3.BooleanUtils;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
+
+/** In-memory schedule of the next status transition of all active upcoming and running exams.
+ * <p>
+ * An upcoming exam is scheduled to be set running at its start time minus the exam time prefix and
+ * a running exam is scheduled to be set finished at its end time plus the exam time suffix.
+ * The scheduled transitions are held within a priority queue ordered by the time the transition is due,
+ * so that the due transitions can be taken from the head of the queue without scanning all exams.
+ * <p>
+ * There is at most one scheduled transition per exam. Updating or removing an exam replaces the transition
+ * within the exam mapping and a replaced transition is dropped from the queue when it reaches the head. */
+final class ExamStatusSchedule {
+
+    enum Transition {
+        /** Set an upcoming exam into running state */
+        RUN,
+        /** Set a running exam into finished state */
+        FINISH
+    }
+
+    static final class Entry {
+        final Long examId;
+        final Transition transition;
+        final long time;
+
+        private Entry(final Long examId, final Transition transition, final long time) {
+            this.examId = examId;
+            this.transition = transition;
+            this.time = time;
+        }
+    }
+
+    private final long examTimePrefix;
+    private final long examTimeSuffix;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(e -> e.time));
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    ExamStatusSchedule(final long examTimePrefix, final long examTimeSuffix) {
+        this.examTimePrefix = examTimePrefix;
+        this.examTimeSuffix = examTimeSuffix;
+    }
+
+    /** Schedules the next status transition of the given exam or removes the exam from the schedule
+     * if there is no status transition to schedule for the exam.
+     *
+     * @param exam the exam with the current status and times */
+    synchronized void update(final Exam exam) {
+        final Entry entry = createEntry(exam);
+        if (entry == null) {
+            remove(exam.id);
+            return;
+        }
+
+        this.entries.put(exam.id, entry);
+        this.queue.add(entry);
+        compact();
+    }
+
+    /** Removes the scheduled status transition of the exam with the given identifier if there is one.
+     *
+     * @param examId the exam identifier */
+    synchronized void remove(final Long examId) {
+        if (this.entries.remove(examId) != null) {
+            compact();
+        }
+    }
+
+    /** Replaces the whole schedule with the status transitions of the given exams.
+     *
+     * @param exams all active upcoming and running exams */
+    synchronized void reset(final Collection<Exam> exams) {
+        this.entries.clear();
+        this.queue.clear();
+        exams.forEach(this::update);
+    }
+
+    /** Takes all status transitions that are due at the given time from the schedule.
+     *
+     * @param now the current time in milliseconds
+     * @return all status transitions that are due at the given time in the order they became due */
+    synchronized List<Entry> pollDue(final long now) {
+        final List<Entry> result = new ArrayList<>();
+        while (!this.queue.isEmpty() && this.queue.peek().time <= now) {
+            final Entry entry = this.queue.poll();
+            if (this.entries.get(entry.examId) == entry) {
+                this.entries.remove(entry.examId);
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /** Get the scheduled status transition of the exam with the given identifier.
+     *
+     * @param examId the exam identifier
+     * @return the scheduled status transition or null if there is none */
+    synchronized Entry get(final Long examId) {
+        return this.entries.get(examId);
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    private Entry createEntry(final Exam exam) {
+        if (!BooleanUtils.isTrue(exam.active)) {
+            return null;
+        }
+
+        if (exam.status == ExamStatus.UP_COMING && exam.startTime != null) {
+            return new Entry(exam.id, Transition.RUN, exam.startTime.getMillis() - this.examTimePrefix);
+        }
+
+        if (exam.status == ExamStatus.RUNNING && exam.endTime != null) {
+            return new Entry(exam.id, Transition.FINISH, exam.endTime.getMillis() + this.examTimeSuffix);
+        }
+
+        return null;
+    }
+
+    // drops the replaced and removed entries from the queue if they make up the majority of the queue
+    private void compact() {
+        if (this.queue.size() > 2 * this.entries.size() + 16) {
+            this.queue.clear();
+            this.queue.addAll(this.entries.values());
+        }
+    }
+
+}
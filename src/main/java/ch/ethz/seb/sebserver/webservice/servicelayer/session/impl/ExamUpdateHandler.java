@@ -8,6 +8,13 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
@@ -18,11 +25,13 @@ import org.springframework.stereotype.Service;
 
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.SEBRestrictionService;
 
 @Lazy
@@ -34,17 +43,23 @@ class ExamUpdateHandler {
 
     private final ExamDAO examDAO;
     private final SEBRestrictionService sebRestrictionService;
+    private final LmsAPIService lmsAPIService;
+    private final ClientIndicatorValueService clientIndicatorValueService;
     private final String updatePrefix;
     private final Long examTimeSuffix;
 
     public ExamUpdateHandler(
             final ExamDAO examDAO,
             final SEBRestrictionService sebRestrictionService,
+            final LmsAPIService lmsAPIService,
+            final ClientIndicatorValueService clientIndicatorValueService,
             final WebserviceInfo webserviceInfo,
             @Value("${sebserver.webservice.api.exam.time-suffix:3600000}") final Long examTimeSuffix) {
 
         this.examDAO = examDAO;
         this.sebRestrictionService = sebRestrictionService;
+        this.lmsAPIService = lmsAPIService;
+        this.clientIndicatorValueService = clientIndicatorValueService;
         this.updatePrefix = webserviceInfo.getHostAddress()
                 + "_" + webserviceInfo.getServerPort() + "_";
         this.examTimeSuffix = examTimeSuffix;
@@ -71,6 +86,67 @@ class ExamUpdateHandler {
                 });
     }
 
+    /** Synchronizes the local quiz data snapshot of all exams that are not finished yet with the
+     * quiz data from the respective LMS. This is the only place where exam quiz data is requested from
+     * the LMS on a regular basis. All other exam lookups are served by the local snapshot.
+     * <p>
+     * If a LMS is not available, the snapshot of its exams is kept as it is and is synchronized on the next run */
+    void updateQuizData() {
+        final Map<Long, List<Exam>> examsPerLmsSetup = this.examDAO
+                .allForQuizDataSync()
+                .getOrThrow()
+                .stream()
+                .collect(Collectors.groupingBy(exam -> exam.lmsSetupId));
+
+        examsPerLmsSetup.forEach(this::updateQuizData);
+    }
+
+    private void updateQuizData(final Long lmsSetupId, final Collection<Exam> exams) {
+        try {
+
+            final Map<String, List<Exam>> examsPerQuiz = exams
+                    .stream()
+                    .collect(Collectors.groupingBy(exam -> exam.externalId));
+
+            this.lmsAPIService
+                    .getLmsAPITemplate(lmsSetupId)
+                    .map(template -> template.getQuizzes(examsPerQuiz.keySet()))
+                    .getOrThrow()
+                    .stream()
+                    .flatMap(Result::skipOnError)
+                    .forEach(quizData -> examsPerQuiz
+                            .getOrDefault(quizData.id, Collections.emptyList())
+                            .stream()
+                            .filter(exam -> quizDataChanged(exam, quizData))
+                            .forEach(exam -> this.examDAO
+                                    .updateQuizData(exam.id, quizData)
+                                    .onError(error -> log.error(
+                                            "Failed to update quiz data of exam: {}",
+                                            exam.id,
+                                            error))));
+
+        } catch (final Exception e) {
+            log.warn("Failed to synchronize quiz data of exams with LMS: {} cause: {}",
+                    lmsSetupId,
+                    e.getMessage());
+        }
+    }
+
+    private static boolean quizDataChanged(final Exam exam, final QuizData quizData) {
+        return !Objects.equals(exam.name, quizData.name)
+                || !Objects.equals(exam.description, quizData.description)
+                || !Objects.equals(exam.startURL, quizData.startURL)
+                || !isSameTime(exam.startTime, quizData.startTime)
+                || !isSameTime(exam.endTime, quizData.endTime);
+    }
+
+    private static boolean isSameTime(final DateTime time1, final DateTime time2) {
+        if (time1 == null || time2 == null) {
+            return time1 == time2;
+        }
+        return time1.isEqual(time2);
+    }
+
     Exam setRunning(final Exam exam, final String updateId) {
         if (log.isDebugEnabled()) {
             log.debug("Update exam as running: {}", exam);
@@ -102,6 +178,10 @@ class ExamUpdateHandler {
                         updateId))
                 .flatMap(this.sebRestrictionService::releaseSEBClientRestriction)
                 .flatMap(e -> this.examDAO.releaseLock(e.id, updateId))
+                .map(e -> {
+                    this.clientIndicatorValueService.evictExam(e.id);
+                    return e;
+                })
                 .onError(error -> this.examDAO.forceUnlock(exam.id))
                 .getOrThrow();
     }
@@ -8,17 +8,23 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
+import org.apache.commons.codec.digest.DigestUtils;
+
+/** The generated (zipped and encrypted) SEB exam configuration artifact of an exam that is ready to
+ * download. The entity tag is the hash of the artifact data and identifies exactly this artifact. */
 public final class InMemorySEBConfig {
 
     public final Long configId;
     public final Long examId;
     private final byte[] data;
+    private final String eTag;
 
     protected InMemorySEBConfig(final Long configId, final Long examId, final byte[] data) {
         super();
         this.configId = configId;
         this.examId = examId;
         this.data = data;
+        this.eTag = "\"" + DigestUtils.sha256Hex(data) + "\"";
     }
 
     public Long getConfigId() {
@@ -33,6 +39,10 @@ public final class InMemorySEBConfig {
         return this.data;
     }
 
+    public String getETag() {
+        return this.eTag;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
@@ -22,21 +23,29 @@ public class PingHandlingStrategyFactory {
 
     private final SingleServerPingHandler singleServerPingHandler;
     private final DistributedServerPingHandler distributedServerPingHandler;
+    private final DistributedServerBatchPingHandler distributedServerBatchPingHandler;
     private final WebserviceInfo webserviceInfo;
+    private final boolean batchStore;
 
     protected PingHandlingStrategyFactory(
             final SingleServerPingHandler singleServerPingHandler,
             final DistributedServerPingHandler distributedServerPingHandler,
-            final WebserviceInfo webserviceInfo) {
+            final DistributedServerBatchPingHandler distributedServerBatchPingHandler,
+            final WebserviceInfo webserviceInfo,
+            @Value("${sebserver.webservice.api.exam.ping.batch-store:false}") final boolean batchStore) {
 
         this.singleServerPingHandler = singleServerPingHandler;
         this.distributedServerPingHandler = distributedServerPingHandler;
+        this.distributedServerBatchPingHandler = distributedServerBatchPingHandler;
         this.webserviceInfo = webserviceInfo;
+        this.batchStore = batchStore;
     }
 
     public PingHandlingStrategy get() {
         if (this.webserviceInfo.isDistributed()) {
-            return this.distributedServerPingHandler;
+            return (this.batchStore)
+                    ? this.distributedServerBatchPingHandler
+                    : this.distributedServerPingHandler;
         } else {
             return this.singleServerPingHandler;
         }
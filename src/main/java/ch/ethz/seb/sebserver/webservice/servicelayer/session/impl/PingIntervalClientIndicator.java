@@ -15,10 +15,6 @@ import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.context.annotation.Scope;
-import org.springframework.stereotype.Component;
 
 import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.model.exam.Indicator;
@@ -29,9 +25,6 @@ import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 
-@Lazy
-@Component(IndicatorType.Names.LAST_PING)
-@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public final class PingIntervalClientIndicator extends AbstractPingIndicator {
 
     private static final Logger log = LoggerFactory.getLogger(PingIntervalClientIndicator.class);
@@ -40,8 +33,11 @@ public final class PingIntervalClientIndicator extends AbstractPingIndicator {
     boolean missingPing = false;
     boolean hidden = false;
 
-    public PingIntervalClientIndicator(final ClientEventExtensionMapper clientEventExtensionMapper) {
-        super(clientEventExtensionMapper);
+    public PingIntervalClientIndicator(
+            final ClientEventExtensionMapper clientEventExtensionMapper,
+            final ClientIndicatorValueService clientIndicatorValueService) {
+
+        super(clientEventExtensionMapper, clientIndicatorValueService);
         this.cachingEnabled = true;
         this.currentValue = computeValueAt(Utils.getMillisecondsNow());
     }
@@ -81,7 +77,7 @@ public final class PingIntervalClientIndicator extends AbstractPingIndicator {
     @Override
     public ClientEventRecord updateLogEvent() {
         final long now = DateTime.now(DateTimeZone.UTC).getMillis();
-        final long value = now - (long) super.currentValue;
+        final long value = now - getLastPingTime();
         if (this.missingPing) {
             if (this.pingErrorThreshold > value) {
                 this.missingPing = false;
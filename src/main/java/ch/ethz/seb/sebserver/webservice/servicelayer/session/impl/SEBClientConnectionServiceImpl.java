@@ -9,9 +9,12 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
 import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -22,7 +25,6 @@ import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
-import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamType;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
@@ -31,9 +33,10 @@ import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
-import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.SEBClientConfigDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationBus;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.EventHandlingStrategy;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamSessionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.PingHandlingStrategy;
@@ -56,14 +59,17 @@ public class SEBClientConnectionServiceImpl implements SEBClientConnectionServic
     private final PingHandlingStrategy pingHandlingStrategy;
     private final SEBClientConfigDAO sebClientConfigDAO;
     private final SEBInstructionService sebInstructionService;
-    private final WebserviceInfo webserviceInfo;
+    private final ClientIndicatorValueService clientIndicatorValueService;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     protected SEBClientConnectionServiceImpl(
             final ExamSessionService examSessionService,
             final EventHandlingStrategyFactory eventHandlingStrategyFactory,
             final PingHandlingStrategyFactory pingHandlingStrategyFactory,
             final SEBClientConfigDAO sebClientConfigDAO,
-            final SEBInstructionService sebInstructionService) {
+            final SEBInstructionService sebInstructionService,
+            final ClientIndicatorValueService clientIndicatorValueService,
+            final CacheInvalidationBus cacheInvalidationBus) {
 
         this.examSessionService = examSessionService;
         this.examSessionCacheService = examSessionService.getExamSessionCacheService();
@@ -73,7 +79,8 @@ public class SEBClientConnectionServiceImpl implements SEBClientConnectionServic
         this.eventHandlingStrategy = eventHandlingStrategyFactory.get();
         this.sebClientConfigDAO = sebClientConfigDAO;
         this.sebInstructionService = sebInstructionService;
-        this.webserviceInfo = sebInstructionService.getWebserviceInfo();
+        this.clientIndicatorValueService = clientIndicatorValueService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     @Override
@@ -449,9 +456,16 @@ public class SEBClientConnectionServiceImpl implements SEBClientConnectionServic
                     .filter(Objects::nonNull)
                     .filter(connection -> connection.pingIndicator != null &&
                             connection.clientConnection.status.establishedStatus)
-                    .map(connection -> connection.pingIndicator.updateLogEvent())
-                    .filter(Objects::nonNull)
-                    .forEach(this.eventHandlingStrategy);
+                    .forEach(connection -> {
+                        final ClientEventRecord record = connection.pingIndicator.updateLogEvent();
+                        if (record != null) {
+                            this.eventHandlingStrategy.accept(record);
+                            this.clientIndicatorValueService.notifyEvent(
+                                    connection.clientConnection.examId,
+                                    record.getClientConnectionId(),
+                                    record.getType());
+                        }
+                    });
 
         } catch (final Exception e) {
             log.error("Failed to update ping events: ", e);
@@ -459,13 +473,13 @@ public class SEBClientConnectionServiceImpl implements SEBClientConnectionServic
     }
 
     @Override
-    public String notifyPing(
+    public byte[] notifyPing(
             final String connectionToken,
             final long timestamp,
             final int pingNumber) {
 
         this.pingHandlingStrategy.notifyPing(connectionToken, timestamp, pingNumber);
-        return this.sebInstructionService.getInstructionJSON(connectionToken);
+        return this.sebInstructionService.getInstruction(connectionToken);
     }
 
     @Override
@@ -484,6 +498,10 @@ public class SEBClientConnectionServiceImpl implements SEBClientConnectionServic
                     activeClientConnection.getConnectionId()));
 
             // update indicators
+            this.clientIndicatorValueService.notifyEvent(
+                    activeClientConnection.clientConnection.examId,
+                    activeClientConnection.getConnectionId(),
+                    event.eventType.id);
             activeClientConnection.getIndicatorMapping(event.eventType)
                     .forEach(indicator -> indicator.notifyValueChange(event));
         } else {
@@ -491,6 +509,40 @@ public class SEBClientConnectionServiceImpl implements SEBClientConnectionServic
         }
     }
 
+    @Override
+    public void notifyClientEvents(
+            final String connectionToken,
+            final Collection<ClientEvent> events) {
+
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+
+        final ClientConnectionDataInternal activeClientConnection =
+                this.examSessionCacheService.getActiveClientConnection(connectionToken);
+
+        if (activeClientConnection != null) {
+
+            // store events
+            final Long connectionId = activeClientConnection.getConnectionId();
+            final List<ClientEventRecord> records = events
+                    .stream()
+                    .map(event -> ClientEvent.toRecord(event, connectionId))
+                    .collect(Collectors.toList());
+            this.eventHandlingStrategy.acceptAll(records);
+
+            // update indicators
+            final Long examId = activeClientConnection.clientConnection.examId;
+            events.forEach(event -> {
+                this.clientIndicatorValueService.notifyEvent(examId, connectionId, event.eventType.id);
+                activeClientConnection.getIndicatorMapping(event.eventType)
+                        .forEach(indicator -> indicator.notifyValueChange(event));
+            });
+        } else {
+            log.warn("No active ClientConnection found for connectionToken: {}", connectionToken);
+        }
+    }
+
     private void checkExamRunning(final Long examId) {
         if (examId != null && !this.examSessionService.isExamRunning(examId)) {
             examNotRunningException(examId);
@@ -594,14 +646,6 @@ public class SEBClientConnectionServiceImpl implements SEBClientConnectionServic
     }
 
     private void checkExamIntegrity(final Long examId) {
-        if (this.webserviceInfo.isDistributed()) {
-            // if the cached Exam is not up to date anymore, we have to update the cache first
-            final Result<Exam> updateExamCache = this.examSessionService.updateExamCache(examId);
-            if (updateExamCache.hasError()) {
-                log.warn("Failed to update Exam-Cache for Exam: {}", examId);
-            }
-        }
-
         // check Exam is running and not locked
         checkExamRunning(examId);
         if (this.examSessionService.isExamLocked(examId)) {
@@ -624,10 +668,8 @@ public class SEBClientConnectionServiceImpl implements SEBClientConnectionServic
     }
 
     private ClientConnectionDataInternal reloadConnectionCache(final String connectionToken) {
-        // evict cached ClientConnection
-        this.examSessionCacheService.evictClientConnection(connectionToken);
-        // evict also cached ping record
-        this.examSessionCacheService.evictPingRecord(connectionToken);
+        // evict cached ClientConnection and ping record on all webservice instances
+        this.cacheInvalidationBus.invalidateClientConnection(connectionToken);
         // and load updated ClientConnection into cache
         return this.examSessionCacheService.getActiveClientConnection(connectionToken);
     }
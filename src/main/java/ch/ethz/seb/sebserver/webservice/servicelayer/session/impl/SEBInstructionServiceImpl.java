@@ -8,18 +8,29 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import ch.ethz.seb.sebserver.SEBServerInit;
@@ -35,6 +46,14 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientInstructionDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.SEBInstructionService;
 
+/** SEBInstructionService that holds an ordered queue of pending instructions per client connection.
+ * The instructions are queued as pre-encoded JSON so that the delivery on a SEB client ping just writes the bytes.
+ * <p>
+ * Delivered instructions are deleted from the persistent storage in batches on a fixed delay.
+ * In a distributed setup, the instructions of the other webservice instances are loaded incrementally
+ * from the persistent storage by the identifier of the last loaded instruction. A full reload from time to time
+ * also gets late visible instructions and drops the instructions that have already been delivered by another
+ * webservice instance. */
 @Lazy
 @Service
 @WebServiceProfile
@@ -44,13 +63,25 @@ public class SEBInstructionServiceImpl implements SEBInstructionService {
 
     private static final String JSON_INST = "instruction";
     private static final String JSON_ATTR = "attributes";
+    /** Interval in milliseconds to fully reload the instructions in a distributed setup */
+    private static final long FULL_REFRESH_INTERVAL = 30 * Constants.SECOND_IN_MILLIS;
+    private static final Comparator<PendingInstruction> INSTRUCTION_ORDER =
+            Comparator.comparingLong(instruction -> instruction.id);
 
     private final WebserviceInfo webserviceInfo;
     private final ClientConnectionDAO clientConnectionDAO;
     private final ClientInstructionDAO clientInstructionDAO;
-    private final Map<String, ClientInstructionRecord> instructions;
+    /** The pending instructions per connection token in the order of registration */
+    private final Map<String, Queue<PendingInstruction>> instructions;
+    /** The identifiers of the pending instructions and the delivered instructions that are not deleted yet */
+    private final Set<Long> knownInstructions;
+    /** The identifiers of the delivered instructions to delete */
+    private final Queue<Long> deliveredInstructions;
+    /** The identifier of the latest loaded instruction */
+    private final AtomicLong lastInstructionId = new AtomicLong(0);
 
-    private long lastRefresh = 0;
+    private volatile long lastRefresh = 0;
+    private long lastFullRefresh = 0;
 
     public SEBInstructionServiceImpl(
             final WebserviceInfo webserviceInfo,
@@ -61,6 +92,8 @@ public class SEBInstructionServiceImpl implements SEBInstructionService {
         this.clientConnectionDAO = clientConnectionDAO;
         this.clientInstructionDAO = clientInstructionDAO;
         this.instructions = new ConcurrentHashMap<>();
+        this.knownInstructions = ConcurrentHashMap.newKeySet();
+        this.deliveredInstructions = new ConcurrentLinkedQueue<>();
     }
 
     @Override
@@ -79,9 +112,9 @@ public class SEBInstructionServiceImpl implements SEBInstructionService {
                                 "Failed  to initialize and load persistent storage SEB client instructions: ",
                                 error));
 
-        if (this.instructions.size() > 0) {
+        if (this.knownInstructions.size() > 0) {
             SEBServerInit.INIT_LOGGER.info("------> Loaded {} SEB client instructions from persistent storage",
-                    this.instructions.size());
+                    this.knownInstructions.size());
         } else {
             SEBServerInit.INIT_LOGGER.info("------> No pending SEB client instructions found on persistent storage");
         }
@@ -101,62 +134,68 @@ public class SEBInstructionServiceImpl implements SEBInstructionService {
                     .getConnectionTokens(examId)
                     .getOrElse(Collections::emptyList));
 
-            connectionTokens
+            final List<String> tokens = connectionTokens
                     .stream()
                     .filter(activeConnections::contains)
-                    .map(token -> this.clientInstructionDAO.insert(examId, type, attributesString, token))
-                    .map(result -> result.get(
-                            error -> log.error("Failed to put instruction: ", error),
-                            () -> null))
-                    .filter(Objects::nonNull)
-                    .forEach(inst -> this.instructions.putIfAbsent(inst.getConnectionToken(), inst));
+                    .collect(Collectors.toList());
+
+            if (tokens.isEmpty()) {
+                return;
+            }
+
+            this.clientInstructionDAO
+                    .insert(examId, type, attributesString, tokens)
+                    .getOrThrow()
+                    .forEach(this::putInstruction);
         });
 
     }
 
     @Override
-    public String getInstructionJSON(final String connectionToken) {
+    public byte[] getInstruction(final String connectionToken) {
         refreshCache();
         if (this.instructions.isEmpty()) {
             return null;
         }
 
-        final ClientInstructionRecord clientInstruction = this.instructions.remove(connectionToken);
-        if (clientInstruction != null) {
-            final Result<Void> delete = this.clientInstructionDAO.delete(clientInstruction.getId());
-            if (delete.hasError()) {
-                log.error("Failed to delete SEB client instruction on persistent storage: ", delete.getError());
-            }
+        final PendingInstruction instruction = pollInstruction(connectionToken);
+        if (instruction != null) {
+            // the delivered instruction is deleted on the persistent storage with the next batch
+            this.deliveredInstructions.add(instruction.id);
+            return instruction.json;
+        }
 
-            // {"instruction":"%s", "attributes":%s}
-            final String attributes = clientInstruction.getAttributes();
-            final StringBuilder sBuilder = new StringBuilder()
-                    .append(Constants.CURLY_BRACE_OPEN)
-                    .append(Constants.DOUBLE_QUOTE)
-                    .append(JSON_INST)
-                    .append(Constants.DOUBLE_QUOTE)
-                    .append(Constants.COLON)
-                    .append(Constants.DOUBLE_QUOTE)
-                    .append(clientInstruction.getType())
-                    .append(Constants.DOUBLE_QUOTE);
-
-            if (StringUtils.isNotBlank(attributes)) {
-                sBuilder.append(Constants.COMMA)
-                        .append(Constants.DOUBLE_QUOTE)
-                        .append(JSON_ATTR)
-                        .append(Constants.DOUBLE_QUOTE)
-                        .append(Constants.COLON)
-                        .append(Constants.CURLY_BRACE_OPEN)
-                        .append(attributes)
-                        .append(Constants.CURLY_BRACE_CLOSE);
-            }
+        return null;
+    }
 
-            return sBuilder
-                    .append(Constants.CURLY_BRACE_CLOSE)
-                    .toString();
+    @Scheduled(fixedDelayString = "${sebserver.webservice.api.exam.instruction.delete-interval:1000}")
+    public void deleteDeliveredInstructions() {
+        if (this.deliveredInstructions.isEmpty()) {
+            return;
         }
 
-        return null;
+        final List<Long> ids = new ArrayList<>();
+        Long id = this.deliveredInstructions.poll();
+        while (id != null) {
+            ids.add(id);
+            id = this.deliveredInstructions.poll();
+        }
+
+        this.clientInstructionDAO
+                .delete(ids)
+                .map(deleted -> forgetInstructions(ids))
+                .onError(error -> {
+                    log.error("Failed to delete {} delivered SEB client instructions on persistent storage: ",
+                            ids.size(),
+                            error);
+                    // try again with the next batch
+                    this.deliveredInstructions.addAll(ids);
+                });
+    }
+
+    private synchronized boolean forgetInstructions(final Collection<Long> ids) {
+        // synchronized with the refresh to not load the deleted instructions again
+        return this.knownInstructions.removeAll(ids);
     }
 
     private void refreshCache() {
@@ -164,21 +203,133 @@ public class SEBInstructionServiceImpl implements SEBInstructionService {
             return;
         }
 
-        final long currentTimeMillis = System.currentTimeMillis();
-        if (currentTimeMillis - this.lastRefresh > Constants.SECOND_IN_MILLIS) {
+        final long currentTimeMillis = Utils.getMillisecondsNow();
+        if (currentTimeMillis - this.lastRefresh <= Constants.SECOND_IN_MILLIS) {
+            return;
+        }
+
+        synchronized (this) {
+            if (currentTimeMillis - this.lastRefresh <= Constants.SECOND_IN_MILLIS) {
+                return;
+            }
             this.lastRefresh = currentTimeMillis;
 
-            loadInstruction()
-                    .onError(error -> log.error(
-                            "Failed load instructions from persistent storage and to refresh cache: ",
-                            error));
+            if (currentTimeMillis - this.lastFullRefresh > FULL_REFRESH_INTERVAL) {
+                this.lastFullRefresh = currentTimeMillis;
+                loadInstruction()
+                        .onError(error -> log.error(
+                                "Failed load instructions from persistent storage and to refresh cache: ",
+                                error));
+            } else {
+                this.clientInstructionDAO
+                        .getAllActive(this.lastInstructionId.get())
+                        .map(this::putInstructions)
+                        .onError(error -> log.error(
+                                "Failed load new instructions from persistent storage and to refresh cache: ",
+                                error));
+            }
         }
     }
 
-    private Result<Void> loadInstruction() {
-        return Result.tryCatch(() -> this.clientInstructionDAO.getAllActive()
-                .getOrThrow()
-                .forEach(inst -> this.instructions.putIfAbsent(inst.getConnectionToken(), inst)));
+    private synchronized Result<Void> loadInstruction() {
+        return Result.tryCatch(() -> {
+            final Collection<ClientInstructionRecord> active = this.clientInstructionDAO
+                    .getAllActive()
+                    .getOrThrow();
+
+            final long loadedId = putInstructions(active);
+
+            // drop the pending instructions that have been delivered by another webservice instance
+            final Set<Long> activeIds = active
+                    .stream()
+                    .map(ClientInstructionRecord::getId)
+                    .collect(Collectors.toSet());
+            this.instructions.keySet().forEach(token -> this.instructions.computeIfPresent(
+                    token,
+                    (t, queue) -> {
+                        queue.removeIf(inst -> {
+                            if (inst.id <= loadedId && !activeIds.contains(inst.id)) {
+                                this.knownInstructions.remove(inst.id);
+                                return true;
+                            }
+                            return false;
+                        });
+                        return queue.isEmpty() ? null : queue;
+                    }));
+        });
+    }
+
+    private long putInstructions(final Collection<ClientInstructionRecord> records) {
+        records.forEach(this::putInstruction);
+        return this.lastInstructionId.get();
+    }
+
+    private void putInstruction(final ClientInstructionRecord record) {
+        this.lastInstructionId.accumulateAndGet(record.getId(), Math::max);
+
+        if (!this.knownInstructions.add(record.getId())) {
+            return;
+        }
+
+        final PendingInstruction instruction = new PendingInstruction(record.getId(), toJSON(record));
+        this.instructions.compute(record.getConnectionToken(), (token, queue) -> {
+            final Queue<PendingInstruction> result = (queue != null)
+                    ? queue
+                    : new PriorityQueue<>(INSTRUCTION_ORDER);
+            result.add(instruction);
+            return result;
+        });
+    }
+
+    private PendingInstruction pollInstruction(final String connectionToken) {
+        final AtomicReference<PendingInstruction> next = new AtomicReference<>();
+        this.instructions.computeIfPresent(connectionToken, (token, queue) -> {
+            next.set(queue.poll());
+            return queue.isEmpty() ? null : queue;
+        });
+        return next.get();
+    }
+
+    private static byte[] toJSON(final ClientInstructionRecord clientInstruction) {
+        // {"instruction":"%s", "attributes":%s}
+        final String attributes = clientInstruction.getAttributes();
+        final StringBuilder sBuilder = new StringBuilder()
+                .append(Constants.CURLY_BRACE_OPEN)
+                .append(Constants.DOUBLE_QUOTE)
+                .append(JSON_INST)
+                .append(Constants.DOUBLE_QUOTE)
+                .append(Constants.COLON)
+                .append(Constants.DOUBLE_QUOTE)
+                .append(clientInstruction.getType())
+                .append(Constants.DOUBLE_QUOTE);
+
+        if (StringUtils.isNotBlank(attributes)) {
+            sBuilder.append(Constants.COMMA)
+                    .append(Constants.DOUBLE_QUOTE)
+                    .append(JSON_ATTR)
+                    .append(Constants.DOUBLE_QUOTE)
+                    .append(Constants.COLON)
+                    .append(Constants.CURLY_BRACE_OPEN)
+                    .append(attributes)
+                    .append(Constants.CURLY_BRACE_CLOSE);
+        }
+
+        return sBuilder
+                .append(Constants.CURLY_BRACE_CLOSE)
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** A pending instruction with its pre-encoded JSON */
+    private static final class PendingInstruction {
+
+        final long id;
+        final byte[] json;
+
+        PendingInstruction(final long id, final byte[] json) {
+            this.id = id;
+            this.json = json;
+        }
     }
 
 }
@@ -8,6 +8,8 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
+import java.util.Collection;
+
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -58,6 +60,13 @@ public class SingleEventSaveStrategy implements EventHandlingStrategy {
         }
     }
 
+    /** Saves all records of the batch within one transaction */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void acceptAll(final Collection<ClientEventRecord> records) {
+        records.forEach(this::accept);
+    }
+
     @Override
     public void enable() {
         this.enabled = true;
@@ -8,22 +8,17 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.context.annotation.Scope;
-import org.springframework.stereotype.Component;
-
 import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
 
-@Lazy
-@Component(IndicatorType.Names.WARN_COUNT)
-@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class WarnCountClientIndicator extends AbstractLogLevelCountIndicator {
 
-    protected WarnCountClientIndicator(final ClientEventRecordMapper clientEventRecordMapper) {
-        super(clientEventRecordMapper, EventType.WARN_LOG);
+    protected WarnCountClientIndicator(
+            final ClientEventRecordMapper clientEventRecordMapper,
+            final ClientIndicatorValueService clientIndicatorValueService) {
+
+        super(clientEventRecordMapper, clientIndicatorValueService, EventType.WARN_LOG);
     }
 
     @Override
@@ -21,6 +21,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -45,8 +47,10 @@ import org.springframework.security.oauth2.provider.token.UserAuthenticationConv
 import org.springframework.security.web.AuthenticationEntryPoint;
 
 import ch.ethz.seb.sebserver.WebSecurityConfig;
+import ch.ethz.seb.sebserver.gbl.api.API;
 import ch.ethz.seb.sebserver.gbl.model.user.UserRole;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.webservice.weblayer.api.ExamAPIPingFilter;
 import ch.ethz.seb.sebserver.webservice.weblayer.oauth.CachableJdbcTokenStore;
 import ch.ethz.seb.sebserver.webservice.weblayer.oauth.WebClientDetailsService;
 import ch.ethz.seb.sebserver.webservice.weblayer.oauth.WebserviceResourceConfiguration;
@@ -92,6 +96,10 @@ public class WebServiceSecurityConfig extends WebSecurityConfigurerAdapter {
     private String adminAPIEndpoint;
     @Value("${sebserver.webservice.api.exam.endpoint}")
     private String examAPIEndpoint;
+    @Value("${sebserver.webservice.api.exam.endpoint.v1}")
+    private String examAPIEndpointV1;
+    @Value("${sebserver.webservice.api.exam.ping.fast-path:true}")
+    private boolean examAPIPingFastPath;
     @Value("${management.endpoints.web.base-path}")
     private String actuatorEndpoint;
     @Value("${sebserver.webservice.http.redirect.gui}")
@@ -119,6 +127,22 @@ public class WebServiceSecurityConfig extends WebSecurityConfigurerAdapter {
         return new RemoteIpFilter();
     }
 
+    /** Registers the ExamAPIPingFilter for the SEB client ping endpoint in front of the security filter chain.
+     *
+     * @param examAPIPingFilter the ExamAPIPingFilter bean
+     * @return FilterRegistrationBean of the ExamAPIPingFilter */
+    @Bean
+    public FilterRegistrationBean<ExamAPIPingFilter> examAPIPingFilterRegistration(
+            final ExamAPIPingFilter examAPIPingFilter) {
+
+        final FilterRegistrationBean<ExamAPIPingFilter> registrationBean =
+                new FilterRegistrationBean<>(examAPIPingFilter);
+        registrationBean.addUrlPatterns(this.examAPIEndpointV1 + API.EXAM_API_PING_ENDPOINT);
+        registrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        registrationBean.setEnabled(this.examAPIPingFastPath);
+        return registrationBean;
+    }
+
     @Bean
     public AccessTokenConverter accessTokenConverter() {
         final DefaultAccessTokenConverter accessTokenConverter = new DefaultAccessTokenConverter();
@@ -30,6 +30,7 @@ import ch.ethz.seb.sebserver.gbl.model.Page;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent;
 import ch.ethz.seb.sebserver.gbl.model.session.ExtendedClientEvent;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.servicelayer.PaginationService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.AuthorizationService;
@@ -84,6 +85,8 @@ public class ClientEventController extends ReadonlyEntityController<ClientEvent,
             @RequestParam(name = Page.ATTR_PAGE_NUMBER, required = false) final Integer pageNumber,
             @RequestParam(name = Page.ATTR_PAGE_SIZE, required = false) final Integer pageSize,
             @RequestParam(name = Page.ATTR_SORT, required = false) final String sort,
+            @RequestParam(name = Page.ATTR_CURSOR, required = false) final String cursor,
+            @RequestParam(name = Page.ATTR_COUNT, required = false, defaultValue = "true") final boolean count,
             @RequestParam final MultiValueMap<String, String> allRequestParams,
             final HttpServletRequest request) {
 
@@ -100,11 +103,27 @@ public class ClientEventController extends ReadonlyEntityController<ClientEvent,
 
         try {
 
+            final String tableName = getSQLTableOfEntity().name();
+            if (cursor != null && this.paginationService.isCursorPagingSupported(tableName, sort)) {
+                return this.paginationService.getCursorPage(
+                        cursor,
+                        pageSize,
+                        sort,
+                        count,
+                        tableName,
+                        pageCursor -> this.clientEventDAO.allMatchingExtended(
+                                filterMap.withPageCursor(pageCursor),
+                                Utils.truePredicate()),
+                        this::hasReadAccess,
+                        event -> event.serverTime)
+                        .getOrThrow();
+            }
+
             return this.paginationService.getPage(
                     pageNumber,
                     pageSize,
                     sort,
-                    getSQLTableOfEntity().name(),
+                    tableName,
                     () -> this.clientEventDAO.allMatchingExtended(filterMap, this::hasReadAccess))
                     .getOrThrow();
         } catch (final Exception e) {
@@ -11,6 +11,7 @@ package ch.ethz.seb.sebserver.webservice.weblayer.api;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
@@ -124,6 +125,10 @@ public abstract class EntityController<T extends Entity, M extends Entity> {
      * @param sort the sort parameter to sort the list of entities before paging
      *            the sort parameter is the name of the entity-model attribute to sort with a leading '-' sign for
      *            descending sort order.
+     * @param cursor the continuation token of a cursor based (keyset) paging. If present and the entity supports
+     *            cursor based paging with the given sort, the page number is ignored and the page after the cursor
+     *            is returned along with the continuation token of the next page.
+     * @param count indicates if the number of pages shall be counted on the first page of a cursor based paging
      * @param allRequestParams a MultiValueMap of all request parameter that is used for filtering.
      * @return Page of domain-model-entities of specified type */
     @RequestMapping(
@@ -138,6 +143,8 @@ public abstract class EntityController<T extends Entity, M extends Entity> {
             @RequestParam(name = Page.ATTR_PAGE_NUMBER, required = false) final Integer pageNumber,
             @RequestParam(name = Page.ATTR_PAGE_SIZE, required = false) final Integer pageSize,
             @RequestParam(name = Page.ATTR_SORT, required = false) final String sort,
+            @RequestParam(name = Page.ATTR_CURSOR, required = false) final String cursor,
+            @RequestParam(name = Page.ATTR_COUNT, required = false, defaultValue = "true") final boolean count,
             @RequestParam final MultiValueMap<String, String> allRequestParams,
             final HttpServletRequest request) {
 
@@ -152,11 +159,29 @@ public abstract class EntityController<T extends Entity, M extends Entity> {
             filterMap.putIfAbsent(API.PARAM_INSTITUTION_ID, String.valueOf(institutionId));
         }
 
+        final String tableName = getSQLTableOfEntity().name();
+        final Function<T, Long> cursorValueFunction = getCursorValueFunction();
+        if (cursor != null &&
+                cursorValueFunction != null &&
+                this.paginationService.isCursorPagingSupported(tableName, sort)) {
+
+            return this.paginationService.getCursorPage(
+                    cursor,
+                    pageSize,
+                    sort,
+                    count,
+                    tableName,
+                    pageCursor -> this.entityDAO.allMatching(filterMap.withPageCursor(pageCursor)),
+                    this::hasReadAccess,
+                    cursorValueFunction)
+                    .getOrThrow();
+        }
+
         return this.paginationService.getPage(
                 pageNumber,
                 pageSize,
                 sort,
-                getSQLTableOfEntity().name(),
+                tableName,
                 () -> getAll(filterMap))
                 .getOrThrow();
     }
@@ -355,6 +380,14 @@ public abstract class EntityController<T extends Entity, M extends Entity> {
                 institutionId);
     }
 
+    /** Get the function that extracts the seek value of a given entity for cursor based (keyset) paging.
+     * Returns null by default for entities that do not support cursor based paging.
+     *
+     * @return the function that extracts the seek value of a given entity or null */
+    protected Function<T, Long> getCursorValueFunction() {
+        return null;
+    }
+
     protected Result<Collection<T>> getAll(final FilterMap filterMap) {
         return this.entityDAO.allMatching(
                 filterMap,
@@ -76,6 +76,11 @@ public class ExamAPIDiscoveryController {
                                         "seb-log-endpoint",
                                         "endpoint to send log events to while running exam",
                                         this.examAPI_V1_Endpoint + API.EXAM_API_EVENT_ENDPOINT,
+                                        "Bearer"),
+                                new ExamAPIDiscovery.Endpoint(
+                                        "seb-log-batch-endpoint",
+                                        "endpoint to send a batch of log events as JSON array or newline-delimited JSON to while running exam",
+                                        this.examAPI_V1_Endpoint + API.EXAM_API_EVENT_BATCH_ENDPOINT,
                                         "Bearer")))));
     }
 
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.weblayer.api;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.stereotype.Component;
+
+import ch.ethz.seb.sebserver.gbl.api.API;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.SEBClientConnectionService;
+import ch.ethz.seb.sebserver.webservice.weblayer.oauth.WebClientDetailsService;
+import ch.ethz.seb.sebserver.webservice.weblayer.oauth.WebserviceResourceConfiguration;
+
+/** Servlet filter that handles the SEB client ping requests of the Exam API in front of the security filter chain
+ * and the MVC dispatching.
+ * <p>
+ * The ping is by far the most frequent request of the Exam API. A ping with an access token that has already been
+ * validated is handled right here with a lookup of the token in an in-memory cache. The token is validated the same
+ * way the Exam API resource server does on the first ping and again after the configured token cache time, so a
+ * revoked token is not accepted anymore after at most this time.
+ * <p>
+ * Every request this filter is not able to handle, like a ping with an unknown or invalid access token or a
+ * malformed ping, is passed to the filter chain and takes the usual way over the security filter chain to the
+ * ExamAPI_V1_Controller. */
+@Component
+@WebServiceProfile
+public class ExamAPIPingFilter implements Filter {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamAPIPingFilter.class);
+
+    private final SEBClientConnectionService sebClientConnectionService;
+    private final TokenStore tokenStore;
+    private final WebClientDetailsService webClientDetailsService;
+    private final long tokenCacheTime;
+    /** The validated authorization header values mapped to the time until they are valid */
+    private final Map<String, Long> validTokens = new ConcurrentHashMap<>();
+
+    public ExamAPIPingFilter(
+            final SEBClientConnectionService sebClientConnectionService,
+            final TokenStore tokenStore,
+            final WebClientDetailsService webClientDetailsService,
+            @Value("${sebserver.webservice.api.exam.ping.token-cache-time:60000}") final long tokenCacheTime) {
+
+        this.sebClientConnectionService = sebClientConnectionService;
+        this.tokenStore = tokenStore;
+        this.webClientDetailsService = webClientDetailsService;
+        this.tokenCacheTime = tokenCacheTime;
+    }
+
+    @Override
+    public void doFilter(
+            final ServletRequest request,
+            final ServletResponse response,
+            final FilterChain chain) throws IOException, ServletException {
+
+        final HttpServletRequest httpRequest = (HttpServletRequest) request;
+        final String connectionToken = httpRequest.getHeader(API.EXAM_API_SEB_CONNECTION_TOKEN);
+        if (!HttpMethod.POST.matches(httpRequest.getMethod())
+                || connectionToken == null
+                || !isValidAccessToken(httpRequest.getHeader(HttpHeaders.AUTHORIZATION))) {
+
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final long timestamp;
+        final int pingNumber;
+        try {
+            final String pingNumString = httpRequest.getParameter(API.EXAM_API_PING_NUMBER);
+            timestamp = Long.parseLong(httpRequest.getParameter(API.EXAM_API_PING_TIMESTAMP));
+            pingNumber = (pingNumString != null) ? Integer.parseInt(pingNumString) : -1;
+        } catch (final NumberFormatException e) {
+            // a malformed ping is answered by the controller
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final byte[] instruction = this.sebClientConnectionService
+                .notifyPing(connectionToken, timestamp, pingNumber);
+
+        final HttpServletResponse httpResponse = (HttpServletResponse) response;
+        if (instruction == null) {
+            httpResponse.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+
+        try {
+            httpResponse.setStatus(HttpServletResponse.SC_OK);
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            httpResponse.setContentLength(instruction.length);
+            httpResponse.getOutputStream().write(instruction);
+        } catch (final IOException e) {
+            log.error("Failed to send instruction as response: {}", connectionToken, e);
+        }
+    }
+
+    /** Removes the cached access tokens that have to be validated again */
+    @Scheduled(fixedDelayString = "${sebserver.webservice.api.exam.ping.token-cache-time:60000}")
+    public void cleanupTokenCache() {
+        final long now = Utils.getMillisecondsNow();
+        this.validTokens.values().removeIf(validUntil -> validUntil <= now);
+    }
+
+    private boolean isValidAccessToken(final String authorization) {
+        if (authorization == null) {
+            return false;
+        }
+
+        final long now = Utils.getMillisecondsNow();
+        final Long validUntil = this.validTokens.get(authorization);
+        if (validUntil != null && now < validUntil) {
+            return true;
+        }
+
+        this.validTokens.remove(authorization);
+        return validateAccessToken(authorization, now);
+    }
+
+    private boolean validateAccessToken(final String authorization, final long now) {
+        if (!StringUtils.startsWithIgnoreCase(authorization, OAuth2AccessToken.BEARER_TYPE)) {
+            return false;
+        }
+
+        final String tokenValue = authorization.substring(OAuth2AccessToken.BEARER_TYPE.length()).trim();
+        if (tokenValue.isEmpty() || tokenValue.indexOf(',') >= 0) {
+            return false;
+        }
+
+        try {
+            final OAuth2AccessToken accessToken = this.tokenStore.readAccessToken(tokenValue);
+            if (accessToken == null || accessToken.isExpired()) {
+                return false;
+            }
+
+            final OAuth2Authentication authentication = this.tokenStore.readAuthentication(accessToken);
+            if (authentication == null) {
+                return false;
+            }
+
+            final Set<String> resourceIds = authentication.getOAuth2Request().getResourceIds();
+            if (resourceIds != null
+                    && !resourceIds.isEmpty()
+                    && !resourceIds.contains(WebserviceResourceConfiguration.EXAM_API_RESOURCE_ID)) {
+                return false;
+            }
+
+            // throws an exception if the client is not active anymore
+            this.webClientDetailsService.loadClientByClientId(authentication.getOAuth2Request().getClientId());
+
+            final long validUntil = (accessToken.getExpiration() != null)
+                    ? Math.min(now + this.tokenCacheTime, accessToken.getExpiration().getTime())
+                    : now + this.tokenCacheTime;
+            this.validTokens.put(authorization, validUntil);
+            return true;
+
+        } catch (final Exception e) {
+            log.warn("Failed to validate access token of SEB client ping: {}", e.getMessage());
+            return false;
+        }
+    }
+
+}
@@ -10,6 +10,7 @@ package ch.ethz.seb.sebserver.webservice.weblayer.api;
 
 import java.io.IOException;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -21,9 +22,12 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.util.MultiValueMap;
@@ -35,6 +39,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+
+import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.api.API;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage;
 import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
@@ -51,6 +58,7 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.LmsSetupDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.SEBClientConfigDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamSessionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.SEBClientConnectionService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.InMemorySEBConfig;
 
 @WebServiceProfile
 @RestController
@@ -59,12 +67,15 @@ public class ExamAPI_V1_Controller {
 
     private static final Logger log = LoggerFactory.getLogger(ExamAPI_V1_Controller.class);
 
+    private static final String ANY_ETAG = "*";
+
     private final LmsSetupDAO lmsSetupDAO;
     private final ExamSessionService examSessionService;
     private final SEBClientConnectionService sebClientConnectionService;
     private final SEBClientConfigDAO sebClientConfigDAO;
     private final JSONMapper jsonMapper;
     private final Executor executor;
+    private final int maxEventBatchSize;
 
     protected ExamAPI_V1_Controller(
             final LmsSetupDAO lmsSetupDAO,
@@ -72,7 +83,8 @@ public class ExamAPI_V1_Controller {
             final SEBClientConnectionService sebClientConnectionService,
             final SEBClientConfigDAO sebClientConfigDAO,
             final JSONMapper jsonMapper,
-            @Qualifier(AsyncServiceSpringConfig.EXAM_API_EXECUTOR_BEAN_NAME) final Executor executor) {
+            @Qualifier(AsyncServiceSpringConfig.EXAM_API_EXECUTOR_BEAN_NAME) final Executor executor,
+            @Value("${sebserver.webservice.api.exam.event.batch.max-request-size:1000}") final int maxEventBatchSize) {
 
         this.lmsSetupDAO = lmsSetupDAO;
         this.examSessionService = examSessionService;
@@ -80,6 +92,7 @@ public class ExamAPI_V1_Controller {
         this.sebClientConfigDAO = sebClientConfigDAO;
         this.jsonMapper = jsonMapper;
         this.executor = executor;
+        this.maxEventBatchSize = maxEventBatchSize;
     }
 
     @RequestMapping(
@@ -126,7 +139,7 @@ public class ExamAPI_V1_Controller {
                                 .map(this::createRunningExamInfo)
                                 .collect(Collectors.toList());
                     } else {
-                        final Exam exam = this.examSessionService.getExamDAO().byPK(examId)
+                        final Exam exam = this.examSessionService.getRunningExam(examId)
                                 .getOrThrow();
 
                         result = Arrays.asList(createRunningExamInfo(exam));
@@ -265,8 +278,9 @@ public class ExamAPI_V1_Controller {
             final HttpServletRequest request,
             final HttpServletResponse response) {
 
+        final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
         return CompletableFuture.runAsync(
-                () -> streamExamConfig(connectionToken, formParams, principal, response),
+                () -> streamExamConfig(connectionToken, formParams, principal, ifNoneMatch, response),
                 this.executor);
     }
 
@@ -281,7 +295,7 @@ public class ExamAPI_V1_Controller {
         final String timeStampString = request.getParameter(API.EXAM_API_PING_TIMESTAMP);
         final String pingNumString = request.getParameter(API.EXAM_API_PING_NUMBER);
 
-        final String instruction = this.sebClientConnectionService
+        final byte[] instruction = this.sebClientConnectionService
                 .notifyPing(
                         connectionToken,
                         Long.parseLong(timeStampString),
@@ -294,7 +308,7 @@ public class ExamAPI_V1_Controller {
 
         try {
             response.setStatus(HttpStatus.OK.value());
-            response.getOutputStream().write(instruction.getBytes());
+            response.getOutputStream().write(instruction);
         } catch (final IOException e) {
             log.error("Failed to send instruction as response: {}", connectionToken, e);
         }
@@ -313,6 +327,61 @@ public class ExamAPI_V1_Controller {
                 .notifyClientEvent(connectionToken, event);
     }
 
+    /** Accepts a batch of SEB client events either as JSON array or as newline-delimited JSON (one event per line)
+     * and hands over the whole batch within one call. */
+    @RequestMapping(
+            path = API.EXAM_API_EVENT_BATCH_ENDPOINT,
+            method = RequestMethod.POST,
+            consumes = { MediaType.APPLICATION_JSON_VALUE, API.EXAM_API_EVENT_BATCH_NDJSON_VALUE })
+    @ResponseStatus(value = HttpStatus.NO_CONTENT)
+    public void events(
+            @RequestHeader(name = API.EXAM_API_SEB_CONNECTION_TOKEN, required = true) final String connectionToken,
+            final HttpServletRequest request) {
+
+        final List<ClientEvent> events = new ArrayList<>();
+
+        // MappingIterator unwraps a root level JSON array and also reads whitespace separated JSON values
+        try (MappingIterator<ClientEvent> iterator = this.jsonMapper
+                .readerFor(ClientEvent.class)
+                .readValues(request.getInputStream())) {
+
+            while (iterator.hasNextValue()) {
+                if (events.size() >= this.maxEventBatchSize) {
+                    // stop reading, the whole batch is rejected
+                    log.warn("Client event batch for connection: {} exceeds the maximum of {} events",
+                            connectionToken,
+                            this.maxEventBatchSize);
+                    throw new APIConstraintViolationException(
+                            "Client event batch exceeds the maximum of " + this.maxEventBatchSize + " events");
+                }
+                events.add(iterator.nextValue());
+            }
+
+        } catch (final IOException e) {
+            log.warn("Failed to read client event batch for connection: {} cause: {}",
+                    connectionToken,
+                    e.getMessage());
+            throw new APIConstraintViolationException("Invalid client event batch", e);
+        }
+
+        this.sebClientConnectionService
+                .notifyClientEvents(connectionToken, events);
+    }
+
+    private static boolean matchesETag(final String ifNoneMatch, final String eTag) {
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+
+        for (final String tag : StringUtils.split(ifNoneMatch, Constants.LIST_SEPARATOR)) {
+            final String trimmed = tag.trim();
+            if (ANY_ETAG.equals(trimmed) || eTag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Long getInstitutionId(final Principal principal) {
         final String clientId = principal.getName();
         return this.sebClientConfigDAO.byClientName(clientId)
@@ -331,6 +400,7 @@ public class ExamAPI_V1_Controller {
             final String connectionToken,
             final MultiValueMap<String, String> formParams,
             final Principal principal,
+            final String ifNoneMatch,
             final HttpServletResponse response) {
 
         try {
@@ -353,6 +423,7 @@ public class ExamAPI_V1_Controller {
             }
 
             final ServletOutputStream outputStream = response.getOutputStream();
+            final Exam runningExam;
 
             try {
 
@@ -361,9 +432,10 @@ public class ExamAPI_V1_Controller {
                         .getOrThrow();
 
                 // exam integrity check
-                if (connection.clientConnection.examId == null ||
-                        !this.examSessionService.isExamRunning(connection.clientConnection.examId)) {
-
+                runningExam = (connection.clientConnection.examId != null)
+                        ? this.examSessionService.getRunningExam(connection.clientConnection.examId).getOr(null)
+                        : null;
+                if (runningExam == null) {
                     log.error("Missing exam identifier or requested exam is not running for connection: {}",
                             connection);
                     throw new IllegalStateException("Missing exam identifier or requested exam is not running");
@@ -382,11 +454,18 @@ public class ExamAPI_V1_Controller {
 
             try {
 
-                this.examSessionService
-                        .streamDefaultExamConfig(
-                                connectionToken,
-                                outputStream);
+                final InMemorySEBConfig sebConfig = this.examSessionService
+                        .getDefaultExamConfig(runningExam)
+                        .getOrThrow();
+
+                // if the SEB client has already the current configuration artifact, there is no need to send it again
+                response.setHeader(HttpHeaders.ETAG, sebConfig.getETag());
+                if (matchesETag(ifNoneMatch, sebConfig.getETag())) {
+                    response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                    return;
+                }
 
+                outputStream.write(sebConfig.getData());
                 response.setStatus(HttpStatus.OK.value());
 
             } catch (final Exception e) {
@@ -137,6 +137,8 @@ public class ExamAdministrationController extends EntityController<Exam, Exam> {
             @RequestParam(name = Page.ATTR_PAGE_NUMBER, required = false) final Integer pageNumber,
             @RequestParam(name = Page.ATTR_PAGE_SIZE, required = false) final Integer pageSize,
             @RequestParam(name = Page.ATTR_SORT, required = false) final String sort,
+            @RequestParam(name = Page.ATTR_CURSOR, required = false) final String cursor,
+            @RequestParam(name = Page.ATTR_COUNT, required = false, defaultValue = "true") final boolean count,
             @RequestParam final MultiValueMap<String, String> allRequestParams,
             final HttpServletRequest request) {
 
@@ -148,7 +150,15 @@ public class ExamAdministrationController extends EntityController<Exam, Exam> {
         if (StringUtils.isBlank(sort) ||
                 this.paginationService.isNativeSortingSupported(ExamRecordDynamicSqlSupport.examRecord, sort)) {
 
-            return super.getPage(institutionId, pageNumber, pageSize, sort, allRequestParams, request);
+            return super.getPage(
+                    institutionId,
+                    pageNumber,
+                    pageSize,
+                    sort,
+                    cursor,
+                    count,
+                    allRequestParams,
+                    request);
 
         } else {
 
@@ -13,6 +13,7 @@ import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
@@ -41,6 +42,7 @@ import ch.ethz.seb.sebserver.gbl.model.Page;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataChanges;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientInstruction;
 import ch.ethz.seb.sebserver.gbl.model.user.UserRole;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
@@ -176,20 +178,46 @@ public class ExamMonitoringController {
                     this.authorization.getUserService().getCurrentUser().getUserInfo());
         }
 
-        final EnumSet<ConnectionStatus> filterStates = EnumSet.noneOf(ConnectionStatus.class);
-        if (StringUtils.isNoneBlank(hiddenStates)) {
-            final String[] split = StringUtils.split(hiddenStates, Constants.LIST_SEPARATOR);
-            for (int i = 0; i < split.length; i++) {
-                filterStates.add(ConnectionStatus.valueOf(split[0]));
-            }
+        return this.examSessionService
+                .getConnectionData(
+                        examId,
+                        hiddenStatesFilter(hiddenStates))
+                .getOrThrow();
+    }
+
+    @RequestMapping(
+            path = API.MODEL_ID_VAR_PATH_SEGMENT + API.EXAM_MONITORING_CHANGES_ENDPOINT,
+            method = RequestMethod.GET,
+            consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ClientConnectionDataChanges getConnectionDataChanges(
+            @RequestParam(
+                    name = API.PARAM_INSTITUTION_ID,
+                    required = true,
+                    defaultValue = UserService.USERS_INSTITUTION_AS_DEFAULT) final Long institutionId,
+            @PathVariable(name = API.PARAM_MODEL_ID, required = true) final Long examId,
+            @RequestHeader(name = API.EXAM_MONITORING_SINCE_VERSION, required = false) final String sinceVersion,
+            @RequestHeader(name = API.EXAM_MONITORING_STATE_FILTER, required = false) final String hiddenStates) {
+
+        // check overall privilege
+        this.authorization.checkRole(
+                institutionId,
+                EntityType.EXAM,
+                UserRole.EXAM_SUPPORTER);
+
+        // check running exam privilege for specified exam
+        if (!hasRunningExamPrivilege(examId, institutionId)) {
+            throw new PermissionDeniedException(
+                    EntityType.EXAM,
+                    PrivilegeType.READ,
+                    this.authorization.getUserService().getCurrentUser().getUserInfo());
         }
 
         return this.examSessionService
-                .getConnectionData(
+                .getConnectionDataChanges(
                         examId,
-                        filterStates.isEmpty()
-                                ? Objects::nonNull
-                                : conn -> conn != null && !filterStates.contains(conn.clientConnection.status))
+                        sinceVersion,
+                        hiddenStatesFilter(hiddenStates))
                 .getOrThrow();
     }
 
@@ -269,6 +297,20 @@ public class ExamMonitoringController {
 
     }
 
+    private static Predicate<ClientConnectionData> hiddenStatesFilter(final String hiddenStates) {
+        final EnumSet<ConnectionStatus> filterStates = EnumSet.noneOf(ConnectionStatus.class);
+        if (StringUtils.isNoneBlank(hiddenStates)) {
+            final String[] split = StringUtils.split(hiddenStates, Constants.LIST_SEPARATOR);
+            for (int i = 0; i < split.length; i++) {
+                filterStates.add(ConnectionStatus.valueOf(split[i]));
+            }
+        }
+
+        return filterStates.isEmpty()
+                ? Objects::nonNull
+                : conn -> conn != null && !filterStates.contains(conn.clientConnection.status);
+    }
+
     private boolean hasRunningExamPrivilege(final Long examId, final Long institution) {
         return hasRunningExamPrivilege(
                 this.examSessionService.getRunningExam(examId).getOr(null),
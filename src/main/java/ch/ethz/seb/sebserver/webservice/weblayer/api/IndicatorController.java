@@ -9,6 +9,8 @@
 package ch.ethz.seb.sebserver.webservice.weblayer.api;
 
 import org.mybatis.dynamic.sql.SqlTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -37,6 +39,8 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.validation.BeanValidationSe
 @RequestMapping("${sebserver.webservice.api.admin.endpoint}" + API.EXAM_INDICATOR_ENDPOINT)
 public class IndicatorController extends EntityController<Indicator, Indicator> {
 
+    private static final Logger log = LoggerFactory.getLogger(IndicatorController.class);
+
     private final ExamDAO examDao;
     private final ExamSessionService examSessionService;
 
@@ -124,8 +128,15 @@ public class IndicatorController extends EntityController<Indicator, Indicator>
     private void flushExamSessionCaches(final Indicator entity) {
         if (this.examSessionService.isExamRunning(entity.examId)) {
             this.examSessionService.flushCache(this.examSessionService.getRunningExam(entity.examId).getOrThrow());
+        } else {
+            // the compiled indicators of the exam may still be cached from a former run of the exam
+            this.examDao
+                    .byPK(entity.examId)
+                    .flatMap(this.examSessionService::flushCache)
+                    .onError(error -> log.error("Failed to flush the exam session caches of exam: {}",
+                            entity.examId,
+                            error));
         }
-
     }
 
 }
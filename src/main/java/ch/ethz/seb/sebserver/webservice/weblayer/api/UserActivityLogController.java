@@ -8,6 +8,8 @@
 
 package ch.ethz.seb.sebserver.webservice.weblayer.api;
 
+import java.util.function.Function;
+
 import org.mybatis.dynamic.sql.SqlTable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -68,6 +70,11 @@ public class UserActivityLogController extends ReadonlyEntityController<UserActi
         return UserActivityLogRecordDynamicSqlSupport.userActivityLogRecord;
     }
 
+    @Override
+    protected Function<UserActivityLog, Long> getCursorValueFunction() {
+        return log -> log.timestamp;
+    }
+
     private void checkRead(final Long institutionId) {
         this.authorization.check(
                 PrivilegeType.READ,
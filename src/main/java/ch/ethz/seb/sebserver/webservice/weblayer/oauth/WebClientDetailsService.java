@@ -10,7 +10,10 @@ package ch.ethz.seb.sebserver.webservice.weblayer.oauth;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.oauth2.provider.ClientDetails;
 import org.springframework.security.oauth2.provider.ClientDetailsService;
@@ -19,28 +22,49 @@ import org.springframework.stereotype.Component;
 
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ClientConfigService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent.Type;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /** A ClientDetailsService to manage different API clients of SEB Server webservice API.
  *
  * Currently supporting two client types for the two different API's on
  * SEB Server webservice;
  * - Administration API for administrative purpose using password grant type with refresh token
- * - Exam API for SEB-Client connections on running exams using client_credential grant type */
+ * - Exam API for SEB-Client connections on running exams using client_credential grant type
+ * <p>
+ * The ClientDetails of the Exam API clients are cached per client name within the EXAM_CLIENT_DETAILS_CACHE
+ * to not decrypt and encode the client secret on every token request. The ClientDetails of a client name
+ * are loaded only once also if many SEB clients request a token at the same time and the cache is evicted
+ * on every SEBClientConfig change of this or another webservice instance. The latency of loading ClientDetails
+ * on cache miss is recorded with the metric sebserver.oauth.client.details.load while the cache hit ratio is
+ * exposed with the cache metrics. */
 @Lazy
 @Component
 public class WebClientDetailsService implements ClientDetailsService {
 
     private static final Logger log = LoggerFactory.getLogger(WebClientDetailsService.class);
 
+    public static final String METRIC_CLIENT_DETAILS_LOAD = "sebserver.oauth.client.details.load";
+
     private final ClientConfigService sebClientConfigService;
     private final AdminAPIClientDetails adminClientDetails;
+    private final Cache clientDetailsCache;
+    private final Timer clientDetailsLoadTimer;
 
     public WebClientDetailsService(
             final AdminAPIClientDetails adminClientDetails,
-            final ClientConfigService sebClientConfigService) {
+            final ClientConfigService sebClientConfigService,
+            final CacheManager cacheManager,
+            final MeterRegistry meterRegistry) {
 
         this.adminClientDetails = adminClientDetails;
         this.sebClientConfigService = sebClientConfigService;
+        this.clientDetailsCache = cacheManager.getCache(ClientConfigService.EXAM_CLIENT_DETAILS_CACHE);
+        this.clientDetailsLoadTimer = Timer.builder(METRIC_CLIENT_DETAILS_LOAD)
+                .description("Latency of loading the ClientDetails of a SEB client on cache miss")
+                .register(meterRegistry);
     }
 
     /** Load a client by the client id. This method must not return null.
@@ -71,8 +95,29 @@ public class WebClientDetailsService implements ClientDetailsService {
                 });
     }
 
+    /** Listen to CacheInvalidationEvent of this and other webservice instances to evict the
+     * cached ClientDetails of the SEB clients
+     *
+     * @param event the CacheInvalidationEvent */
+    @EventListener
+    public void notifyCacheInvalidation(final CacheInvalidationEvent event) {
+        if (event.type == Type.CLIENT_DETAILS || event.type == Type.ALL) {
+            this.clientDetailsCache.clear();
+        }
+    }
+
     protected Result<ClientDetails> getForExamClientAPI(final String clientId) {
-        return this.sebClientConfigService.getClientConfigDetails(clientId);
+        try {
+            // loads the ClientDetails of a client name only once on concurrent cache misses.
+            // Errors are not cached.
+            return Result.of(this.clientDetailsCache.get(
+                    clientId,
+                    () -> this.clientDetailsLoadTimer.recordCallable(() -> this.sebClientConfigService
+                            .getClientConfigDetails(clientId)
+                            .getOrThrow())));
+        } catch (final Cache.ValueRetrievalException e) {
+            return Result.ofError((e.getCause() instanceof Exception) ? (Exception) e.getCause() : e);
+        }
     }
 
 }
@@ -0,0 +1,9 @@
+-- -----------------------------------------------------
+-- Local snapshot of the LMS quiz data of an exam
+-- -----------------------------------------------------
+ALTER TABLE `exam`
+    ADD COLUMN `quiz_name` VARCHAR(255) NULL,
+    ADD COLUMN `quiz_description` TEXT NULL,
+    ADD COLUMN `quiz_start_time` DATETIME NULL,
+    ADD COLUMN `quiz_end_time` DATETIME NULL,
+    ADD COLUMN `quiz_start_url` VARCHAR(4000) NULL;
@@ -0,0 +1,21 @@
+-- -----------------------------------------------------
+-- Table `client_event_count`
+-- Shared aggregate of the number of client events per
+-- client connection and event type
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `client_event_count` (
+  `client_connection_id` BIGINT UNSIGNED NOT NULL,
+  `type` INT(2) UNSIGNED NOT NULL,
+  `event_count` BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (`client_connection_id`, `type`))
+;
+
+-- -----------------------------------------------------
+-- Seed the aggregate from the existing client events
+-- -----------------------------------------------------
+INSERT INTO `client_event_count` (`client_connection_id`, `type`, `event_count`)
+    SELECT `client_connection_id`, `type`, COUNT(*)
+    FROM `client_event`
+    WHERE `type` <> 5
+    GROUP BY `client_connection_id`, `type`
+;
@@ -0,0 +1,9 @@
+-- -----------------------------------------------------
+-- Table `configuration_key`
+-- Persisted Config-Key of a stable configuration version
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `configuration_key` (
+  `configuration_id` BIGINT UNSIGNED NOT NULL,
+  `config_key` VARCHAR(255) NOT NULL,
+  PRIMARY KEY (`configuration_id`))
+;
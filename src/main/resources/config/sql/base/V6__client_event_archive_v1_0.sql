@@ -0,0 +1,17 @@
+-- -----------------------------------------------------
+-- Table `client_event_archive`
+-- Compressed archive of the client events of finished exams.
+-- The events keep the identifier of the client_event table
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `client_event_archive` (
+  `id` BIGINT UNSIGNED NOT NULL,
+  `client_connection_id` BIGINT UNSIGNED NOT NULL,
+  `type` INT(2) UNSIGNED NOT NULL,
+  `client_time` BIGINT UNSIGNED NOT NULL,
+  `server_time` BIGINT NOT NULL,
+  `numeric_value` DECIMAL(10,4) NULL,
+  `text` VARCHAR(512) NULL,
+  PRIMARY KEY (`id`),
+  INDEX `eventArchiveConnectionRef_idx` (`client_connection_id` ASC))
+  ROW_FORMAT = COMPRESSED
+;
@@ -0,0 +1,8 @@
+-- -----------------------------------------------------
+-- Lease based leader election of the webservice
+-- instances of a distributed setup
+-- -----------------------------------------------------
+ALTER TABLE `webservice_server_info`
+    MODIFY COLUMN `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    ADD COLUMN `master` INT(1) NOT NULL DEFAULT 0,
+    ADD COLUMN `update_time` BIGINT UNSIGNED NOT NULL DEFAULT 0;
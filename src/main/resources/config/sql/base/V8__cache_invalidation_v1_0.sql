@@ -0,0 +1,14 @@
+-- -----------------------------------------------------
+-- Table `cache_invalidation`
+-- Change log of cache invalidations that is polled by
+-- the webservice instances of a distributed setup
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `cache_invalidation` (
+  `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  `type` VARCHAR(45) NOT NULL,
+  `entity_key` VARCHAR(255) NULL,
+  `origin` VARCHAR(255) NOT NULL,
+  `event_time` BIGINT UNSIGNED NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `cacheInvalidationTime_idx` (`event_time` ASC))
+;
@@ -0,0 +1,8 @@
+-- -----------------------------------------------------
+-- Reservation of the Config-Key computation of a
+-- configuration version that is deleted together with
+-- the Config-Key on any change of the configuration values
+-- -----------------------------------------------------
+ALTER TABLE `configuration_key`
+    MODIFY COLUMN `config_key` VARCHAR(255) NULL,
+    ADD COLUMN `reservation` VARCHAR(45) NULL;
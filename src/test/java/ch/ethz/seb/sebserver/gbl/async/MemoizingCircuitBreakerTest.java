@@ -23,6 +23,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import ch.ethz.seb.sebserver.gbl.async.CircuitBreaker.State;
+import ch.ethz.seb.sebserver.gbl.async.MemoizingCircuitBreaker.CacheState;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 
 @RunWith(SpringRunner.class)
@@ -110,6 +111,51 @@ public class MemoizingCircuitBreakerTest {
         assertTrue(result.hasError());
     }
 
+    @Test
+    public void staleWhileRevalidate() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger(0);
+        final MemoizingCircuitBreaker<String> circuitBreaker = this.asyncService.createMemoizingCircuitBreaker(
+                () -> {
+                    try {
+                        Thread.sleep(200);
+                    } catch (final InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                    return "Hello " + calls.incrementAndGet();
+                }, 3, 1000, 1000, true, 10000, 300);
+
+        assertEquals(CacheState.EMPTY, circuitBreaker.getCacheState());
+        assertEquals(-1, circuitBreaker.getCacheAge());
+
+        // first call loads synchronously
+        Result<String> result = circuitBreaker.get();
+        assertEquals("Hello 1", result.get());
+        assertEquals(CacheState.FRESH, circuitBreaker.getCacheState());
+
+        // fresh result is served from cache
+        result = circuitBreaker.get();
+        assertEquals("Hello 1", result.get());
+        assertEquals(1, calls.get());
+
+        // stale result is served immediately and refreshed once in the background
+        Thread.sleep(400);
+        assertEquals(CacheState.STALE, circuitBreaker.getCacheState());
+        assertTrue(circuitBreaker.getCacheAge() >= 400);
+        final long start = System.currentTimeMillis();
+        result = circuitBreaker.get();
+        assertEquals("Hello 1", result.get());
+        assertEquals("Hello 1", circuitBreaker.get().get());
+        assertEquals("Hello 1", circuitBreaker.get().get());
+        assertTrue(System.currentTimeMillis() - start < 200);
+        assertTrue(circuitBreaker.isRefreshing());
+
+        Thread.sleep(400);
+        assertFalse(circuitBreaker.isRefreshing());
+        assertEquals(2, calls.get());
+        assertEquals(CacheState.FRESH, circuitBreaker.getCacheState());
+        assertEquals("Hello 2", circuitBreaker.get().get());
+    }
+
     private Supplier<String> tester(final long delay, final int unavailableAfter, final int unavailableUntil) {
         final AtomicInteger count = new AtomicInteger(0);
         final AtomicBoolean wasUnavailable = new AtomicBoolean(false);
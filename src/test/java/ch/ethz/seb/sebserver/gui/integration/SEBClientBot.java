@@ -13,6 +13,7 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -68,6 +69,8 @@ public class SEBClientBot {
     private static final String EXAM_API_PING_TIMESTAMP = "timestamp";
     private static final String EXAM_API_PING_NUMBER = "ping-number";
     private static final String EXAM_API_EVENT_ENDPOINT = "/seblog";
+    private static final String EXAM_API_EVENT_BATCH_ENDPOINT = "/seblog/batch";
+    private static final String EXAM_API_EVENT_BATCH_NDJSON_VALUE = "application/x-ndjson";
 
     private static final long ONE_SECOND = 1000; // milliseconds
     static final long TEN_SECONDS = 10 * ONE_SECOND;
@@ -98,6 +101,8 @@ public class SEBClientBot {
     long warnInterval = ONE_SECOND / 2;
     long runtime = ONE_SECOND * 2;
     int connectionAttempts = 1;
+    // if greater then one, the events are collected and sent in batches of this size
+    int eventBatchSize = 1;
 
     public SEBClientBot(final ClientCredentials credentials, final String examId, final String instId)
             throws Exception {
@@ -146,8 +151,14 @@ public class SEBClientBot {
         private final String eventURI = SEBClientBot.this.webserviceAddress +
                 SEBClientBot.this.apiPath + "/" +
                 SEBClientBot.this.apiVersion + EXAM_API_EVENT_ENDPOINT;
+        private final String eventBatchURI = SEBClientBot.this.webserviceAddress +
+                SEBClientBot.this.apiPath + "/" +
+                SEBClientBot.this.apiVersion + EXAM_API_EVENT_BATCH_ENDPOINT;
 
         private final HttpEntity<?> connectBody;
+        private final List<String> eventBatch = new ArrayList<>();
+        private int eventCount = 0;
+        private int eventRequestCount = 0;
 
         protected ConnectionBot(final String name) {
             this.name = name;
@@ -246,6 +257,13 @@ public class SEBClientBot {
                         log.error("ConnectionBot {} : Error sending events: ", this.name, t);
                         throw new RuntimeException("ConnectionBot {} : Error sending events: ");
                     } finally {
+                        if (!this.eventBatch.isEmpty()) {
+                            sendEventBatch(connectionToken);
+                        }
+                        log.info("ConnectionBot {} : sent {} events within {} requests",
+                                this.name,
+                                this.eventCount,
+                                this.eventRequestCount);
                         disconnect(connectionToken);
                     }
                 }
@@ -399,6 +417,15 @@ public class SEBClientBot {
         }
 
         private boolean sendEvent(final HttpEntity<String> eventHeader) {
+            this.eventCount++;
+            if (SEBClientBot.this.eventBatchSize > 1) {
+                this.eventBatch.add(eventHeader.getBody());
+                if (this.eventBatch.size() < SEBClientBot.this.eventBatchSize) {
+                    return true;
+                }
+                return sendEventBatch(eventHeader.getHeaders().getFirst(EXAM_API_SEB_CONNECTION_TOKEN));
+            }
+
             try {
 
                 this.restTemplate.exchange(
@@ -408,6 +435,7 @@ public class SEBClientBot {
                         new ParameterizedTypeReference<String>() {
                         });
 
+                this.eventRequestCount++;
                 return true;
             } catch (final Exception e) {
                 log.error("ConnectionBot {} : Failed send event", this.name, e);
@@ -415,6 +443,30 @@ public class SEBClientBot {
             }
         }
 
+        private boolean sendEventBatch(final String connectionToken) {
+            final MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+            headers.set(HttpHeaders.CONTENT_TYPE, EXAM_API_EVENT_BATCH_NDJSON_VALUE);
+            headers.set(EXAM_API_SEB_CONNECTION_TOKEN, connectionToken);
+            final HttpEntity<String> batchEntity = new HttpEntity<>(String.join("\n", this.eventBatch), headers);
+            this.eventBatch.clear();
+
+            try {
+
+                this.restTemplate.exchange(
+                        this.eventBatchURI,
+                        HttpMethod.POST,
+                        batchEntity,
+                        new ParameterizedTypeReference<String>() {
+                        });
+
+                this.eventRequestCount++;
+                return true;
+            } catch (final Exception e) {
+                log.error("ConnectionBot {} : Failed send event batch", this.name, e);
+                throw new RuntimeException();
+            }
+        }
+
         public boolean disconnect(final String connectionToken) {
             final MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
             headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE);
@@ -1814,7 +1814,7 @@ public class UseCasesIntegrationTest extends GuiIntegrationTest {
         assertNull(templateValue.value);
 
         final ConfigurationValue newValue = new ConfigurationValue(
-                templateValue.id, templateValue.institutionId, savedTAttribute.getTemplateId(),
+                templateValue.id, templateValue.institutionId, templateValue.configurationId,
                 templateValue.attributeId, 0, "123");
         final ConfigurationValue newTemplValue = restService
                 .getBuilder(SaveExamConfigValue.class)
@@ -44,6 +44,45 @@ public class UserActivityLogAPITest extends AdministrationAPIIntegrationTester {
         assertTrue(5 == logs.content.size());
     }
 
+    @Test
+    public void getCursorPagesAsSEBAdmin() throws Exception {
+        final String token = getSebAdminAccess();
+        Page<UserActivityLog> logs = getCursorPage(token, Page.FIRST_PAGE_CURSOR);
+
+        assertEquals("[5, 4]", getOrderedUUIDs(logs.content));
+        assertEquals(1, logs.getPageNumber());
+        assertEquals(3, logs.getNumberOfPages());
+        assertNotNull(logs.cursor);
+
+        logs = getCursorPage(token, logs.cursor);
+        assertEquals("[3, 2]", getOrderedUUIDs(logs.content));
+        assertEquals(2, logs.getPageNumber());
+        assertEquals(3, logs.getNumberOfPages());
+        assertNotNull(logs.cursor);
+
+        logs = getCursorPage(token, logs.cursor);
+        assertEquals("[1]", getOrderedUUIDs(logs.content));
+        assertEquals(3, logs.getPageNumber());
+        assertNull(logs.cursor);
+
+        // an invalid cursor starts again on the first page
+        logs = getCursorPage(token, "invalid");
+        assertEquals("[5, 4]", getOrderedUUIDs(logs.content));
+        assertEquals(1, logs.getPageNumber());
+    }
+
+    private Page<UserActivityLog> getCursorPage(final String token, final String cursor) throws Exception {
+        return this.jsonMapper.readValue(
+                this.mockMvc.perform(get(this.endpoint + API.USER_ACTIVITY_LOG_ENDPOINT
+                        + "?page_size=2&sort=-timestamp&cursor=" + cursor)
+                                .header("Authorization", "Bearer " + token)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString(),
+                new TypeReference<Page<UserActivityLog>>() {
+                });
+    }
+
     @Test
     public void getAllAsInstAdmin2ForUser() throws Exception {
         final String token = getAdminInstitution2Access();
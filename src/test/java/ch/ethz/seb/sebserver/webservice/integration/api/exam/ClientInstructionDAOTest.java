@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.integration.api.exam;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientInstruction.InstructionType;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientInstructionRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientInstructionDAO;
+
+@Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+public class ClientInstructionDAOTest extends ExamAPIIntegrationTester {
+
+    @Autowired
+    private ClientInstructionDAO clientInstructionDAO;
+    @Autowired
+    private ClientConnectionDAO clientConnectionDAO;
+
+    @Test
+    public void testInsertMultipleAndDelete() {
+        final List<String> tokens = Arrays.asList("token1", "token2", "token3");
+        tokens.forEach(token -> this.clientConnectionDAO.createNew(new ClientConnection(
+                null, 1L, 2L, ConnectionStatus.ACTIVE, token, "user", "", "", 1L))
+                .getOrThrow());
+        final Collection<ClientInstructionRecord> inserted = this.clientInstructionDAO
+                .insert(2L, InstructionType.SEB_QUIT, "", tokens)
+                .getOrThrow();
+
+        assertEquals(3, inserted.size());
+        assertEquals(tokens, inserted.stream()
+                .map(ClientInstructionRecord::getConnectionToken)
+                .collect(Collectors.toList()));
+        final List<Long> ids = inserted.stream()
+                .map(ClientInstructionRecord::getId)
+                .collect(Collectors.toList());
+        assertTrue(ids.stream().allMatch(id -> id != null));
+
+        // incremental load after the first instruction
+        final Collection<ClientInstructionRecord> after = this.clientInstructionDAO
+                .getAllActive(ids.get(0))
+                .getOrThrow();
+        assertEquals(ids.subList(1, 3), after.stream()
+                .map(ClientInstructionRecord::getId)
+                .collect(Collectors.toList()));
+
+        assertEquals(Integer.valueOf(3), this.clientInstructionDAO.delete(new ArrayList<>(ids)).getOrThrow());
+        assertTrue(this.clientInstructionDAO.getAllActive().getOrThrow().isEmpty());
+    }
+
+}
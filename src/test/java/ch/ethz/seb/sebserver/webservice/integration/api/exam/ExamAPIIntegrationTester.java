@@ -31,6 +31,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -54,6 +55,7 @@ import ch.ethz.seb.sebserver.WebSecurityConfig;
 import ch.ethz.seb.sebserver.gbl.api.API;
 import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ClientConfigService;
+import ch.ethz.seb.sebserver.webservice.weblayer.api.ExamAPIPingFilter;
 import ch.ethz.seb.sebserver.webservice.weblayer.oauth.AdminAPIClientDetails;
 import ch.ethz.seb.sebserver.webservice.weblayer.oauth.WebClientDetailsService;
 import ch.ethz.seb.sebserver.webservice.weblayer.oauth.WebserviceResourceConfiguration;
@@ -76,6 +78,8 @@ public abstract class ExamAPIIntegrationTester {
     protected JSONMapper jsonMapper;
     @Autowired
     protected FilterChainProxy springSecurityFilterChain;
+    @Autowired
+    protected ExamAPIPingFilter examAPIPingFilter;
 
     protected MockMvc mockMvc;
 
@@ -88,6 +92,7 @@ public abstract class ExamAPIIntegrationTester {
     @Before
     public void setup() {
         this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac)
+                .addFilter(this.examAPIPingFilter, this.endpoint + API.EXAM_API_PING_ENDPOINT)
                 .addFilter(this.springSecurityFilterChain).build();
         Mockito.when(this.webClientDetailsService.loadClientByClientId(Mockito.anyString())).thenReturn(
                 getForExamClientAPI());
@@ -285,11 +290,38 @@ public abstract class ExamAPIIntegrationTester {
         return result.andReturn().getResponse();
     }
 
+    protected MockHttpServletResponse sendEvents(
+            final String accessToken,
+            final String connectionToken,
+            final String contentType,
+            final String body) throws Exception {
+
+        final MockHttpServletRequestBuilder builder = post(this.endpoint + API.EXAM_API_EVENT_BATCH_ENDPOINT)
+                .header("Content-Type", contentType)
+                .header("Authorization", "Bearer " + accessToken)
+                .header(API.EXAM_API_SEB_CONNECTION_TOKEN, connectionToken)
+                .accept(MediaType.APPLICATION_JSON_UTF8_VALUE);
+
+        builder.content(body);
+        final ResultActions result = this.mockMvc
+                .perform(builder);
+        return result.andReturn().getResponse();
+    }
+
     protected MockHttpServletResponse getExamConfig(
             final String accessToken,
             final String connectionToken,
             final Long examId) throws Exception {
 
+        return getExamConfig(accessToken, connectionToken, examId, null);
+    }
+
+    protected MockHttpServletResponse getExamConfig(
+            final String accessToken,
+            final String connectionToken,
+            final Long examId,
+            final String ifNoneMatch) throws Exception {
+
         final MockHttpServletRequestBuilder builder = get(this.endpoint + API.EXAM_API_CONFIGURATION_REQUEST_ENDPOINT)
                 .header("Content-Type", MediaType.APPLICATION_FORM_URLENCODED_VALUE)
                 .header("Authorization", "Bearer " + accessToken)
@@ -300,6 +332,10 @@ public abstract class ExamAPIIntegrationTester {
             builder.content("examId=" + examId);
         }
 
+        if (ifNoneMatch != null) {
+            builder.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+
         final MvcResult mvcResult = this.mockMvc
                 .perform(builder)
                 .andExpect(request().asyncStarted())
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.integration.api.exam;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ExamRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ExamRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
+
+@Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+public class ExamQuizDataSnapshotTest extends ExamAPIIntegrationTester {
+
+    @Autowired
+    private ExamDAO examDAO;
+    @Autowired
+    private ExamRecordMapper examRecordMapper;
+
+    /** The LMS is not available within this test */
+    @MockBean
+    private LmsAPIService lmsAPIService;
+
+    @Before
+    public void initLmsAPIService() {
+        Mockito.when(this.lmsAPIService.getLmsAPITemplate(Mockito.anyString()))
+                .thenReturn(Result.ofError(new RuntimeException("LMS not available")));
+        Mockito.when(this.lmsAPIService.getLmsAPITemplate(Mockito.anyLong()))
+                .thenReturn(Result.ofError(new RuntimeException("LMS not available")));
+    }
+
+    @Test
+    public void testUpdateQuizDataSnapshot() {
+        final QuizData quizData = new QuizData(
+                "quiz1", 1L, 1L, LmsType.MOCKUP, "Snapshot Quiz", "Snapshot Description",
+                "2020-01-01T09:00:00Z", "2020-01-01T11:00:00Z", "http://lms.mockup.com/snapshot/");
+
+        final Exam exam = this.examDAO.updateQuizData(1L, quizData).getOrThrow();
+        assertEquals("Snapshot Quiz", exam.name);
+
+        final ExamRecord record = this.examRecordMapper.selectByPrimaryKey(1L);
+        assertEquals("Snapshot Quiz", record.getQuizName());
+        assertEquals("Snapshot Description", record.getQuizDescription());
+        assertEquals(quizData.startTime, record.getQuizStartTime());
+        assertEquals(quizData.endTime, record.getQuizEndTime());
+        assertEquals("http://lms.mockup.com/snapshot/", record.getQuizStartUrl());
+
+        // a quiz data attribute that has been removed on the LMS is also removed from the snapshot
+        final QuizData withoutEndTime = new QuizData(
+                "quiz1", 1L, 1L, LmsType.MOCKUP, "Snapshot Quiz", "Snapshot Description",
+                "2020-01-01T09:00:00Z", null, "http://lms.mockup.com/snapshot/");
+        this.examDAO.updateQuizData(1L, withoutEndTime).getOrThrow();
+        assertNull(this.examRecordMapper.selectByPrimaryKey(1L).getQuizEndTime());
+    }
+
+    @Test
+    public void testReadFromSnapshotWhileLmsNotAvailable() {
+        // an exam without snapshot needs the LMS
+        assertTrue(this.examDAO.byPK(1L).hasError());
+
+        this.examDAO.updateQuizData(1L, new QuizData(
+                "quiz1", 1L, 1L, LmsType.MOCKUP, "Snapshot Quiz", "Snapshot Description",
+                "2020-01-01T09:00:00Z", "2020-01-01T11:00:00Z", "http://lms.mockup.com/snapshot/"))
+                .getOrThrow();
+        Mockito.clearInvocations(this.lmsAPIService);
+
+        // an exam with snapshot is read from the snapshot without LMS request
+        final Exam exam = this.examDAO.byPK(1L).getOrThrow();
+        assertEquals("quiz1", exam.externalId);
+        assertEquals("Snapshot Quiz", exam.name);
+        assertEquals("Snapshot Description", exam.description);
+        assertEquals("2020-01-01T09:00:00.000Z", exam.startTime.toString());
+        assertEquals("2020-01-01T11:00:00.000Z", exam.endTime.toString());
+        assertEquals("http://lms.mockup.com/snapshot/", exam.startURL);
+        Mockito.verifyZeroInteractions(this.lmsAPIService);
+    }
+
+}
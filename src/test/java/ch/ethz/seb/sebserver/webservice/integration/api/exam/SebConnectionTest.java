@@ -10,34 +10,64 @@ package ch.ethz.seb.sebserver.webservice.integration.api.exam;
 
 import static org.junit.Assert.*;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.junit.Test;
 import org.mybatis.dynamic.sql.SqlBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.Cache.ValueWrapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 
 import ch.ethz.seb.sebserver.gbl.api.API;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage.ErrorMessage;
+import ch.ethz.seb.sebserver.gbl.api.EntityType;
 import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
+import ch.ethz.seb.sebserver.gbl.model.Entity;
+import ch.ethz.seb.sebserver.gbl.model.EntityKey;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
 import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.gbl.model.session.ExtendedClientEvent;
 import ch.ethz.seb.sebserver.gbl.model.session.IndicatorValue;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventCountMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventCountMapper.ConnectionValueRecord;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ExamRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientConnectionRecord;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ExamRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.AdditionalAttributesDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientEventDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamSessionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.AbstractPingIndicator;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ClientConnectionDataInternal;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ClientEventArchiveTask;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ClientIndicatorValueService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
 
 @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
@@ -48,7 +78,47 @@ public class SebConnectionTest extends ExamAPIIntegrationTester {
     @Autowired
     private ClientEventRecordMapper clientEventRecordMapper;
     @Autowired
+    private ClientEventExtensionMapper clientEventExtensionMapper;
+    @Autowired
+    private ClientEventCountMapper clientEventCountMapper;
+    @Autowired
+    private ClientIndicatorValueService clientIndicatorValueService;
+    @Autowired
+    private ClientConnectionDAO clientConnectionDAO;
+    @Autowired
     private JSONMapper jsonMapper;
+    @Autowired
+    private ClientEventDAO clientEventDAO;
+    @Autowired
+    private ClientEventArchiveTask clientEventArchiveTask;
+    @Autowired
+    private ExamRecordMapper examRecordMapper;
+    @Autowired
+    private AdditionalAttributesDAO additionalAttributesDAO;
+    @Autowired
+    private ExamSessionService examSessionService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testFlushCacheAfterCommit() throws Exception {
+        final Cache examCache = this.cacheManager
+                .getCache(ExamSessionCacheService.CACHE_NAME_RUNNING_EXAM);
+        final Exam exam = this.examSessionService.getRunningExam(2L).getOrThrow();
+        final Object cachedExam = examCache.get(2L).get();
+
+        // the cached exam is evicted when the transaction that flushes the cache has been committed
+        new TransactionTemplate(this.transactionManager).execute(status -> {
+            this.examSessionService.flushCache(exam).getOrThrow();
+            assertSame(cachedExam, examCache.get(2L).get());
+            return null;
+        });
+
+        // the default SEB exam configuration generation in advance may have cached the running exam again
+        final ValueWrapper newCachedExam = examCache.get(2L);
+        assertTrue(newCachedExam == null || newCachedExam.get() != cachedExam);
+    }
 
     @Test
     @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
@@ -495,6 +565,27 @@ public class SebConnectionTest extends ExamAPIIntegrationTester {
         assertTrue(HttpStatus.NO_CONTENT.value() == sendPing.getStatus());
     }
 
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testSendPingWithInvalidAccessToken() throws Exception {
+        final String accessToken = super.obtainAccessToken("test", "test", "SEBClient");
+        assertNotNull(accessToken);
+
+        final MockHttpServletResponse createConnection = super.createConnection(accessToken, 1L, null);
+        assertNotNull(createConnection);
+
+        final String connectionToken = createConnection.getHeader(API.EXAM_API_SEB_CONNECTION_TOKEN);
+        assertNotNull(connectionToken);
+
+        // a validated access token is accepted from the token cache of the ping filter
+        assertTrue(HttpStatus.NO_CONTENT.value() == super.sendPing(accessToken, connectionToken, 1).getStatus());
+        assertTrue(HttpStatus.NO_CONTENT.value() == super.sendPing(accessToken, connectionToken, 2).getStatus());
+
+        // an invalid access token takes the way over the security filter chain
+        final MockHttpServletResponse sendPing = super.sendPing("invalid", connectionToken, 3);
+        assertTrue(HttpStatus.UNAUTHORIZED.value() == sendPing.getStatus());
+    }
+
     @Test
     @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
     public void testEvent() throws Exception {
@@ -575,6 +666,194 @@ public class SebConnectionTest extends ExamAPIIntegrationTester {
         assertTrue(events.stream().filter(ev -> ev.getClientTime().equals(2l)).findFirst().isPresent());
     }
 
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testEventBatch() throws Exception {
+        final String accessToken = super.obtainAccessToken("test", "test", "SEBClient");
+        assertNotNull(accessToken);
+
+        final MockHttpServletResponse createConnection = super.createConnection(accessToken, 1L, null);
+        assertNotNull(createConnection);
+
+        final String connectionToken = createConnection.getHeader(API.EXAM_API_SEB_CONNECTION_TOKEN);
+        assertNotNull(connectionToken);
+
+        final MockHttpServletResponse establishConnection = super.establishConnection(
+                accessToken,
+                connectionToken,
+                2L,
+                null);
+        assertTrue(HttpStatus.OK.value() == establishConnection.getStatus());
+
+        // send a batch of events as JSON array
+        MockHttpServletResponse sendEvents = super.sendEvents(
+                accessToken,
+                connectionToken,
+                MediaType.APPLICATION_JSON_UTF8_VALUE,
+                "[ { \"type\": \"INFO_LOG\", \"timestamp\": 1, \"numericValue\": 1.0, \"text\": \"batchEvent1\" },"
+                        + " { \"type\": \"ERROR_LOG\", \"timestamp\": 2, \"numericValue\": 2.0, \"text\": \"batchEvent2\" } ]");
+
+        assertTrue(HttpStatus.NO_CONTENT.value() == sendEvents.getStatus());
+
+        // send a batch of events as newline-delimited JSON
+        sendEvents = super.sendEvents(
+                accessToken,
+                connectionToken,
+                API.EXAM_API_EVENT_BATCH_NDJSON_VALUE,
+                "{ \"type\": \"INFO_LOG\", \"timestamp\": 3, \"numericValue\": 3.0, \"text\": \"batchEvent3\" }\n"
+                        + "{ \"type\": \"WARN_LOG\", \"timestamp\": 4, \"numericValue\": 4.0, \"text\": \"batchEvent4\" }\n");
+
+        assertTrue(HttpStatus.NO_CONTENT.value() == sendEvents.getStatus());
+
+        // check events stored on db
+        final List<ClientEventRecord> events = this.clientEventRecordMapper
+                .selectByExample()
+                .where(
+                        ClientEventRecordDynamicSqlSupport.type,
+                        SqlBuilder.isNotEqualTo(EventType.LAST_PING.id))
+                .build()
+                .execute();
+
+        assertEquals(4, events.size());
+        assertEquals(
+                "[batchEvent1, batchEvent2, batchEvent3, batchEvent4]",
+                events.stream()
+                        .map(ClientEventRecord::getText)
+                        .sorted()
+                        .collect(Collectors.toList())
+                        .toString());
+
+        // invalid batch
+        sendEvents = super.sendEvents(
+                accessToken,
+                connectionToken,
+                MediaType.APPLICATION_JSON_UTF8_VALUE,
+                "[ { \"type\": \"INFO_LOG\", \"timestamp\": 1, ");
+
+        assertTrue(HttpStatus.BAD_REQUEST.value() == sendEvents.getStatus());
+
+        // batch that exceeds the maximum number of events
+        final StringBuilder tooLarge = new StringBuilder();
+        for (int i = 0; i < 1001; i++) {
+            tooLarge.append("{ \"type\": \"INFO_LOG\", \"timestamp\": 5, \"text\": \"tooLarge\" }\n");
+        }
+        sendEvents = super.sendEvents(
+                accessToken,
+                connectionToken,
+                API.EXAM_API_EVENT_BATCH_NDJSON_VALUE,
+                tooLarge.toString());
+
+        assertTrue(HttpStatus.BAD_REQUEST.value() == sendEvents.getStatus());
+        assertEquals(4, this.clientEventRecordMapper
+                .selectByExample()
+                .where(
+                        ClientEventRecordDynamicSqlSupport.type,
+                        SqlBuilder.isNotEqualTo(EventType.LAST_PING.id))
+                .build()
+                .execute()
+                .size());
+    }
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testEventCounts() throws Exception {
+        // reset in-memory values of former tests
+        this.clientIndicatorValueService.evictExam(2L);
+
+        final String accessToken = super.obtainAccessToken("test", "test", "SEBClient");
+        assertNotNull(accessToken);
+
+        final MockHttpServletResponse createConnection = super.createConnection(accessToken, 1L, 2L);
+        final String connectionToken = createConnection.getHeader(API.EXAM_API_SEB_CONNECTION_TOKEN);
+        assertNotNull(connectionToken);
+        super.establishConnection(accessToken, connectionToken, 2L, null);
+        final Long connectionId = this.clientConnectionRecordMapper
+                .selectByExample()
+                .build()
+                .execute()
+                .get(0)
+                .getId();
+
+        final MockHttpServletResponse sendEvents = super.sendEvents(
+                accessToken,
+                connectionToken,
+                MediaType.APPLICATION_JSON_UTF8_VALUE,
+                "[ { \"type\": \"ERROR_LOG\", \"timestamp\": 1, \"numericValue\": 1.0, \"text\": \"error1\" }, "
+                        + "{ \"type\": \"ERROR_LOG\", \"timestamp\": 2, \"numericValue\": 2.0, \"text\": \"error2\" }, "
+                        + "{ \"type\": \"WARN_LOG\", \"timestamp\": 3, \"numericValue\": 3.0, \"text\": \"warn1\" } ]");
+        assertTrue(HttpStatus.NO_CONTENT.value() == sendEvents.getStatus());
+
+        // counted in memory
+        assertEquals(2, this.clientIndicatorValueService.getEventCount(2L, connectionId, EventType.ERROR_LOG));
+        assertEquals(1, this.clientIndicatorValueService.getEventCount(2L, connectionId, EventType.WARN_LOG));
+        assertEquals(0, this.clientIndicatorValueService.getEventCount(2L, connectionId, EventType.INFO_LOG));
+
+        // stored to the shared aggregate table
+        this.clientIndicatorValueService.storePendingCounts();
+        this.clientEventRecordMapper.insert(new ClientEventRecord(
+                null, connectionId, EventType.LAST_PING.id, 100L, 100L, null, null));
+        final Collection<ConnectionValueRecord> values = this.clientEventCountMapper
+                .selectForExam(2L, EventType.LAST_PING.id);
+        assertEquals(
+                "[3:1, 4:2, 5:100]",
+                values.stream()
+                        .map(v -> v.type + ":" + v.value)
+                        .sorted()
+                        .collect(Collectors.toList())
+                        .toString());
+
+        // reloaded from the shared aggregate table after eviction
+        this.clientIndicatorValueService.evictExam(2L);
+        assertEquals(2, this.clientIndicatorValueService.getEventCount(2L, connectionId, EventType.ERROR_LOG));
+        assertEquals(1, this.clientIndicatorValueService.getEventCount(2L, connectionId, EventType.WARN_LOG));
+        assertEquals(100, this.clientIndicatorValueService.getLastPing(2L, connectionId));
+    }
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testInsertMultipleEvents() throws Exception {
+        final String accessToken = super.obtainAccessToken("test", "test", "SEBClient");
+        assertNotNull(accessToken);
+
+        super.createConnection(accessToken, 1L, 2L);
+        final Long connectionId = this.clientConnectionRecordMapper
+                .selectByExample()
+                .build()
+                .execute()
+                .get(0)
+                .getId();
+
+        final List<ClientEventRecord> records = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            records.add(new ClientEventRecord(
+                    null,
+                    connectionId,
+                    EventType.INFO_LOG.id,
+                    (long) i,
+                    (long) i,
+                    new BigDecimal(i),
+                    "multiInsert" + i));
+        }
+
+        assertEquals(3, this.clientEventExtensionMapper.insertMultiple(records));
+
+        final List<ClientEventRecord> events = this.clientEventRecordMapper
+                .selectByExample()
+                .where(
+                        ClientEventRecordDynamicSqlSupport.type,
+                        SqlBuilder.isEqualTo(EventType.INFO_LOG.id))
+                .build()
+                .execute();
+
+        assertEquals(
+                "[multiInsert1, multiInsert2, multiInsert3]",
+                events.stream()
+                        .map(ClientEventRecord::getText)
+                        .sorted()
+                        .collect(Collectors.toList())
+                        .toString());
+    }
+
     @Test
     @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
     public void testSendEventToNoneEstablishedConnectionShouldBePossible() throws Exception {
@@ -628,4 +907,127 @@ public class SebConnectionTest extends ExamAPIIntegrationTester {
                 .execute();
         assertTrue(events.isEmpty());
     }
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testConnectionTokenRegistry() throws Exception {
+        final String accessToken = super.obtainAccessToken("test", "test", "SEBClient");
+        assertNotNull(accessToken);
+
+        final MockHttpServletResponse createConnection = super.createConnection(accessToken, 1L, 2L);
+        final String connectionToken = createConnection.getHeader(API.EXAM_API_SEB_CONNECTION_TOKEN);
+        assertNotNull(connectionToken);
+
+        // registered on creation
+        assertTrue(this.clientConnectionDAO
+                .getConnectionTokens(2L)
+                .getOrThrow()
+                .contains(connectionToken));
+
+        final ClientConnection clientConnection = this.clientConnectionDAO
+                .byConnectionToken(connectionToken)
+                .getOrThrow();
+        this.clientConnectionDAO
+                .delete(new HashSet<>(Arrays.asList(clientConnection.getEntityKey())))
+                .getOrThrow();
+
+        // unregistered on deletion
+        assertFalse(this.clientConnectionDAO
+                .getConnectionTokens(2L)
+                .getOrThrow()
+                .contains(connectionToken));
+    }
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testArchiveClientEvents() throws Exception {
+        final String accessToken = super.obtainAccessToken("test", "test", "SEBClient");
+        assertNotNull(accessToken);
+
+        super.createConnection(accessToken, 1L, 2L);
+        final Long connectionId = this.clientConnectionRecordMapper
+                .selectByExample()
+                .build()
+                .execute()
+                .get(0)
+                .getId();
+
+        for (int i = 1; i <= 3; i++) {
+            this.clientEventRecordMapper.insert(new ClientEventRecord(
+                    null, connectionId, EventType.INFO_LOG.id, (long) i, (long) i, null, "event" + i));
+        }
+
+        final FilterMap examFilter = new FilterMap.Builder()
+                .put(ExtendedClientEvent.FILTER_ATTRIBUTE_EXAM, "2")
+                .create();
+        assertEquals("[event1, event2, event3]", getEventTexts(examFilter));
+
+        // running exam is not archived
+        this.clientEventArchiveTask.archiveClientEvents();
+        assertEquals(3, this.clientEventRecordMapper.selectByExample().build().execute().size());
+
+        // finished exam with disabled archiving is not archived
+        this.examRecordMapper.updateByPrimaryKeySelective(new ExamRecord(
+                2L, null, null, null, null, null, null, null, null, ExamStatus.FINISHED.name(), null, null, null,
+                null, null, null, null, DateTime.now(DateTimeZone.UTC).minusDays(31), null));
+        this.additionalAttributesDAO.saveAdditionalAttribute(
+                EntityType.EXAM,
+                2L,
+                ClientEventArchiveTask.ADDITIONAL_ATTR_CLIENT_EVENT_RETENTION_DAYS,
+                "-1")
+                .getOrThrow();
+        this.clientEventArchiveTask.archiveClientEvents();
+        assertEquals(3, this.clientEventRecordMapper.selectByExample().build().execute().size());
+
+        // events of an exam that is being archived are read from both tables
+        this.additionalAttributesDAO.saveAdditionalAttribute(
+                EntityType.EXAM,
+                2L,
+                ClientEventDAO.ADDITIONAL_ATTR_CLIENT_EVENTS_ARCHIVING,
+                "1")
+                .getOrThrow();
+        assertEquals(Integer.valueOf(1), this.clientEventDAO.archiveEvents(2L, 1).getOrThrow());
+        assertEquals("[event1, event2, event3]", getEventTexts(examFilter));
+        assertEquals("[event1, event2, event3]", getEventTexts(new FilterMap()));
+
+        // finished exam after the retention period is archived
+        this.additionalAttributesDAO.saveAdditionalAttribute(
+                EntityType.EXAM,
+                2L,
+                ClientEventArchiveTask.ADDITIONAL_ATTR_CLIENT_EVENT_RETENTION_DAYS,
+                "30")
+                .getOrThrow();
+        this.clientEventArchiveTask.archiveClientEvents();
+        assertTrue(this.clientEventRecordMapper.selectByExample().build().execute().isEmpty());
+
+        // archived events are read per exam, per client connection and without exam or client connection filter
+        assertEquals("[event1, event2, event3]", getEventTexts(examFilter));
+        assertEquals("[event1, event2, event3]", getEventTexts(new FilterMap.Builder()
+                .put(ClientEvent.FILTER_ATTR_CONNECTION_ID, String.valueOf(connectionId))
+                .create()));
+        assertEquals("[event1, event2, event3]", getEventTexts(new FilterMap()));
+        assertEquals("[event1, event2, event3]", getEventTexts(new FilterMap.Builder()
+                .put(Entity.FILTER_ATTR_INSTITUTION, "1")
+                .create()));
+        assertEquals("[]", getEventTexts(new FilterMap.Builder()
+                .put(Entity.FILTER_ATTR_INSTITUTION, "2")
+                .create()));
+
+        // archived events are deleted with the client connection
+        this.clientConnectionDAO
+                .delete(new HashSet<>(Arrays.asList(new EntityKey(connectionId, EntityType.CLIENT_CONNECTION))))
+                .getOrThrow();
+        assertEquals("[]", getEventTexts(examFilter));
+    }
+
+    private String getEventTexts(final FilterMap filterMap) {
+        return this.clientEventDAO
+                .allMatchingExtended(filterMap, e -> true)
+                .getOrThrow()
+                .stream()
+                .map(e -> e.text)
+                .sorted()
+                .collect(Collectors.toList())
+                .toString();
+    }
 }
@@ -10,14 +10,26 @@ package ch.ethz.seb.sebserver.webservice.integration.api.exam;
 
 import static org.junit.Assert.*;
 
+import java.util.Collection;
+import java.util.stream.Collectors;
+
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.jdbc.Sql;
 
 import ch.ethz.seb.sebserver.gbl.api.API;
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.Configuration;
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationValueDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ExamConfigService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ClientConnectionDataInternal;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
 
@@ -26,6 +38,13 @@ public class SebExamConfigurationRequestTest extends ExamAPIIntegrationTester {
 
     private static final long EXAM_ID = 2L;
 
+    @Autowired
+    private ExamConfigService examConfigService;
+    @Autowired
+    private ConfigurationDAO configurationDAO;
+    @Autowired
+    private ConfigurationValueDAO configurationValueDAO;
+
     @Test
     @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
     public void testGetExamConfigOnAFullyEstablishedConnection() throws Exception {
@@ -68,6 +87,48 @@ public class SebExamConfigurationRequestTest extends ExamAPIIntegrationTester {
         assertNotNull(config);
     }
 
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testGetExamConfigNotModified() throws Exception {
+        final String accessToken = super.obtainAccessToken("test", "test", "SEBClient");
+        assertNotNull(accessToken);
+
+        final MockHttpServletResponse createConnection = super.createConnection(accessToken, 1L, EXAM_ID);
+        final String connectionToken = createConnection.getHeader(API.EXAM_API_SEB_CONNECTION_TOKEN);
+        assertNotNull(connectionToken);
+
+        final MockHttpServletResponse configResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null);
+
+        assertTrue(HttpStatus.OK.value() == configResponse.getStatus());
+        final String eTag = configResponse.getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        assertTrue(configResponse.getContentAsByteArray().length > 0);
+
+        // the SEB client has the current configuration already
+        final MockHttpServletResponse notModifiedResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null,
+                eTag);
+
+        assertTrue(HttpStatus.NOT_MODIFIED.value() == notModifiedResponse.getStatus());
+        assertEquals(eTag, notModifiedResponse.getHeader(HttpHeaders.ETAG));
+        assertTrue(notModifiedResponse.getContentAsByteArray().length == 0);
+
+        // the SEB client has another configuration
+        final MockHttpServletResponse modifiedResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null,
+                "\"other\"");
+
+        assertTrue(HttpStatus.OK.value() == modifiedResponse.getStatus());
+        assertTrue(modifiedResponse.getContentAsByteArray().length > 0);
+    }
+
     @Test
     @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
     public void testGetExamConfigOnNoneEstablishedConnectionButExamIdExists() throws Exception {
@@ -231,6 +292,135 @@ public class SebExamConfigurationRequestTest extends ExamAPIIntegrationTester {
         assertNull(config);
     }
 
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testConfigKeyPerStableVersion() throws Exception {
+        final String configKey = this.examConfigService
+                .generateConfigKey(1L, 1L)
+                .getOrThrow();
+        assertNotNull(configKey);
+        assertEquals(64, configKey.length());
+        assertEquals(configKey, this.examConfigService.generateConfigKey(1L, 1L).getOrThrow());
+
+        // save to history creates a new stable version with the same values
+        this.configurationDAO.saveToHistory(1L).getOrThrow();
+        final Configuration stableVersion = this.configurationDAO
+                .getConfigurationLastStableVersion(1L)
+                .getOrThrow();
+        assertNotEquals(Long.valueOf(1L), stableVersion.id);
+        assertTrue(this.configurationDAO.getConfigKey(stableVersion.id).hasError());
+
+        // the Config-Key of the new stable version is computed and persisted on first request
+        assertEquals(configKey, this.examConfigService.generateConfigKey(1L, 1L).getOrThrow());
+        assertEquals(configKey, this.configurationDAO.getConfigKey(stableVersion.id).getOrThrow());
+    }
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testConfigKeyDeletedOnValueChange() throws Exception {
+        final Configuration followup = this.configurationDAO
+                .getFollowupConfiguration(1L)
+                .getOrThrow();
+        final String reservation = this.configurationDAO.reserveConfigKey(followup.id).getOrThrow();
+        assertTrue(this.configurationDAO.getConfigKey(followup.id).hasError());
+        this.configurationDAO.saveConfigKey(followup.id, "configKey", reservation).getOrThrow();
+        assertEquals("configKey", this.configurationDAO.getConfigKey(followup.id).getOrThrow());
+
+        // saving or importing values deletes the persisted Config-Key of the configuration
+        this.examConfigService.importFromSEBFile(
+                followup,
+                new ClassPathResource("importTest.seb").getInputStream(),
+                null)
+                .getOrThrow();
+        assertTrue(this.configurationDAO.getConfigKey(followup.id).hasError());
+    }
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testConfigKeyNotSavedOnValueChangeWhileComputing() throws Exception {
+        final Configuration followup = this.configurationDAO
+                .getFollowupConfiguration(1L)
+                .getOrThrow();
+        final String reservation = this.configurationDAO.reserveConfigKey(followup.id).getOrThrow();
+
+        // the values are changed while the Config-Key is computed
+        this.examConfigService.importFromSEBFile(
+                followup,
+                new ClassPathResource("importTest.seb").getInputStream(),
+                null)
+                .getOrThrow();
+
+        // the Config-Key of the former values is not persisted
+        assertEquals(
+                "configKey",
+                this.configurationDAO.saveConfigKey(followup.id, "configKey", reservation).getOrThrow());
+        assertTrue(this.configurationDAO.getConfigKey(followup.id).hasError());
+
+        // a new reservation is valid again
+        final String newReservation = this.configurationDAO.reserveConfigKey(followup.id).getOrThrow();
+        this.configurationDAO.saveConfigKey(followup.id, "newConfigKey", newReservation).getOrThrow();
+        assertEquals("newConfigKey", this.configurationDAO.getConfigKey(followup.id).getOrThrow());
+    }
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testImportIntoFollowupConfiguration() throws Exception {
+        final Configuration followup = this.configurationDAO
+                .getFollowupConfiguration(1L)
+                .getOrThrow();
+        final int valuesBefore = followupValues(followup).size();
+
+        this.examConfigService.importFromSEBFile(
+                followup,
+                new ClassPathResource("importTest.seb").getInputStream(),
+                null)
+                .getOrThrow();
+
+        final Collection<ConfigurationValue> values = followupValues(followup);
+        assertTrue(values.size() >= valuesBefore);
+
+        // existing values are updated and not duplicated
+        assertEquals(
+                values.size(),
+                values.stream()
+                        .map(value -> value.attributeId + ":" + value.listIndex)
+                        .collect(Collectors.toSet())
+                        .size());
+
+        // URLFilterEnable
+        assertEquals("true", value(values, 200L, 0));
+        // URLFilterRules.expression
+        assertEquals("jrtjrtzj", value(values, 205L, 0));
+
+        // a second import of the same file leads to the same values
+        this.examConfigService.importFromSEBFile(
+                followup,
+                new ClassPathResource("importTest.seb").getInputStream(),
+                null)
+                .getOrThrow();
+        assertEquals(values.size(), followupValues(followup).size());
+    }
+
+    private Collection<ConfigurationValue> followupValues(final Configuration followup) {
+        return this.configurationValueDAO
+                .allMatching(new FilterMap.Builder()
+                        .put(ConfigurationValue.FILTER_ATTR_CONFIGURATION_ID, String.valueOf(followup.id))
+                        .create())
+                .getOrThrow();
+    }
+
+    private static String value(
+            final Collection<ConfigurationValue> values,
+            final Long attributeId,
+            final int listIndex) {
+
+        return values.stream()
+                .filter(value -> attributeId.equals(value.attributeId) && value.listIndex == listIndex)
+                .map(value -> value.value)
+                .findFirst()
+                .orElse(null);
+    }
+
     @Test
     @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
     public void testGetExamConfigOnConnectionNoExamIdSouldFail() throws Exception {
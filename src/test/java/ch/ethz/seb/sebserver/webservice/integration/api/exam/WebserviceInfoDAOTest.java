@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.integration.api.exam;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import ch.ethz.seb.sebserver.webservice.WebserviceLeaderElection;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.WebserviceServerInfoRecordMapper;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.WebserviceInfoDAO;
+
+@Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql" })
+public class WebserviceInfoDAOTest extends ExamAPIIntegrationTester {
+
+    private static final long LEASE_TIME = 30000;
+
+    @Autowired
+    private WebserviceInfoDAO webserviceInfoDAO;
+    @Autowired
+    private WebserviceServerInfoRecordMapper webserviceServerInfoRecordMapper;
+    @Autowired
+    private WebserviceLeaderElection webserviceLeaderElection;
+
+    @Test
+    public void testLeaderElection() {
+        final long now = 1000000;
+
+        // first instance acquires the lease
+        assertTrue(this.webserviceInfoDAO.updateMaster("node1", "address1", now, LEASE_TIME).getOrThrow());
+        // second instance is registered but does not get the lease while it is valid
+        assertFalse(this.webserviceInfoDAO.updateMaster("node2", "address2", now + 1000, LEASE_TIME).getOrThrow());
+        assertEquals(2, countInstances());
+
+        // the lease is renewed by the leader
+        assertTrue(this.webserviceInfoDAO.updateMaster("node1", "address1", now + 10000, LEASE_TIME).getOrThrow());
+        assertFalse(this.webserviceInfoDAO.updateMaster("node2", "address2", now + 39000, LEASE_TIME).getOrThrow());
+
+        // fail-over after the lease of the leader has expired
+        assertTrue(this.webserviceInfoDAO.updateMaster("node2", "address2", now + 40001, LEASE_TIME).getOrThrow());
+        // the former leader does not get the lease back
+        assertFalse(this.webserviceInfoDAO.updateMaster("node1", "address1", now + 41000, LEASE_TIME).getOrThrow());
+
+        // the lease is released on unregister
+        assertTrue(this.webserviceInfoDAO.unregister("node2").getOrThrow());
+        assertTrue(this.webserviceInfoDAO.updateMaster("node1", "address1", now + 42000, LEASE_TIME).getOrThrow());
+        assertEquals(1, countInstances());
+
+        // instances that are gone for a long time are removed
+        assertFalse(this.webserviceInfoDAO.updateMaster("node3", "address3", now + 43000, LEASE_TIME).getOrThrow());
+        assertTrue(this.webserviceInfoDAO
+                .updateMaster("node1", "address1", now + 43000 + 10 * LEASE_TIME + 1, LEASE_TIME)
+                .getOrThrow());
+        assertEquals(1, countInstances());
+    }
+
+    @Test
+    public void testLeaderInNonDistributedSetup() {
+        assertTrue(this.webserviceLeaderElection.isLeader());
+        assertEquals(0, countInstances());
+    }
+
+    private long countInstances() {
+        return this.webserviceServerInfoRecordMapper
+                .countByExample()
+                .build()
+                .execute();
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.github.pagehelper.PageHelper;
+
+import ch.ethz.seb.sebserver.gbl.model.Page;
+import ch.ethz.seb.sebserver.gbl.model.user.UserActivityLog;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.UserActivityLogRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.PageCursor;
+
+public class PaginationServiceImplTest {
+
+    private final PaginationServiceImpl paginationService = new PaginationServiceImpl(10, 500);
+
+    @After
+    public void cleanup() {
+        PageHelper.clearPage();
+    }
+
+    @Test
+    public void testCursorPageWithFilteredEntries() {
+        // the delegate selects page size + 1 entries and the predicate rejects one of them
+        final Collection<UserActivityLog> selected = Arrays.asList(log(1L), log(2L), log(3L));
+
+        final Page<UserActivityLog> page = this.paginationService.getCursorPage(
+                Page.FIRST_PAGE_CURSOR,
+                2,
+                null,
+                false,
+                UserActivityLogRecordDynamicSqlSupport.userActivityLogRecord.name(),
+                pageCursor -> Result.of(selected),
+                log -> log.id != 2L,
+                log -> log.timestamp)
+                .getOrThrow();
+
+        assertEquals(
+                Arrays.asList(1L),
+                page.content.stream().map(log -> log.id).collect(Collectors.toList()));
+        assertNotNull(page.cursor);
+
+        // the next page starts after the last selected entry of this page, also if it has been filtered
+        final PageCursor next = PageCursor.decode(page.cursor, null);
+        assertEquals(Long.valueOf(2L), next.id);
+        assertEquals(Long.valueOf(2L), next.value);
+        assertEquals(2, next.pageNumber);
+    }
+
+    @Test
+    public void testLastCursorPage() {
+        final Page<UserActivityLog> page = this.paginationService.getCursorPage(
+                Page.FIRST_PAGE_CURSOR,
+                2,
+                null,
+                false,
+                UserActivityLogRecordDynamicSqlSupport.userActivityLogRecord.name(),
+                pageCursor -> Result.of(Arrays.asList(log(1L), log(2L))),
+                log -> log.id != 1L,
+                log -> log.timestamp)
+                .getOrThrow();
+
+        assertEquals(
+                Arrays.asList(2L),
+                page.content.stream().map(log -> log.id).collect(Collectors.toList()));
+        assertNull(page.cursor);
+    }
+
+    private static UserActivityLog log(final Long id) {
+        return new UserActivityLog(id, "user", "user", id, null, null, null, null);
+    }
+
+}
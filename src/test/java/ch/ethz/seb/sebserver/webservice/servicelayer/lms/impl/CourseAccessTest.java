@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.async.AsyncService;
+import ch.ethz.seb.sebserver.gbl.async.MemoizingCircuitBreaker.CacheState;
+import ch.ethz.seb.sebserver.gbl.model.exam.Chapters;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CourseAccessTest {
+
+    @Test
+    public void testQuizCacheMetrics() {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final LmsSetup lmsSetup = new LmsSetup(
+                1L, 1L, "lms", LmsType.MOODLE, "lms", "secret", "http://lms.mockup.com",
+                null, null, null, null, null, true);
+
+        final TestCourseAccess courseAccess = new TestCourseAccess(1000, CacheState.FRESH);
+        courseAccess.registerQuizCacheMetrics(meterRegistry, lmsSetup);
+
+        assertEquals(1000, meterRegistry.get(CourseAccess.METRIC_QUIZ_CACHE_AGE)
+                .tag("lmsSetup", "1")
+                .tag("lmsType", "MOODLE")
+                .gauge()
+                .value(), 0);
+        assertEquals(CacheState.FRESH.ordinal(), meterRegistry.get(CourseAccess.METRIC_QUIZ_CACHE_STATE)
+                .tag("lmsSetup", "1")
+                .gauge()
+                .value(), 0);
+
+        // a new CourseAccess of the same LmsSetup replaces the gauges
+        final TestCourseAccess newCourseAccess = new TestCourseAccess(-1, CacheState.EMPTY);
+        newCourseAccess.registerQuizCacheMetrics(meterRegistry, lmsSetup);
+
+        assertEquals(-1, meterRegistry.get(CourseAccess.METRIC_QUIZ_CACHE_AGE)
+                .tag("lmsSetup", "1")
+                .gauge()
+                .value(), 0);
+        assertEquals(CacheState.EMPTY.ordinal(), meterRegistry.get(CourseAccess.METRIC_QUIZ_CACHE_STATE)
+                .tag("lmsSetup", "1")
+                .gauge()
+                .value(), 0);
+        assertEquals(1, meterRegistry.find(CourseAccess.METRIC_QUIZ_CACHE_AGE).gauges().size());
+    }
+
+    private static final class TestCourseAccess extends CourseAccess {
+
+        private final long cacheAge;
+        private final CacheState cacheState;
+
+        TestCourseAccess(final long cacheAge, final CacheState cacheState) {
+            super(Mockito.mock(AsyncService.class), 0);
+            this.cacheAge = cacheAge;
+            this.cacheState = cacheState;
+        }
+
+        @Override
+        public long getQuizCacheAge() {
+            return this.cacheAge;
+        }
+
+        @Override
+        public CacheState getQuizCacheState() {
+            return this.cacheState;
+        }
+
+        @Override
+        protected Supplier<List<QuizData>> allQuizzesSupplier() {
+            return () -> null;
+        }
+
+        @Override
+        protected Supplier<Chapters> getCourseChaptersSupplier(final String courseId) {
+            return () -> null;
+        }
+    }
+
+}
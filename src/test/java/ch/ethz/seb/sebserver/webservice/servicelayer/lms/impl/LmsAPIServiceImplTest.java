@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.core.task.TaskRejectedException;
+
+import ch.ethz.seb.sebserver.gbl.client.ClientCredentials;
+import ch.ethz.seb.sebserver.gbl.model.Entity;
+import ch.ethz.seb.sebserver.gbl.model.Page;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.LmsSetupDAO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LmsAPIServiceImplTest {
+
+    @Test
+    public void testPartialQuizzesOnSlowLmsSetup() {
+        final LmsSetupDAO lmsSetupDAO = Mockito.mock(LmsSetupDAO.class);
+        Mockito.when(lmsSetupDAO.all(1L, true)).thenReturn(Result.of(Arrays.asList(
+                createLmsSetup(1L),
+                createLmsSetup(2L),
+                createLmsSetup(3L))));
+        Mockito.when(lmsSetupDAO.getLmsAPIAccessCredentials(Mockito.anyString()))
+                .thenReturn(Result.of(new ClientCredentials("lms", "secret")));
+        Mockito.when(lmsSetupDAO.getLmsAPIAccessProxyData(Mockito.anyString()))
+                .thenReturn(Result.ofEmpty());
+
+        // the first LMS setup responds after the timeout and the request on the third LMS setup is rejected
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicReference<Runnable> lateTask = new AtomicReference<>();
+        final Executor executor = task -> {
+            switch (requests.incrementAndGet()) {
+                case 1:
+                    lateTask.set(task);
+                    break;
+                case 2:
+                    task.run();
+                    break;
+                default:
+                    throw new TaskRejectedException("rejected");
+            }
+        };
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final LmsAPIServiceImpl lmsAPIService = new LmsAPIServiceImpl(
+                null,
+                null,
+                lmsSetupDAO,
+                null,
+                Mockito.mock(WebserviceInfo.class),
+                executor,
+                meterRegistry,
+                100);
+
+        final FilterMap filterMap = new FilterMap();
+        filterMap.putIfAbsent(Entity.FILTER_ATTR_INSTITUTION, "1");
+        final long start = System.currentTimeMillis();
+        final Page<QuizData> page = lmsAPIService.requestQuizDataPage(1, 100, null, filterMap).getOrThrow();
+
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertFalse(page.content.isEmpty());
+        assertEquals(
+                Arrays.asList(2L),
+                page.content.stream().map(quiz -> quiz.lmsSetupId).distinct().collect(Collectors.toList()));
+
+        assertEquals(1, meterRegistry.get(LmsAPIServiceImpl.METRIC_QUIZ_REQUEST)
+                .tag("lmsSetup", "1")
+                .tag("outcome", "timeout")
+                .timer()
+                .count());
+        assertEquals(1, meterRegistry.get(LmsAPIServiceImpl.METRIC_QUIZ_REQUEST)
+                .tag("lmsSetup", "2")
+                .tag("outcome", "success")
+                .timer()
+                .count());
+        assertEquals(1, meterRegistry.get(LmsAPIServiceImpl.METRIC_QUIZ_REQUEST)
+                .tag("lmsSetup", "3")
+                .tag("outcome", "rejected")
+                .timer()
+                .count());
+
+        // the late response of the first LMS setup is not recorded again
+        lateTask.get().run();
+        assertEquals(1, meterRegistry.find(LmsAPIServiceImpl.METRIC_QUIZ_REQUEST)
+                .tag("lmsSetup", "1")
+                .timers()
+                .size());
+    }
+
+    private LmsSetup createLmsSetup(final Long id) {
+        return new LmsSetup(
+                id, 1L, "lms" + id, LmsType.MOCKUP, "lms", "secret", "http://lms.mockup.com",
+                null, null, null, null, null, true);
+    }
+
+}
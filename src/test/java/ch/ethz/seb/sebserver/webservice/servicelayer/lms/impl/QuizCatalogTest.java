@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.joda.time.DateTimeUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.model.Entity;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
+
+public class QuizCatalogTest {
+
+    @Before
+    public void init() {
+        DateTimeUtils.setCurrentMillisSystem();
+    }
+
+    @Test
+    public void testFilterByName() {
+        final QuizCatalog catalog = new QuizCatalog();
+        catalog.update(Arrays.asList(
+                quiz("q1", "Demo Quiz 1", "2020-01-01T09:00:00Z", null),
+                quiz("q2", "Advanced Demo-Quiz 2", "2020-01-01T09:00:00Z", null),
+                quiz("q3", "Physics Exam", "2020-01-01T09:00:00Z", null)));
+
+        assertEquals(3, catalog.getQuizzes(new FilterMap()).size());
+        assertEquals(ids("q1", "q2"), ids(catalog.getQuizzes(nameFilter("demo"))));
+        assertEquals(ids("q1", "q2"), ids(catalog.getQuizzes(nameFilter("QUI"))));
+        assertEquals(ids("q2"), ids(catalog.getQuizzes(nameFilter("demo adv"))));
+        assertEquals(ids("q3"), ids(catalog.getQuizzes(nameFilter("phys"))));
+        assertEquals(ids(), ids(catalog.getQuizzes(nameFilter("hysics"))));
+        assertEquals(ids(), ids(catalog.getQuizzes(nameFilter("demo exam"))));
+    }
+
+    @Test
+    public void testFilterByStartTime() {
+        final QuizCatalog catalog = new QuizCatalog();
+        catalog.update(Arrays.asList(
+                quiz("q1", "Quiz 1", "2020-01-01T09:00:00Z", "2020-01-02T09:00:00Z"),
+                quiz("q2", "Quiz 2", "2020-06-01T09:00:00Z", null),
+                quiz("q3", "Quiz 3", "2020-01-01T09:00:00Z", "2099-01-01T09:00:00Z")));
+
+        final FilterMap filterMap = new FilterMap();
+        filterMap.putIfAbsent(QuizData.FILTER_ATTR_START_TIME, "2020-03-01T00:00:00Z");
+        // q2 starts after the filter time and q3 is still running
+        assertEquals(ids("q2", "q3"), ids(catalog.getQuizzes(filterMap)));
+
+        filterMap.putIfAbsent(Entity.FILTER_ATTR_NAME, "quiz 3");
+        assertEquals(ids("q3"), ids(catalog.getQuizzes(filterMap)));
+    }
+
+    @Test
+    public void testIncrementalUpdate() {
+        final QuizCatalog catalog = new QuizCatalog();
+        assertFalse(catalog.isLoaded());
+        assertEquals(3, catalog.update(Arrays.asList(
+                quiz("q1", "Demo Quiz 1", "2020-01-01T09:00:00Z", null),
+                quiz("q2", "Demo Quiz 2", "2020-01-01T09:00:00Z", null),
+                quiz("q3", "Demo Quiz 3", "2020-01-01T09:00:00Z", null))));
+        assertTrue(catalog.isLoaded());
+
+        // unchanged quizzes are not re-indexed
+        assertEquals(0, catalog.update(Arrays.asList(
+                quiz("q1", "Demo Quiz 1", "2020-01-01T09:00:00Z", null),
+                quiz("q2", "Demo Quiz 2", "2020-01-01T09:00:00Z", null),
+                quiz("q3", "Demo Quiz 3", "2020-01-01T09:00:00Z", null))));
+
+        // q1 renamed, q2 removed and q4 added
+        assertEquals(3, catalog.update(Arrays.asList(
+                quiz("q1", "Renamed Quiz 1", "2020-01-01T09:00:00Z", null),
+                quiz("q3", "Demo Quiz 3", "2020-01-01T09:00:00Z", null),
+                quiz("q4", "Demo Quiz 4", "2020-01-01T09:00:00Z", null))));
+
+        assertEquals(3, catalog.size());
+        assertNull(catalog.getQuiz("q2"));
+        assertEquals("Renamed Quiz 1", catalog.getQuiz("q1").name);
+        assertEquals(ids("q3", "q4"), ids(catalog.getQuizzes(nameFilter("demo"))));
+        assertEquals(ids("q1"), ids(catalog.getQuizzes(nameFilter("renamed"))));
+    }
+
+    @Test
+    public void testSameResultAsFilterPredicate() {
+        final Random random = new Random(42);
+        final String[] words = { "Demo", "Quiz", "Physics", "Exam", "Final", "Mid-Term", "Chemistry", "101" };
+        final List<QuizData> quizzes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final String name = words[random.nextInt(words.length)] + " "
+                    + words[random.nextInt(words.length)] + " " + i;
+            final String start = "20" + (15 + random.nextInt(10)) + "-01-01T09:00:00Z";
+            final String end = random.nextBoolean() ? null : "20" + (15 + random.nextInt(90)) + "-06-01T09:00:00Z";
+            quizzes.add(quiz("q" + i, name, start, end));
+        }
+
+        final QuizCatalog catalog = new QuizCatalog();
+        catalog.update(quizzes);
+
+        for (final String name : Arrays.asList(null, "de", "quiz", "mid term", "PHYSICS fin", "10", "1", "xyz")) {
+            for (final String from : Arrays.asList(null, "2018-01-01T00:00:00Z", "2023-01-01T00:00:00Z")) {
+                final FilterMap filterMap = new FilterMap();
+                if (name != null) {
+                    filterMap.putIfAbsent(Entity.FILTER_ATTR_NAME, name);
+                }
+                if (from != null) {
+                    filterMap.putIfAbsent(QuizData.FILTER_ATTR_START_TIME, from);
+                }
+
+                assertEquals(
+                        name + " " + from,
+                        ids(quizzes
+                                .stream()
+                                .filter(LmsAPIService.quizFilterPredicate(filterMap))
+                                .collect(Collectors.toList())),
+                        ids(catalog.getQuizzes(filterMap)));
+            }
+        }
+    }
+
+    private static FilterMap nameFilter(final String name) {
+        final FilterMap filterMap = new FilterMap();
+        filterMap.putIfAbsent(Entity.FILTER_ATTR_NAME, name);
+        return filterMap;
+    }
+
+    private static QuizData quiz(final String id, final String name, final String start, final String end) {
+        return new QuizData(id, 1L, 1L, LmsType.MOCKUP, name, "", start, end, "http://lms.mockup.com/api/");
+    }
+
+    private static Set<String> ids(final String... ids) {
+        return Arrays.stream(ids).collect(Collectors.toSet());
+    }
+
+    private static Set<String> ids(final List<QuizData> quizzes) {
+        return quizzes.stream().map(q -> q.id).collect(Collectors.toSet());
+    }
+
+}
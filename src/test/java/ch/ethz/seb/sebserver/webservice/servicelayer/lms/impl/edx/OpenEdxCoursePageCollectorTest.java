@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.joda.time.DateTimeUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import ch.ethz.seb.sebserver.gbl.async.AsyncService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx.OpenEdxCourseAccess.CourseData;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx.OpenEdxCourseAccess.EdXPage;
+
+public class OpenEdxCoursePageCollectorTest {
+
+    private static final String COURSE_API = "http://lms.mockup/api/courses/v1/courses/";
+    private static final int NUM_PAGES = 220;
+    private static final int PAGE_SIZE = 3;
+    private static final long PAGE_LATENCY = 5;
+
+    private ExecutorService executor;
+    private AsyncService asyncService;
+
+    @Before
+    public void init() {
+        DateTimeUtils.setCurrentMillisSystem();
+        this.executor = Executors.newCachedThreadPool();
+        this.asyncService = mock(AsyncService.class);
+        doAnswer(invocation -> {
+            this.executor.execute(invocation.getArgument(0));
+            return null;
+        }).when(this.asyncService).runAsync(any(Runnable.class));
+    }
+
+    @After
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testCollectConcurrentlyIsFasterThanSequentially() throws Exception {
+        final MockupCourseAPI courseAPI = new MockupCourseAPI(NUM_PAGES, true);
+
+        final long sequentialStart = System.currentTimeMillis();
+        final List<String> sequential = collector(courseAPI, 1).collect(COURSE_API, 60000);
+        final long sequentialTime = System.currentTimeMillis() - sequentialStart;
+
+        final long concurrentStart = System.currentTimeMillis();
+        final List<String> concurrent = collector(courseAPI, 8).collect(COURSE_API, 60000);
+        final long concurrentTime = System.currentTimeMillis() - concurrentStart;
+
+        assertEquals(expectedCourses(NUM_PAGES), sequential);
+        assertEquals(expectedCourses(NUM_PAGES), concurrent);
+        assertEquals(2 * NUM_PAGES, courseAPI.requests.get());
+        assertTrue(
+                "concurrent: " + concurrentTime + "ms sequential: " + sequentialTime + "ms",
+                concurrentTime * 2 < sequentialTime);
+    }
+
+    @Test
+    public void testCollectSequentiallyWithoutNumberOfPages() throws Exception {
+        final MockupCourseAPI courseAPI = new MockupCourseAPI(5, false);
+
+        final List<String> courses = collector(courseAPI, 8).collect(COURSE_API, 60000);
+
+        assertEquals(expectedCourses(5), courses);
+        verify(this.asyncService, never()).runAsync(any(Runnable.class));
+    }
+
+    @Test
+    public void testCollectWithoutHelpers() throws Exception {
+        doThrow(new RuntimeException("no capacity")).when(this.asyncService).runAsync(any(Runnable.class));
+        final MockupCourseAPI courseAPI = new MockupCourseAPI(10, true);
+
+        final List<String> courses = collector(courseAPI, 8).collect(COURSE_API, 60000);
+
+        assertEquals(expectedCourses(10), courses);
+    }
+
+    @Test
+    public void testCollectFailsOnPageError() {
+        final MockupCourseAPI courseAPI = new MockupCourseAPI(NUM_PAGES, true);
+        courseAPI.failingPage = 100;
+
+        try {
+            collector(courseAPI, 8).collect(COURSE_API, 60000);
+            fail("Exception expected");
+        } catch (final Exception e) {
+            assertEquals("page 100 failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCollectFailsOnTimeout() {
+        final MockupCourseAPI courseAPI = new MockupCourseAPI(NUM_PAGES, true);
+
+        try {
+            collector(courseAPI, 8).collect(COURSE_API, 50);
+            fail("Exception expected");
+        } catch (final Exception e) {
+            assertTrue(e instanceof TimeoutException);
+        }
+        assertTrue(courseAPI.requests.get() < NUM_PAGES);
+    }
+
+    private OpenEdxCoursePageCollector<String> collector(
+            final Function<String, EdXPage> courseAPI,
+            final int parallelism) {
+
+        return new OpenEdxCoursePageCollector<>(
+                this.asyncService,
+                courseAPI,
+                courseData -> courseData.id,
+                parallelism);
+    }
+
+    private static List<String> expectedCourses(final int numPages) {
+        return IntStream.range(0, numPages * PAGE_SIZE)
+                .mapToObj(i -> "course-" + (i / PAGE_SIZE + 1) + "-" + (i % PAGE_SIZE))
+                .collect(Collectors.toList());
+    }
+
+    /** Mockup of the paged Open edX course API with a fixed latency per page request */
+    private static final class MockupCourseAPI implements Function<String, EdXPage> {
+
+        private final int numPages;
+        private final boolean withNumPages;
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int failingPage = -1;
+
+        MockupCourseAPI(final int numPages, final boolean withNumPages) {
+            this.numPages = numPages;
+            this.withNumPages = withNumPages;
+        }
+
+        @Override
+        public EdXPage apply(final String pageURI) {
+            this.requests.incrementAndGet();
+            final String pageParam = UriComponentsBuilder
+                    .fromUriString(pageURI)
+                    .build()
+                    .getQueryParams()
+                    .getFirst("page");
+            final int pageNumber = (pageParam != null) ? Integer.parseInt(pageParam) : 1;
+
+            try {
+                Thread.sleep(PAGE_LATENCY);
+            } catch (final InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+
+            if (pageNumber == this.failingPage) {
+                throw new RuntimeException("page " + pageNumber + " failed");
+            }
+
+            final EdXPage page = new EdXPage();
+            page.count = this.numPages * PAGE_SIZE;
+            page.num_pages = (this.withNumPages) ? this.numPages : null;
+            page.next = (pageNumber < this.numPages) ? COURSE_API + "?page=" + (pageNumber + 1) : null;
+            page.results = Arrays.asList(
+                    course(pageNumber, 0),
+                    course(pageNumber, 1),
+                    course(pageNumber, 2));
+            return page;
+        }
+
+        private static CourseData course(final int pageNumber, final int index) {
+            final CourseData courseData = new CourseData();
+            courseData.id = "course-" + pageNumber + "-" + index;
+            return courseData;
+        }
+    }
+
+}
@@ -13,9 +13,11 @@ import static org.junit.Assert.*;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.cryptonode.jncryptor.AES256JNCryptor;
@@ -96,6 +98,40 @@ public class SebConfigEncryptionServiceImplTest {
         assertEquals(config, decryptedConfig);
     }
 
+    @Test
+    public void testPasswordEncryptionStreamPipeline() throws IOException {
+        final SEBConfigEncryptionServiceImpl sebConfigEncryptionServiceImpl = sebConfigEncryptionServiceImpl();
+        final ZipServiceImpl zipService = new ZipServiceImpl();
+
+        final String config = "<TestConfig></TestConfig>";
+        final String pwd = "password";
+
+        // plain text --> zip --> encrypt --> out within the same thread
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        final OutputStream pipeline = zipService.compressionStream(
+                sebConfigEncryptionServiceImpl.encryptionStream(
+                        out,
+                        EncryptionContext.contextOf(Strategy.PASSWORD_PSWD, pwd)));
+        pipeline.write(Utils.toByteArray(config));
+        pipeline.close();
+
+        final byte[] byteArray = out.toByteArray();
+        assertTrue(Utils.toString(ByteBuffer.wrap(byteArray))
+                .startsWith(Utils.toString(Strategy.PASSWORD_PSWD.header)));
+
+        final ByteArrayOutputStream out2 = new ByteArrayOutputStream(512);
+        sebConfigEncryptionServiceImpl.streamDecrypted(
+                out2,
+                new ByteArrayInputStream(byteArray),
+                EncryptionContext.contextOf(Strategy.PASSWORD_PSWD, pwd));
+
+        final byte[] zipped = out2.toByteArray();
+        final String decryptedConfig = IOUtils.toString(
+                new GZIPInputStream(new ByteArrayInputStream(zipped)),
+                "UTF-8");
+        assertEquals(config, decryptedConfig);
+    }
+
     private SEBConfigEncryptionServiceImpl sebConfigEncryptionServiceImpl() {
         final JNCryptor cryptor = new AES256JNCryptor();
         final List<SEBConfigCryptor> encryptors = Arrays.asList(
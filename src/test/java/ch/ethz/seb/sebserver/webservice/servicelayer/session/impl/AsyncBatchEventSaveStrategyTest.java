@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AsyncBatchEventSaveStrategyTest {
+
+    @Test
+    public void testBatchStore() throws InterruptedException {
+        final List<ClientEventRecord> stored = new ArrayList<>();
+        final CountDownLatch allStored = new CountDownLatch(10);
+        final ClientEventExtensionMapper mapper = Mockito.mock(ClientEventExtensionMapper.class);
+        Mockito.when(mapper.insertMultiple(Mockito.any())).thenAnswer(invocation -> {
+            final Collection<ClientEventRecord> records = invocation.getArgument(0);
+            synchronized (stored) {
+                stored.addAll(records);
+            }
+            records.forEach(r -> allStored.countDown());
+            return records.size();
+        });
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final AsyncBatchEventSaveStrategy strategy = new AsyncBatchEventSaveStrategy(
+                mapper,
+                Mockito.mock(PlatformTransactionManager.class),
+                meterRegistry,
+                2, 3, 100, 0);
+
+        // not running workers ignore events
+        strategy.accept(new ClientEventRecord());
+        assertEquals(0, (int) meterRegistry.get(AsyncBatchEventSaveStrategy.METRIC_QUEUE_SIZE).gauge().value());
+
+        strategy.enable();
+        strategy.recover();
+
+        final List<ClientEventRecord> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(new ClientEventRecord());
+        }
+        strategy.acceptAll(events);
+
+        assertTrue(allStored.await(5, TimeUnit.SECONDS));
+        strategy.shutdown();
+
+        assertEquals(10, stored.size());
+        assertEquals(0.0, meterRegistry.get(AsyncBatchEventSaveStrategy.METRIC_DROPPED).counter().count(), 0.0);
+        assertTrue(meterRegistry.get(AsyncBatchEventSaveStrategy.METRIC_BATCH_STORE).timer().count() >= 4);
+    }
+
+    @Test
+    public void testDropOnFullQueue() throws InterruptedException {
+        final CountDownLatch storeStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ClientEventExtensionMapper mapper = Mockito.mock(ClientEventExtensionMapper.class);
+        Mockito.when(mapper.insertMultiple(Mockito.any())).thenAnswer(invocation -> {
+            storeStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final AsyncBatchEventSaveStrategy strategy = new AsyncBatchEventSaveStrategy(
+                mapper,
+                Mockito.mock(PlatformTransactionManager.class),
+                meterRegistry,
+                1, 1, 1, 0);
+
+        strategy.enable();
+        strategy.recover();
+
+        // the first event blocks the only worker, the second fills the queue and the third gets dropped
+        strategy.accept(new ClientEventRecord());
+        assertTrue(storeStarted.await(5, TimeUnit.SECONDS));
+        strategy.accept(new ClientEventRecord());
+        strategy.accept(new ClientEventRecord());
+
+        assertEquals(1, (int) meterRegistry.get(AsyncBatchEventSaveStrategy.METRIC_QUEUE_SIZE).gauge().value());
+        assertEquals(1.0, meterRegistry.get(AsyncBatchEventSaveStrategy.METRIC_DROPPED).counter().count(), 0.0);
+
+        release.countDown();
+        strategy.shutdown();
+        Mockito.verify(mapper, Mockito.times(2)).insertMultiple(Mockito.any());
+    }
+
+    @Test
+    public void testDropWholeBatchOnFullQueue() throws InterruptedException {
+        final CountDownLatch storeStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ClientEventExtensionMapper mapper = Mockito.mock(ClientEventExtensionMapper.class);
+        Mockito.when(mapper.insertMultiple(Mockito.any())).thenAnswer(invocation -> {
+            storeStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final AsyncBatchEventSaveStrategy strategy = new AsyncBatchEventSaveStrategy(
+                mapper,
+                Mockito.mock(PlatformTransactionManager.class),
+                meterRegistry,
+                1, 1, 3, 100);
+
+        strategy.enable();
+        strategy.recover();
+
+        // the first event blocks the only worker and the second leaves capacity for two more events
+        strategy.accept(new ClientEventRecord());
+        assertTrue(storeStarted.await(5, TimeUnit.SECONDS));
+        strategy.accept(new ClientEventRecord());
+
+        // a batch that does not fit waits at most one offer-timeout and is dropped as a whole
+        final List<ClientEventRecord> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            events.add(new ClientEventRecord());
+        }
+        final long start = System.currentTimeMillis();
+        strategy.acceptAll(events);
+        final long waitTime = System.currentTimeMillis() - start;
+
+        assertTrue("waited " + waitTime + "ms", waitTime < 400);
+        assertEquals(1, (int) meterRegistry.get(AsyncBatchEventSaveStrategy.METRIC_QUEUE_SIZE).gauge().value());
+        assertEquals(5.0, meterRegistry.get(AsyncBatchEventSaveStrategy.METRIC_DROPPED).counter().count(), 0.0);
+
+        // a batch that fits is queued as a whole
+        strategy.acceptAll(events.subList(0, 2));
+        assertEquals(3, (int) meterRegistry.get(AsyncBatchEventSaveStrategy.METRIC_QUEUE_SIZE).gauge().value());
+
+        release.countDown();
+        strategy.shutdown();
+        Mockito.verify(mapper, Mockito.times(4)).insertMultiple(Mockito.any());
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import ch.ethz.seb.sebserver.webservice.WebserviceLeaderElection;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.CacheInvalidationMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.CacheInvalidationMapper.CacheInvalidationRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent.Type;
+
+public class CacheInvalidationBusImplTest {
+
+    @Test
+    public void testPublishNonDistributed() {
+        final CacheInvalidationMapper mapper = Mockito.mock(CacheInvalidationMapper.class);
+        final List<Object> events = new ArrayList<>();
+        final CacheInvalidationBusImpl bus = createBus(mapper, events, false);
+
+        bus.init();
+        bus.invalidateExam(1L);
+        bus.poll();
+
+        assertEquals("[EXAM 1]", toString(events));
+        Mockito.verifyZeroInteractions(mapper);
+    }
+
+    @Test
+    public void testPublishDistributed() {
+        final CacheInvalidationMapper mapper = Mockito.mock(CacheInvalidationMapper.class);
+        final List<Object> events = new ArrayList<>();
+        final CacheInvalidationBusImpl bus = createBus(mapper, events, true);
+
+        bus.invalidateClientConnection("token1");
+
+        assertEquals("[CLIENT_CONNECTION token1]", toString(events));
+        Mockito.verify(mapper).insert(
+                Mockito.eq(Type.CLIENT_CONNECTION.name()),
+                Mockito.eq("token1"),
+                Mockito.eq("self"),
+                Mockito.anyLong());
+    }
+
+    @Test
+    public void testPollDistributed() {
+        final long now = Utils.getMillisecondsNow();
+        final CacheInvalidationMapper mapper = Mockito.mock(CacheInvalidationMapper.class);
+        Mockito.when(mapper.selectLatestId()).thenReturn(5L);
+        final List<Object> events = new ArrayList<>();
+        final CacheInvalidationBusImpl bus = createBus(mapper, events, true);
+        bus.init();
+
+        // invalidation 7 is not visible yet and invalidations of this instance are not applied again
+        Mockito.when(mapper.selectAfter(5L)).thenReturn(Arrays.asList(
+                new CacheInvalidationRecord(6L, Type.EXAM.name(), "1", "other", now),
+                new CacheInvalidationRecord(8L, Type.CLIENT_CONNECTION.name(), "token1", "other", now),
+                new CacheInvalidationRecord(9L, Type.EXAM.name(), "2", "self", now)));
+        bus.poll();
+        assertEquals("[EXAM 1, CLIENT_CONNECTION token1]", toString(events));
+
+        // late invalidation 7 is applied, the others only once
+        events.clear();
+        Mockito.when(mapper.selectAfter(6L)).thenReturn(Arrays.asList(
+                new CacheInvalidationRecord(7L, Type.EXAM.name(), "3", "other", now),
+                new CacheInvalidationRecord(8L, Type.CLIENT_CONNECTION.name(), "token1", "other", now),
+                new CacheInvalidationRecord(9L, Type.EXAM.name(), "2", "self", now)));
+        bus.poll();
+        assertEquals("[EXAM 3]", toString(events));
+
+        // poll position moved to the latest invalidation
+        events.clear();
+        bus.poll();
+        Mockito.verify(mapper).selectAfter(9L);
+        assertTrue(events.isEmpty());
+    }
+
+    private CacheInvalidationBusImpl createBus(
+            final CacheInvalidationMapper mapper,
+            final List<Object> events,
+            final boolean distributed) {
+
+        final WebserviceInfo webserviceInfo = Mockito.mock(WebserviceInfo.class);
+        Mockito.when(webserviceInfo.isDistributed()).thenReturn(distributed);
+        final WebserviceLeaderElection leaderElection = Mockito.mock(WebserviceLeaderElection.class);
+        Mockito.when(leaderElection.getInstanceId()).thenReturn("self");
+
+        return new CacheInvalidationBusImpl(mapper, events::add, webserviceInfo, leaderElection, 1000);
+    }
+
+    private String toString(final List<Object> events) {
+        return events.stream()
+                .map(event -> (CacheInvalidationEvent) event)
+                .map(event -> event.type + " " + event.key)
+                .collect(Collectors.toList())
+                .toString();
+    }
+
+}
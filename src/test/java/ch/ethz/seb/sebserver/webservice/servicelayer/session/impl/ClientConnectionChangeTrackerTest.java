@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.joda.time.DateTimeUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.Threshold;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataChanges;
+import ch.ethz.seb.sebserver.gbl.model.session.IndicatorValue;
+
+public class ClientConnectionChangeTrackerTest {
+
+    @After
+    public void resetTime() {
+        DateTimeUtils.setCurrentMillisSystem();
+    }
+
+    @Test
+    public void testFullAndDeltaChanges() {
+        final ClientConnectionChangeTracker tracker = new ClientConnectionChangeTracker();
+
+        ClientConnectionDataChanges changes = tracker.apply(
+                Arrays.asList(
+                        data(1L, ConnectionStatus.ACTIVE, 0),
+                        data(2L, ConnectionStatus.ACTIVE, 0)),
+                null,
+                Objects::nonNull);
+
+        assertTrue(changes.full);
+        assertEquals("[1, 2]", ids(changes));
+        final String version = changes.version;
+
+        // no changes
+        changes = tracker.apply(
+                Arrays.asList(
+                        data(1L, ConnectionStatus.ACTIVE, 0),
+                        data(2L, ConnectionStatus.ACTIVE, 0)),
+                version,
+                Objects::nonNull);
+
+        assertFalse(changes.full);
+        assertEquals(version, changes.version);
+        assertTrue(changes.changed.isEmpty());
+        assertTrue(changes.removed.isEmpty());
+
+        // indicator value of connection 2 changed and connection 1 removed
+        changes = tracker.apply(
+                Arrays.asList(
+                        data(2L, ConnectionStatus.ACTIVE, 1)),
+                version,
+                Objects::nonNull);
+
+        assertFalse(changes.full);
+        assertNotEquals(version, changes.version);
+        assertEquals("[2]", ids(changes));
+        assertEquals("[1]", String.valueOf(changes.removed));
+
+        // status change to a hidden status is reported as removed
+        changes = tracker.apply(
+                Arrays.asList(
+                        data(2L, ConnectionStatus.DISABLED, 1)),
+                changes.version,
+                data -> data.clientConnection.status != ConnectionStatus.DISABLED);
+
+        assertFalse(changes.full);
+        assertTrue(changes.changed.isEmpty());
+        assertEquals("[2]", String.valueOf(changes.removed));
+
+        // unknown version leads to a full response
+        changes = tracker.apply(
+                Arrays.asList(
+                        data(2L, ConnectionStatus.DISABLED, 1)),
+                "unknown:1",
+                Objects::nonNull);
+
+        assertTrue(changes.full);
+        assertEquals("[2]", ids(changes));
+    }
+
+    @Test
+    public void testPingThresholdLevel() {
+        final ClientConnectionChangeTracker tracker = new ClientConnectionChangeTracker();
+        tracker.updateIndicators(Arrays.asList(new Indicator(
+                1L, 1L, "ping", IndicatorType.LAST_PING, "ffffff",
+                Arrays.asList(new Threshold(2000d, "ff0000")))));
+
+        final String version = tracker.apply(
+                Arrays.asList(pingData(1L, 100)),
+                null,
+                Objects::nonNull).version;
+
+        // ping value changed within the same threshold level
+        ClientConnectionDataChanges changes = tracker.apply(
+                Arrays.asList(pingData(1L, 1500)),
+                version,
+                Objects::nonNull);
+        assertTrue(changes.changed.isEmpty());
+        assertEquals("{1=1500.0}", String.valueOf(changes.pingValues));
+
+        // ping value reached the threshold
+        changes = tracker.apply(
+                Arrays.asList(pingData(1L, 2500)),
+                version,
+                Objects::nonNull);
+        assertEquals("[1]", ids(changes));
+        assertTrue(changes.pingValues.isEmpty());
+    }
+
+    @Test
+    public void testPingWithoutThresholds() {
+        final ClientConnectionChangeTracker tracker = new ClientConnectionChangeTracker();
+        tracker.updateIndicators(Arrays.asList(new Indicator(
+                1L, 1L, "ping", IndicatorType.LAST_PING, "ffffff",
+                Collections.emptyList())));
+
+        final String version = tracker.apply(
+                Arrays.asList(pingData(1L, 100)),
+                null,
+                Objects::nonNull).version;
+
+        // without threshold levels only the ping value is updated
+        final ClientConnectionDataChanges changes = tracker.apply(
+                Arrays.asList(pingData(1L, 1500)),
+                version,
+                Objects::nonNull);
+        assertTrue(changes.changed.isEmpty());
+        assertEquals("{1=1500.0}", String.valueOf(changes.pingValues));
+    }
+
+    @Test
+    public void testCursorOlderThanMaxCursorAge() {
+        final ClientConnectionChangeTracker tracker = new ClientConnectionChangeTracker(1000);
+
+        DateTimeUtils.setCurrentMillisFixed(0);
+        final String firstVersion = tracker.apply(
+                Arrays.asList(
+                        data(1L, ConnectionStatus.ACTIVE, 0),
+                        data(2L, ConnectionStatus.ACTIVE, 0)),
+                null,
+                Objects::nonNull).version;
+
+        // connection 1 removed
+        DateTimeUtils.setCurrentMillisFixed(100);
+        ClientConnectionDataChanges changes = tracker.apply(
+                Arrays.asList(data(2L, ConnectionStatus.ACTIVE, 0)),
+                firstVersion,
+                Objects::nonNull);
+        assertFalse(changes.full);
+        assertEquals("[1]", String.valueOf(changes.removed));
+        final String secondVersion = changes.version;
+
+        // the first version was replaced longer than the maximal cursor age ago
+        DateTimeUtils.setCurrentMillisFixed(2000);
+        changes = tracker.apply(
+                Arrays.asList(data(2L, ConnectionStatus.ACTIVE, 0)),
+                firstVersion,
+                Objects::nonNull);
+        assertTrue(changes.full);
+        assertEquals("[2]", ids(changes));
+
+        // the current version is still valid
+        changes = tracker.apply(
+                Arrays.asList(data(2L, ConnectionStatus.ACTIVE, 0)),
+                secondVersion,
+                Objects::nonNull);
+        assertFalse(changes.full);
+        assertTrue(changes.changed.isEmpty());
+        assertTrue(changes.removed.isEmpty());
+    }
+
+    private static String ids(final ClientConnectionDataChanges changes) {
+        return String.valueOf(changes.changed
+                .stream()
+                .map(ClientConnectionData::getConnectionId)
+                .collect(Collectors.toList()));
+    }
+
+    private static ClientConnectionData data(final Long id, final ConnectionStatus status, final double errors) {
+        return new ClientConnectionData(
+                connection(id, status),
+                Arrays.asList(value(IndicatorType.ERROR_COUNT, errors))) {
+        };
+    }
+
+    private static ClientConnectionData pingData(final Long id, final double ping) {
+        return new ClientConnectionData(
+                connection(id, ConnectionStatus.ACTIVE),
+                Collections.singletonList(value(IndicatorType.LAST_PING, ping))) {
+        };
+    }
+
+    private static ClientConnection connection(final Long id, final ConnectionStatus status) {
+        return new ClientConnection(id, 1L, 1L, status, "token" + id, "user" + id, "", "", 0L);
+    }
+
+    private static IndicatorValue value(final IndicatorType type, final double value) {
+        return new IndicatorValue() {
+
+            @Override
+            public IndicatorType getType() {
+                return type;
+            }
+
+            @Override
+            public double getValue() {
+                return value;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.IndicatorDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent.Type;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.ClientIndicator;
+
+public class ClientIndicatorFactoryTest {
+
+    private final IndicatorDAO indicatorDAO = mock(IndicatorDAO.class);
+    private final ClientIndicatorFactory factory = new ClientIndicatorFactory(
+            this.indicatorDAO,
+            mock(ClientEventRecordMapper.class),
+            mock(ClientEventExtensionMapper.class),
+            mock(ClientIndicatorValueService.class),
+            true);
+
+    @Test
+    public void testIndicatorsAreCreatedFromTemplate() {
+        when(this.indicatorDAO.allForExam(1L)).thenReturn(indicators(
+                new Indicator(1L, 1L, "ping", IndicatorType.LAST_PING, "", threshold(2000d)),
+                new Indicator(2L, 1L, "errors", IndicatorType.ERROR_COUNT, "", threshold(1d))));
+
+        final List<ClientIndicator> indicators1 = this.factory.createFor(connection(1L, 1L));
+        final List<ClientIndicator> indicators2 = this.factory.createFor(connection(2L, 1L));
+
+        // the indicator definitions are loaded only once per exam
+        verify(this.indicatorDAO, times(1)).allForExam(1L);
+
+        assertEquals(2, indicators1.size());
+        assertEquals(2, indicators2.size());
+        assertEquals(IndicatorType.LAST_PING, indicators1.get(0).getType());
+        assertEquals(IndicatorType.ERROR_COUNT, indicators1.get(1).getType());
+        assertEquals(Long.valueOf(1L), indicators1.get(0).connectionId());
+        assertEquals(Long.valueOf(2L), indicators2.get(0).connectionId());
+        assertEquals(Long.valueOf(1L), indicators2.get(1).examId());
+        assertNotSame(indicators1.get(0), indicators2.get(0));
+        assertEquals(2000L, ((PingIntervalClientIndicator) indicators2.get(0)).pingErrorThreshold);
+        assertFalse(((PingIntervalClientIndicator) indicators2.get(0)).hidden);
+    }
+
+    @Test
+    public void testHiddenPingIndicator() {
+        when(this.indicatorDAO.allForExam(1L)).thenReturn(indicators(
+                new Indicator(1L, 1L, "warnings", IndicatorType.WARN_COUNT, "", threshold(1d))));
+
+        final List<ClientIndicator> indicators = this.factory.createFor(connection(1L, 1L));
+
+        assertEquals(2, indicators.size());
+        assertEquals(IndicatorType.WARN_COUNT, indicators.get(0).getType());
+        final PingIntervalClientIndicator pingIndicator = (PingIntervalClientIndicator) indicators.get(1);
+        assertTrue(pingIndicator.hidden);
+        assertEquals(5000L, pingIndicator.pingErrorThreshold);
+    }
+
+    @Test
+    public void testTemplateInvalidation() {
+        when(this.indicatorDAO.allForExam(1L)).thenReturn(indicators(
+                new Indicator(1L, 1L, "ping", IndicatorType.LAST_PING, "", threshold(2000d))));
+        when(this.indicatorDAO.allForExam(2L)).thenReturn(indicators(
+                new Indicator(2L, 2L, "ping", IndicatorType.LAST_PING, "", threshold(2000d))));
+
+        this.factory.createFor(connection(1L, 1L));
+        this.factory.createFor(connection(2L, 2L));
+
+        // an indicator of exam 1 has changed
+        when(this.indicatorDAO.allForExam(1L)).thenReturn(indicators(
+                new Indicator(1L, 1L, "ping", IndicatorType.LAST_PING, "", threshold(3000d))));
+        this.factory.notifyCacheInvalidation(new CacheInvalidationEvent(this, Type.EXAM, "1"));
+
+        final List<ClientIndicator> indicators1 = this.factory.createFor(connection(3L, 1L));
+        this.factory.createFor(connection(4L, 2L));
+
+        verify(this.indicatorDAO, times(2)).allForExam(1L);
+        verify(this.indicatorDAO, times(1)).allForExam(2L);
+        assertEquals(3000L, ((PingIntervalClientIndicator) indicators1.get(0)).pingErrorThreshold);
+
+        this.factory.notifyCacheInvalidation(new CacheInvalidationEvent(this, Type.ALL, null));
+        this.factory.createFor(connection(5L, 2L));
+        verify(this.indicatorDAO, times(2)).allForExam(2L);
+    }
+
+    @Test
+    public void testNoIndicatorsWithoutExam() {
+        assertTrue(this.factory.createFor(connection(1L, null)).isEmpty());
+        verify(this.indicatorDAO, never()).allForExam(any());
+    }
+
+    private static ClientConnection connection(final Long id, final Long examId) {
+        return new ClientConnection(id, 1L, examId, ConnectionStatus.ACTIVE, "token" + id, "user", "", "", 0L);
+    }
+
+    private static Result<Collection<Indicator>> indicators(final Indicator... indicators) {
+        return Result.of(Arrays.asList(indicators));
+    }
+
+    private static Collection<Indicator.Threshold> threshold(final double value) {
+        return Collections.singletonList(new Indicator.Threshold(value, ""));
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mybatis.dynamic.sql.update.UpdateDSL;
+import org.mybatis.dynamic.sql.update.render.UpdateStatementProvider;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+
+public class DistributedServerBatchPingHandlerTest {
+
+    private final ExamSessionCacheService examSessionCacheService = mock(ExamSessionCacheService.class);
+    private final SqlSessionTemplate batchSqlSessionTemplate = mock(SqlSessionTemplate.class);
+    private final ClientEventRecordMapper batchMapper = mock(ClientEventRecordMapper.class);
+    private DistributedServerBatchPingHandler handler;
+
+    @Before
+    public void init() {
+        when(this.batchSqlSessionTemplate.getConfiguration()).thenReturn(mock(Configuration.class));
+        when(this.batchSqlSessionTemplate.getMapper(ClientEventRecordMapper.class)).thenReturn(this.batchMapper);
+        // the update statements are rendered and passed to the mocked update of the mapper
+        when(this.batchMapper.updateByExampleSelective(any(ClientEventRecord.class)))
+                .thenAnswer(invocation -> UpdateDSL.updateWithMapper(
+                        this.batchMapper::update,
+                        ClientEventRecordDynamicSqlSupport.clientEventRecord)
+                        .set(ClientEventRecordDynamicSqlSupport.serverTime)
+                        .equalTo(invocation.<ClientEventRecord> getArgument(0).getServerTime()));
+        this.handler = new DistributedServerBatchPingHandler(
+                this.examSessionCacheService,
+                mock(ClientEventRecordMapper.class),
+                this.batchSqlSessionTemplate,
+                mock(PlatformTransactionManager.class));
+
+        for (long id = 1; id <= 3; id++) {
+            when(this.examSessionCacheService.getActiveClientConnection("token" + id))
+                    .thenReturn(new ClientConnectionDataInternal(
+                            new ClientConnection(id, 1L, 1L, ConnectionStatus.ACTIVE, "token" + id, "user", "", "",
+                                    0L),
+                            Collections.emptyList()));
+        }
+    }
+
+    @Test
+    public void testPingsOfOneConnectionAreCoalesced() {
+        this.handler.notifyPing("token1", 1000L, 1);
+        this.handler.notifyPing("token1", 2000L, 2);
+        this.handler.notifyPing("token2", 1000L, 1);
+        this.handler.notifyPing("unknown", 1000L, 1);
+        assertEquals(2, this.handler.getPendingPingCount());
+
+        this.handler.storePendingPings();
+
+        assertEquals(0, this.handler.getPendingPingCount());
+        final ArgumentCaptor<UpdateStatementProvider> statements =
+                ArgumentCaptor.forClass(UpdateStatementProvider.class);
+        verify(this.batchMapper, times(2)).update(statements.capture());
+        verify(this.batchSqlSessionTemplate, times(1)).flushStatements();
+
+        // one update per connection on the last ping event of the connection
+        assertTrue(statements.getValue().getUpdateStatement().contains("where client_connection_id = "));
+        assertTrue(statements.getAllValues()
+                .stream()
+                .anyMatch(statement -> statement.getParameters().containsValue(1L)));
+        assertTrue(statements.getAllValues()
+                .stream()
+                .anyMatch(statement -> statement.getParameters().containsValue(2L)));
+    }
+
+    @Test
+    public void testPingsAreKeptOnFailedStore() {
+        this.handler.notifyPing("token1", 1000L, 1);
+        this.handler.notifyPing("token2", 1000L, 1);
+        when(this.batchSqlSessionTemplate.flushStatements()).thenThrow(new RuntimeException("store failed"));
+
+        this.handler.storePendingPings();
+
+        // the failed pings are stored with the next batch
+        assertEquals(2, this.handler.getPendingPingCount());
+
+        reset(this.batchSqlSessionTemplate);
+        this.handler.notifyPing("token3", 1000L, 1);
+        this.handler.storePendingPings();
+
+        assertEquals(0, this.handler.getPendingPingCount());
+        verify(this.batchMapper, times(5)).update(any(UpdateStatementProvider.class));
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamStatusSchedule.Entry;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamStatusSchedule.Transition;
+
+public class ExamStatusScheduleTest {
+
+    private static final DateTime START = new DateTime(2020, 6, 1, 10, 0, DateTimeZone.UTC);
+
+    @Test
+    public void testScheduleAndPollDue() {
+        final ExamStatusSchedule schedule = new ExamStatusSchedule(1000, 2000);
+
+        schedule.reset(Arrays.asList(
+                exam(1L, ExamStatus.UP_COMING, START, START.plusHours(1), true),
+                exam(2L, ExamStatus.RUNNING, START.minusHours(1), START, true),
+                exam(3L, ExamStatus.FINISHED, START.minusHours(2), START.minusHours(1), true),
+                exam(4L, ExamStatus.UP_COMING, START, START.plusHours(1), false),
+                exam(5L, ExamStatus.RUNNING, START, null, true)));
+
+        assertEquals(2, schedule.size());
+        assertEquals(Transition.RUN, schedule.get(1L).transition);
+        assertEquals(START.getMillis() - 1000, schedule.get(1L).time);
+        assertEquals(Transition.FINISH, schedule.get(2L).transition);
+        assertEquals(START.getMillis() + 2000, schedule.get(2L).time);
+
+        assertTrue(schedule.pollDue(START.getMillis() - 1001).isEmpty());
+        assertEquals("[1]", ids(schedule.pollDue(START.getMillis())));
+        assertEquals("[2]", ids(schedule.pollDue(START.getMillis() + 2000)));
+        assertEquals(0, schedule.size());
+        assertTrue(schedule.pollDue(Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        final ExamStatusSchedule schedule = new ExamStatusSchedule(0, 0);
+
+        schedule.update(exam(1L, ExamStatus.UP_COMING, START, START.plusHours(1), true));
+        schedule.update(exam(2L, ExamStatus.UP_COMING, START.plusMinutes(10), START.plusHours(1), true));
+
+        // moved start time replaces the former transition
+        schedule.update(exam(1L, ExamStatus.UP_COMING, START.plusMinutes(20), START.plusHours(1), true));
+        assertEquals("[2]", ids(schedule.pollDue(START.plusMinutes(10).getMillis())));
+        assertEquals("[1]", ids(schedule.pollDue(START.plusMinutes(20).getMillis())));
+
+        // running exam is scheduled to finish
+        schedule.update(exam(1L, ExamStatus.RUNNING, START.plusMinutes(20), START.plusHours(1), true));
+        assertEquals(Transition.FINISH, schedule.get(1L).transition);
+
+        // deactivated and removed exams are not scheduled anymore
+        schedule.update(exam(1L, ExamStatus.RUNNING, START.plusMinutes(20), START.plusHours(1), false));
+        assertNull(schedule.get(1L));
+        schedule.update(exam(2L, ExamStatus.RUNNING, START, START.plusHours(1), true));
+        schedule.remove(2L);
+        assertNull(schedule.get(2L));
+        assertTrue(schedule.pollDue(Long.MAX_VALUE).isEmpty());
+    }
+
+    private static String ids(final List<Entry> entries) {
+        return entries.stream()
+                .map(entry -> entry.examId)
+                .collect(Collectors.toList())
+                .toString();
+    }
+
+    private static Exam exam(
+            final Long id,
+            final ExamStatus status,
+            final DateTime startTime,
+            final DateTime endTime,
+            final boolean active) {
+
+        return new Exam(
+                id, 1L, 1L, "quiz" + id, "exam" + id, null, startTime, endTime, null,
+                null, "owner", null, status, null, active, null);
+    }
+
+}
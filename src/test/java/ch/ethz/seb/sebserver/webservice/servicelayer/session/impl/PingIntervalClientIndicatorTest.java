@@ -9,6 +9,9 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
 
 import org.joda.time.DateTimeUtils;
 import org.junit.Test;
@@ -17,6 +20,10 @@ import org.mockito.Mockito;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
 
 public class PingIntervalClientIndicatorTest {
@@ -29,7 +36,9 @@ public class PingIntervalClientIndicatorTest {
         final ClientEventExtensionMapper clientEventExtensionMapper = Mockito.mock(ClientEventExtensionMapper.class);
 
         final PingIntervalClientIndicator pingIntervalClientIndicator =
-                new PingIntervalClientIndicator(clientEventExtensionMapper);
+                new PingIntervalClientIndicator(
+                        clientEventExtensionMapper,
+                        Mockito.mock(ClientIndicatorValueService.class));
         assertEquals("0.0", String.valueOf(pingIntervalClientIndicator.getValue()));
     }
 
@@ -40,7 +49,9 @@ public class PingIntervalClientIndicatorTest {
         final ClientEventExtensionMapper clientEventExtensionMapper = Mockito.mock(ClientEventExtensionMapper.class);
 
         final PingIntervalClientIndicator pingIntervalClientIndicator =
-                new PingIntervalClientIndicator(clientEventExtensionMapper);
+                new PingIntervalClientIndicator(
+                        clientEventExtensionMapper,
+                        Mockito.mock(ClientIndicatorValueService.class));
         assertEquals("0.0", String.valueOf(pingIntervalClientIndicator.getValue()));
 
         DateTimeUtils.setCurrentMillisFixed(10);
@@ -48,6 +59,42 @@ public class PingIntervalClientIndicatorTest {
         assertEquals("9.0", String.valueOf(pingIntervalClientIndicator.getValue()));
     }
 
+    @Test
+    public void testMissingPingWithoutCaching() {
+        DateTimeUtils.setCurrentMillisFixed(1);
+
+        final ClientIndicatorValueService clientIndicatorValueService =
+                Mockito.mock(ClientIndicatorValueService.class);
+        final PingIntervalClientIndicator pingIntervalClientIndicator =
+                new PingIntervalClientIndicator(
+                        Mockito.mock(ClientEventExtensionMapper.class),
+                        clientIndicatorValueService);
+        pingIntervalClientIndicator.init(
+                new Indicator(1L, 1L, "ping", IndicatorType.LAST_PING, "",
+                        Arrays.asList(new Indicator.Threshold(1000d, ""))),
+                1L,
+                false);
+
+        // the client pings another webservice instance
+        Mockito.when(clientIndicatorValueService.getLastPing(1L, 1L)).thenReturn(1000L);
+        DateTimeUtils.setCurrentMillisFixed(1500);
+        assertEquals("500.0", String.valueOf(pingIntervalClientIndicator.getValue()));
+        assertNull(pingIntervalClientIndicator.updateLogEvent());
+
+        // the client stops pinging
+        DateTimeUtils.setCurrentMillisFixed(2500);
+        final ClientEventRecord missingPing = pingIntervalClientIndicator.updateLogEvent();
+        assertEquals(Integer.valueOf(EventType.ERROR_LOG.id), missingPing.getType());
+        assertEquals("Missing Client Ping", missingPing.getText());
+
+        // the client pings this webservice instance again
+        pingIntervalClientIndicator.notifyPing(2500, 1);
+        DateTimeUtils.setCurrentMillisFixed(2600);
+        final ClientEventRecord backToNormal = pingIntervalClientIndicator.updateLogEvent();
+        assertEquals(Integer.valueOf(EventType.INFO_LOG.id), backToNormal.getType());
+        assertEquals("Client Ping Back To Normal", backToNormal.getText());
+    }
+
     @Test
     public void testSerialization() throws JsonProcessingException {
         DateTimeUtils.setCurrentMillisFixed(1);
@@ -55,7 +102,9 @@ public class PingIntervalClientIndicatorTest {
         final ClientEventExtensionMapper clientEventExtensionMapper = Mockito.mock(ClientEventExtensionMapper.class);
 
         final PingIntervalClientIndicator pingIntervalClientIndicator =
-                new PingIntervalClientIndicator(clientEventExtensionMapper);
+                new PingIntervalClientIndicator(
+                        clientEventExtensionMapper,
+                        Mockito.mock(ClientIndicatorValueService.class));
         final JSONMapper jsonMapper = new JSONMapper();
         final String json = jsonMapper.writeValueAsString(pingIntervalClientIndicator);
         assertEquals("{\"indicatorValue\":0.0,\"indicatorType\":\"LAST_PING\"}", json);
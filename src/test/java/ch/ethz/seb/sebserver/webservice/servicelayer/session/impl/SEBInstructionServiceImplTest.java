@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientInstruction.InstructionType;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientInstructionRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientInstructionDAO;
+
+public class SEBInstructionServiceImplTest {
+
+    @Test
+    public void testOrderedDeliveryAndBatchDelete() {
+        final ClientConnectionDAO clientConnectionDAO = Mockito.mock(ClientConnectionDAO.class);
+        Mockito.when(clientConnectionDAO.getConnectionTokens(1L))
+                .thenReturn(Result.of(Arrays.asList("token1", "token2")));
+        final ClientInstructionDAO clientInstructionDAO = Mockito.mock(ClientInstructionDAO.class);
+        Mockito.when(clientInstructionDAO.insert(
+                1L, InstructionType.SEB_QUIT, "", Arrays.asList("token1", "token2")))
+                .thenReturn(Result.of(Arrays.asList(
+                        new ClientInstructionRecord(1L, 1L, "token1", "SEB_QUIT", ""),
+                        new ClientInstructionRecord(2L, 1L, "token2", "SEB_QUIT", ""))));
+        Mockito.when(clientInstructionDAO.insert(
+                1L, InstructionType.SEB_QUIT, "\"message\":\"bye\"", Arrays.asList("token1")))
+                .thenReturn(Result.of(Arrays.asList(
+                        new ClientInstructionRecord(3L, 1L, "token1", "SEB_QUIT", "\"message\":\"bye\""))));
+        Mockito.when(clientInstructionDAO.delete(Mockito.<Long> anyCollection())).thenReturn(Result.of(2));
+
+        final SEBInstructionServiceImpl service = new SEBInstructionServiceImpl(
+                Mockito.mock(WebserviceInfo.class),
+                clientConnectionDAO,
+                clientInstructionDAO);
+
+        // the instruction is registered only for active connections and with one insert
+        service.registerInstruction(1L, InstructionType.SEB_QUIT, Collections.emptyMap(),
+                new HashSet<>(Arrays.asList("token1", "token2", "token3")))
+                .getOrThrow();
+        service.registerInstruction(1L, InstructionType.SEB_QUIT, Collections.singletonMap("message", "bye"),
+                new HashSet<>(Arrays.asList("token1")))
+                .getOrThrow();
+
+        // all instructions of a connection are delivered in the order of registration
+        assertEquals("{\"instruction\":\"SEB_QUIT\"}", json(service.getInstruction("token1")));
+        assertEquals(
+                "{\"instruction\":\"SEB_QUIT\",\"attributes\":{\"message\":\"bye\"}}",
+                json(service.getInstruction("token1")));
+        assertNull(service.getInstruction("token1"));
+        assertNull(service.getInstruction("token3"));
+        Mockito.verify(clientInstructionDAO, Mockito.never()).delete(Mockito.anyLong());
+
+        // the delivered instructions are deleted in one batch
+        service.deleteDeliveredInstructions();
+        Mockito.verify(clientInstructionDAO).delete(Arrays.asList(1L, 3L));
+        service.deleteDeliveredInstructions();
+        Mockito.verify(clientInstructionDAO, Mockito.times(1)).delete(Mockito.<Long> anyCollection());
+
+        assertEquals("{\"instruction\":\"SEB_QUIT\"}", json(service.getInstruction("token2")));
+    }
+
+    private static String json(final byte[] instruction) {
+        return new String(instruction, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.weblayer.api;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+
+import org.joda.time.DateTimeUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import ch.ethz.seb.sebserver.gbl.api.API;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.SEBClientConnectionService;
+import ch.ethz.seb.sebserver.webservice.weblayer.oauth.WebClientDetailsService;
+import ch.ethz.seb.sebserver.webservice.weblayer.oauth.WebserviceResourceConfiguration;
+
+public class ExamAPIPingFilterTest {
+
+    private final SEBClientConnectionService sebClientConnectionService = mock(SEBClientConnectionService.class);
+    private final TokenStore tokenStore = mock(TokenStore.class);
+    private final WebClientDetailsService webClientDetailsService = mock(WebClientDetailsService.class);
+    private final ExamAPIPingFilter filter = new ExamAPIPingFilter(
+            this.sebClientConnectionService,
+            this.tokenStore,
+            this.webClientDetailsService,
+            60000);
+
+    @Before
+    public void init() {
+        DateTimeUtils.setCurrentMillisSystem();
+        mockAccessToken("examToken", WebserviceResourceConfiguration.EXAM_API_RESOURCE_ID);
+        mockAccessToken("adminToken", WebserviceResourceConfiguration.ADMIN_API_RESOURCE_ID);
+    }
+
+    @Test
+    public void testPingWithValidatedAccessToken() throws Exception {
+        final MockFilterChain chain1 = new MockFilterChain();
+        final MockHttpServletResponse response1 = new MockHttpServletResponse();
+        this.filter.doFilter(ping("examToken", "1000", "1"), response1, chain1);
+
+        final MockFilterChain chain2 = new MockFilterChain();
+        final MockHttpServletResponse response2 = new MockHttpServletResponse();
+        this.filter.doFilter(ping("examToken", "2000", "2"), response2, chain2);
+
+        // both pings are handled by the filter and the access token is validated only once
+        assertNull(chain1.getRequest());
+        assertNull(chain2.getRequest());
+        assertEquals(204, response1.getStatus());
+        assertEquals(204, response2.getStatus());
+        verify(this.sebClientConnectionService).notifyPing("connection1", 1000L, 1);
+        verify(this.sebClientConnectionService).notifyPing("connection1", 2000L, 2);
+        verify(this.tokenStore, times(1)).readAccessToken("examToken");
+    }
+
+    @Test
+    public void testPingWithInstruction() throws Exception {
+        final byte[] instruction = "{\"instruction\":\"SEB_QUIT\"}".getBytes(StandardCharsets.UTF_8);
+        when(this.sebClientConnectionService.notifyPing("connection1", 1000L, -1)).thenReturn(instruction);
+
+        final MockHttpServletRequest request = ping("examToken", "1000", null);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_UTF8_VALUE, response.getContentType());
+        assertArrayEquals(instruction, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testPingPassedToFilterChain() throws Exception {
+        // unknown access token
+        assertPassedToFilterChain(ping("unknownToken", "1000", "1"));
+        // access token of another resource
+        assertPassedToFilterChain(ping("adminToken", "1000", "1"));
+        // no access token
+        assertPassedToFilterChain(ping(null, "1000", "1"));
+        // malformed ping
+        assertPassedToFilterChain(ping("examToken", "now", "1"));
+
+        verify(this.sebClientConnectionService, never()).notifyPing(any(), anyLong(), anyInt());
+    }
+
+    private void assertPassedToFilterChain(final MockHttpServletRequest request) throws Exception {
+        final MockFilterChain chain = new MockFilterChain();
+        this.filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertSame(request, chain.getRequest());
+    }
+
+    private void mockAccessToken(final String tokenValue, final String resourceId) {
+        final DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(tokenValue);
+        accessToken.setExpiration(new Date(System.currentTimeMillis() + 3600000));
+        final OAuth2Request oAuth2Request = new OAuth2Request(
+                Collections.emptyMap(),
+                "client",
+                Collections.emptyList(),
+                true,
+                Collections.emptySet(),
+                Collections.singleton(resourceId),
+                null,
+                Collections.emptySet(),
+                Collections.emptyMap());
+        when(this.tokenStore.readAccessToken(tokenValue)).thenReturn(accessToken);
+        when(this.tokenStore.readAuthentication(accessToken)).thenReturn(new OAuth2Authentication(oAuth2Request, null));
+    }
+
+    private static MockHttpServletRequest ping(
+            final String accessToken,
+            final String timestamp,
+            final String pingNumber) {
+
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/exam-api/v1/sebping");
+        if (accessToken != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+        }
+        request.addHeader(API.EXAM_API_SEB_CONNECTION_TOKEN, "connection1");
+        request.addParameter(API.EXAM_API_PING_TIMESTAMP, timestamp);
+        if (pingNumber != null) {
+            request.addParameter(API.EXAM_API_PING_NUMBER, pingNumber);
+        }
+        return request;
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.weblayer.oauth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.client.BaseClientDetails;
+
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ClientConfigService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.CacheInvalidationEvent.Type;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class WebClientDetailsServiceTest {
+
+    @Test
+    public void testClientDetailsCache() {
+        final ClientConfigService clientConfigService = Mockito.mock(ClientConfigService.class);
+        final ClientDetails clientDetails = new BaseClientDetails();
+        Mockito.when(clientConfigService.getClientConfigDetails("client"))
+                .thenReturn(Result.of(clientDetails));
+        Mockito.when(clientConfigService.getClientConfigDetails("unknown"))
+                .thenReturn(Result.ofError(new RuntimeException("unknown client")));
+
+        final CacheManager cacheManager = new CaffeineCacheManager();
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final WebClientDetailsService webClientDetailsService = new WebClientDetailsService(
+                new AdminAPIClientDetails(new BCryptPasswordEncoder(4), "admin", "admin", 3600, -1),
+                clientConfigService,
+                cacheManager,
+                meterRegistry);
+
+        // loaded only once
+        assertSame(clientDetails, webClientDetailsService.loadClientByClientId("client"));
+        assertSame(clientDetails, webClientDetailsService.loadClientByClientId("client"));
+        Mockito.verify(clientConfigService, Mockito.times(1)).getClientConfigDetails("client");
+        assertEquals(1, meterRegistry.timer(WebClientDetailsService.METRIC_CLIENT_DETAILS_LOAD).count());
+
+        // errors are not cached
+        assertTrue(webClientDetailsService.getForExamClientAPI("unknown").hasError());
+        assertTrue(webClientDetailsService.getForExamClientAPI("unknown").hasError());
+        Mockito.verify(clientConfigService, Mockito.times(2)).getClientConfigDetails("unknown");
+
+        // loaded again after invalidation
+        webClientDetailsService.notifyCacheInvalidation(new CacheInvalidationEvent(this, Type.CLIENT_DETAILS, null));
+        assertSame(clientDetails, webClientDetailsService.loadClientByClientId("client"));
+        Mockito.verify(clientConfigService, Mockito.times(2)).getClientConfigDetails("client");
+
+        // not evicted by the invalidation of another cache
+        webClientDetailsService.notifyCacheInvalidation(new CacheInvalidationEvent(this, Type.EXAM, "1"));
+        assertSame(clientDetails, webClientDetailsService.loadClientByClientId("client"));
+        Mockito.verify(clientConfigService, Mockito.times(2)).getClientConfigDetails("client");
+    }
+
+}
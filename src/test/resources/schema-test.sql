@@ -64,6 +64,11 @@ CREATE TABLE IF NOT EXISTS `exam` (
   `updating` INT(1) NOT NULL,
   `lastUpdate` VARCHAR(255) NULL,
   `active` INT(1) NOT NULL,
+  `quiz_name` VARCHAR(255) NULL,
+  `quiz_description` TEXT NULL,
+  `quiz_start_time` DATETIME NULL,
+  `quiz_end_time` DATETIME NULL,
+  `quiz_start_url` VARCHAR(4000) NULL,
   PRIMARY KEY (`id`),
   INDEX `lms_setup_key_idx` (`lms_setup_id` ASC),
   INDEX `institution_key_idx` (`institution_id` ASC),
@@ -135,6 +140,64 @@ CREATE TABLE IF NOT EXISTS `client_event` (
 ;
 
 
+-- -----------------------------------------------------
+-- Table `client_event_archive`
+-- -----------------------------------------------------
+DROP TABLE IF EXISTS `client_event_archive` ;
+
+CREATE TABLE IF NOT EXISTS `client_event_archive` (
+  `id` BIGINT UNSIGNED NOT NULL,
+  `client_connection_id` BIGINT UNSIGNED NOT NULL,
+  `type` INT(2) UNSIGNED NOT NULL,
+  `client_time` BIGINT UNSIGNED NOT NULL,
+  `server_time` BIGINT NOT NULL,
+  `numeric_value` DECIMAL(10,4) NULL,
+  `text` VARCHAR(512) NULL,
+  PRIMARY KEY (`id`))
+;
+
+
+-- -----------------------------------------------------
+-- Table `cache_invalidation`
+-- -----------------------------------------------------
+DROP TABLE IF EXISTS `cache_invalidation` ;
+
+CREATE TABLE IF NOT EXISTS `cache_invalidation` (
+  `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  `type` VARCHAR(45) NOT NULL,
+  `entity_key` VARCHAR(255) NULL,
+  `origin` VARCHAR(255) NOT NULL,
+  `event_time` BIGINT UNSIGNED NOT NULL,
+  PRIMARY KEY (`id`))
+;
+
+
+-- -----------------------------------------------------
+-- Table `configuration_key`
+-- -----------------------------------------------------
+DROP TABLE IF EXISTS `configuration_key` ;
+
+CREATE TABLE IF NOT EXISTS `configuration_key` (
+  `configuration_id` BIGINT UNSIGNED NOT NULL,
+  `config_key` VARCHAR(255) NULL,
+  `reservation` VARCHAR(45) NULL,
+  PRIMARY KEY (`configuration_id`))
+;
+
+
+-- -----------------------------------------------------
+-- Table `client_event_count`
+-- -----------------------------------------------------
+DROP TABLE IF EXISTS `client_event_count` ;
+
+CREATE TABLE IF NOT EXISTS `client_event_count` (
+  `client_connection_id` BIGINT UNSIGNED NOT NULL,
+  `type` INT(2) UNSIGNED NOT NULL,
+  `event_count` BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (`client_connection_id`, `type`))
+;
+
+
 -- -----------------------------------------------------
 -- Table `indicator`
 -- -----------------------------------------------------
@@ -505,9 +568,11 @@ CREATE TABLE IF NOT EXISTS `seb_client_configuration` (
 DROP TABLE IF EXISTS `webservice_server_info` ;
 
 CREATE TABLE IF NOT EXISTS `webservice_server_info` (
-  `id` BIGINT UNSIGNED NOT NULL,
+  `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
   `uuid` VARCHAR(255) NOT NULL,
   `service_address` VARCHAR(255) NOT NULL,
+  `master` INT(1) NOT NULL DEFAULT 0,
+  `update_time` BIGINT UNSIGNED NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`))
 ;
 